@@ -37,7 +37,8 @@ public class DevGui {
         //gameBoy.setBootrom("/Users/ismaelrh/gb/dmg_boot.bin");
         startGUI(gameBoy, lcd.getDisplayPanel(), displayTileset0.getDisplayPanel(), displayTileset1.getDisplayPanel());
         gameBoy.run(new GameBoyOptions(5000000,1));
-        System.out.println("Finished execution. Cycles = " + gameBoy.getTotalCycles() +  " LCD md5=" + lcd.getHash());
+        System.out.println("Finished execution. Cycles = " + gameBoy.getTotalCycles() +  " LCD md5=" + lcd.getHash()
+                + " Idle cycles skipped = " + gameBoy.getControlUnit().getIdleLoopDetector().getSkippedCycles());
     }
 
     private static JFrame startGUI(GameBoy gameBoy, JPanel display, JPanel tileset0, JPanel tileset1) {
@@ -0,0 +1,11 @@
+package com.ismaelrh.gameboy;
+
+public enum ExecutionMode {
+
+    //Fetches, decodes and executes one instruction at a time, checking interruptions after every one
+    INTERPRETER,
+
+    //Executes cached basic blocks, leaving a block as soon as an interruption can be serviced after one of its
+    //instructions, so they are attended after the same instruction as when interpreting
+    BLOCK_CACHE
+}
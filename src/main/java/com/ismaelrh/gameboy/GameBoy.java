@@ -6,10 +6,14 @@ import com.ismaelrh.gameboy.cpu.Registers;
 import com.ismaelrh.gameboy.cpu.cartridge.Cartridge;
 import com.ismaelrh.gameboy.cpu.cartridge.CartridgeFactory;
 import com.ismaelrh.gameboy.cpu.memory.Memory;
+import com.ismaelrh.gameboy.cpu.memory.OamDma;
 import com.ismaelrh.gameboy.cpu.periphericals.timer.Timer;
 import com.ismaelrh.gameboy.cpu.periphericals.timer.Timer2;
+import com.ismaelrh.gameboy.cpu.scheduler.Scheduler;
 import com.ismaelrh.gameboy.debug.debugger.DebuggerController;
+import com.ismaelrh.gameboy.debug.trace.MemoryTracer;
 import com.ismaelrh.gameboy.gpu.Gpu;
+import com.ismaelrh.gameboy.gpu.lcd.FrameHasher;
 import com.ismaelrh.gameboy.gpu.lcd.Lcd;
 import com.ismaelrh.gameboy.input.InputDevice;
 import com.ismaelrh.gameboy.input.InputState;
@@ -21,6 +25,7 @@ public class GameBoy {
 
     private final Memory memory;
     private final Registers registers;
+    private final Scheduler scheduler;
     private final Timer timer;
     private final Gpu gpu;
     private final ControlUnit controlUnit;
@@ -29,7 +34,11 @@ public class GameBoy {
     private final Lcd lcd;
     private Cartridge cartridge;
     private List<FrameFinishedListener> frameFinishedListeners = new ArrayList<>();
-    private long totalCycles;
+
+    private GameBoyOptions options;
+    private final int frameEvent;
+    private final int cyclesLimitEvent;
+    private long nanosStartFrame;
 
     private volatile boolean paused = false;
 
@@ -38,11 +47,17 @@ public class GameBoy {
         this.memory = new Memory();
         this.registers = new Registers();
         registers.initForRealGB();
+        this.scheduler = new Scheduler();
 
-        this.timer = new Timer(memory);
+        this.timer = new Timer(memory, scheduler);
         this.lcd = lcd;
-        this.gpu = new Gpu(memory, lcd);
-        this.controlUnit = new ControlUnit(registers, memory);
+        this.gpu = new Gpu(memory, lcd, scheduler);
+        this.controlUnit = new ControlUnit(registers, memory, scheduler);
+        this.frameEvent = scheduler.register(this::onFrameEvent);   //After peripherals, so they go first on ties
+        this.cyclesLimitEvent = scheduler.register(deadline -> {
+            //Nothing to do, but halted CPUs are not fast-forwarded past it
+        });
+        memory.setOamDma(new OamDma(memory, scheduler));
 
         this.inputDevice = new InputDevice(memory);
 
@@ -78,45 +93,58 @@ public class GameBoy {
 
     //TODO: set speed, etc.
     public void run(GameBoyOptions options) throws Exception {
-        double remainingCyclesPerFrame = Const.CYCLES_PER_FRAME;
-        long nanosStartFrame = System.nanoTime();
+        this.options = options;
+        nanosStartFrame = System.nanoTime();
+        scheduleNextFrame();
+        if (options.getCycles() != -1) {
+            scheduler.schedule(cyclesLimitEvent, options.getCycles());
+        }
+        gpu.setFrameSkip(options.getRenderInterval(), getRenderFromClock(options));
+        boolean blockMode = options.getExecutionMode() == ExecutionMode.BLOCK_CACHE;
 
-        while (options.getCycles() == -1 || totalCycles < options.getCycles()) {
+        while (options.getCycles() == -1 || scheduler.getClock() < options.getCycles()) {
 
             if(!paused){
-                int instrCycles = controlUnit.runInstruction();
+                //In block mode, peripherals are advanced after every instruction of the block but the last one
+                int instrCycles = blockMode ? controlUnit.runBlock() : controlUnit.runInstruction();
                 controlUnit.checkInterruptions();
-                for(int i = 0; i < instrCycles; i++){
-                    timer.tick();
-                }
-
-                gpu.tick(instrCycles);
-
-                remainingCyclesPerFrame -= instrCycles;
-
-                if (remainingCyclesPerFrame <= 0) {
-                    callFrameFinishedListeners();
-                    if(options.getSpeed()!=-1){
-                        long nanosEndFrame = System.nanoTime();
-                        long elapsedTimeNanos = (nanosEndFrame - nanosStartFrame);
-                        long remainingTimeNanos = Const.NANOS_PER_FRAME - elapsedTimeNanos;
-
-                        if (remainingTimeNanos > 0) {
-                            long millisToSleep = remainingTimeNanos / 1000000;
-                            int nanosToSleep = (int) (remainingTimeNanos - millisToSleep * 1000000);
-                            Thread.sleep(millisToSleep, nanosToSleep);
-                        }
-                        nanosStartFrame = System.nanoTime();
-                    }
-                    remainingCyclesPerFrame = Const.CYCLES_PER_FRAME;
-
-                }
-                totalCycles += instrCycles;
+                scheduler.advance(instrCycles);
             }
 
         }
     }
 
+    //The screen at the end mixes the frame being drawn with the one before, so both are drawn, with some margin
+    private long getRenderFromClock(GameBoyOptions options) {
+        if (!options.isRenderLastFrameOnly() || options.getCycles() == -1) {
+            return 0;
+        }
+        return options.getCycles() - 3 * (long) Math.ceil(Const.CYCLES_PER_FRAME);
+    }
+
+    //Fired by the scheduler every CYCLES_PER_FRAME cycles
+    private void onFrameEvent(long deadline) throws InterruptedException {
+        callFrameFinishedListeners();
+        if(options.getSpeed()!=-1){
+            long nanosEndFrame = System.nanoTime();
+            long elapsedTimeNanos = (nanosEndFrame - nanosStartFrame);
+            long remainingTimeNanos = Const.NANOS_PER_FRAME - elapsedTimeNanos;
+
+            if (remainingTimeNanos > 0) {
+                long millisToSleep = remainingTimeNanos / 1000000;
+                int nanosToSleep = (int) (remainingTimeNanos - millisToSleep * 1000000);
+                Thread.sleep(millisToSleep, nanosToSleep);
+            }
+            nanosStartFrame = System.nanoTime();
+        }
+        scheduleNextFrame();
+    }
+
+    //Counted from the current clock, as frames are reported once the instruction that reached them finishes
+    private void scheduleNextFrame() {
+        scheduler.schedule(frameEvent, scheduler.getClock() + (long) Math.ceil(Const.CYCLES_PER_FRAME));
+    }
+
     public void togglePause(){
         paused = !paused;
     }
@@ -156,6 +184,33 @@ public class GameBoy {
     }
 
 
+    /**
+     * Starts recording the last given number of memory accesses. Loops are no longer optimized, so none is missed.
+     */
+    public MemoryTracer startMemoryTrace(int capacity) {
+        MemoryTracer tracer = new MemoryTracer(scheduler, registers, capacity);
+        memory.setAccessListener(tracer);
+        return tracer;
+    }
+
+    public void stopMemoryTrace() {
+        memory.setAccessListener(null);
+    }
+
+    /**
+     * Starts hashing every frame drawn, from the next one. Skipped frames are not, so a render interval of 1
+     * gives a hash for every frame.
+     */
+    public FrameHasher startFrameHashing() {
+        FrameHasher hasher = new FrameHasher();
+        gpu.setFrameHasher(hasher);
+        return hasher;
+    }
+
+    public void stopFrameHashing() {
+        gpu.setFrameHasher(null);
+    }
+
     private void callFrameFinishedListeners() {
         for (FrameFinishedListener listener : frameFinishedListeners) {
             listener.frameFinished(this);
@@ -163,7 +218,11 @@ public class GameBoy {
     }
 
     public long getTotalCycles() {
-        return totalCycles;
+        return scheduler.getClock();
+    }
+
+    public Scheduler getScheduler() {
+        return scheduler;
     }
 
     public Lcd getLcd() {
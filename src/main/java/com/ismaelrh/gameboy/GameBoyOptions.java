@@ -6,6 +6,13 @@ public class GameBoyOptions {
 
     private long speed = 1;
 
+    private ExecutionMode executionMode = ExecutionMode.INTERPRETER;
+
+    //Only 1 of every renderInterval frames is drawn
+    private int renderInterval = 1;
+
+    //Only the frames right before the cycles limit are drawn
+    private boolean renderLastFrameOnly = false;
 
     public GameBoyOptions(long cycles, long speed) {
         this.cycles = cycles;
@@ -27,4 +34,38 @@ public class GameBoyOptions {
     public void setSpeed(long speed) {
         this.speed = speed;
     }
+
+    public ExecutionMode getExecutionMode() {
+        return executionMode;
+    }
+
+    public void setExecutionMode(ExecutionMode executionMode) {
+        this.executionMode = executionMode;
+    }
+
+    public int getRenderInterval() {
+        return renderInterval;
+    }
+
+    /**
+     * Draws only one of every given number of frames, like for fast-forwarding. Skipped ones are emulated the same,
+     * but nothing is drawn nor sent to the Lcd.
+     */
+    public void setRenderInterval(int renderInterval) {
+        if (renderInterval < 1) {
+            throw new IllegalArgumentException("Render interval must be at least 1, got " + renderInterval);
+        }
+        this.renderInterval = renderInterval;
+    }
+
+    public boolean isRenderLastFrameOnly() {
+        return renderLastFrameOnly;
+    }
+
+    /**
+     * When running a given number of cycles, draws only the last frames, so the screen at the end is the same.
+     */
+    public void setRenderLastFrameOnly(boolean renderLastFrameOnly) {
+        this.renderLastFrameOnly = renderLastFrameOnly;
+    }
 }
@@ -0,0 +1,114 @@
+package com.ismaelrh.gameboy.cpu;
+
+/**
+ * The 8-bit registers, by the code opcodes use for them (B = 0 .. L = 5, A = 7).
+ * Lets an opcode resolve its operands once, instead of going through Registers.getByCode() every time.
+ */
+public enum ByteRegister {
+
+    B {
+        @Override
+        public byte get(Registers registers) {
+            return registers.getB();
+        }
+
+        @Override
+        public void set(Registers registers, byte value) {
+            registers.setB(value);
+        }
+    },
+    C {
+        @Override
+        public byte get(Registers registers) {
+            return registers.getC();
+        }
+
+        @Override
+        public void set(Registers registers, byte value) {
+            registers.setC(value);
+        }
+    },
+    D {
+        @Override
+        public byte get(Registers registers) {
+            return registers.getD();
+        }
+
+        @Override
+        public void set(Registers registers, byte value) {
+            registers.setD(value);
+        }
+    },
+    E {
+        @Override
+        public byte get(Registers registers) {
+            return registers.getE();
+        }
+
+        @Override
+        public void set(Registers registers, byte value) {
+            registers.setE(value);
+        }
+    },
+    H {
+        @Override
+        public byte get(Registers registers) {
+            return registers.getH();
+        }
+
+        @Override
+        public void set(Registers registers, byte value) {
+            registers.setH(value);
+        }
+    },
+    L {
+        @Override
+        public byte get(Registers registers) {
+            return registers.getL();
+        }
+
+        @Override
+        public void set(Registers registers, byte value) {
+            registers.setL(value);
+        }
+    },
+    A {
+        @Override
+        public byte get(Registers registers) {
+            return registers.getA();
+        }
+
+        @Override
+        public void set(Registers registers, byte value) {
+            registers.setA(value);
+        }
+    };
+
+    public abstract byte get(Registers registers);
+
+    public abstract void set(Registers registers, byte value);
+
+    /**
+     * @throws IllegalArgumentException for 6, that is (HL) and not a register, or any other code
+     */
+    public static ByteRegister byCode(byte code) {
+        switch (code) {
+            case Registers.A:
+                return A;
+            case Registers.B:
+                return B;
+            case Registers.C:
+                return C;
+            case Registers.D:
+                return D;
+            case Registers.E:
+                return E;
+            case Registers.H:
+                return H;
+            case Registers.L:
+                return L;
+            default:
+                throw new IllegalArgumentException("No 8-bit register with code " + code);
+        }
+    }
+}
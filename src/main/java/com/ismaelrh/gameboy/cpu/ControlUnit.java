@@ -1,11 +1,14 @@
 package com.ismaelrh.gameboy.cpu;
 
+import com.ismaelrh.gameboy.cpu.block.BasicBlock;
+import com.ismaelrh.gameboy.cpu.block.BlockCache;
 import com.ismaelrh.gameboy.cpu.instruction.Instruction;
-import com.ismaelrh.gameboy.cpu.instruction.InstructionFactory;
+import com.ismaelrh.gameboy.cpu.interrupts.InterruptController;
 import com.ismaelrh.gameboy.cpu.instructions.implementation.JumpCommands;
 import com.ismaelrh.gameboy.cpu.memory.Memory;
-import com.ismaelrh.gameboy.cpu.instructions.InstDecoder;
-import com.ismaelrh.gameboy.cpu.instructions.InstDescription;
+import com.ismaelrh.gameboy.cpu.instructions.DispatchTable;
+import com.ismaelrh.gameboy.cpu.instructions.OpcodeHandler;
+import com.ismaelrh.gameboy.cpu.scheduler.Scheduler;
 import com.ismaelrh.gameboy.debug.debugger.Debugger;
 import com.ismaelrh.gameboy.debug.debugger.DebuggerController;
 import com.ismaelrh.gameboy.debug.logCheck.LogStatusProvider;
@@ -21,113 +24,211 @@ public class ControlUnit {
 
     private Registers registers;
     private Memory memory;
-    private InstDecoder decoder;
+    private DispatchTable dispatchTable;
     private Debugger debugger;
     private ExecutionInfo executionInfo;
-
-    public ControlUnit(Registers registers, Memory memory) {
+    private Scheduler scheduler;
+    private InterruptController interruptController;
+    private BlockCache blockCache;  //Only created when blocks are used
+    private IdleLoopDetector idleLoopDetector;
+    private FusedLoops fusedLoops;
+    private boolean loopsOptimized = true;    //Not when debugging, as breakpoints would be skipped too
+
+    //Reused for every decoded instruction, alternating so the previous one is still available to the debugger
+    private final Instruction[] decodedInstructions = {new Instruction((byte) 0), new Instruction((byte) 0)};
+    private int nextDecodedInstruction = 0;
+
+    public ControlUnit(Registers registers, Memory memory, Scheduler scheduler) {
         this.registers = registers;
         this.memory = memory;
-        this.decoder = new InstDecoder();
-        this.executionInfo = new ExecutionInfo();
+        this.dispatchTable = DispatchTable.getInstance();
+        this.scheduler = scheduler;
+        this.interruptController = memory.getInterruptController();
+        this.executionInfo = new ExecutionInfo(scheduler);
         this.debugger = new Debugger(memory, registers, executionInfo);
+        this.idleLoopDetector = new IdleLoopDetector(memory, scheduler);
+        this.fusedLoops = new FusedLoops(memory, scheduler);
     }
 
     public void setDebuggerController(DebuggerController controller) {
         this.debugger.setController(controller);
+        this.loopsOptimized = false;
     }
 
     public void setLogStatusProvider(LogStatusProvider logStatusProvider) {
         this.debugger.setLogStatusProvider(logStatusProvider);
+        this.loopsOptimized = false;
     }
 
     public int runInstruction() throws Exception {
 
         if (registers.isHalt()) {
-            return 4;
+            return getHaltCycles();
+        }
+
+        int loopCycles = runOptimizedLoop();
+        if (loopCycles > 0) {
+            return loopCycles;
         }
 
         Instruction instruction = readInstruction();
-        InstDescription description = instruction.getDescription();
+        OpcodeHandler handler = instruction.getHandler();
 
         executionInfo.setCurrentInstruction(instruction);
-        debugger.debug();   //This can block the execution
+        if (debugger.isActive()) {
+            debugger.debug();   //This can block the execution
+        }
 
         //Then, increment PC as needed
-        registers.setPC((char) (registers.getPC() + instruction.getInstBytes()));
+        char address = registers.getPC();
+        registers.setPC((char) (address + handler.getInstBytes()));
 
         //Execute and return the number of cycles that it took
-        int instCycles = description.getInst().apply(instruction, memory, registers);
-        executionInfo.addCycles(instCycles);
-
-        //Release instruction object
-        InstructionFactory.releaseInstruction(instruction);
+        int instCycles = handler.execute(instruction, memory, registers);
+        checkLoop(handler, address);
         return instCycles;
     }
 
-    public void checkInterruptions() {
+    /**
+     * Executes a whole basic block (or a single instruction, if code at PC cannot be cached).
+     * The scheduler is advanced by the cycles of every instruction but the last one, whose cycles are returned
+     * instead: like after runInstruction(), interruptions have to be checked before advancing them.
+     * The block is left early as soon as an interruption can be serviced (or EI becomes effective), so they are attended
+     * exactly after the same instruction as when interpreting.
+     * <p>
+     * Inside a block nothing is done for the debugger: while it is active, instructions are run one by one instead.
+     * So they are during OAM DMA, that may change what is fetched from the bus (a block starting one is left after it),
+     * and while memory is traced or watched, as translating reads code ahead that the CPU has not fetched yet.
+     *
+     * @return cycles taken by the last executed instruction
+     */
+    public int runBlock() throws Exception {
 
-        //You can exit halt mode even if IME is disabled, just if there are interruptions that could be serviced
-        if (memory.interruptEnable != 0 && memory.interruptFlags != 0 && registers.isHalt()) {
-            registers.setHalt(false);
+        if (registers.isHalt()) {
+            return getHaltCycles();
         }
 
-        //Global IME activated, some interrupt activated, and some interrupt fired
-        if (registers.isIme() && memory.interruptEnable != 0 && memory.interruptFlags != 0) {
+        int loopCycles = runOptimizedLoop();
+        if (loopCycles > 0) {
+            return loopCycles;
+        }
+
+        if (debugger.isActive() || memory.isOamDmaActive() || memory.isObserved()) {
+            return runInstruction();
+        }
+
+        if (blockCache == null) {
+            blockCache = new BlockCache(memory);
+        }
 
-            //Filter the ones that have to be attended
-            byte interruptionsToFire = (byte) ((memory.interruptEnable & memory.interruptFlags) & 0xFF);
+        BasicBlock block = blockCache.getBlock(registers.getPC());
+        if (block == null) {
+            return runInstruction();
+        }
 
-            //Ordered by priority,from lowest bit (vblank) to highest bit (joypad)
-            for (char mask : Memory.INTERRUPTION_MASKS) {
-                if ((interruptionsToFire & mask) != 0) {  //This should be attended
-                    registers.setIme(false);
-                    JumpCommands.doCall(Memory.ISR[mask], memory, registers);
-                    memory.interruptFlags &= ~mask;
-                    return;
-                }
+        Instruction[] instructions = block.getInstructions();
+        int last = instructions.length - 1;
+        blockCache.enter();
+        for (int i = 0; ; i++) {
+            Instruction instruction = instructions[i];
+            OpcodeHandler handler = instruction.getHandler();
+
+            char address = registers.getPC();
+            registers.setPC((char) (address + handler.getInstBytes()));
+            int instCycles = handler.execute(instruction, memory, registers);
+
+            //Code ahead was overwritten, the ROM bank switched, OAM DMA started, or an interruption has to be attended
+            if (i == last || blockCache.isAborted() || isInterruptionPending() || memory.isOamDmaActive()) {
+                checkLoop(handler, address);
+                return instCycles;
             }
 
+            //Peripherals are caught up lazily from the clock, so this only runs events that became due
+            scheduler.advance(instCycles);
         }
     }
 
-    //Does NOT increment PC
-    private Instruction readInstruction() {
+    /**
+     * Halted, the CPU spends 4 cycles per step until an interruption wakes it up. Interruption flags can only
+     * change on a scheduled event (GPU mode changes, timer overflow...), so every step before the one where
+     * the next event happens is skipped at once, waking up on the same cycle.
+     * The joypad is the exception, as it is pressed from another thread: it is attended after the jump.
+     */
+    private int getHaltCycles() {
+        if (interruptController.hasPending()) {
+            return 4;   //Wakes up right now
+        }
+        long deadline = scheduler.getNextDeadline();
+        if (deadline == Scheduler.NEVER) {
+            return 4;
+        }
+        long steps = Math.max(1, (deadline - scheduler.getClock() + 3) / 4);
+        return (int) Math.min(steps, Integer.MAX_VALUE / 4) * 4;
+    }
+
+    //Relative jumps taken backwards (or to themselves) may close a loop that does not need to be interpreted.
+    //Not while memory is traced or watched, so every access is seen
+    private void checkLoop(OpcodeHandler handler, char address) {
+        if (loopsOptimized && !memory.isObserved() && !handler.isCb() && ((handler.getOpcode() & 0xE7) == 0x20 || handler.getOpcode() == 0x18)) {
+            char pc = registers.getPC();
+            if (pc <= address) {
+                idleLoopDetector.onJumpTaken(address, pc);
+                fusedLoops.onJumpTaken(address, pc);
+            }
+        }
+    }
 
-        char initialPC = registers.getPC();
-        char auxPC = initialPC;
+    //Skips idle loop iterations or runs a fused loop, if the last jump closed one. Returns the cycles taken, if any
+    private int runOptimizedLoop() {
+        if (idleLoopDetector.isArmed()) {
+            return idleLoopDetector.trySkip(registers);
+        } else if (fusedLoops.isArmed()) {
+            return fusedLoops.tryRun(registers);
+        }
+        return 0;
+    }
 
-        boolean isCB = false;
+    public IdleLoopDetector getIdleLoopDetector() {
+        return idleLoopDetector;
+    }
 
-        //Fetch 1st op byte
-        byte opcode = this.memory.read(auxPC);
-        auxPC += 1;
+    public FusedLoops getFusedLoops() {
+        return fusedLoops;
+    }
 
-        if (opcode == (byte) 0xCB) { //Prefix operation
-            opcode = this.memory.read(auxPC);
-            auxPC += 1;
-            isCB = true;
-        }
+    public BlockCache getBlockCache() {
+        return blockCache;
+    }
 
-        //Decode
-        InstDescription instDescription = decoder.getInst(isCB, opcode);
-        Instruction inst = InstructionFactory.getInstruction(opcode);
-        inst.setDescription(instDescription);
+    public void checkInterruptions() {
 
-        if (isCB) {
-            inst.setPrefix((byte) 0xCB);
+        //Nothing requested and enabled, nor EI waiting: the usual case
+        if (!interruptController.needsAttention()) {
+            return;
         }
+        interruptController.onInstructionFinished();
 
-        //Fetch (2nd step, as it is already decoded)
-        if (instDescription.getExtraBytes() == 1 || instDescription.getExtraBytes() == 2) {
-            inst.setNn1(this.memory.read(auxPC));
-            auxPC += 1;
+        //You can exit halt mode even if IME is disabled, just if there are interruptions that could be serviced
+        if (registers.isHalt() && interruptController.hasPending()) {
+            registers.setHalt(false);
         }
-        if (instDescription.getExtraBytes() == 2) {
-            inst.setNn2(this.memory.read(auxPC));
-            auxPC += 1;
+
+        //Global IME activated, some interrupt enabled and fired. Attended by priority, from vblank to joypad
+        if (interruptController.isServiceable()) {
+            JumpCommands.doCall(interruptController.acknowledge(), memory, registers);
         }
-        inst.setInstBytes(auxPC - initialPC);
+    }
+
+    //In a block, the next instruction may be run only if no interruption can be serviced after this one
+    private boolean isInterruptionPending() {
+        return interruptController.isServiceable() || interruptController.isImeDelayed();
+    }
+
+    //Does NOT increment PC
+    private Instruction readInstruction() throws Exception {
+        Instruction inst = decodedInstructions[nextDecodedInstruction];
+        nextDecodedInstruction ^= 1;
+        dispatchTable.decode(memory, registers.getPC(), inst);
         return inst;
     }
 
@@ -1,26 +1,21 @@
 package com.ismaelrh.gameboy.cpu;
 
 import com.ismaelrh.gameboy.cpu.instruction.Instruction;
+import com.ismaelrh.gameboy.cpu.scheduler.Scheduler;
 
 public class ExecutionInfo {
 
-    private int cycles = 0;
+    private final Scheduler scheduler;
     private Instruction currentInstruction;
     private Instruction prevInstruction;
 
-    public ExecutionInfo() {
+    public ExecutionInfo(Scheduler scheduler) {
+        this.scheduler = scheduler;
     }
 
-    public int getCycles() {
-        return cycles;
-    }
-
-    public void addCycles(int cycles) {
-        this.cycles += cycles;
-    }
-
-    public void setCycles(int cycles) {
-        this.cycles = cycles;
+    //Cycles elapsed since power on, taken from the master clock
+    public long getCycles() {
+        return scheduler.getClock();
     }
 
     public Instruction getCurrentInstruction() {
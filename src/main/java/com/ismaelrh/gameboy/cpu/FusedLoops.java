@@ -0,0 +1,173 @@
+package com.ismaelrh.gameboy.cpu;
+
+import com.ismaelrh.gameboy.cpu.memory.Memory;
+import com.ismaelrh.gameboy.cpu.scheduler.Scheduler;
+
+/**
+ * Superinstructions for the usual memcpy and memset loops. When one of them is detected, the iterations that
+ * can run before the next scheduled event are done at once by Memory, leaving registers and flags as the
+ * interpreter would. The last iteration, and any loop whose ranges are not plain memory (MMIO, locked VRAM/OAM,
+ * the loop itself...), is interpreted as usual.
+ */
+public class FusedLoops {
+
+    private static final int MEMCPY = 0;    //HL to DE, BC bytes
+    private static final int FILL_DEC_B = 1;    //A to HL, B bytes
+    private static final int FILL_DEC_C = 2;    //A to HL, C bytes
+    private static final int FILL_THEN_LOAD = 3;    //A to HL, BC bytes, A reloaded at the end
+    private static final int LOAD_THEN_FILL = 4;    //Register to HL, BC bytes
+
+    private static final int[][] SHAPES = {
+            {0x2A, 0x12, 0x13, 0x0B, 0x78, 0xB1, 0x20, 0xF8},   //ldi A,(HL); ld (DE),A; inc DE; dec BC; ld A,B; or C; jr nz
+            {0x22, 0x05, 0x20, 0xFC},   //ldi (HL),A; dec B; jr nz
+            {0x22, 0x0D, 0x20, 0xFC},   //ldi (HL),A; dec C; jr nz
+            {0x22, 0x0B, 0x78, 0xB1, 0x7A, 0x20, 0xF9},   //ldi (HL),A; dec BC; ld A,B; or C; ld A,D; jr nz
+            {0x7A, 0x22, 0x0B, 0x78, 0xB1, 0x20, 0xF9}    //ld A,D; ldi (HL),A; dec BC; ld A,B; or C; jr nz
+    };
+
+    //Cycles of every iteration that jumps back
+    private static final int[] SHAPE_CYCLES = {52, 24, 24, 40, 40};
+
+    //Position of the ld A,D that may also be ld A,E, -1 if none
+    private static final int[] SHAPE_LOAD = {-1, -1, -1, 4, 0};
+
+    private final Memory memory;
+    private final Scheduler scheduler;
+
+    //Loop detected by the last taken jump
+    private boolean armed;
+    private char loopStart;
+    private char loopEnd;
+    private int shape;
+    private byte loadRegister;   //Register code of ld A,r
+
+    private long fusedIterations;
+
+    public FusedLoops(Memory memory, Scheduler scheduler) {
+        this.memory = memory;
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * Called after a relative jump at the given address is taken. Arms this if it closes one of the known loops,
+     * to be run on the next instruction.
+     */
+    public void onJumpTaken(char jumpAddress, char target) {
+        armed = false;
+        int length = jumpAddress + 2 - target;
+        for (int i = 0; i < SHAPES.length; i++) {
+            if (SHAPES[i].length == length && matches(SHAPES[i], SHAPE_LOAD[i], target)) {
+                shape = i;
+                loopStart = target;
+                loopEnd = (char) (jumpAddress + 2);
+                armed = true;
+                return;
+            }
+        }
+    }
+
+    private boolean matches(int[] pattern, int load, char address) {
+        for (int i = 0; i < pattern.length; i++) {
+            int value = memory.read((char) (address + i)) & 0xFF;
+            if (i == load) {
+                //ld A,D or ld A,E
+                if (value != 0x7A && value != 0x7B) {
+                    return false;
+                }
+                loadRegister = (byte) (value & 0x07);
+            } else if (value != pattern[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public boolean isArmed() {
+        return armed;
+    }
+
+    /**
+     * Runs at once as many iterations of the loop detected as possible, if the CPU is about to start one.
+     *
+     * @return cycles taken, 0 if nothing was done
+     */
+    public int tryRun(Registers registers) {
+        armed = false;
+        if (registers.getPC() != loopStart) {
+            return 0;
+        }
+
+        //The last iteration (not jumping back), and the one reaching the next event, are interpreted
+        int count = shape == FILL_DEC_B ? registers.getB() & 0xFF : shape == FILL_DEC_C ? registers.getC() & 0xFF : registers.getBC();
+        if (count == 0) {
+            count = shape == FILL_DEC_B || shape == FILL_DEC_C ? 0x100 : 0x10000;
+        }
+        int cycles = SHAPE_CYCLES[shape];
+        long iterations = Math.min(count - 1, (scheduler.getNextDeadline() - 1 - scheduler.getClock()) / cycles);
+        if (iterations <= 0) {
+            return 0;
+        }
+        int length = (int) iterations;
+
+        char destination = shape == MEMCPY ? registers.getDE() : registers.getHL();
+        if (overlapsLoop(destination, length) || !runShape(registers, destination, length)) {
+            return 0;
+        }
+        fusedIterations += length;
+        return length * cycles;
+    }
+
+    private boolean runShape(Registers registers, char destination, int length) {
+        switch (shape) {
+            case MEMCPY:
+                if (!memory.copy(registers.getHL(), destination, length)) {
+                    return false;
+                }
+                registers.setDE((char) (destination + length));
+                break;
+            case FILL_THEN_LOAD:
+                if (registers.getA() != registers.getByCode(loadRegister)
+                        || !memory.fill(destination, length, registers.getA())) {
+                    return false;
+                }
+                break;
+            case LOAD_THEN_FILL:
+                if (!memory.fill(destination, length, registers.getByCode(loadRegister))) {
+                    return false;
+                }
+                break;
+            default:
+                if (!memory.fill(destination, length, registers.getA())) {
+                    return false;
+                }
+        }
+
+        registers.setHL((char) (registers.getHL() + length));
+        if (shape == FILL_DEC_B) {
+            byte counter = (byte) (registers.getB() - length);
+            registers.setB(counter);
+            registers.setFlagsDec((byte) (counter + 1));
+        } else if (shape == FILL_DEC_C) {
+            byte counter = (byte) (registers.getC() - length);
+            registers.setC(counter);
+            registers.setFlagsDec((byte) (counter + 1));
+        } else {
+            //Last "or C" was not zero
+            registers.setBC((char) (registers.getBC() - length));
+            if (shape != FILL_THEN_LOAD) {
+                registers.setA((byte) (registers.getB() | registers.getC()));
+            }
+            registers.setF((byte) 0x00);
+        }
+        return true;
+    }
+
+    //Self-modifying loops are interpreted
+    private boolean overlapsLoop(char destination, int length) {
+        return destination < loopEnd && destination + length > loopStart;
+    }
+
+    public long getFusedIterations() {
+        return fusedIterations;
+    }
+}
@@ -0,0 +1,190 @@
+package com.ismaelrh.gameboy.cpu;
+
+import com.ismaelrh.gameboy.cpu.memory.Memory;
+import com.ismaelrh.gameboy.cpu.scheduler.Scheduler;
+
+/**
+ * Detects busy-waiting loops that poll a register, like:
+ * <pre>
+ * loop: ldh A,(FF44)    (or ld A,(nn))
+ *       cp $90          (or and n, and A, or A, bit n,A)
+ *       jr nz,loop      (or jr z)
+ * </pre>
+ * or just jumping to themselves (jr -2) until an interruption comes.
+ * The only state such a loop changes is A and F, which only depend on the value read. If the next iteration would
+ * leave them as they already are, it and the ones after it only waste time, so they are skipped until the next
+ * scheduled event: polled registers (LY, STAT, IF and RAM, that only interruption handlers may write) can not
+ * change before it. Every event still happens on the same cycle.
+ */
+public class IdleLoopDetector {
+
+    //Skipped at once at most, so they fit in an int
+    private static final int MAX_SKIPPED_CYCLES = 1 << 24;
+
+    private static final int JR_CYCLES = 12;
+
+    private static final int OP_CP = 0;
+    private static final int OP_AND = 1;    //and A is and $FF
+    private static final int OP_OR = 2;     //Only or A
+    private static final int OP_BIT = 3;
+    private static final int OP_NONE = 4;   //Nothing is read
+
+    private final Memory memory;
+    private final Scheduler scheduler;
+
+    //Loop detected by the last taken jump
+    private boolean armed;
+    private char loopStart;
+    private char readAddress;
+    private int operation;
+    private byte operand;
+    private int iterationCycles;
+
+    private long skippedCycles;
+    private long skippedIterations;
+
+    public IdleLoopDetector(Memory memory, Scheduler scheduler) {
+        this.memory = memory;
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * Called after a relative jump at the given address is taken. Arms the detector if it closes
+     * a polling loop, to be checked on the next instruction.
+     */
+    public void onJumpTaken(char jumpAddress, char target) {
+        armed = false;
+        if (target > jumpAddress) {
+            return;
+        }
+        if (target == jumpAddress) {
+            operation = OP_NONE;
+            iterationCycles = JR_CYCLES;
+            loopStart = target;
+            armed = true;
+            return;
+        }
+
+        //Read
+        int address = target;
+        int opcode = peek(address) & 0xFF;
+        if (opcode == 0xF0) {    //ld A,(FF00+n)
+            readAddress = (char) (0xFF00 | (peek(address + 1) & 0xFF));
+            iterationCycles = 12;
+            address += 2;
+        } else if (opcode == 0xFA) {    //ld A,(nn)
+            readAddress = (char) ((peek(address + 1) & 0xFF) | ((peek(address + 2) & 0xFF) << 8));
+            iterationCycles = 16;
+            address += 3;
+        } else {
+            return;
+        }
+        if (!isPollable(readAddress)) {
+            return;
+        }
+
+        //Check
+        opcode = peek(address) & 0xFF;
+        if (opcode == 0xFE || opcode == 0xE6) {   //cp n, and n
+            operation = opcode == 0xFE ? OP_CP : OP_AND;
+            operand = peek(address + 1);
+            iterationCycles += 8;
+            address += 2;
+        } else if (opcode == 0xA7 || opcode == 0xB7) {    //and A, or A
+            operation = opcode == 0xA7 ? OP_AND : OP_OR;
+            operand = (byte) 0xFF;
+            iterationCycles += 4;
+            address += 1;
+        } else if (opcode == 0xCB && (peek(address + 1) & 0xC7) == 0x47) {   //bit n,A
+            operation = OP_BIT;
+            operand = (byte) ((peek(address + 1) >> 3) & 0x07);
+            iterationCycles += 8;
+            address += 2;
+        } else {
+            return;
+        }
+
+        //The jump has to be right after
+        if (address != jumpAddress) {
+            return;
+        }
+        iterationCycles += JR_CYCLES;
+        loopStart = target;
+        armed = true;
+    }
+
+    public boolean isArmed() {
+        return armed;
+    }
+
+    /**
+     * Checks whether the CPU, about to run the next instruction, would just repeat the last iteration
+     * of the loop detected. If so, returns the cycles of the iterations that can be skipped, 0 otherwise.
+     */
+    public int trySkip(Registers registers) {
+        armed = false;
+        if (registers.getPC() != loopStart) {
+            return 0;
+        }
+
+        //Same A and F as now, so the jump is taken again
+        if (operation != OP_NONE) {
+            byte value = peek(readAddress);
+            byte result = operation == OP_AND ? (byte) (value & operand) : value;
+            if (result != registers.getA() || getFlags(value, registers.getF()) != registers.getF()) {
+                return 0;
+            }
+        }
+
+        long deadline = scheduler.getNextDeadline();
+        if (deadline == Scheduler.NEVER) {
+            return 0;
+        }
+
+        //No instruction of the skipped iterations can reach the deadline
+        long iterations = (deadline - 1 - scheduler.getClock()) / iterationCycles;
+        iterations = Math.min(iterations, MAX_SKIPPED_CYCLES / iterationCycles);
+        if (iterations <= 0) {
+            return 0;
+        }
+        skippedIterations += iterations;
+        skippedCycles += iterations * iterationCycles;
+        return (int) (iterations * iterationCycles);
+    }
+
+    //F after the check instruction
+    private byte getFlags(byte value, byte previousFlags) {
+        switch (operation) {
+            case OP_CP:
+                int z = value == operand ? 0x80 : 0;
+                int h = (value & 0x0F) < (operand & 0x0F) ? 0x20 : 0;
+                int c = (value & 0xFF) < (operand & 0xFF) ? 0x10 : 0;
+                return (byte) (z | 0x40 | h | c);
+            case OP_AND:
+                return (byte) (((value & operand) == 0 ? 0x80 : 0) | 0x20);
+            case OP_OR:
+                return (byte) (value == 0 ? 0x80 : 0);
+            default:
+                return (byte) ((((value >> operand) & 0x01) == 0 ? 0x80 : 0) | 0x20 | (previousFlags & 0x10));
+        }
+    }
+
+    //Privileged reads, not seen by watchpoints or the tracer: the CPU does not make them
+    private byte peek(int address) {
+        return memory.read((char) address, true);
+    }
+
+    //Only changed by scheduled events, or by the CPU itself (that is, an interruption handler)
+    private boolean isPollable(char address) {
+        return address == 0xFF0F || address == 0xFF41 || address == 0xFF44 || address == 0xFFFF
+                || (address >= 0xC000 && address <= 0xDFFF) || (address >= 0xFF80 && address <= 0xFFFE);
+    }
+
+    public long getSkippedCycles() {
+        return skippedCycles;
+    }
+
+    public long getSkippedIterations() {
+        return skippedIterations;
+    }
+}
@@ -29,9 +29,25 @@ public class Registers {
     //Stack pointer, 16bit
     private char sp;
 
-    //Accumulator and flags (16bit, contains A and F)
+    //Accumulator and flags (16bit, contains A and F). F is outdated while there are pending flags.
     private char af;
 
+    /*
+     * Lazy flags: ALU operations only store their operands, and F is computed when it is actually read.
+     * Most flags are overwritten by the next operation before anyone reads them.
+     */
+    private final static int FLAGS_READY = 0;
+    private final static int FLAGS_ADD = 1;     //a + b + carry
+    private final static int FLAGS_SUB = 2;     //a - b - carry
+    private final static int FLAGS_INC = 3;     //a + 1, C is kept
+    private final static int FLAGS_DEC = 4;     //a - 1, C is kept
+    private final static int FLAGS_ADD_16 = 5;  //a + b (16 bit), Z is kept
+
+    private int pendingFlags = FLAGS_READY;
+    private int flagsA;
+    private int flagsB;
+    private int flagsCarry; //Carry in for ADD/SUB, kept bits of F for the rest
+
     //BC: 16bit (contains B and C)
     private char bc;
 
@@ -41,9 +57,6 @@ public class Registers {
     //HL: 16bit (contains H and L)
     private char hl;
 
-    //Interruption master enable flag
-    private boolean ime = false;
-
     private boolean halt = false;
 
     public Registers() {
@@ -61,6 +74,7 @@ public class Registers {
         this.pc = 0x0100; //PC is initialized at 0x100 (corresponds to ROM BANK)
         this.sp = 0xFFFE; //SP initialized to 0xFFFE on power up, but programmer should not rely on this setting.
         this.af = 0x01B0;
+        this.pendingFlags = FLAGS_READY;
         this.bc = 0x0013;
         this.de = 0x00D8;
         this.hl = 0x014D;
@@ -70,6 +84,7 @@ public class Registers {
         this.pc = 0x0100; //PC is initialized at 0x100 (corresponds to ROM BANK)
         this.sp = 0x0000; //SP initialized to 0xFFFE on power up, but programmer should not rely on this setting.
         this.af = 0x0000;
+        this.pendingFlags = FLAGS_READY;
         this.bc = 0x0000;
         this.de = 0x0000;
         this.hl = 0x0000;
@@ -84,6 +99,7 @@ public class Registers {
     }
 
     public char getAF() {
+        evaluateFlags();
         return af;
     }
 
@@ -92,6 +108,7 @@ public class Registers {
     }
 
     public byte getF() {
+        evaluateFlags();
         return (byte) (af & 0xFF);
     }
 
@@ -140,6 +157,7 @@ public class Registers {
     }
 
     public void setAF(char af) {
+        this.pendingFlags = FLAGS_READY;
         this.af = (char)(af & 0xFFF0);
     }
 
@@ -154,6 +172,7 @@ public class Registers {
      * it transform the byte to a char, and to keep with the negative, adds 1's at the left (Two-complement). When doing the OR, sets all positions at left to 1's.
      */
     public void setF(byte f) {
+        this.pendingFlags = FLAGS_READY;
         this.af = (char) (((this.af & 0xFF00) | ((f & 0xF0))));
     }
 
@@ -193,14 +212,6 @@ public class Registers {
         this.hl = (char) ((this.hl & 0xFF00) | (l & 0xFF));
     }
 
-    public boolean isIme() {
-        return ime;
-    }
-
-    public void setIme(boolean ime) {
-        this.ime = ime;
-    }
-
     public void clearFlags() {
         this.setF((byte) 0x0);
     }
@@ -244,9 +255,121 @@ public class Registers {
         this.setF((byte) (this.getF() & 0xEF));
     }
 
-    //IMPORTANT: use this functions only for testing and not performance-critical actions
+    //Z0HC for a + b + carry (carry is 0 or 1)
+    public void setFlagsAdd(byte a, byte b, int carry) {
+        setPendingFlags(FLAGS_ADD, a & 0xFF, b & 0xFF, carry);
+    }
+
+    //Z1HC for a - b - carry (carry is 0 or 1)
+    public void setFlagsSub(byte a, byte b, int carry) {
+        setPendingFlags(FLAGS_SUB, a & 0xFF, b & 0xFF, carry);
+    }
+
+    //Z0H- for a + 1
+    public void setFlagsInc(byte a) {
+        setPendingFlags(FLAGS_INC, a & 0xFF, 0, getCarryFlag());
+    }
+
+    //Z1H- for a - 1
+    public void setFlagsDec(byte a) {
+        setPendingFlags(FLAGS_DEC, a & 0xFF, 0, getCarryFlag());
+    }
+
+    //-0HC for 16 bit a + b, with half carry on bit 11
+    public void setFlagsAdd16(char a, char b) {
+        setPendingFlags(FLAGS_ADD_16, a, b, getZeroFlag());
+    }
+
+    private void setPendingFlags(int operation, int a, int b, int carry) {
+        this.pendingFlags = operation;
+        this.flagsA = a;
+        this.flagsB = b;
+        this.flagsCarry = carry;
+    }
+
+    private void evaluateFlags() {
+        if (pendingFlags == FLAGS_READY) {
+            return;
+        }
+        int a = flagsA;
+        int b = flagsB;
+        int flags;
+        switch (pendingFlags) {
+            case FLAGS_ADD: {
+                int result = a + b + flagsCarry;
+                flags = zeroFlag(result)
+                        | ((a & 0xF) + (b & 0xF) + flagsCarry > 0xF ? 0x20 : 0)
+                        | (result > 0xFF ? 0x10 : 0);
+                break;
+            }
+            case FLAGS_SUB: {
+                int result = a - b - flagsCarry;
+                flags = zeroFlag(result) | 0x40
+                        | ((a & 0xF) - (b & 0xF) - flagsCarry < 0 ? 0x20 : 0)
+                        | (result < 0 ? 0x10 : 0);
+                break;
+            }
+            case FLAGS_INC:
+                flags = zeroFlag(a + 1) | ((a & 0xF) == 0xF ? 0x20 : 0) | flagsCarry;
+                break;
+            case FLAGS_DEC:
+                flags = zeroFlag(a - 1) | 0x40 | ((a & 0xF) == 0 ? 0x20 : 0) | flagsCarry;
+                break;
+            default:    //FLAGS_ADD_16
+                flags = flagsCarry
+                        | ((a & 0xFFF) + (b & 0xFFF) > 0xFFF ? 0x20 : 0)
+                        | (a + b > 0xFFFF ? 0x10 : 0);
+        }
+        this.af = (char) ((this.af & 0xFF00) | flags);
+        this.pendingFlags = FLAGS_READY;
+    }
+
+    boolean hasPendingFlags() {
+        return pendingFlags != FLAGS_READY;
+    }
+
+    private static int zeroFlag(int result) {
+        return (result & 0xFF) == 0 ? 0x80 : 0;
+    }
+
+    //Only C (0x10) of F, computed from the pending operation if any, leaving it pending
+    private int getCarryFlag() {
+        switch (pendingFlags) {
+            case FLAGS_READY:
+                return af & 0x10;
+            case FLAGS_ADD:
+                return flagsA + flagsB + flagsCarry > 0xFF ? 0x10 : 0;
+            case FLAGS_SUB:
+                return flagsA - flagsB - flagsCarry < 0 ? 0x10 : 0;
+            case FLAGS_INC:
+            case FLAGS_DEC:
+                return flagsCarry;
+            default:    //FLAGS_ADD_16
+                return flagsA + flagsB > 0xFFFF ? 0x10 : 0;
+        }
+    }
+
+    //Only Z (0x80) of F, computed from the pending operation if any, leaving it pending
+    private int getZeroFlag() {
+        switch (pendingFlags) {
+            case FLAGS_READY:
+                return af & 0x80;
+            case FLAGS_ADD:
+                return zeroFlag(flagsA + flagsB + flagsCarry);
+            case FLAGS_SUB:
+                return zeroFlag(flagsA - flagsB - flagsCarry);
+            case FLAGS_INC:
+                return zeroFlag(flagsA + 1);
+            case FLAGS_DEC:
+                return zeroFlag(flagsA - 1);
+            default:    //FLAGS_ADD_16
+                return flagsCarry;
+        }
+    }
+
+    //Z and C do not need the whole F, so conditions do not compute pending flags
     public boolean checkFlagZ() {
-        return ((byte) (this.getF() & 0x80)) != 0x0;
+        return getZeroFlag() != 0;
     }
 
     public boolean checkFlagN() {
@@ -258,7 +381,7 @@ public class Registers {
     }
 
     public boolean checkFlagC() {
-        return ((byte) (this.getF() & 0x10)) != 0x0;
+        return getCarryFlag() != 0;
     }
 
 
@@ -361,11 +484,11 @@ public class Registers {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         Registers registers = (Registers) o;
-        return pc == registers.pc && sp == registers.sp && af == registers.af && bc == registers.bc && de == registers.de && hl == registers.hl && ime == registers.ime;
+        return pc == registers.pc && sp == registers.sp && getAF() == registers.getAF() && bc == registers.bc && de == registers.de && hl == registers.hl;
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(pc, sp, af, bc, de, hl, ime);
+        return Objects.hash(pc, sp, getAF(), bc, de, hl);
     }
 }
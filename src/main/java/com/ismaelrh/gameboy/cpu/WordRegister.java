@@ -0,0 +1,86 @@
+package com.ismaelrh.gameboy.cpu;
+
+/**
+ * The 16-bit registers, by the code opcodes use for them (BC = 0, DE = 1, HL = 2, and 3 for SP or AF).
+ * Lets an opcode resolve its operands once, instead of going through Registers.getByDoubleCode() every time.
+ */
+public enum WordRegister {
+
+    BC {
+        @Override
+        public char get(Registers registers) {
+            return registers.getBC();
+        }
+
+        @Override
+        public void set(Registers registers, char value) {
+            registers.setBC(value);
+        }
+    },
+    DE {
+        @Override
+        public char get(Registers registers) {
+            return registers.getDE();
+        }
+
+        @Override
+        public void set(Registers registers, char value) {
+            registers.setDE(value);
+        }
+    },
+    HL {
+        @Override
+        public char get(Registers registers) {
+            return registers.getHL();
+        }
+
+        @Override
+        public void set(Registers registers, char value) {
+            registers.setHL(value);
+        }
+    },
+    SP {
+        @Override
+        public char get(Registers registers) {
+            return registers.getSP();
+        }
+
+        @Override
+        public void set(Registers registers, char value) {
+            registers.setSP(value);
+        }
+    },
+    AF {
+        @Override
+        public char get(Registers registers) {
+            return registers.getAF();
+        }
+
+        @Override
+        public void set(Registers registers, char value) {
+            registers.setAF(value);
+        }
+    };
+
+    public abstract char get(Registers registers);
+
+    public abstract void set(Registers registers, char value);
+
+    /**
+     * @param useSP whether code 3 is SP, or AF (only push and pop use AF)
+     */
+    public static WordRegister byCode(byte code, boolean useSP) {
+        switch (code) {
+            case Registers.BC:
+                return BC;
+            case Registers.DE:
+                return DE;
+            case Registers.HL:
+                return HL;
+            case Registers.AF_SP:
+                return useSP ? SP : AF;
+            default:
+                throw new IllegalArgumentException("No 16-bit register with code " + code);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.ismaelrh.gameboy.cpu.block;
+
+import com.ismaelrh.gameboy.cpu.instruction.Instruction;
+
+/**
+ * Straight-line run of already decoded instructions. Only the last one can change PC, IME or halt,
+ * so they can be executed one after the other without fetching or decoding anything.
+ */
+public class BasicBlock {
+
+    private final char startAddress;
+    private final int sizeBytes;
+    private final Instruction[] instructions;
+    private boolean valid = true;
+
+    public BasicBlock(char startAddress, int sizeBytes, Instruction[] instructions) {
+        this.startAddress = startAddress;
+        this.sizeBytes = sizeBytes;
+        this.instructions = instructions;
+    }
+
+    public char getStartAddress() {
+        return startAddress;
+    }
+
+    public int getSizeBytes() {
+        return sizeBytes;
+    }
+
+    public Instruction[] getInstructions() {
+        return instructions;
+    }
+
+    public boolean isValid() {
+        return valid;
+    }
+
+    public void invalidate() {
+        this.valid = false;
+    }
+
+    public boolean contains(int address) {
+        return address >= startAddress && address < startAddress + sizeBytes;
+    }
+}
@@ -0,0 +1,211 @@
+package com.ismaelrh.gameboy.cpu.block;
+
+import com.ismaelrh.gameboy.cpu.instruction.Instruction;
+import com.ismaelrh.gameboy.cpu.instructions.DispatchTable;
+import com.ismaelrh.gameboy.cpu.instructions.OpcodeHandler;
+import com.ismaelrh.gameboy.cpu.memory.CodeWriteListener;
+import com.ismaelrh.gameboy.cpu.memory.Memory;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Cache of basic blocks, so decoding is paid once per block instead of once per executed instruction.
+ * <p>
+ * ROM blocks are keyed by (ROM bank, offset inside the bank), so switching banks never invalidates them.
+ * WRAM (0xC000-0xDFFF) and HRAM (0xFF80-0xFFFE) blocks are keyed by address, and dropped as soon as any
+ * of their bytes is written. Code anywhere else (VRAM, cartridge RAM, OAM, I/O, boot ROM) is not cached.
+ */
+public class BlockCache implements CodeWriteListener {
+
+    public static final int MAX_BLOCK_BYTES = 64;
+
+    private static final int ROM_BANK_SIZE = 0x4000;
+    private static final int MAX_ROM_BANKS = 512;
+    private static final char ROM_END = 0x7FFF;
+
+    private static final char WRAM_START = 0xC000;
+    private static final char WRAM_END = 0xDFFF;
+    private static final char ECHO_START = 0xE000;
+    private static final char ECHO_END = 0xFDFF;
+    private static final char HRAM_START = 0xFF80;
+    private static final char HRAM_END = 0xFFFE;
+
+    private static final int RAM_BLOCKS_START = 0x8000;
+
+    private final Memory memory;
+    private final DispatchTable dispatchTable;
+
+    private final BasicBlock[][] romBlocks = new BasicBlock[MAX_ROM_BANKS][];
+    private final BasicBlock[] ramBlocks = new BasicBlock[0x10000 - RAM_BLOCKS_START];
+
+    //Set when the block being executed can no longer be trusted (its code or the ROM mapping changed)
+    private boolean aborted;
+
+    //Statistics
+    private long translatedBlocks;
+    private long invalidatedBlocks;
+
+    public BlockCache(Memory memory) {
+        this.memory = memory;
+        this.dispatchTable = DispatchTable.getInstance();
+        memory.setCodeWriteListener(this);
+    }
+
+    /**
+     * Returns the block starting at the given address, translating it if needed,
+     * or null if code at that address cannot be cached.
+     * Nothing is translated nor returned during OAM DMA: the CPU fetches what the bus returns, not the code in memory.
+     */
+    public BasicBlock getBlock(char address) throws Exception {
+        if (memory.isOamDmaActive()) {
+            return null;
+        }
+        if (address <= ROM_END) {
+            if (memory.isBootromEnabled() || !memory.hasCartridge()) {
+                return null;
+            }
+            int bank = memory.getRomBank(address) % MAX_ROM_BANKS;
+            BasicBlock[] bankBlocks = romBlocks[bank];
+            if (bankBlocks == null) {
+                bankBlocks = new BasicBlock[ROM_BANK_SIZE];
+                romBlocks[bank] = bankBlocks;
+            }
+            int offset = address & (ROM_BANK_SIZE - 1);
+            BasicBlock block = bankBlocks[offset];
+            if (block == null) {
+                block = translate(address, (char) (address | (ROM_BANK_SIZE - 1)));
+                bankBlocks[offset] = block;
+            }
+            return block;
+        }
+
+        char regionEnd = getRamRegionEnd(address);
+        if (regionEnd == 0) {
+            return null;
+        }
+        BasicBlock block = ramBlocks[address - RAM_BLOCKS_START];
+        if (block == null) {
+            block = translate(address, regionEnd);
+            if (block != null) {
+                ramBlocks[address - RAM_BLOCKS_START] = block;
+                watch(block, true);
+            }
+        }
+        return block;
+    }
+
+    /**
+     * Has to be called before executing a block, then isAborted() tells if the rest of it can still be run.
+     */
+    public void enter() {
+        aborted = false;
+    }
+
+    public boolean isAborted() {
+        return aborted;
+    }
+
+    @Override
+    public void onCodeWrite(char address) {
+        if (address <= ROM_END) {
+            //Writes to the cartridge can switch banks, following instructions may not be the mapped ones anymore
+            aborted = true;
+            return;
+        }
+        int target = address >= ECHO_START && address <= ECHO_END ? address - (ECHO_START - WRAM_START) : address;
+        int from = Math.max(RAM_BLOCKS_START, target - MAX_BLOCK_BYTES + 1);
+        boolean invalidated = false;
+        for (int start = from; start <= target; start++) {
+            BasicBlock block = ramBlocks[start - RAM_BLOCKS_START];
+            if (block != null && block.contains(target)) {
+                ramBlocks[start - RAM_BLOCKS_START] = null;
+                block.invalidate();
+                watch(block, false);
+                invalidatedBlocks++;
+                invalidated = true;
+            }
+        }
+        if (!invalidated) {
+            return;
+        }
+        aborted = true;
+
+        //Overlapping blocks that are still valid may share the bytes just unwatched
+        int overlapFrom = Math.max(RAM_BLOCKS_START, target - 2 * MAX_BLOCK_BYTES);
+        int overlapTo = Math.min(0xFFFF, target + MAX_BLOCK_BYTES);
+        for (int start = overlapFrom; start <= overlapTo; start++) {
+            BasicBlock block = ramBlocks[start - RAM_BLOCKS_START];
+            if (block != null) {
+                watch(block, true);
+            }
+        }
+    }
+
+    public long getTranslatedBlocks() {
+        return translatedBlocks;
+    }
+
+    public long getInvalidatedBlocks() {
+        return invalidatedBlocks;
+    }
+
+    private BasicBlock translate(char startAddress, char regionEnd) throws Exception {
+        List<Instruction> instructions = new ArrayList<>();
+        int address = startAddress;
+        int sizeBytes = 0;
+        while (true) {
+            Instruction instruction = new Instruction((byte) 0);
+            try {
+                dispatchTable.decode(memory, (char) address, instruction);
+            } catch (Exception e) {
+                //Could be rewritten before being reached, so only fail if it is the first one
+                if (instructions.isEmpty()) {
+                    throw e;
+                }
+                break;
+            }
+            OpcodeHandler handler = instruction.getHandler();
+            int nextAddress = address + handler.getInstBytes();
+
+            //Instructions cannot cross the region (or ROM bank), as the key would not cover all their bytes
+            if (nextAddress - 1 > regionEnd || sizeBytes + handler.getInstBytes() > MAX_BLOCK_BYTES) {
+                break;
+            }
+            instructions.add(instruction);
+            sizeBytes += handler.getInstBytes();
+            address = nextAddress;
+            if (handler.isBlockEnd()) {
+                break;
+            }
+        }
+
+        if (instructions.isEmpty()) {
+            return null;
+        }
+        translatedBlocks++;
+        return new BasicBlock(startAddress, sizeBytes, instructions.toArray(new Instruction[0]));
+    }
+
+    private void watch(BasicBlock block, boolean watched) {
+        for (int i = 0; i < block.getSizeBytes(); i++) {
+            char address = (char) (block.getStartAddress() + i);
+            memory.setCodeWatched(address, watched);
+            int echoAddress = address + (ECHO_START - WRAM_START);
+            if (address >= WRAM_START && echoAddress <= ECHO_END) {
+                memory.setCodeWatched((char) echoAddress, watched);
+            }
+        }
+    }
+
+    //Returns the last address of the cacheable RAM region containing the address, or 0 if it is not cacheable
+    private char getRamRegionEnd(char address) {
+        if (address >= WRAM_START && address <= WRAM_END) {
+            return WRAM_END;
+        }
+        if (address >= HRAM_START && address <= HRAM_END) {
+            return HRAM_END;
+        }
+        return 0;
+    }
+}
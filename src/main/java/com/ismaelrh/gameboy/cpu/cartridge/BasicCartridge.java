@@ -20,6 +20,11 @@ public class BasicCartridge extends Cartridge {
         return rawData[address];
     }
 
+    @Override
+    public byte[] getMappedRom() {
+        return rawData;
+    }
+
     @Override
     public void write(char address, byte data) {
         //Write is disabled on this cartridges
@@ -90,6 +90,35 @@ public abstract class Cartridge {
 
     abstract public void write(char address, byte data);
 
+    /**
+     * ROM bank mapped at the given address (0x0000-0x7FFF). Cartridges without banking
+     * always have bank 0 at 0x0000-0x3FFF and bank 1 at 0x4000-0x7FFF.
+     */
+    public int getRomBank(char address) {
+        return address < 0x4000 ? 0 : 1;
+    }
+
+    /**
+     * Array backing the ROM, so that address is at [ROM_BANK_SIZE_BYTES * getRomBank(address) + (address & 0x3FFF)].
+     * Lets Memory map the current banks directly. Null if reading is not that simple, so read() is always called.
+     */
+    public byte[] getMappedRom() {
+        return null;
+    }
+
+    /**
+     * Array backing 0xA000-0xBFFF, if it can currently be read and written without side effects (RAM enabled,
+     * no RTC register selected...), or null so read() and write() are called. The bank starts at getMappedRamOffset().
+     * Mapping can only change when writing to 0x0000-0x7FFF.
+     */
+    public byte[] getMappedRam() {
+        return null;
+    }
+
+    public int getMappedRamOffset() {
+        return 0;
+    }
+
     static protected byte[] readFile(String filePath) throws Exception {
         File file = new File(filePath);
         if (!file.isFile() || !file.canRead()) {
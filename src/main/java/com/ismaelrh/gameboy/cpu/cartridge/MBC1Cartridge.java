@@ -98,6 +98,29 @@ class MBC1Cartridge extends Cartridge {
         return 0x0000; //Cannot read
     }
 
+    @Override
+    public int getRomBank(char address) {
+        if (address < 0x4000) {
+            return getRomBankForBaseBank() & 0xFF;
+        }
+        return getRomBankForSwitchableBanks() & 0xFF;
+    }
+
+    @Override
+    public byte[] getMappedRom() {
+        return rawData;
+    }
+
+    @Override
+    public byte[] getMappedRam() {
+        return ramEnabled ? externalRam : null;
+    }
+
+    @Override
+    public int getMappedRamOffset() {
+        return RAM_BANK_SIZE_BYTES * getRamBank();
+    }
+
     private boolean inRange(char address, int start, int end) {
         return address >= (char) start && address <= (char) end;
     }
@@ -71,6 +71,31 @@ class MBC3Cartridge extends Cartridge {
         return 0x0000; //Cannot read
     }
 
+    @Override
+    public int getRomBank(char address) {
+        if (address < 0x4000) {
+            return 0;
+        }
+        return getRomBank() & 0xFF;
+    }
+
+    @Override
+    public byte[] getMappedRom() {
+        return rawData;
+    }
+
+    //Reads do not need RAM enabled, but writes do, so it is only mapped when both work the same
+    @Override
+    public byte[] getMappedRam() {
+        boolean ramSelected = ramRtcRegisterSelect >= 0x00 && ramRtcRegisterSelect <= 0x03;
+        return ramWriteEnabled && ramSelected ? externalRam : null;
+    }
+
+    @Override
+    public int getMappedRamOffset() {
+        return RAM_BANK_SIZE_BYTES * getRamBank();
+    }
+
     private boolean inRange(char address, int start, int end) {
         return address >= (char) start && address <= (char) end;
     }
@@ -1,6 +1,7 @@
 package com.ismaelrh.gameboy.cpu.instruction;
 
 import com.ismaelrh.gameboy.cpu.instructions.InstDescription;
+import com.ismaelrh.gameboy.cpu.instructions.OpcodeHandler;
 
 /**
  * This totally depends on the instruction, some can have a prefix, some can not,
@@ -13,6 +14,9 @@ public class Instruction {
     //To get information about the instruction
     private InstDescription description;
 
+    //Pre-decoded opcode this instruction was fetched as, if any
+    private OpcodeHandler handler;
+
     private int instBytes;
 
     private Byte prefix;
@@ -23,15 +27,6 @@ public class Instruction {
 
     private byte nn2;
 
-    protected void clear() {
-        this.description = null;
-        this.instBytes = 0;
-        this.prefix = null;
-        this.opcode = 0;
-        this.nn1 = 0;
-        this.nn2 = 0;
-    }
-
     public Instruction(byte opcode) {
         this.opcode = opcode;
     }
@@ -54,6 +49,21 @@ public class Instruction {
         this.description = description;
     }
 
+    public OpcodeHandler getHandler() {
+        return handler;
+    }
+
+    /**
+     * Fills the decoded part of the instruction (opcode, prefix, description and length) from the given handler.
+     */
+    public void setHandler(OpcodeHandler handler) {
+        this.handler = handler;
+        this.description = handler.getDescription();
+        this.opcode = handler.getOpcode();
+        this.prefix = handler.isCb() ? (byte) 0xCB : null;
+        this.instBytes = handler.getInstBytes();
+    }
+
     public int getInstBytes() {
         return instBytes;
     }
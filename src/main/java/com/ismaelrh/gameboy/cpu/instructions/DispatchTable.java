@@ -0,0 +1,70 @@
+package com.ismaelrh.gameboy.cpu.instructions;
+
+import com.ismaelrh.gameboy.cpu.instruction.Instruction;
+import com.ismaelrh.gameboy.cpu.memory.Memory;
+
+/**
+ * 512 pre-decoded opcodes: 0x000-0x0FF are the normal ones, 0x100-0x1FF the CB-prefixed ones.
+ * Matching opcodes against the dictionary patterns is slow, so it is done only once and the
+ * resulting table is shared by every CPU, as handlers are immutable.
+ */
+public class DispatchTable {
+
+    public static final int CB_OFFSET = 0x100;
+
+    private static final DispatchTable INSTANCE = new DispatchTable(new InstDecoder());
+
+    private final OpcodeHandler[] handlers = new OpcodeHandler[512];
+
+    private DispatchTable(InstDecoder decoder) {
+        for (int opcode = 0; opcode <= 0xFF; opcode++) {
+            handlers[opcode] = createHandler(decoder.lookup(false, opcode), opcode);
+            handlers[CB_OFFSET + opcode] = createHandler(decoder.lookup(true, opcode), opcode);
+        }
+    }
+
+    public static DispatchTable getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Returns the handler of the given table index, or null if the opcode does not exist.
+     * Use CB_OFFSET + opcode for CB-prefixed instructions.
+     */
+    public OpcodeHandler get(int index) {
+        return handlers[index];
+    }
+
+    /**
+     * Fetches the instruction at the given address into the given object, immediates included.
+     * Does NOT increment PC.
+     */
+    public void decode(Memory memory, char address, Instruction target) throws Exception {
+
+        //Fetch 1st op byte, and the 2nd one if it is a prefix operation
+        int index = memory.read(address) & 0xFF;
+        if (index == 0xCB) {
+            index = CB_OFFSET + (memory.read((char) (address + 1)) & 0xFF);
+        }
+
+        //Decode, already done by the table
+        OpcodeHandler handler = handlers[index];
+        if (handler == null) {
+            throw new Exception(String.format("Illegal opcode 0x%02X at %04X", index, (int) address));
+        }
+        target.setHandler(handler);
+
+        //Fetch (2nd step, as it is already decoded)
+        //Target may be reused, so missing immediates are cleared
+        char immediatesAddress = (char) (address + handler.getInstBytes() - handler.getExtraBytes());
+        target.setNn1(handler.getExtraBytes() >= 1 ? memory.read(immediatesAddress) : 0);
+        target.setNn2(handler.getExtraBytes() == 2 ? memory.read((char) (immediatesAddress + 1)) : 0);
+    }
+
+    private OpcodeHandler createHandler(InstDescription description, int opcode) {
+        if (description == null) {
+            return null;
+        }
+        return new OpcodeHandler(description, (byte) opcode);
+    }
+}
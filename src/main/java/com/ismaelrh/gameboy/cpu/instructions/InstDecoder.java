@@ -49,6 +49,11 @@ public class InstDecoder {
         return res;
     }
 
+    //Same as getInst, but without logging, as some opcodes are expected to not exist
+    InstDescription lookup(boolean isCB, int opcode) {
+        return isCB ? cbOps[opcode] : normalOps[opcode];
+    }
+
     private void init() {
         for (int opcode = 0; opcode <= 0xFF; opcode++) {
             normalOps[opcode] = getMatchingInstruction(false, opcode);
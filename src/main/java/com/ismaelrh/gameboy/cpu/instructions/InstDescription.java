@@ -7,27 +7,34 @@ public class InstDescription {
     private String mnemonic;
     private String expr;
     private boolean cb;
-    private Inst inst;
+    private InstFactory factory;
     private int extraBytes;
     private int numberOfPlaceholders;
     private Pattern pattern;
 
-    public InstDescription(String mnemonic, int prefix, String expr, int extraBytes, Inst inst) {
+    /**
+     * For instructions with operands in the opcode: the factory creates each concrete opcode with them decoded.
+     */
+    public InstDescription(String mnemonic, int prefix, String expr, int extraBytes, InstFactory factory) {
         this.mnemonic = mnemonic;
-        this.inst = inst;
+        this.factory = factory;
         this.cb = prefix == 0xCB;
         this.expr = expr;
         this.extraBytes = extraBytes;
         initialize();
     }
 
+    public InstDescription(String mnemonic, String expr, int extraBytes, InstFactory factory) {
+        this(mnemonic, 0, expr, extraBytes, factory);
+    }
+
+    //Every opcode of the description runs the same implementation
+    public InstDescription(String mnemonic, int prefix, String expr, int extraBytes, Inst inst) {
+        this(mnemonic, prefix, expr, extraBytes, opcode -> inst);
+    }
+
     public InstDescription(String mnemonic, String expr, int extraBytes, Inst inst) {
-        this.mnemonic = mnemonic;
-        this.inst = inst;
-        this.cb = false;
-        this.expr = expr;
-        this.extraBytes = extraBytes;
-        initialize();
+        this(mnemonic, 0, expr, extraBytes, inst);
     }
 
     private void initialize() {
@@ -61,8 +68,11 @@ public class InstDescription {
         return mnemonic;
     }
 
-    public Inst getInst() {
-        return inst;
+    /**
+     * The implementation of the given opcode, which has to match this description, with its operands decoded.
+     */
+    public Inst getInst(byte opcode) {
+        return factory.create(opcode);
     }
 
     public int getExtraBytes() {
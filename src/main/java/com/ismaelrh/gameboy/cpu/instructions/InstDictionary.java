@@ -63,9 +63,9 @@ public class InstDictionary {
             new InstDescription("or n", "11_110_110", 1, Arithmetic8b::or_n),
             new InstDescription("or (HL)", "10_110_110", 0, Arithmetic8b::or_HL),
 
-            new InstDescription("cp r", "10_111_xxx", 0, Arithmetic8b::cp_r),
-            new InstDescription("cp n", "11_111_110", 1, Arithmetic8b::cp_n),
-            new InstDescription("cp (HL)", "10_111_110", 0, Arithmetic8b::cp_HL),
+            new InstDescription("cp r", "10_111_xxx", 0, Arithmetic8b::sub_r),
+            new InstDescription("cp n", "11_111_110", 1, Arithmetic8b::sub_n),
+            new InstDescription("cp (HL)", "10_111_110", 0, Arithmetic8b::sub_HL),
 
             new InstDescription("inc r", "00_xxx_100", 0, Arithmetic8b::inc_r),
             new InstDescription("inc (HL)", "00_110_100", 0, Arithmetic8b::inc_HL),
@@ -0,0 +1,10 @@
+package com.ismaelrh.gameboy.cpu.instructions;
+
+/**
+ * Creates the implementation of one concrete opcode, with its operands already decoded from it.
+ */
+@FunctionalInterface
+public interface InstFactory {
+
+    Inst create(byte opcode);
+}
@@ -0,0 +1,69 @@
+package com.ismaelrh.gameboy.cpu.instructions;
+
+import com.ismaelrh.gameboy.cpu.Registers;
+import com.ismaelrh.gameboy.cpu.instruction.Instruction;
+import com.ismaelrh.gameboy.cpu.memory.Memory;
+
+/**
+ * A single concrete opcode (e.g. "ld B,C" is 0x41), decoded once when the dispatch table is built.
+ * Description, implementation, prefix and length never change, so nothing is looked up when executing it.
+ * Operands in the opcode (registers, conditions, bits) are bound into the implementation too.
+ */
+public class OpcodeHandler {
+
+    private final InstDescription description;
+    private final Inst inst;
+    private final byte opcode;
+    private final boolean cb;
+    private final int extraBytes;
+    private final int instBytes;
+    private final boolean blockEnd;
+
+    public OpcodeHandler(InstDescription description, byte opcode) {
+        this.description = description;
+        this.inst = description.getInst(opcode);
+        this.opcode = opcode;
+        this.cb = description.isCb();
+        this.extraBytes = description.getExtraBytes();
+        this.instBytes = (cb ? 2 : 1) + extraBytes;
+        this.blockEnd = endsBlock(description.getMnemonic());
+    }
+
+    //Instructions that may change PC, IME or halt the CPU. Nothing can be executed after them without checking again.
+    private static boolean endsBlock(String mnemonic) {
+        return mnemonic.startsWith("jp") || mnemonic.startsWith("jr") || mnemonic.startsWith("call")
+                || mnemonic.startsWith("ret") || mnemonic.startsWith("rst")
+                || mnemonic.equals("halt") || mnemonic.equals("stop") || mnemonic.equals("ei") || mnemonic.equals("di");
+    }
+
+    public int execute(Instruction instruction, Memory memory, Registers registers) throws Exception {
+        return inst.apply(instruction, memory, registers);
+    }
+
+    public InstDescription getDescription() {
+        return description;
+    }
+
+    public byte getOpcode() {
+        return opcode;
+    }
+
+    public boolean isCb() {
+        return cb;
+    }
+
+    //Number of immediate bytes (0, 1 or 2) after the opcode
+    public int getExtraBytes() {
+        return extraBytes;
+    }
+
+    //Total length, including CB prefix and immediates
+    public int getInstBytes() {
+        return instBytes;
+    }
+
+    //Whether this instruction has to be the last one of a basic block
+    public boolean isBlockEnd() {
+        return blockEnd;
+    }
+}
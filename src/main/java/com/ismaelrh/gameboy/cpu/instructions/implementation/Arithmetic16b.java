@@ -3,6 +3,8 @@ package com.ismaelrh.gameboy.cpu.instructions.implementation;
 import com.ismaelrh.gameboy.cpu.instruction.Instruction;
 import com.ismaelrh.gameboy.cpu.memory.Memory;
 import com.ismaelrh.gameboy.cpu.Registers;
+import com.ismaelrh.gameboy.cpu.instructions.Inst;
+import com.ismaelrh.gameboy.cpu.WordRegister;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -10,44 +12,31 @@ public class Arithmetic16b {
 
     private static final Logger log = LogManager.getLogger(Arithmetic16b.class);
 
-    public static short addHL_rr(Instruction inst, Memory memory, Registers registers) {
-        char hl = registers.getHL();
-        char regData = registers.getByDoubleCode(inst.getOpcodeFirstDoubleRegister(), true);
-        char result = (char) (hl + regData);
-        registers.setHL(result);
-        registers.clearFlagN(); //Reset
-
-        if (carryOnAdd(result, hl, regData)) {
-            registers.setFlagC();
-        }
-        else{
-            registers.clearFlagC();
-        }
-        if (halfCarryOnAdd(hl, regData)) {
-            registers.setFlagH();
-        }
-        else{
-            registers.clearFlagH();
-        }
-        return 8;
+    public static Inst addHL_rr(byte opcode) {
+        WordRegister from = WordRegister.byCode(new Instruction(opcode).getOpcodeFirstDoubleRegister(), true);
+        return (inst, memory, registers) -> {
+            char hl = registers.getHL();
+            char regData = from.get(registers);
+            registers.setHL((char) (hl + regData));
+            registers.setFlagsAdd16(hl, regData);
+            return 8;
+        };
     }
 
-    public static short inc_rr(Instruction inst, Memory memory, Registers registers) {
-        //Flags are not touched
-        byte register = inst.getOpcodeFirstDoubleRegister();
-        char regData = registers.getByDoubleCode(register, true);
-        char result = (char) (regData + 0x01);
-        registers.setByDoubleCode(register, result, true);
-        return 8;
+    public static Inst inc_rr(byte opcode) {
+        WordRegister register = WordRegister.byCode(new Instruction(opcode).getOpcodeFirstDoubleRegister(), true);
+        return (inst, memory, registers) -> {
+            register.set(registers, (char) (register.get(registers) + 0x01));
+            return 8;
+        };
     }
 
-    public static short dec_rr(Instruction inst, Memory memory, Registers registers) {
-        //Flags are not touched
-        byte register = inst.getOpcodeFirstDoubleRegister();
-        char regData = registers.getByDoubleCode(register, true);
-        char result = (char) (regData - 0x01);
-        registers.setByDoubleCode(register, result, true);
-        return 8;
+    public static Inst dec_rr(byte opcode) {
+        WordRegister register = WordRegister.byCode(new Instruction(opcode).getOpcodeFirstDoubleRegister(), true);
+        return (inst, memory, registers) -> {
+            register.set(registers, (char) (register.get(registers) - 0x01));
+            return 8;
+        };
     }
 
     public static short addSP_dd(Instruction inst, Memory memory, Registers registers) {
@@ -102,11 +91,6 @@ public class Arithmetic16b {
         return 12;
     }
 
-    private static boolean carryOnAdd(char newValue, char a, char b) {
-        //Check FULL CARRY, if result is less than one of the parameters
-        return newValue < a || newValue < b;
-    }
-
     private static boolean carryOnAddSPee(char sp, byte ee) {
         /*
          *
@@ -122,10 +106,5 @@ public class Arithmetic16b {
         return (char) (((char) (sp & 0x000F) + (char) (ee & 0x000F)) & 0x0010) == (char) 0x0010;
     }
 
-    private static boolean halfCarryOnAdd(char a, char b) {
-        //Bit 11
-        return (((char) (a & 0xFFF) + (char) (b & 0xFFF)) & (char) 0x1000) == 0x1000;
-    }
-
 
-}
\ No newline at end of file
+}
@@ -49,12 +49,13 @@ public class ControlCommands {
     }
 
     public static short di(Instruction inst, Memory memory, Registers registers) {
-        registers.setIme(false);
+        memory.getInterruptController().setIme(false);
         return 4;
     }
 
+    //IME is set after the next instruction
     public static short ei(Instruction inst, Memory memory, Registers registers) {
-        registers.setIme(true);
+        memory.getInterruptController().enableImeDelayed();
         return 4;
     }
 }
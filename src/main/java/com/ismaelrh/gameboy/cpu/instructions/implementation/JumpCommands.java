@@ -3,6 +3,7 @@ package com.ismaelrh.gameboy.cpu.instructions.implementation;
 import com.ismaelrh.gameboy.cpu.instruction.Instruction;
 import com.ismaelrh.gameboy.cpu.memory.Memory;
 import com.ismaelrh.gameboy.cpu.Registers;
+import com.ismaelrh.gameboy.cpu.instructions.Inst;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -32,13 +33,17 @@ public class JumpCommands {
         return 4;
     }
 
-    public static short jp_f_nn(Instruction inst, Memory memory, Registers registers) {
-        if (checkCondition(inst,registers)) {
-            registers.setPC(inst.getImmediate16b());
-            return 16;
-        } else {
-            return 12;
-        }
+    public static Inst jp_f_nn(byte opcode) {
+        boolean onCarry = conditionOnCarry(opcode);
+        boolean expected = conditionExpected(opcode);
+        return (inst, memory, registers) -> {
+            if (checkCondition(onCarry, expected, registers)) {
+                registers.setPC(inst.getImmediate16b());
+                return 16;
+            } else {
+                return 12;
+            }
+        };
     }
 
     public static short jr_PC_dd(Instruction inst, Memory memory, Registers registers) {
@@ -47,14 +52,17 @@ public class JumpCommands {
         return 12;
     }
 
-    public static short jr_f_PC_dd(Instruction inst, Memory memory, Registers registers) {
-        if (checkCondition(inst,registers)) {
-            char result = (char) (registers.getPC() + inst.getImmediate8b());
-            registers.setPC(result);
-            return 12;
-        } else {
-            return 8;
-        }
+    public static Inst jr_f_PC_dd(byte opcode) {
+        boolean onCarry = conditionOnCarry(opcode);
+        boolean expected = conditionExpected(opcode);
+        return (inst, memory, registers) -> {
+            if (checkCondition(onCarry, expected, registers)) {
+                registers.setPC((char) (registers.getPC() + inst.getImmediate8b()));
+                return 12;
+            } else {
+                return 8;
+            }
+        };
     }
 
     //Assumes PC has already been moved
@@ -63,13 +71,17 @@ public class JumpCommands {
         return 24;
     }
 
-    public static short call_f_nn(Instruction inst, Memory memory, Registers registers) {
-        if (checkCondition(inst,registers)) {
-            doCall(inst.getImmediate16b(),memory,registers);
-            return 24;
-        } else {
-            return 12;
-        }
+    public static Inst call_f_nn(byte opcode) {
+        boolean onCarry = conditionOnCarry(opcode);
+        boolean expected = conditionExpected(opcode);
+        return (inst, memory, registers) -> {
+            if (checkCondition(onCarry, expected, registers)) {
+                doCall(inst.getImmediate16b(), memory, registers);
+                return 24;
+            } else {
+                return 12;
+            }
+        };
     }
 
     public static short ret(Instruction inst, Memory memory, Registers registers) {
@@ -77,27 +89,32 @@ public class JumpCommands {
         return 16;
     }
 
-    public static short ret_f(Instruction inst, Memory memory, Registers registers) {
-        if (checkCondition(inst,registers)) {
-            doRet(memory,registers);
-            return 20;
-        } else {
-            return 8;
-        }
+    public static Inst ret_f(byte opcode) {
+        boolean onCarry = conditionOnCarry(opcode);
+        boolean expected = conditionExpected(opcode);
+        return (inst, memory, registers) -> {
+            if (checkCondition(onCarry, expected, registers)) {
+                doRet(memory, registers);
+                return 20;
+            } else {
+                return 8;
+            }
+        };
     }
 
     public static short reti(Instruction inst, Memory memory, Registers registers) {
         doRet(memory,registers);
-        registers.setIme(true);
+        memory.getInterruptController().setIme(true);
         return 16;
     }
 
-    public static short rst_n(Instruction inst, Memory memory, Registers registers) {
-        char[] addresses = new char[]{0x0000, 0x0008, 0x0010, 0x0018, 0x0020, 0x0028, 0x0030, 0x0038};
-        int t = inst.getOpcodeFirstSingleRegister();
-        char addressToCall = addresses[t];
-        doCall(addressToCall,memory,registers);
-        return 16;
+    public static Inst rst_n(byte opcode) {
+        //rst t calls t * 8
+        char addressToCall = (char) (new Instruction(opcode).getOpcodeFirstSingleRegister() << 3);
+        return (inst, memory, registers) -> {
+            doCall(addressToCall, memory, registers);
+            return 16;
+        };
     }
 
     public static void doCall(char nn, Memory memory, Registers registers) {
@@ -124,13 +141,16 @@ public class JumpCommands {
     }
 
 
-    private static boolean checkCondition(Instruction inst,  Registers registers) {
-        byte condition = (byte) (((inst.getOpcode() & 0x18) >> 3) & 0xFF);
-        return (condition == 0 && !registers.checkFlagZ()) ||
-                (condition == 1 && registers.checkFlagZ()) ||
-                (condition == 2 && !registers.checkFlagC()) ||
-                (condition == 3 && registers.checkFlagC());
+    //Conditions are NZ (0), Z (1), NC (2) and C (3)
+    private static boolean conditionOnCarry(byte opcode) {
+        return (opcode & 0x10) != 0;
     }
 
+    private static boolean conditionExpected(byte opcode) {
+        return (opcode & 0x08) != 0;
+    }
 
+    private static boolean checkCondition(boolean onCarry, boolean expected, Registers registers) {
+        return (onCarry ? registers.checkFlagC() : registers.checkFlagZ()) == expected;
+    }
 }
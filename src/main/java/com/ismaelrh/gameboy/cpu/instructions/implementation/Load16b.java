@@ -3,6 +3,8 @@ package com.ismaelrh.gameboy.cpu.instructions.implementation;
 import com.ismaelrh.gameboy.cpu.instruction.Instruction;
 import com.ismaelrh.gameboy.cpu.memory.Memory;
 import com.ismaelrh.gameboy.cpu.Registers;
+import com.ismaelrh.gameboy.cpu.instructions.Inst;
+import com.ismaelrh.gameboy.cpu.WordRegister;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -16,17 +18,17 @@ public class Load16b {
     private static final Logger log = LogManager.getLogger(Load16b.class);
 
 
-
     /*
      * 16-BIT LOAD COMMANDS
      */
 
     //LD rr, nn [rr <- nn] (rr is pair of registers)
-    public static short loadRR_NN(Instruction inst, Memory memory, Registers registers) {
-        byte regCode = inst.getOpcodeFirstDoubleRegister();
-        registers.setByDoubleCode(regCode, inst.getImmediate16b(), true);
-
-        return 12;
+    public static Inst loadRR_NN(byte opcode) {
+        WordRegister to = WordRegister.byCode(new Instruction(opcode).getOpcodeFirstDoubleRegister(), true);
+        return (inst, memory, registers) -> {
+            to.set(registers, inst.getImmediate16b());
+            return 12;
+        };
     }
 
     //LD SP, HL (SP <- HL)
@@ -52,33 +54,30 @@ public class Load16b {
     }
 
     //push qq ((SP -1) <- qqH; (SP -2) <- qqL; SP <- SP -2)
-    public static short push_QQ(Instruction inst, Memory memory, Registers registers) {
-        byte regCode = inst.getOpcodeFirstDoubleRegister();
-        char regContent = registers.getByDoubleCode(regCode, false);
-        byte high = (byte) ((regContent >> 8) & 0xFF);
-        byte low = (byte) (regContent & 0xFF);
-        char curSP = registers.getSP();
-        memory.write((char) (curSP - 1), high);
-        memory.write((char) (curSP - 2), low);
-        registers.setSP((char) (curSP - 2));
-
-        return 16;
+    public static Inst push_QQ(byte opcode) {
+        WordRegister from = WordRegister.byCode(new Instruction(opcode).getOpcodeFirstDoubleRegister(), false);
+        return (inst, memory, registers) -> {
+            char regContent = from.get(registers);
+            char curSP = registers.getSP();
+            memory.write((char) (curSP - 1), (byte) ((regContent >> 8) & 0xFF));
+            memory.write((char) (curSP - 2), (byte) (regContent & 0xFF));
+            registers.setSP((char) (curSP - 2));
+            return 16;
+        };
     }
 
     //pop qq (qqL <- (SP); qqH <- (SP+1); SP <- SP + 2)
-    public static short pop_QQ(Instruction inst, Memory memory, Registers registers) {
-        byte regCode = inst.getOpcodeFirstDoubleRegister();
-        char spPointer = registers.getSP();
-        char spPlusOnePointer = (char) (spPointer + 1);
-        byte lowContent = memory.read(spPointer);
-        byte highContent = memory.read(spPlusOnePointer);
-        char dataToWrite = (char) ((highContent << 8) | (lowContent & 0xFF));
-        registers.setByDoubleCode(regCode, dataToWrite, false);
-        registers.setSP((char) (spPointer + 0x2));
-        return 12;
+    public static Inst pop_QQ(byte opcode) {
+        WordRegister to = WordRegister.byCode(new Instruction(opcode).getOpcodeFirstDoubleRegister(), false);
+        return (inst, memory, registers) -> {
+            char spPointer = registers.getSP();
+            byte lowContent = memory.read(spPointer);
+            byte highContent = memory.read((char) (spPointer + 1));
+            to.set(registers, (char) ((highContent << 8) | (lowContent & 0xFF)));
+            registers.setSP((char) (spPointer + 0x2));
+            return 12;
+        };
     }
 
 
-
-
 }
@@ -3,6 +3,8 @@ package com.ismaelrh.gameboy.cpu.instructions.implementation;
 import com.ismaelrh.gameboy.cpu.instruction.Instruction;
 import com.ismaelrh.gameboy.cpu.memory.Memory;
 import com.ismaelrh.gameboy.cpu.Registers;
+import com.ismaelrh.gameboy.cpu.instructions.Inst;
+import com.ismaelrh.gameboy.cpu.ByteRegister;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -18,39 +20,41 @@ public class Load8b {
 
     //TODO: indicate that operators return CLOCK CYCLES (1 machine cycle = 4 clock cycles)
     //ld r,r' [r <- r']
-    public static short loadRR(Instruction inst, Memory memory, Registers registers) {
-        byte secondOp = inst.getOpcodeSecondOperand();
-        byte firstOp = inst.getOpcodeFirstSingleRegister();
-        byte data = registers.getByCode(secondOp);
-        registers.setByCode(firstOp, data);
-        return 4;
+    public static Inst loadRR(byte opcode) {
+        Instruction decoded = new Instruction(opcode);
+        ByteRegister to = ByteRegister.byCode(decoded.getOpcodeFirstSingleRegister());
+        ByteRegister from = ByteRegister.byCode(decoded.getOpcodeSecondOperand());
+        return (inst, memory, registers) -> {
+            to.set(registers, from.get(registers));
+            return 4;
+        };
     }
 
     //ld r,n  [r <- n]
-    public static short loadRImmediate(Instruction inst, Memory memory, Registers registers) {
-        byte operand = inst.getOpcodeFirstSingleRegister();
-        registers.setByCode(operand, inst.getImmediate8b());
-        return 8;
+    public static Inst loadRImmediate(byte opcode) {
+        ByteRegister to = ByteRegister.byCode(new Instruction(opcode).getOpcodeFirstSingleRegister());
+        return (inst, memory, registers) -> {
+            to.set(registers, inst.getImmediate8b());
+            return 8;
+        };
     }
 
     //ld r, (HL)  [r<-(HL)]
-    public static short loadRHL(Instruction inst, Memory memory, Registers registers) {
-        byte operand = inst.getOpcodeFirstSingleRegister();
-        char addressToRead = registers.getHL();
-        byte memData = memory.read(addressToRead);
-        registers.setByCode(operand, memData);
-
-        return 8;
+    public static Inst loadRHL(byte opcode) {
+        ByteRegister to = ByteRegister.byCode(new Instruction(opcode).getOpcodeFirstSingleRegister());
+        return (inst, memory, registers) -> {
+            to.set(registers, memory.read(registers.getHL()));
+            return 8;
+        };
     }
 
     //ld (HL), r  [(HL) <- r]
-    public static short loadHLR(Instruction inst, Memory memory, Registers registers) {
-        byte operand = inst.getOpcodeSecondOperand();
-        byte registerData = registers.getByCode(operand);
-        char addressToWrite = registers.getHL();
-        memory.write(addressToWrite, registerData);
-
-        return 8;
+    public static Inst loadHLR(byte opcode) {
+        ByteRegister from = ByteRegister.byCode(new Instruction(opcode).getOpcodeSecondOperand());
+        return (inst, memory, registers) -> {
+            memory.write(registers.getHL(), from.get(registers));
+            return 8;
+        };
     }
 
     //ld (HL),n  [(HL) <- n]
@@ -3,6 +3,8 @@ package com.ismaelrh.gameboy.cpu.instructions.implementation;
 import com.ismaelrh.gameboy.cpu.instruction.Instruction;
 import com.ismaelrh.gameboy.cpu.memory.Memory;
 import com.ismaelrh.gameboy.cpu.Registers;
+import com.ismaelrh.gameboy.cpu.ByteRegister;
+import com.ismaelrh.gameboy.cpu.instructions.Inst;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -62,15 +64,12 @@ public class RotateShift {
 
     //Rotate register r8 left.
     //C <- [7 <- 0] <- [7]
-    public static short rlc_r(Instruction inst, Memory memory, Registers registers) {
-        byte res = rotateLeft(
-                registers.getByCode(inst.getOpcodeSecondOperand()),
-                false,
-                true,
-                registers
-        );
-        registers.setByCode(inst.getOpcodeSecondOperand(), res);
-        return 8;
+    public static Inst rlc_r(byte opcode) {
+        ByteRegister register = operand(opcode);
+        return (inst, memory, registers) -> {
+            register.set(registers, rotateLeft(register.get(registers), false, true, registers));
+            return 8;
+        };
     }
 
     //Rotate byte pointed to by HL left.
@@ -88,15 +87,12 @@ public class RotateShift {
 
     //Rotate bits in register r8 left through carry.
     //C <- [7 <- 0] <- C
-    public static short rl_r(Instruction inst, Memory memory, Registers registers) {
-        byte res = rotateLeft(
-                registers.getByCode(inst.getOpcodeSecondOperand()),
-                true,
-                true,
-                registers
-        );
-        registers.setByCode(inst.getOpcodeSecondOperand(), res);
-        return 8;
+    public static Inst rl_r(byte opcode) {
+        ByteRegister register = operand(opcode);
+        return (inst, memory, registers) -> {
+            register.set(registers, rotateLeft(register.get(registers), true, true, registers));
+            return 8;
+        };
     }
 
     //Rotate byte pointed to by HL left through carry.
@@ -115,15 +111,12 @@ public class RotateShift {
 
     //Rotate register r8 right.
     //[0] -> [7 -> 0] -> C
-    public static short rrc_r(Instruction inst, Memory memory, Registers registers) {
-        byte res = rotateRight(
-                registers.getByCode(inst.getOpcodeSecondOperand()),
-                false,
-                true,
-                registers
-        );
-        registers.setByCode(inst.getOpcodeSecondOperand(), res);
-        return 8;
+    public static Inst rrc_r(byte opcode) {
+        ByteRegister register = operand(opcode);
+        return (inst, memory, registers) -> {
+            register.set(registers, rotateRight(register.get(registers), false, true, registers));
+            return 8;
+        };
     }
 
     //Rotate byte pointed to by HL right.
@@ -141,15 +134,12 @@ public class RotateShift {
 
     //Rotate register r8 right through carry.
     //C -> [7 -> 0] -> C
-    public static short rr_r(Instruction inst, Memory memory, Registers registers) {
-        byte res = rotateRight(
-                registers.getByCode(inst.getOpcodeSecondOperand()),
-                true,
-                true,
-                registers
-        );
-        registers.setByCode(inst.getOpcodeSecondOperand(), res);
-        return 8;
+    public static Inst rr_r(byte opcode) {
+        ByteRegister register = operand(opcode);
+        return (inst, memory, registers) -> {
+            register.set(registers, rotateRight(register.get(registers), true, true, registers));
+            return 8;
+        };
     }
 
 
@@ -167,13 +157,12 @@ public class RotateShift {
     }
 
     //swap r
-    public static short swap_r(Instruction inst, Memory memory, Registers registers) {
-        byte res = swap(
-                registers.getByCode(inst.getOpcodeSecondOperand()),
-                registers
-        );
-        registers.setByCode(inst.getOpcodeSecondOperand(), res);
-        return 8;
+    public static Inst swap_r(byte opcode) {
+        ByteRegister register = operand(opcode);
+        return (inst, memory, registers) -> {
+            register.set(registers, swap(register.get(registers), registers));
+            return 8;
+        };
     }
 
     //swap HL
@@ -187,21 +176,17 @@ public class RotateShift {
     }
 
     private static byte swap(byte data, Registers registers) {
-        registers.clearFlags();
         byte res = (byte) (((data & 0x0F) << 4) | ((data & 0xF0) >> 4));
-        if (res == 0x00) {
-            registers.setFlagZ();
-        }
+        registers.setF((byte) zeroFlag(res));
         return res;
     }
 
-    public static short sla_r(Instruction inst, Memory memory, Registers registers) {
-        byte res = sla(
-                registers.getByCode(inst.getOpcodeSecondOperand()),
-                registers
-        );
-        registers.setByCode(inst.getOpcodeSecondOperand(), res);
-        return 8;
+    public static Inst sla_r(byte opcode) {
+        ByteRegister register = operand(opcode);
+        return (inst, memory, registers) -> {
+            register.set(registers, sla(register.get(registers), registers));
+            return 8;
+        };
     }
 
     public static short sla_hl(Instruction inst, Memory memory, Registers registers) {
@@ -213,14 +198,12 @@ public class RotateShift {
         return 16;
     }
 
-    public static short sra_r(Instruction inst, Memory memory, Registers registers) {
-        byte res = sr(
-                registers.getByCode(inst.getOpcodeSecondOperand()),
-                true,
-                registers
-        );
-        registers.setByCode(inst.getOpcodeSecondOperand(), res);
-        return 8;
+    public static Inst sra_r(byte opcode) {
+        ByteRegister register = operand(opcode);
+        return (inst, memory, registers) -> {
+            register.set(registers, sr(register.get(registers), true, registers));
+            return 8;
+        };
     }
 
     public static short sra_hl(Instruction inst, Memory memory, Registers registers) {
@@ -233,14 +216,12 @@ public class RotateShift {
         return 16;
     }
 
-    public static short srl_r(Instruction inst, Memory memory, Registers registers) {
-        byte res = sr(
-                registers.getByCode(inst.getOpcodeSecondOperand()),
-                false,
-                registers
-        );
-        registers.setByCode(inst.getOpcodeSecondOperand(), res);
-        return 8;
+    public static Inst srl_r(byte opcode) {
+        ByteRegister register = operand(opcode);
+        return (inst, memory, registers) -> {
+            register.set(registers, sr(register.get(registers), false, registers));
+            return 8;
+        };
     }
 
     public static short srl_hl(Instruction inst, Memory memory, Registers registers) {
@@ -255,23 +236,16 @@ public class RotateShift {
 
     private static byte sla(byte data, Registers registers) {
 
-        //Higher bit is 1, set carry flag. This also clears other flags
-        registers.setF((byte) ((data & 0x80) >> 3));
-
         byte res = (byte) (data << 1);
 
-        if (res == 0x00) {
-            registers.setFlagZ();
-        }
+        //Higher bit is 1, set carry flag. This also clears other flags
+        registers.setF((byte) (((data & 0x80) >> 3) | zeroFlag(res)));
 
         return res;
     }
 
     private static byte sr(byte data, boolean keepMsb, Registers registers) {
 
-        //Lower bit is 1, set carry flag. Also clears other flags
-        registers.setF((byte) ((data & 0x01) << 4));
-
         //Rotate, and leave msb as zero
         byte res = (byte) ((data >> 1) & 0x7F);
 
@@ -280,43 +254,41 @@ public class RotateShift {
             res = (byte) (res | (data & 0x80));
         }
 
-        if (res == 0x00) {
-            registers.setFlagZ();
-        }
+        //Lower bit is 1, set carry flag. Also clears other flags
+        registers.setF((byte) (((data & 0x01) << 4) | zeroFlag(res)));
         return res;
     }
 
     private static byte rotateLeft(byte value, boolean throughCarry, boolean useZflag, Registers registers) {
-        byte oldFlags = registers.getF();
-        registers.clearFlags();
         byte res = 0;
         if (throughCarry) {
-            res = (byte) ((value << 1) | ((oldFlags & 0x10) >> 4));  //Put in least significant bit the carry
+            res = (byte) ((value << 1) | (registers.checkFlagC() ? 0x01 : 0x00));  //Put in least significant bit the carry
         } else {
             res = (byte) ((value << 1) | (((value & 0x80) >> 7) & 0xFF));  //Move byte 7 to 1st position
         }
-        registers.setF((byte) ((value & 0x80) >> 3)); //Higher bit is 1, set carry flag
-        if (useZflag && res == 0x00) {
-            registers.setFlagZ();
-        }
+        //Higher bit is 1, set carry flag
+        registers.setF((byte) (((value & 0x80) >> 3) | (useZflag ? zeroFlag(res) : 0)));
         return res;
     }
 
     private static byte rotateRight(byte value, boolean throughCarry, boolean useZflag, Registers registers) {
-        byte oldFlags = registers.getF();
-        registers.clearFlags();
         byte res = 0;
         if (throughCarry) {
-            res = (byte) (((value & 0xFF) >> 1) | ((oldFlags & 0x10) << 3));  //Put in least significant bit the carry
+            res = (byte) (((value & 0xFF) >> 1) | (registers.checkFlagC() ? 0x80 : 0x00));  //Put in most significant bit the carry
         } else {
             res = (byte) (((value & 0xFF) >> 1) | (((value & 0x01) << 7) & 0xFF));  //Move byte 1 to 7th position
         }
-        registers.setF((byte) ((value & 0x01) << 4)); //Lower bit is 1, set carry flag
-        if (useZflag && res == 0x00) {
-            registers.setFlagZ();
-        }
+        //Lower bit is 1, set carry flag
+        registers.setF((byte) (((value & 0x01) << 4) | (useZflag ? zeroFlag(res) : 0)));
         return res;
     }
 
+    private static int zeroFlag(byte result) {
+        return result == 0x00 ? 0x80 : 0x00;
+    }
+
 
+    private static ByteRegister operand(byte opcode) {
+        return ByteRegister.byCode(new Instruction(opcode).getOpcodeSecondOperand());
+    }
 }
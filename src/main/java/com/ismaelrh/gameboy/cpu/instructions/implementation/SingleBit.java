@@ -3,6 +3,8 @@ package com.ismaelrh.gameboy.cpu.instructions.implementation;
 import com.ismaelrh.gameboy.cpu.instruction.Instruction;
 import com.ismaelrh.gameboy.cpu.memory.Memory;
 import com.ismaelrh.gameboy.cpu.Registers;
+import com.ismaelrh.gameboy.cpu.instructions.Inst;
+import com.ismaelrh.gameboy.cpu.ByteRegister;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -13,44 +15,60 @@ public class SingleBit {
     static int[] indexToMask = new int[]{0x01, 0x02, 0x04, 0x08, 0x10, 0x20, 0x40, 0x80};
 
 
-    public static short bit_n_r(Instruction inst, Memory memory, Registers registers) {
-        int n = (inst.getOpcodeFirstSingleRegister() & 0xFF);
-        bit_n(n, registers.getByCode(inst.getOpcodeSecondOperand()), registers);
-        return 8;
+    public static Inst bit_n_r(byte opcode) {
+        Instruction decoded = new Instruction(opcode);
+        int n = decoded.getOpcodeFirstSingleRegister() & 0xFF;
+        ByteRegister register = ByteRegister.byCode(decoded.getOpcodeSecondOperand());
+        return (inst, memory, registers) -> {
+            bit_n(n, register.get(registers), registers);
+            return 8;
+        };
     }
 
-    public static short bit_n_HL(Instruction inst, Memory memory, Registers registers) {
-        int n = (inst.getOpcodeFirstSingleRegister() & 0xFF);
-        bit_n(n, memory.read(registers.getHL()), registers);
-        return 12;
+    public static Inst bit_n_HL(byte opcode) {
+        int n = new Instruction(opcode).getOpcodeFirstSingleRegister() & 0xFF;
+        return (inst, memory, registers) -> {
+            bit_n(n, memory.read(registers.getHL()), registers);
+            return 12;
+        };
     }
 
-    public static short set_n_r(Instruction inst, Memory memory, Registers registers) {
-        int n = (inst.getOpcodeFirstSingleRegister() & 0xFF);
-        byte res = set_n(n, registers.getByCode(inst.getOpcodeSecondOperand()));
-        registers.setByCode(inst.getOpcodeSecondOperand(), res);
-        return 8;
+    public static Inst set_n_r(byte opcode) {
+        Instruction decoded = new Instruction(opcode);
+        int n = decoded.getOpcodeFirstSingleRegister() & 0xFF;
+        ByteRegister register = ByteRegister.byCode(decoded.getOpcodeSecondOperand());
+        return (inst, memory, registers) -> {
+            register.set(registers, set_n(n, register.get(registers)));
+            return 8;
+        };
     }
 
-    public static short set_n_HL(Instruction inst, Memory memory, Registers registers) {
-        int n = (inst.getOpcodeFirstSingleRegister() & 0xFF);
-        byte res = set_n(n, memory.read(registers.getHL()));
-        memory.write(registers.getHL(), res);
-        return 16;
+    public static Inst set_n_HL(byte opcode) {
+        int n = new Instruction(opcode).getOpcodeFirstSingleRegister() & 0xFF;
+        return (inst, memory, registers) -> {
+            char address = registers.getHL();
+            memory.write(address, set_n(n, memory.read(address)));
+            return 16;
+        };
     }
 
-    public static short res_n_r(Instruction inst, Memory memory, Registers registers) {
-        int n = (inst.getOpcodeFirstSingleRegister() & 0xFF);
-        byte res = reset_n(n, registers.getByCode(inst.getOpcodeSecondOperand()));
-        registers.setByCode(inst.getOpcodeSecondOperand(), res);
-        return 8;
+    public static Inst res_n_r(byte opcode) {
+        Instruction decoded = new Instruction(opcode);
+        int n = decoded.getOpcodeFirstSingleRegister() & 0xFF;
+        ByteRegister register = ByteRegister.byCode(decoded.getOpcodeSecondOperand());
+        return (inst, memory, registers) -> {
+            register.set(registers, reset_n(n, register.get(registers)));
+            return 8;
+        };
     }
 
-    public static short res_n_HL(Instruction inst, Memory memory, Registers registers) {
-        int n = (inst.getOpcodeFirstSingleRegister() & 0xFF);
-        byte res = reset_n(n, memory.read(registers.getHL()));
-        memory.write(registers.getHL(), res);
-        return 16;
+    public static Inst res_n_HL(byte opcode) {
+        int n = new Instruction(opcode).getOpcodeFirstSingleRegister() & 0xFF;
+        return (inst, memory, registers) -> {
+            char address = registers.getHL();
+            memory.write(address, reset_n(n, memory.read(address)));
+            return 16;
+        };
     }
 
     private static void bit_n(int n, byte data, Registers registers) {
@@ -76,4 +94,5 @@ public class SingleBit {
         return (byte) ((data & ~indexToMask[n]) & 0xFF);
     }
 
+
 }
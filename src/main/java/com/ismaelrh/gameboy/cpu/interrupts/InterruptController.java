@@ -0,0 +1,135 @@
+package com.ismaelrh.gameboy.cpu.interrupts;
+
+import com.ismaelrh.gameboy.cpu.memory.MMIODevice;
+
+/**
+ * Owns IE (0xFFFF), IF (0xFF0F) and IME.
+ * What the CPU has to check after every instruction is precomputed whenever any of them changes,
+ * so when nothing is pending that check is a single field read.
+ */
+public class InterruptController extends MMIODevice {
+
+    public static final int VBLANK = 0x01;
+    public static final int LCD = 0x02;
+    public static final int TIMER = 0x04;
+    public static final int SERIAL = 0x08;
+    public static final int JOYPAD = 0x10;
+
+    //Handler of every interruption, by bit (VBLANK is bit 0)
+    private static final char ISR_START = 0x40;
+
+    private byte interruptEnable;
+    private byte interruptFlags;
+    private boolean ime;
+
+    //Instructions to finish before IME is set by EI: it is enabled after the one that follows EI
+    private int imeDelay;
+
+    //Enabled and requested: can wake up a halted CPU, even with IME disabled
+    private int pending;
+
+    //Pending and IME set: has to be serviced
+    private int serviceable;
+
+    //Something to do after the current instruction: serviceable or about to be, or IME about to be enabled
+    private boolean attention;
+
+    public InterruptController() {
+        super((char) 0xFF0F, (char) 0xFF0F);
+    }
+
+    @Override
+    public void onWrite(char address, byte data) {
+        setInterruptFlags(data);
+    }
+
+    @Override
+    public byte onRead(char address) {
+        return interruptFlags;
+    }
+
+    public byte getInterruptEnable() {
+        return interruptEnable;
+    }
+
+    public void setInterruptEnable(byte interruptEnable) {
+        this.interruptEnable = interruptEnable;
+        update();
+    }
+
+    public byte getInterruptFlags() {
+        return interruptFlags;
+    }
+
+    public void setInterruptFlags(byte interruptFlags) {
+        this.interruptFlags = interruptFlags;
+        update();
+    }
+
+    //Sets the given bits of IF
+    public void request(int mask) {
+        this.interruptFlags |= mask;
+        update();
+    }
+
+    public boolean isIme() {
+        return ime;
+    }
+
+    //DI, RETI or servicing an interruption. Cancels any EI not effective yet.
+    public void setIme(boolean ime) {
+        this.ime = ime;
+        this.imeDelay = 0;
+        update();
+    }
+
+    //EI: IME is set once the next instruction finishes
+    public void enableImeDelayed() {
+        if (!ime) {
+            this.imeDelay = 2;
+            update();
+        }
+    }
+
+    /**
+     * To be called after every instruction, only if needsAttention(). Makes a delayed EI effective.
+     */
+    public void onInstructionFinished() {
+        if (imeDelay > 0 && --imeDelay == 0) {
+            ime = true;
+            update();
+        }
+    }
+
+    public boolean needsAttention() {
+        return attention;
+    }
+
+    public boolean hasPending() {
+        return pending != 0;
+    }
+
+    public boolean isServiceable() {
+        return serviceable != 0;
+    }
+
+    public boolean isImeDelayed() {
+        return imeDelay > 0;
+    }
+
+    /**
+     * Clears the highest priority serviceable interruption and IME, returning the address of its handler.
+     */
+    public char acknowledge() {
+        int bit = Integer.numberOfTrailingZeros(serviceable);
+        interruptFlags &= ~(1 << bit);
+        setIme(false);
+        return (char) (ISR_START + 8 * bit);
+    }
+
+    private void update() {
+        pending = interruptEnable & interruptFlags & 0x1F;
+        serviceable = ime ? pending : 0;
+        attention = pending != 0 || imeDelay > 0;
+    }
+}
@@ -0,0 +1,10 @@
+package com.ismaelrh.gameboy.cpu.memory;
+
+/**
+ * Notified when something is written where cached code may live: a watched RAM address,
+ * or the cartridge control area (0x0000-0x7FFF), that can switch the mapped ROM bank.
+ */
+public interface CodeWriteListener {
+
+    void onCodeWrite(char address);
+}
@@ -2,49 +2,37 @@ package com.ismaelrh.gameboy.cpu.memory;
 
 
 import com.ismaelrh.gameboy.cpu.cartridge.Cartridge;
+import com.ismaelrh.gameboy.cpu.interrupts.InterruptController;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.io.File;
 import java.nio.file.Files;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Arrays;
 
-import static com.ismaelrh.gameboy.gpu.Gpu.OAM_START_ADDRESS;
 
 public class Memory {
 
-    //For interruptions
-    private final static char VBLANK_MASK = (char) 0x01; //0000-0001
-    private final static char VBLANK_ISR = (char) 0x40;
+    //Interceptors of every page by direction, null if none. Each one still has to check its range.
+    private final MemoryInterceptor[][] readInterceptors = new MemoryInterceptor[256][];
+    private final MemoryInterceptor[][] writeInterceptors = new MemoryInterceptor[256][];
 
-    private final static char LCD_MASK = (char) 0x02; //0000-0010
-    private final static char LCD_ISR = (char) 0x48;
+    //Device of every I/O register (0xFF00-0xFF7F), null if it is not mapped to any
+    private final MMIODevice[] ioDevices = new MMIODevice[IO_REGISTERS];
 
-    private final static char TIMER_MASK = (char) 0x04; //0000-0100
-    private final static char TIMER_ISR = (char) 0x50;
-
-    private final static char SERIAL_MASK = (char) 0x08; //0000-1000
-    private final static char SERIAL_ISR = (char) 0x58;
-
-    private final static char JOYPAD_MASK = (char) 0x10; //0001-0000
-    private final static char JOYPAD_ISR = (char) 0x60;
-
-    public final static char[] INTERRUPTION_MASKS = new char[]{VBLANK_MASK, LCD_MASK, TIMER_MASK, SERIAL_MASK, JOYPAD_MASK};
+    private boolean bootromEnabled = false;
 
-    public final static char[] ISR = new char[]{
-            0x00,   //0x00 -> Does not exist
-            VBLANK_ISR, //0x01 -> VBLANK
-            LCD_ISR, 0x00, //0x02 -> LCD
-            TIMER_ISR, 0x00, 0x00, 0x00,//0x04 -> TIMER
-            SERIAL_ISR, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00, //0x08 -> SERIAL
-            JOYPAD_ISR //0x10 -> JOYPAD
-    };
+    //Only set when accesses are traced
+    private MemoryAccessListener accessListener;
 
-    private List<MemoryInterceptor> interceptors = new ArrayList<>();
-    private List<MMIODevice> mmioDevices = new ArrayList<>();
+    //Only set when there are watchpoints: one bit per address, by direction
+    private long[] readWatchpoints;
+    private long[] writeWatchpoints;
+    private WatchpointListener watchpointListener;
 
-    private boolean bootromEnabled = false;
+    //Only set when translated code is cached, the flags tell which RAM addresses hold it
+    private CodeWriteListener codeWriteListener;
+    private boolean[] watchedCode;
 
     //TO-DO: redirect external memory and I/O where it corresponds
     private static final Logger log = LogManager.getLogger(Memory.class);
@@ -60,6 +48,9 @@ public class Memory {
 
     private byte[] bootrom;
 
+    //Cartridge ROM banks: 0x0000-0x3FFF and 0x4000-0x7FFF
+    private final static int ROM_BANK_SIZE_BYTES = 16 * 1024;
+
     //Video/tile RAM: 0x8000 to 0x9FFF (8KB)
     private final static char VIDEO_RAM_START = 0x8000;
     private final static int VIDEO_RAM_SIZE_BYTES = 8192;
@@ -87,6 +78,7 @@ public class Memory {
     //I/O ports mapped RAM: 0xFF00 - 0xFF7F (128 Bytes)
     private final static char IO_RAM_START = 0xFF00;
     private final static int IO_RAM_SIZE_BYTES = 0xFF00;
+    private final static int IO_REGISTERS = 0x80;
     private byte[] ioRAM;
 
     //High-RAM: 0xFF80 - 0xFFFE (127 Bytes)
@@ -96,20 +88,36 @@ public class Memory {
 
     //Interrupt Enable Register: 0xFFFF (1 Byte)
     private final static char INTERRUPT_ENABLE_ADDRESS = 0xFFFF;
-    public byte interruptEnable;
 
 
     private final static char DISABLE_BOOTROM_ADDRESS = 0xFF50;
 
-    //Interrupt Flags Register: 0xFF0F (1 Byte)
-    private final static char INTERRUPT_FLAGS_ADDRESS = 0xFF0f;
-    public byte interruptFlags;
+    //Owns IE, IF (0xFF0F) and IME
+    private final InterruptController interruptController = new InterruptController();
 
     private final static char DMA_ADDRESS = 0xFF46;
 
+    private final static char LCD_CONTROL_ADDRESS = 0xFF40;
+    private final static char LCD_STAT_ADDRESS = 0xFF41;
+
+    //Page table, one entry per 256-byte page: array the page is in, and index of its first byte there.
+    //Pages without array (I/O, OAM, locked VRAM, cartridge areas with side effects...) are handled one by one.
+    private final byte[][] readPages = new byte[256][];
+    private final int[] readOffsets = new int[256];
+    private final byte[][] writePages = new byte[256][];
+    private final int[] writeOffsets = new int[256];
+
+    //Null if DMA is instant, only Memory is being used
+    private OamDma oamDma;
+
+    //Whether the PPU lets the CPU access VRAM and OAM, updated on mode changes
+    private boolean vramAccessible = true;
+    private boolean oamAccessible = true;
+
 
     public Memory() {
         clear();
+        addMMIODevice(interruptController);
     }
 
     public void clear() {
@@ -119,19 +127,127 @@ public class Memory {
         spriteRAM = new byte[SPRITE_RAM_SIZE_BYTES];
         ioRAM = new byte[IO_RAM_SIZE_BYTES];
         highRAM = new byte[HIGH_RAM_SIZE_BYTES];
-        interruptEnable = 0x0;
-        interruptFlags = 0x0;
+        interruptController.setInterruptEnable((byte) 0x0);
+        interruptController.setInterruptFlags((byte) 0x0);
+        mapAll();
+        //Whatever was decoded from them is stale now
+        notifyBulkWrite(VIDEO_RAM_START, videoRAM, 0, VIDEO_RAM_SIZE_BYTES);
+        notifyBulkWrite(SPRITE_RAM_START, spriteRAM, 0, SPRITE_RAM_SIZE_BYTES);
         log.debug("Memory cleared");
     }
 
+    /**
+     * Registers the interceptor for the pages its range covers, only in the directions it intercepts.
+     */
     public void addInterceptor(MemoryInterceptor interceptor) {
-        this.interceptors.add(interceptor);
+        for (int page = interceptor.startAddress >> 8; page <= interceptor.endAddress >> 8; page++) {
+            if (interceptor.interceptsReads) {
+                readInterceptors[page] = append(readInterceptors[page], interceptor);
+            }
+            if (interceptor.interceptsWrites) {
+                writeInterceptors[page] = append(writeInterceptors[page], interceptor);
+            }
+        }
         interceptor.addMemory(this);
     }
 
-    public void addMMIODevice(MMIODevice interceptor) {
-        this.mmioDevices.add(interceptor);
-        interceptor.addMemory(this);
+    private static MemoryInterceptor[] append(MemoryInterceptor[] interceptors, MemoryInterceptor interceptor) {
+        if (interceptors == null) {
+            return new MemoryInterceptor[]{interceptor};
+        }
+        MemoryInterceptor[] result = Arrays.copyOf(interceptors, interceptors.length + 1);
+        result[interceptors.length] = interceptor;
+        return result;
+    }
+
+    /**
+     * Maps the device to its I/O registers. Each register can only be mapped to one device.
+     */
+    public void addMMIODevice(MMIODevice device) {
+        if (device.startAddress < IO_RAM_START || device.endAddress >= IO_RAM_START + IO_REGISTERS
+                || device.startAddress > device.endAddress) {
+            throw new IllegalArgumentException(String.format("MMIO device %s range %04X-%04X is not an I/O range",
+                    device.getClass().getSimpleName(), (int) device.startAddress, (int) device.endAddress));
+        }
+        for (int address = device.startAddress; address <= device.endAddress; address++) {
+            MMIODevice mapped = ioDevices[address - IO_RAM_START];
+            if (mapped != null) {
+                throw new IllegalArgumentException(String.format("MMIO device %s overlaps %s at %04X",
+                        device.getClass().getSimpleName(), mapped.getClass().getSimpleName(), address));
+            }
+        }
+        for (int address = device.startAddress; address <= device.endAddress; address++) {
+            ioDevices[address - IO_RAM_START] = device;
+        }
+        device.addMemory(this);
+        updateVideoMapping();   //May be the GPU
+    }
+
+    /**
+     * Makes OAM DMA take its time, blocking the buses it uses meanwhile.
+     */
+    public void setOamDma(OamDma oamDma) {
+        this.oamDma = oamDma;
+    }
+
+    /**
+     * Tells the listener about every non-privileged access, or stops if null. Bulk copies and fills are not done meanwhile.
+     */
+    public void setAccessListener(MemoryAccessListener listener) {
+        this.accessListener = listener;
+    }
+
+    /**
+     * Bitmaps of the addresses whose non-privileged reads and writes are told to the listener (bit "address & 63" of
+     * [address >> 6]), or null to stop watching. Bulk copies and fills are not done meanwhile.
+     */
+    public void setWatchpoints(long[] readWatchpoints, long[] writeWatchpoints, WatchpointListener listener) {
+        this.readWatchpoints = readWatchpoints;
+        this.writeWatchpoints = writeWatchpoints;
+        this.watchpointListener = listener;
+    }
+
+    /**
+     * Whether an OAM DMA transfer is running, so the CPU may read the byte being transferred instead of memory.
+     */
+    public boolean isOamDmaActive() {
+        return oamDma != null && oamDma.isActive();
+    }
+
+    /**
+     * Whether accesses are traced or watched, so every one of them has to be done.
+     */
+    public boolean isObserved() {
+        return accessListener != null || readWatchpoints != null;
+    }
+
+    public void setCodeWriteListener(CodeWriteListener listener) {
+        this.codeWriteListener = listener;
+        this.watchedCode = new boolean[0x10000];
+    }
+
+    /**
+     * Writes to a watched address are notified to the code write listener, if any.
+     */
+    public void setCodeWatched(char address, boolean watched) {
+        if (watchedCode != null) {
+            watchedCode[address] = watched;
+        }
+    }
+
+    /**
+     * Bank of the cartridge ROM currently mapped at the given address (0x0000-0x7FFF).
+     */
+    public int getRomBank(char address) {
+        return cartridge.getRomBank(address);
+    }
+
+    public boolean isBootromEnabled() {
+        return bootromEnabled;
+    }
+
+    public boolean hasCartridge() {
+        return cartridge != null;
     }
 
 
@@ -139,35 +255,53 @@ public class Memory {
         return read(address, false);
     }
 
+    /**
+     * Privileged reads of the range, as the debugger sees it: they do not stop on watchpoints.
+     */
     public byte[] readRange(char address, int size) {
         byte[] data = new byte[size];
         for (int i = 0; i < data.length; i++) {
-            data[i] = read((char) ((address + i) & 0xFFFF), false);
+            data[i] = read((char) ((address + i) & 0xFFFF), true);
         }
         return data;
     }
 
     public byte read(char address, boolean privileged) {
 
+        int page = address >> 8;
+        byte[] pageData = readPages[page];
+        byte result = pageData != null ? pageData[readOffsets[page] + (address & 0xFF)] : readSpecial(address, privileged);
+
+        MemoryInterceptor[] pageInterceptors = readInterceptors[page];
+        if (pageInterceptors != null) {
+            result = interceptRead(pageInterceptors, address, result);
+        }
+        if (accessListener != null && !privileged) {    //PPU fetches are not CPU accesses
+            accessListener.onAccess(address, result, false);
+        }
+        if (readWatchpoints != null && !privileged && (readWatchpoints[address >> 6] & (1L << address)) != 0) {
+            watchpointListener.onWatchpoint(address, result, false);
+        }
+        return result;
+    }
+
+    //Addresses whose page is not mapped to an array
+    private byte readSpecial(char address, boolean privileged) {
+        if (oamDma != null && oamDma.blocks(address)) {
+            if (!privileged) {
+                return oamDma.getBusValue(address);
+            }
+            oamDma.sync();  //Privileged reads see OAM as it is now
+        }
+
         byte result = (byte) 0xFF; //Default bus value
         if (address == INTERRUPT_ENABLE_ADDRESS) {
-            result = interruptEnable;
-        } else if (address == INTERRUPT_FLAGS_ADDRESS) {
-            result = interruptFlags;
+            result = interruptController.getInterruptEnable();
         } else if (address >= HIGH_RAM_START) {
             result = highRAM[address - HIGH_RAM_START];
         } else if (address >= IO_RAM_START) {
-            //Call IO if any
-            boolean mmioFound = false;
-            for (MMIODevice device : mmioDevices) {
-                if (address >= device.startAddress && address <= device.endAddress) {
-                    result = device.onRead(address);
-                    mmioFound = true;
-                }
-            }
-            if (!mmioFound) {
-                result = ioRAM[address - IO_RAM_START]; //Remove when all mapped
-            }
+            MMIODevice device = ioDevices[address - IO_RAM_START];
+            result = device != null ? device.onRead(address) : ioRAM[address - IO_RAM_START];
         } else if (address >= UNUSABLE_RAM_START) {
             if (log.isWarnEnabled()) {
                 log.warn("Read unusable RAM @" + String.format("%04x", (int) address));
@@ -187,9 +321,7 @@ public class Memory {
             if (canUseVRAM() || privileged) {
                 result = videoRAM[address - VIDEO_RAM_START];
             }
-        } else if (bootromEnabled && address <= BOOTROM_SIZE_BYTES) {   //Read bootrom
-            result = bootrom[address];
-        } else {  //Cartridge mapped memory
+        } else {  //Cartridge mapped memory, bootrom is always mapped
             if (cartridge != null) {
                 result = cartridge.read(address);
             } else {
@@ -197,15 +329,6 @@ public class Memory {
                 result = 0x00;
             }
         }
-
-        if (log.isDebugEnabled()) {
-            log.debug("Read [@" + String.format("%04x", (int) address) + "]=" + String.format("%02x", result));
-        }
-
-        //Apply read interceptors
-        for (MemoryInterceptor i : interceptors) {
-            result = i.onRead(address, result);
-        }
         return result;
     }
 
@@ -218,34 +341,61 @@ public class Memory {
 
     public void write(char address, byte data) {
 
-        //Apply write interceptors
-        for (MemoryInterceptor i : interceptors) {
-            data = i.onWrite(address, data);
+        int page = address >> 8;
+        MemoryInterceptor[] pageInterceptors = writeInterceptors[page];
+        if (pageInterceptors != null) {
+            data = interceptWrite(pageInterceptors, address, data);
+        }
+        if (accessListener != null) {
+            accessListener.onAccess(address, data, true);
+        }
+        if (writeWatchpoints != null && (writeWatchpoints[address >> 6] & (1L << address)) != 0) {
+            watchpointListener.onWatchpoint(address, data, true);
+        }
+
+        if (codeWriteListener != null && (address < VIDEO_RAM_START || watchedCode[address])) {
+            codeWriteListener.onCodeWrite(address);
+        }
+
+        byte[] pageData = writePages[page];
+        if (pageData != null) {
+            pageData[writeOffsets[page] + (address & 0xFF)] = data;
+        } else {
+            writeSpecial(address, data);
+        }
+    }
+
+    //Addresses whose page is not mapped to an array
+    private void writeSpecial(char address, byte data) {
+        if (oamDma != null && oamDma.blocks(address)) {
+            return;   //Lost, the bus is busy
         }
 
         //Disable bootrom, and 0x00->0xFF starts mapping to cartridge again
         if (address == DISABLE_BOOTROM_ADDRESS && data == 1 && bootromEnabled) {
             bootromEnabled = false;
+            mapCartridge();
         } else if (address == INTERRUPT_ENABLE_ADDRESS) {
-            interruptEnable = data;
-        } else if (address == INTERRUPT_FLAGS_ADDRESS) {
-            interruptFlags = data;
+            interruptController.setInterruptEnable(data);
         } else if (address >= HIGH_RAM_START) {
             highRAM[address - HIGH_RAM_START] = data;
         } else if (address >= IO_RAM_START) {
             if (address == DMA_ADDRESS) {
-                doDma(data);
+                if (oamDma != null) {
+                    oamDma.start(data);
+                } else {
+                    transferToOam((char) ((data & 0xFF) << 8), 0, OamDma.LENGTH);
+                }
                 return;
             }
-            boolean mmioFound = false;
-            for (MMIODevice device : mmioDevices) {
-                if (address >= device.startAddress && address <= device.endAddress) {
-                    device.onWrite(address, data);
-                    mmioFound = true;
-                }
+            MMIODevice device = ioDevices[address - IO_RAM_START];
+            if (device != null) {
+                device.onWrite(address, data);
+            } else {
+                ioRAM[address - IO_RAM_START] = data;   //Registers not emulated yet are plain RAM
             }
-            if (!mmioFound) {
-                ioRAM[address - IO_RAM_START] = data;
+            if (address == LCD_CONTROL_ADDRESS || address == LCD_STAT_ADDRESS) {
+                updateVideoMapping();
             }
         } else if (address >= UNUSABLE_RAM_START) {
             if (log.isWarnEnabled()) {
@@ -269,45 +419,290 @@ public class Memory {
         } else { //Cartridge mapped memory
             if (cartridge != null) {
                 cartridge.write(address, data);
+                mapCartridge();     //Banks may have been switched
             } else {
                 log.error("Attempted to write to cartridge, but it is not inserted");
             }
         }
-        if (log.isDebugEnabled()) {
-            log.debug("Write [@" + String.format("%04x", (int) address) + "]=" + String.format("%02x", data));
+    }
+
+    //Pages blocked by OAM DMA are never mapped
+    private void mapPages(int firstPage, int lastPage, byte[] data, int offset, boolean writable) {
+        for (int page = firstPage; page <= lastPage; page++) {
+            byte[] pageData = oamDma != null && oamDma.blocks((char) (page << 8)) ? null : data;
+            int pageOffset = pageData != null ? offset + ((page - firstPage) << 8) : 0;
+            readPages[page] = pageData;
+            readOffsets[page] = pageOffset;
+            writePages[page] = writable ? pageData : null;
+            writeOffsets[page] = pageOffset;
+        }
+    }
+
+    //Called when OAM DMA starts or ends
+    void onOamDmaChanged() {
+        mapAll();
+    }
+
+    //I/O, OAM and unusable pages are always special
+    private void mapAll() {
+        mapPages(0x00, 0xFF, null, 0, false);
+        mapPages(INTERNAL_RAM_START >> 8, (ECHO_RAM_START >> 8) - 1, internalRAM, 0, true);
+        mapPages(ECHO_RAM_START >> 8, (SPRITE_RAM_START >> 8) - 1, internalRAM, 0, true);
+        mapCartridge();
+        updateVideoMapping();
+    }
+
+    //Current ROM banks (or bootrom) and external RAM. Done again whenever the cartridge is written.
+    private void mapCartridge() {
+        byte[] rom = cartridge != null ? cartridge.getMappedRom() : null;
+        mapPages(0x00, 0x3F, rom, rom != null ? ROM_BANK_SIZE_BYTES * getRomBank((char) 0x0000) : 0, false);
+        mapPages(0x40, 0x7F, rom, rom != null ? ROM_BANK_SIZE_BYTES * getRomBank((char) 0x4000) : 0, false);
+        if (bootromEnabled) {
+            mapPages(0x00, 0x00, bootrom, 0, false);
+        }
+
+        byte[] ram = cartridge != null ? cartridge.getMappedRam() : null;
+        mapPages(EXTERNAL_RAM_START >> 8, (INTERNAL_RAM_START >> 8) - 1, ram,
+                ram != null ? cartridge.getMappedRamOffset() : 0, true);
+    }
+
+    /**
+     * Maps VRAM only when it can be accessed, and updates whether OAM can. To be called whenever the PPU mode
+     * or the LCD enabled flag change.
+     */
+    public void updateVideoMapping() {
+        boolean lcdEnabled = isLcdEnabled();
+        int mode = readSpecial(LCD_STAT_ADDRESS, true) & 0x03;
+        vramAccessible = !lcdEnabled || mode != 3;
+        oamAccessible = !lcdEnabled || (mode != 2 && mode != 3);
+        mapPages(VIDEO_RAM_START >> 8, (EXTERNAL_RAM_START >> 8) - 1, vramAccessible ? videoRAM : null, 0, true);
+    }
+
+    /**
+     * Copies the given bytes one by one, like a CPU loop would but at once. Only done if both ranges are plain
+     * memory: WRAM, HRAM, VRAM or OAM while the GPU does not lock them, or cartridge ROM as source.
+     * Unless the source is intercepted too, write interceptors are told once about all the bytes, after copying them.
+     *
+     * @return false if nothing was copied, as some address has to be accessed through read()/write()
+     */
+    public boolean copy(char source, char destination, int length) {
+        byte[] target = getPlainRAM(destination, length);
+        byte[] origin = getPlainRAM(source, length);
+        if (target == null || (origin == null && !isPlainROM(source, length))) {
+            return false;
+        }
+        int targetOffset = getPlainRAMOffset(destination);
+        int originOffset = origin != null ? getPlainRAMOffset(source) : 0;
+
+        //Overlapping forward copy repeats the pattern, unlike arraycopy
+        boolean overlaps = origin == target && originOffset < targetOffset && targetOffset < originOffset + length;
+        if (hasInterceptors(readInterceptors, source, length)) {
+            for (int i = 0; i < length; i++) {
+                char address = (char) (source + i);
+                byte data = origin != null ? origin[originOffset + i] : cartridge.read(address);
+                if (readInterceptors[address >> 8] != null) {
+                    data = interceptRead(readInterceptors[address >> 8], address, data);
+                }
+                char targetAddress = (char) (destination + i);
+                if (writeInterceptors[targetAddress >> 8] != null) {
+                    data = interceptWrite(writeInterceptors[targetAddress >> 8], targetAddress, data);
+                }
+                target[targetOffset + i] = data;
+            }
+        } else {
+            if (origin != null && !overlaps) {
+                System.arraycopy(origin, originOffset, target, targetOffset, length);
+            } else {
+                for (int i = 0; i < length; i++) {
+                    target[targetOffset + i] = origin != null ? origin[originOffset + i] : cartridge.read((char) (source + i));
+                }
+            }
+            notifyBulkWrite(destination, target, targetOffset, length);
+        }
+        notifyCodeWrites(destination, length);
+        return true;
+    }
+
+    /**
+     * Writes the same byte to the given range, like a CPU loop would but at once. Same restrictions as copy().
+     * Write interceptors are told once about all the bytes, after writing them.
+     *
+     * @return false if nothing was written
+     */
+    public boolean fill(char destination, int length, byte value) {
+        byte[] target = getPlainRAM(destination, length);
+        if (target == null) {
+            return false;
         }
+        int targetOffset = getPlainRAMOffset(destination);
+        Arrays.fill(target, targetOffset, targetOffset + length, value);
+        notifyBulkWrite(destination, target, targetOffset, length);
+        notifyCodeWrites(destination, length);
+        return true;
     }
 
-    //Copies 160 bytes from the specified address to OAM.
-    private void doDma(byte startAddressUpperBytes) {
-        char completeSrcAddress = (char) ((startAddressUpperBytes << 8) & 0xFFFF);
-        byte[] dataToMove = readRange(completeSrcAddress, 160);
-        writeRange(OAM_START_ADDRESS,dataToMove,160);
+    //Calls onBulkWrite() of every write interceptor of the range, once, with the part of the range it covers
+    private void notifyBulkWrite(char address, byte[] data, int offset, int length) {
+        int end = address + length - 1;
+        for (int page = address >> 8; page <= end >> 8; page++) {
+            MemoryInterceptor[] pageInterceptors = writeInterceptors[page];
+            if (pageInterceptors == null) {
+                continue;
+            }
+            for (MemoryInterceptor interceptor : pageInterceptors) {
+                int first = Math.max(address, interceptor.startAddress);
+                int last = Math.min(end, interceptor.endAddress);
+                //Interceptors covering several pages are only called on the first one
+                if (first <= last && first >> 8 == page) {
+                    interceptor.onBulkWrite((char) first, data, offset + first - address, last - first + 1);
+                }
+            }
+        }
+    }
+
+    private byte interceptRead(MemoryInterceptor[] pageInterceptors, char address, byte data) {
+        for (MemoryInterceptor interceptor : pageInterceptors) {
+            if (address >= interceptor.startAddress && address <= interceptor.endAddress) {
+                data = interceptor.onRead(address, data);
+            }
+        }
+        return data;
+    }
+
+    private byte interceptWrite(MemoryInterceptor[] pageInterceptors, char address, byte data) {
+        for (MemoryInterceptor interceptor : pageInterceptors) {
+            if (address >= interceptor.startAddress && address <= interceptor.endAddress) {
+                data = interceptor.onWrite(address, data);
+            }
+        }
+        return data;
+    }
+
+    //Whether any page of the range has interceptors in the given direction
+    private boolean hasInterceptors(MemoryInterceptor[][] interceptors, char address, int length) {
+        for (int page = address >> 8; page <= (address + length - 1) >> 8; page++) {
+            if (interceptors[page] != null) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    //Backing array of the range, if it is all inside one and can be accessed without side effects
+    private byte[] getPlainRAM(char address, int length) {
+        int end = address + length - 1;
+        if (length <= 0 || isOamDmaActive() || isObserved()) {
+            return null;
+        } else if (address >= INTERNAL_RAM_START && end < ECHO_RAM_START) {
+            return internalRAM;
+        } else if (address >= HIGH_RAM_START && end < INTERRUPT_ENABLE_ADDRESS) {
+            return highRAM;
+        } else if (address >= VIDEO_RAM_START && end < EXTERNAL_RAM_START && canUseVRAM()) {
+            return videoRAM;
+        } else if (address >= SPRITE_RAM_START && end < UNUSABLE_RAM_START && canUseOAM()) {
+            return spriteRAM;
+        }
+        return null;
+    }
+
+    private int getPlainRAMOffset(char address) {
+        if (address >= HIGH_RAM_START) {
+            return address - HIGH_RAM_START;
+        } else if (address >= SPRITE_RAM_START) {
+            return address - SPRITE_RAM_START;
+        } else if (address >= INTERNAL_RAM_START) {
+            return address - INTERNAL_RAM_START;
+        }
+        return address - VIDEO_RAM_START;
+    }
+
+    private boolean isPlainROM(char address, int length) {
+        return cartridge != null && address + length <= VIDEO_RAM_START
+                && (!bootromEnabled || address >= BOOTROM_SIZE_BYTES);
+    }
+
+    private void notifyCodeWrites(char address, int length) {
+        if (codeWriteListener != null) {
+            for (int i = 0; i < length; i++) {
+                if (watchedCode[address + i]) {
+                    codeWriteListener.onCodeWrite((char) (address + i));
+                }
+            }
+        }
+    }
+
+    /**
+     * Copies the given part of the OAM DMA transfer from the source page, bypassing the bus. OAM write interceptors
+     * are told once about all the bytes.
+     */
+    void transferToOam(char source, int from, int length) {
+        char address = (char) (source + from);
+        byte[] origin = null;
+        int originOffset = 0;
+        if (address >= INTERNAL_RAM_START) {
+            origin = internalRAM;
+            originOffset = (address - INTERNAL_RAM_START) & 0x1FFF;   //Echo up to 0xFFFF
+        } else if (address >= VIDEO_RAM_START && address < EXTERNAL_RAM_START) {
+            origin = videoRAM;
+            originOffset = address - VIDEO_RAM_START;
+        } else if (address < VIDEO_RAM_START && cartridge != null && cartridge.getMappedRom() != null
+                && !(bootromEnabled && address < BOOTROM_SIZE_BYTES)) {
+            origin = cartridge.getMappedRom();
+            originOffset = ROM_BANK_SIZE_BYTES * getRomBank(address) + (address & 0x3FFF);
+        }
+
+        if (origin != null) {
+            System.arraycopy(origin, originOffset, spriteRAM, from, length);
+        } else {
+            for (int i = 0; i < length; i++) {
+                spriteRAM[from + i] = readForDma((char) (address + i));
+            }
+        }
+
+        notifyBulkWrite((char) (SPRITE_RAM_START + from), spriteRAM, from, length);
+    }
+
+    //What OAM DMA reads from the given source address, ignoring any lock
+    byte readForDma(char address) {
+        if (address >= INTERNAL_RAM_START) {
+            return internalRAM[(address - INTERNAL_RAM_START) & 0x1FFF];
+        } else if (address >= VIDEO_RAM_START && address < EXTERNAL_RAM_START) {
+            return videoRAM[address - VIDEO_RAM_START];
+        } else if (bootromEnabled && address < BOOTROM_SIZE_BYTES) {
+            return bootrom[address];
+        }
+        return cartridge != null ? cartridge.read(address) : (byte) 0xFF;
     }
 
     public void fireTimerInterruption() {
-        this.interruptFlags |= TIMER_MASK;
+        interruptController.request(InterruptController.TIMER);
     }
 
     public void fireVBlankInterruption() {
-        this.interruptFlags |= VBLANK_MASK;
+        interruptController.request(InterruptController.VBLANK);
     }
 
     public void fireLcdInterruption() {
-        this.interruptFlags |= LCD_MASK;
+        interruptController.request(InterruptController.LCD);
     }
 
     public void fireJoypadInterruption() {
-        this.interruptFlags |= JOYPAD_MASK;
+        interruptController.request(InterruptController.JOYPAD);
+    }
+
+    public InterruptController getInterruptController() {
+        return interruptController;
     }
 
 
     public void insertCartridge(Cartridge cartridge) {
         this.cartridge = cartridge;
+        mapCartridge();
     }
 
     public void removeCartridge() {
         this.cartridge = null;
+        mapCartridge();
     }
 
     protected byte[] getVideoRAM() {
@@ -331,29 +726,19 @@ public class Memory {
     }
 
     protected byte getInterruptEnable() {
-        return interruptEnable;
+        return interruptController.getInterruptEnable();
     }
 
     private boolean canUseOAM() {
-        return !isLcdEnabled() || (!isGPUOamMode() && !isGPUVramMode());
+        return oamAccessible;
     }
 
     private boolean canUseVRAM() {
-        return !isLcdEnabled() || !isGPUVramMode();
-    }
-
-    private boolean isGPUOamMode() {
-        int mode = read((char) (0xFF41)) & 0x03;
-        return mode == 2;
-    }
-
-    private boolean isGPUVramMode() {
-        int mode = read((char) (0xFF41)) & 0x03;
-        return mode == 3;
+        return vramAccessible;
     }
 
     private boolean isLcdEnabled() {
-        int mode = read((char) (0xFF40)) & 0x80;
+        int mode = readSpecial(LCD_CONTROL_ADDRESS, true) & 0x80;
         return mode != 0;
     }
 
@@ -370,5 +755,6 @@ public class Memory {
             bootrom[i] = content[i];
         }
         bootromEnabled = true;
+        mapCartridge();
     }
 }
@@ -0,0 +1,10 @@
+package com.ismaelrh.gameboy.cpu.memory;
+
+/**
+ * Notified of every read and write done through the bus, with the value the CPU gets or writes.
+ * Bulk operations (OAM DMA, fused loops) are not: fused loops are not done while a listener is set.
+ */
+public interface MemoryAccessListener {
+
+    void onAccess(char address, byte value, boolean write);
+}
@@ -1,8 +1,23 @@
 package com.ismaelrh.gameboy.cpu.memory;
 
+/**
+ * Sees, and may change, the data read from or written to an address range. Memory only calls it for addresses
+ * in that range and for the directions given, so the rest of accesses do not pay for it.
+ */
 public abstract class MemoryInterceptor {
 
     protected Memory memory;
+    protected final char startAddress;
+    protected final char endAddress;
+    protected final boolean interceptsReads;
+    protected final boolean interceptsWrites;
+
+    public MemoryInterceptor(char startAddress, char endAddress, boolean interceptsReads, boolean interceptsWrites) {
+        this.startAddress = startAddress;
+        this.endAddress = endAddress;
+        this.interceptsReads = interceptsReads;
+        this.interceptsWrites = interceptsWrites;
+    }
 
     public void addMemory(Memory memory) {
         this.memory = memory;
@@ -15,4 +30,14 @@ public abstract class MemoryInterceptor {
     public byte onRead(char address, byte data) {
         return data;
     }
+
+    /**
+     * Called instead of onWrite() when part of the range is written at once (like OAM DMA does), after writing it.
+     * Data holds the bytes written from the given offset, which can not be changed. Calls onWrite() for each by default.
+     */
+    public void onBulkWrite(char address, byte[] data, int offset, int length) {
+        for (int i = 0; i < length; i++) {
+            onWrite((char) (address + i), data[offset + i]);
+        }
+    }
 }
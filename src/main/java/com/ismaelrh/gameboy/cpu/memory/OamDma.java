@@ -0,0 +1,102 @@
+package com.ismaelrh.gameboy.cpu.memory;
+
+import com.ismaelrh.gameboy.cpu.scheduler.Scheduler;
+
+/**
+ * OAM DMA, started by writing the source page to 0xFF46. Copies 160 bytes to OAM, one per M-cycle.
+ * Meanwhile, OAM can not be accessed by the CPU, and reading the bus the source is on (VRAM or the external one)
+ * returns the byte being transferred, so code has to run from HRAM.
+ * <p>
+ * Nothing can change the source during the transfer, as writes to its bus are lost too. So bytes are not copied
+ * one by one: they are copied at once when the transfer ends, or when OAM is looked at before (privileged reads).
+ */
+public class OamDma {
+
+    public static final int LENGTH = 160;
+    private static final int CYCLES_PER_BYTE = 4;
+
+    private final Memory memory;
+    private final Scheduler scheduler;
+    private final int endEvent;
+
+    private boolean active;
+    private char source;
+    private long startClock;
+
+    //Bytes already in OAM
+    private int copied;
+
+    public OamDma(Memory memory, Scheduler scheduler) {
+        this.memory = memory;
+        this.scheduler = scheduler;
+        this.endEvent = scheduler.register(this::onEndEvent);
+    }
+
+    /**
+     * Starts a transfer from the given page, finishing the running one, if any, where it was.
+     */
+    public void start(byte sourcePage) {
+        if (active) {
+            sync();
+        }
+        source = (char) ((sourcePage & 0xFF) << 8);
+        startClock = scheduler.getClock();
+        copied = 0;
+        active = true;
+        memory.onOamDmaChanged();
+        scheduler.schedule(endEvent, startClock + LENGTH * CYCLES_PER_BYTE);
+    }
+
+    private void onEndEvent(long deadline) {
+        sync();
+        active = false;
+        memory.onOamDmaChanged();
+    }
+
+    /**
+     * Copies the bytes transferred until now that were not yet.
+     */
+    public void sync() {
+        if (!active) {
+            return;
+        }
+        int transferred = getTransferred();
+        if (transferred > copied) {
+            memory.transferToOam(source, copied, transferred - copied);
+            copied = transferred;
+        }
+    }
+
+    private int getTransferred() {
+        return (int) Math.min(LENGTH, (scheduler.getClock() - startClock) / CYCLES_PER_BYTE);
+    }
+
+    public boolean isActive() {
+        return active;
+    }
+
+    /**
+     * Whether the CPU can not access the given address because of the transfer: OAM, and the bus of the source.
+     */
+    public boolean blocks(char address) {
+        return active && (isOam(address) || isVideoBus(address) == isVideoBus(source)) && address < 0xFF00;
+    }
+
+    /**
+     * Value read from a blocked address: the byte being transferred, or 0xFF for OAM.
+     */
+    public byte getBusValue(char address) {
+        if (isOam(address)) {
+            return (byte) 0xFF;
+        }
+        return memory.readForDma((char) (source + Math.min(LENGTH - 1, getTransferred())));
+    }
+
+    private boolean isOam(char address) {
+        return address >= 0xFE00 && address < 0xFF00;
+    }
+
+    private boolean isVideoBus(char address) {
+        return address >= 0x8000 && address < 0xA000;
+    }
+}
@@ -0,0 +1,9 @@
+package com.ismaelrh.gameboy.cpu.memory;
+
+/**
+ * Notified when the CPU accesses a watched address, with the value read or written.
+ */
+public interface WatchpointListener {
+
+    void onWatchpoint(char address, byte value, boolean write);
+}
@@ -2,10 +2,15 @@ package com.ismaelrh.gameboy.cpu.periphericals.timer;
 
 import com.ismaelrh.gameboy.cpu.memory.MMIODevice;
 import com.ismaelrh.gameboy.cpu.memory.Memory;
+import com.ismaelrh.gameboy.cpu.scheduler.Scheduler;
 
 /**
  * Got from https://github.com/trekawek/coffee-gb/blob/master/src/main/java/eu/rekawek/coffeegb/timer/Timer.java
  * as I was not able to make it work completely.
+ * <p>
+ * It is not ticked after every instruction: it is caught up with the master clock when its registers are accessed,
+ * and when the scheduled event for the next timer interruption comes. Catching up is done in closed form,
+ * counting the falling edges of the selected DIV bit, and only ticking one by one around overflows.
  */
 public class Timer extends MMIODevice {
 
@@ -21,12 +26,113 @@ public class Timer extends MMIODevice {
 
     protected Memory memory;
 
-    public Timer(Memory memory) {
+    private final Scheduler scheduler;
+    private final int interruptionEvent;
+
+    //Master clock value the timer state corresponds to
+    private long lastClock;
+
+    public Timer(Memory memory, Scheduler scheduler) {
         super((char) 0xFF04, (char) 0xFF07);
         this.memory = memory;
+        this.scheduler = scheduler;
+        this.interruptionEvent = scheduler.register(this::onInterruptionEvent);
+        this.lastClock = scheduler.getClock();
+        scheduleInterruption();
+    }
+
+    private void onInterruptionEvent(long deadline) {
+        sync();
+        scheduleInterruption();
+    }
+
+    //Catches up with the master clock
+    private void sync() {
+        long now = scheduler.getClock();
+        advance(now - lastClock);
+        lastClock = now;
+    }
+
+    /**
+     * Same as calling tick() the given times.
+     * Ticks are jumped until the one that overflows TIMA, which, like the TMA reload after it, is done tick by tick.
+     */
+    private void advance(long ticks) {
+        while (ticks > 0) {
+            long firstEdge = overflow ? 1 : ticksUntilFallingEdge();
+            if (firstEdge == 1) {
+                //Overflows, or edges caused by writing TAC: not periodic
+                tick();
+                ticks--;
+                continue;
+            }
+
+            int period = 1 << (FREQ_TO_BIT[tac & 0b11] + 1);
+            long jump = ticks;
+            if (firstEdge != Scheduler.NEVER) {
+                int increments = 0x100 - (tima & 0xFF);
+                jump = Math.min(ticks, firstEdge + (long) (increments - 1) * period - 1);
+            }
+            long edges = jump < firstEdge ? 0 : 1 + (jump - firstEdge) / period;
+
+            tima = (tima & 0xFF) + (int) edges;
+            div = (int) ((div + jump) & 0xffff);
+            previousBit = isSelectedBitSet(div);
+            ticks -= jump;
+        }
+    }
+
+    private void scheduleInterruption() {
+        long cycles = cyclesUntilInterruption();
+        scheduler.schedule(interruptionEvent, cycles == Scheduler.NEVER ? Scheduler.NEVER : lastClock + cycles);
+    }
+
+    /**
+     * Ticks until the timer interruption is fired, if nothing is written meanwhile.
+     * During an overflow, it can also be the end of the TMA reload, so it is calculated again.
+     */
+    private long cyclesUntilInterruption() {
+        if (overflow) {
+            return ticksSinceOverflow < 4 ? 4 - ticksSinceOverflow : 6 - ticksSinceOverflow;
+        }
+
+        long firstEdge = ticksUntilFallingEdge();
+        if (firstEdge == Scheduler.NEVER) {
+            return Scheduler.NEVER;
+        }
+
+        //The increment that overflows TIMA is 3 ticks before the interruption
+        int period = 1 << (FREQ_TO_BIT[tac & 0b11] + 1);
+        int increments = 0x100 - (tima & 0xFF);
+        return firstEdge + (long) (increments - 1) * period + 3;
+    }
+
+    /**
+     * Ticks until the selected DIV bit falls, incrementing TIMA. They happen when DIV reaches a multiple
+     * of the period (twice the selected bit), or right away if writing TAC cleared it.
+     * After the first one, they are periodic as long as TAC is not written.
+     */
+    private long ticksUntilFallingEdge() {
+        boolean enabled = (tac & (1 << 2)) != 0;
+        if (previousBit && !isSelectedBitSet((div + 1) & 0xffff)) {
+            return 1;
+        } else if (!enabled) {
+            return Scheduler.NEVER;
+        }
+        int period = 1 << (FREQ_TO_BIT[tac & 0b11] + 1);
+        long firstEdge = period - (div % period);
+        if (firstEdge == 1 && !previousBit) {
+            firstEdge += period;
+        }
+        return firstEdge;
+    }
+
+    //Bit of DIV that TAC selects, always false if the timer is stopped
+    private boolean isSelectedBitSet(int div) {
+        return (tac & (1 << 2)) != 0 && (div & (1 << FREQ_TO_BIT[tac & 0b11])) != 0;
     }
 
-    public void tick() {
+    private void tick() {
         updateDiv((div + 1) & 0xffff);
         if (overflow) {
             ticksSinceOverflow++;
@@ -66,6 +172,7 @@ public class Timer extends MMIODevice {
     }
 
     public void onWrite(char address, byte value) {
+        sync();
         switch (address) {
             case 0xff04:
                 updateDiv(0);
@@ -87,10 +194,12 @@ public class Timer extends MMIODevice {
                 tac = value;
                 break;
         }
+        scheduleInterruption();
     }
 
     @Override
     public byte onRead(char address) {
+        sync();
         switch (address) {
             case 0xff04:
                 return (byte) ((div >> 8) & 0xFF);
@@ -0,0 +1,10 @@
+package com.ismaelrh.gameboy.cpu.scheduler;
+
+public interface EventHandler {
+
+    /**
+     * Called once the master clock reaches the deadline the event was scheduled for.
+     * The clock can be a few cycles past it, as events are only run between instructions.
+     */
+    void onEvent(long deadline) throws Exception;
+}
@@ -0,0 +1,164 @@
+package com.ismaelrh.gameboy.cpu.scheduler;
+
+/**
+ * Master clock, in cycles since power on, and the upcoming events of the peripherals.
+ * <p>
+ * Instead of advancing every peripheral after each instruction, they register the next moment something
+ * observable happens (a PPU mode change, an interruption being fired, the end of a frame...) and are only
+ * run then. Registers read or written in between are caught up lazily by their owners.
+ * <p>
+ * Events live in a binary min-heap of primitive arrays, ordered by deadline and then by registration order,
+ * so there is no allocation when (re)scheduling.
+ */
+public class Scheduler {
+
+    public static final long NEVER = Long.MAX_VALUE;
+
+    private static final int MAX_EVENTS = 16;
+
+    private long clock;
+
+    private final EventHandler[] handlers = new EventHandler[MAX_EVENTS];
+    private final long[] deadlines = new long[MAX_EVENTS];  //By event
+    private final int[] positions = new int[MAX_EVENTS];    //Position in the heap by event, -1 if not scheduled
+    private final int[] heap = new int[MAX_EVENTS];         //Events
+    private int registeredEvents;
+    private int size;
+
+    //Cached deadline of the heap root
+    private long nextDeadline = NEVER;
+
+    /**
+     * Registers a new kind of event, returning the id used to schedule it.
+     */
+    public int register(EventHandler handler) {
+        if (registeredEvents == MAX_EVENTS) {
+            throw new IllegalStateException("Cannot register more than " + MAX_EVENTS + " events");
+        }
+        int event = registeredEvents++;
+        handlers[event] = handler;
+        positions[event] = -1;
+        return event;
+    }
+
+    /**
+     * Schedules the event at the given absolute cycle, replacing any previous deadline it had.
+     */
+    public void schedule(int event, long deadline) {
+        if (deadline == NEVER) {
+            cancel(event);
+            return;
+        }
+        int position = positions[event];
+        deadlines[event] = deadline;
+        if (position == -1) {
+            position = size++;
+            heap[position] = event;
+            positions[event] = position;
+            siftUp(position);
+        } else {
+            siftUp(position);
+            siftDown(positions[event]);
+        }
+        nextDeadline = deadlines[heap[0]];
+    }
+
+    public void cancel(int event) {
+        int position = positions[event];
+        if (position != -1) {
+            removeAt(position);
+        }
+    }
+
+    public boolean isScheduled(int event) {
+        return positions[event] != -1;
+    }
+
+    public long getDeadline(int event) {
+        return positions[event] == -1 ? NEVER : deadlines[event];
+    }
+
+    public long getClock() {
+        return clock;
+    }
+
+    public long getNextDeadline() {
+        return nextDeadline;
+    }
+
+    /**
+     * Moves the clock forward, running every event that becomes due.
+     */
+    public void advance(int cycles) throws Exception {
+        clock += cycles;
+        if (clock >= nextDeadline) {
+            runDueEvents();
+        }
+    }
+
+    public void runDueEvents() throws Exception {
+        while (size > 0 && nextDeadline <= clock) {
+            int event = heap[0];
+            long deadline = deadlines[event];
+            removeAt(0);
+            handlers[event].onEvent(deadline);
+        }
+    }
+
+    private void removeAt(int position) {
+        int event = heap[position];
+        positions[event] = -1;
+        size--;
+        if (position != size) {
+            int last = heap[size];
+            heap[position] = last;
+            positions[last] = position;
+            siftUp(position);
+            siftDown(positions[last]);
+        }
+        nextDeadline = size == 0 ? NEVER : deadlines[heap[0]];
+    }
+
+    private void siftUp(int position) {
+        int event = heap[position];
+        while (position > 0) {
+            int parent = (position - 1) >> 1;
+            int parentEvent = heap[parent];
+            if (!before(event, parentEvent)) {
+                break;
+            }
+            heap[position] = parentEvent;
+            positions[parentEvent] = position;
+            position = parent;
+        }
+        heap[position] = event;
+        positions[event] = position;
+    }
+
+    private void siftDown(int position) {
+        int event = heap[position];
+        while (true) {
+            int child = 2 * position + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && before(heap[child + 1], heap[child])) {
+                child++;
+            }
+            int childEvent = heap[child];
+            if (!before(childEvent, event)) {
+                break;
+            }
+            heap[position] = childEvent;
+            positions[childEvent] = position;
+            position = child;
+        }
+        heap[position] = event;
+        positions[event] = position;
+    }
+
+    //Same deadline: the event registered first runs first
+    private boolean before(int event, int other) {
+        return deadlines[event] < deadlines[other] || (deadlines[event] == deadlines[other] && event < other);
+    }
+}
@@ -4,10 +4,14 @@ import com.ismaelrh.gameboy.cpu.memory.MemoryInterceptor;
 
 public class BlarggTestInterceptor extends MemoryInterceptor {
 
+    //Serial transfer control, only written
+    public BlarggTestInterceptor() {
+        super((char) 0xFF02, (char) 0xFF02, false, true);
+    }
 
     @Override
     public byte onWrite(char address, byte data) {
-        if (address == (char) 0xFF02 && data == (byte) 0x81) {
+        if (data == (byte) 0x81) {
             char character = (char) (memory.read((char) 0xFF01) & 0xFF);
             System.out.print(character);
         }
@@ -4,14 +4,19 @@ import com.ismaelrh.gameboy.cpu.instruction.Instruction;
 import com.ismaelrh.gameboy.cpu.ControlUnit;
 import com.ismaelrh.gameboy.cpu.ExecutionInfo;
 import com.ismaelrh.gameboy.cpu.Registers;
+import com.ismaelrh.gameboy.cpu.instructions.DispatchTable;
 import com.ismaelrh.gameboy.cpu.memory.Memory;
 import com.ismaelrh.gameboy.debug.logCheck.LogStatus;
 import com.ismaelrh.gameboy.debug.logCheck.LogStatusProvider;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
+import java.util.TreeSet;
 
 public class Debugger {
 
@@ -24,14 +29,29 @@ public class Debugger {
     private LogStatusProvider logStatusProvider;
 
     //Debugger status
-    private final Set<Character> breakpoints = new HashSet<>();
-    private final Set<Integer> cycleBreakpoints = new HashSet<>();
+    //PC breakpoints, one bit per address
+    private final long[] breakpoints = new long[0x10000 / 64];
+    private final TreeSet<Long> cycleBreakpoints = new TreeSet<>();
+    private long nextCycleBreakpoint = Long.MAX_VALUE;
+    //Instruction breakpoints as typed, and by dispatch table index: immediates they must start with (may be none)
     private final Set<String> instructionBreakpoints = new HashSet<>();
+    private final byte[][][] instructionBreakpointsByOpcode = new byte[2 * DispatchTable.CB_OFFSET][][];
+
+    //Watched addresses, one bit each, checked by Memory on every access
+    private final long[] readWatchpoints = new long[0x10000 / 64];
+    private final long[] writeWatchpoints = new long[0x10000 / 64];
+    //Value a watched address has to be read or written with to stop, if any
+    private final Map<Character, Byte> watchpointValues = new HashMap<>();
+    //Watchpoint hit during the last instruction, stopped at before the next one
+    private String watchpointHit;
 
 
     private boolean breakpointsEnabled = true;
     private Boolean isPaused = false;
-    private boolean stepMode = false; //Whether step by step mode is activated
+    private volatile boolean stepMode = false; //Whether step by step mode is activated
+
+    //Whether debug() has anything to do. If not, it is not even called for every instruction.
+    private volatile boolean active = false;
 
     public Debugger(Memory memory, Registers registers, ExecutionInfo info) {
         this.memory = memory;
@@ -42,12 +62,35 @@ public class Debugger {
     public void setController(DebuggerController controller) {
         this.controller = controller;
         controller.init(memory, registers, this, executionInfo);
+        updateActive();
     }
 
     public void setLogStatusProvider(LogStatusProvider logStatusProvider) {
         this.logStatusProvider = logStatusProvider;
+        updateActive();
+    }
+
+    public boolean isActive() {
+        return active;
+    }
+
+    private void updateActive() {
+        active = controller != null || logStatusProvider != null || stepMode || watchpointHit != null
+                || (breakpointsEnabled && (hasBreakpoints() || nextCycleBreakpoint != Long.MAX_VALUE || !instructionBreakpoints.isEmpty()));
+    }
+
+    private boolean hasBreakpoints() {
+        for (long word : breakpoints) {
+            if (word != 0) {
+                return true;
+            }
+        }
+        return false;
     }
 
+    /**
+     * To be called before every instruction, while isActive().
+     */
     public void debug() throws InterruptedException {
 
         if (controller != null) {
@@ -64,22 +107,34 @@ public class Debugger {
             }
         }
 
+        if (watchpointHit != null) {
+            log.info("Stop at watchpoint: " + watchpointHit);
+            watchpointHit = null;
+            updateActive();
+            pauseSystem();
+        }
+
         if (stepMode) {
             log.info("CPU paused at " + String.format("%04X", (int) registers.getPC()));
             pauseSystem();
         }
 
-        if (breakpointsEnabled && breakpoints.contains(registers.getPC())) {
-            log.info("Stop at breakpoint " + String.format("%04X", (int) registers.getPC()));
+        char pc = registers.getPC();
+        if (breakpointsEnabled && (breakpoints[pc >> 6] & (1L << pc)) != 0) {
+            log.info("Stop at breakpoint " + String.format("%04X", (int) pc));
             pauseSystem();
         }
 
-        if (breakpointsEnabled && cycleBreakpoints.contains(executionInfo.getCycles())) {
-            log.info("Stop at breakpoint " + executionInfo.getCycles() + " cycles");
+        //First instruction at or after it
+        long cycles = executionInfo.getCycles();
+        if (breakpointsEnabled && cycles >= nextCycleBreakpoint) {
+            log.info("Stop at breakpoint " + nextCycleBreakpoint + " cycles, now " + cycles);
+            Long next = cycleBreakpoints.higher(cycles);
+            nextCycleBreakpoint = next != null ? next : Long.MAX_VALUE;
             pauseSystem();
         }
 
-        if (breakpointsEnabled && meetsInstructionCheckpoint(executionInfo.getCurrentInstruction())) {
+        if (breakpointsEnabled && !instructionBreakpoints.isEmpty() && meetsInstructionCheckpoint(executionInfo.getCurrentInstruction())) {
             log.info("Stop at instruction " + executionInfo.getCurrentInstruction().getInstrBytes());
             pauseSystem();
         }
@@ -87,78 +142,198 @@ public class Debugger {
     }
 
     private boolean meetsInstructionCheckpoint(Instruction inst) {
-
-        String pattern = "";
-        String[] pairs = inst.getInstrBytes().split(" ");
-
-        for (String pair : pairs) {
-            pattern = (pattern + " " + pair).trim();
-            if (instructionBreakpoints.contains(pattern)) {
+        int index = inst.getHandler().isCb() ? DispatchTable.CB_OFFSET + (inst.getOpcode() & 0xFF) : inst.getOpcode() & 0xFF;
+        byte[][] patterns = instructionBreakpointsByOpcode[index];
+        if (patterns == null) {
+            return false;
+        }
+        for (byte[] immediates : patterns) {
+            if (immediates.length > inst.getHandler().getExtraBytes()) {
+                continue;
+            }
+            if ((immediates.length < 1 || immediates[0] == inst.getNn1()) && (immediates.length < 2 || immediates[1] == inst.getNn2())) {
                 return true;
             }
         }
         return false;
+    }
 
+    //Rebuilds the table from the typed patterns: hex bytes, starting with the opcode (or CB and the opcode)
+    private void updateInstructionBreakpoints() {
+        Arrays.fill(instructionBreakpointsByOpcode, null);
+        for (String pattern : instructionBreakpoints) {
+            String[] parts = pattern.trim().split("\\s+");
+            byte[] bytes = new byte[parts.length];
+            for (int i = 0; i < parts.length; i++) {
+                bytes[i] = (byte) Integer.parseInt(parts[i], 16);
+            }
+            boolean cb = bytes[0] == (byte) 0xCB;
+            if (cb && bytes.length == 1) {
+                //Every CB instruction
+                for (int opcode = 0; opcode <= 0xFF; opcode++) {
+                    addInstructionPattern(DispatchTable.CB_OFFSET + opcode, new byte[0]);
+                }
+                continue;
+            }
+            int opcodePosition = cb ? 1 : 0;
+            int index = (cb ? DispatchTable.CB_OFFSET : 0) + (bytes[opcodePosition] & 0xFF);
+            addInstructionPattern(index, Arrays.copyOfRange(bytes, opcodePosition + 1, bytes.length));
+        }
+    }
+
+    private void addInstructionPattern(int index, byte[] immediates) {
+        byte[][] patterns = instructionBreakpointsByOpcode[index];
+        if (patterns == null) {
+            patterns = new byte[0][];
+        }
+        patterns = Arrays.copyOf(patterns, patterns.length + 1);
+        patterns[patterns.length - 1] = immediates;
+        instructionBreakpointsByOpcode[index] = patterns;
     }
 
     public void addBreakpoint(char address) {
-        this.breakpoints.add(address);
+        setBit(breakpoints, address, true);
+        updateActive();
         log.info("Breakpoint added at " + String.format("%04X", (int) address));
     }
 
-    public void addCyclesBreakpoint(int cycles) {
+    public void addCyclesBreakpoint(long cycles) {
         this.cycleBreakpoints.add(cycles);
+        updateNextCycleBreakpoint();
         log.info("Breakpoint added at " + cycles + " cycles");
     }
 
+    /**
+     * Stops before any instruction starting with the given hex bytes, like "3E" or "CB 7C".
+     */
     public void addInstructionBreakpoint(String instruction) {
         this.instructionBreakpoints.add(instruction);
+        updateInstructionBreakpoints();
+        updateActive();
         log.info("Breakpoint added for instruction " + instruction);
     }
 
     public void removeInstructionBreakpoint(String instruction) {
         this.instructionBreakpoints.remove(instruction);
+        updateInstructionBreakpoints();
+        updateActive();
         log.info("Breakpoint removed for instruction " + instruction);
     }
 
     public void removeBreakpoint(char address) {
-        this.breakpoints.remove(address);
+        setBit(breakpoints, address, false);
+        updateActive();
         log.info("Breakpoint removed at " + String.format("%04X", (int) address));
     }
 
-    public void removeCycleBreakpoint(int cycles) {
+    public void removeCycleBreakpoint(long cycles) {
         this.cycleBreakpoints.remove(cycles);
+        updateNextCycleBreakpoint();
         log.info("Breakpoint removed at " + cycles + " cycles");
     }
 
     public void removeAllBreakpoints() {
-        this.breakpoints.clear();
+        Arrays.fill(this.breakpoints, 0);
         this.cycleBreakpoints.clear();
+        updateNextCycleBreakpoint();
         log.info("All breakpoints removed");
     }
 
+    /**
+     * Stops after the instruction that reads and/or writes the given address, only when accessed with the
+     * given value, if any (null otherwise).
+     */
+    public void addWatchpoint(char address, boolean read, boolean write, Byte value) {
+        setBit(readWatchpoints, address, read);
+        setBit(writeWatchpoints, address, write);
+        if (value != null) {
+            watchpointValues.put(address, value);
+        } else {
+            watchpointValues.remove(address);
+        }
+        updateMemoryWatchpoints();
+        log.info("Watchpoint added at " + String.format("%04X", (int) address) + (value != null ? " for " + String.format("%02X", value) : ""));
+    }
+
+    public void removeWatchpoint(char address) {
+        setBit(readWatchpoints, address, false);
+        setBit(writeWatchpoints, address, false);
+        watchpointValues.remove(address);
+        updateMemoryWatchpoints();
+        log.info("Watchpoint removed at " + String.format("%04X", (int) address));
+    }
+
+    public void removeAllWatchpoints() {
+        Arrays.fill(readWatchpoints, 0);
+        Arrays.fill(writeWatchpoints, 0);
+        watchpointValues.clear();
+        updateMemoryWatchpoints();
+        log.info("All watchpoints removed");
+    }
+
+    private void setBit(long[] bitmap, char address, boolean value) {
+        if (value) {
+            bitmap[address >> 6] |= 1L << address;
+        } else {
+            bitmap[address >> 6] &= ~(1L << address);
+        }
+    }
+
+    //Memory only checks the bitmaps when something is watched
+    private void updateMemoryWatchpoints() {
+        boolean any = false;
+        for (int i = 0; i < readWatchpoints.length && !any; i++) {
+            any = (readWatchpoints[i] | writeWatchpoints[i]) != 0;
+        }
+        if (any) {
+            memory.setWatchpoints(readWatchpoints, writeWatchpoints, this::onWatchpoint);
+        } else {
+            memory.setWatchpoints(null, null, null);
+        }
+    }
+
+    private void onWatchpoint(char address, byte value, boolean write) {
+        Byte expected = watchpointValues.get(address);
+        if (breakpointsEnabled && (expected == null || expected == value)) {
+            watchpointHit = String.format("%s %02X at %04X", write ? "wrote" : "read", value, (int) address);
+            active = true;
+        }
+    }
+
+    //Next one still to come
+    private void updateNextCycleBreakpoint() {
+        Long next = cycleBreakpoints.ceiling(executionInfo.getCycles());
+        nextCycleBreakpoint = next != null ? next : Long.MAX_VALUE;
+        updateActive();
+    }
+
     public void enableBreakpoints() {
         this.breakpointsEnabled = true;
+        updateActive();
         log.info("Breakpoints enabled");
     }
 
     public void disableBreakpoints() {
         this.breakpointsEnabled = false;
+        updateActive();
         log.info("Breakpoints disabled");
     }
 
     public void stepExecution() {
         this.stepMode = true;
+        updateActive();
         unpauseSystem();
     }
 
     public void continueExecution() {
         this.stepMode = false;
+        updateActive();
         unpauseSystem();
     }
 
     public void pause() throws InterruptedException {
         stepMode = true;
+        updateActive();
     }
 
     private synchronized void pauseSystem() throws InterruptedException {
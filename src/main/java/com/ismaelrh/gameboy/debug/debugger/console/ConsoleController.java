@@ -66,6 +66,9 @@ public class ConsoleController implements DebuggerController {
             case "bpi":
                 parseInstCycleCommand(parts);
                 break;
+            case "wp":
+                parseWatchpointCommand(parts);
+                break;
             case "step":
                 debugger.stepExecution();
                 break;
@@ -106,7 +109,7 @@ public class ConsoleController implements DebuggerController {
     }
     private void parseMemCommand(String add) {
         char address = (char) (Integer.parseInt(add, 16) & 0xFFFF);
-        byte value = memory.read(address);
+        byte value = memory.read(address, true);
         System.out.println("Read " + f(value) + " at @" + f(address));
     }
 
@@ -120,9 +123,9 @@ public class ConsoleController implements DebuggerController {
 
     private void parseBreakCycleCommand(String[] parts) {
         if (parts[1].equals("add")) {
-            debugger.addCyclesBreakpoint(Integer.parseInt(parts[2]));
+            debugger.addCyclesBreakpoint(Long.parseLong(parts[2]));
         } else if (parts[1].equals("rm")) {
-            debugger.removeCycleBreakpoint(Integer.parseInt(parts[2]));
+            debugger.removeCycleBreakpoint(Long.parseLong(parts[2]));
         }
     }
 
@@ -140,6 +143,21 @@ public class ConsoleController implements DebuggerController {
     }
 
 
+    //wp add r|w|rw ADDR [VALUE], wp rm ADDR|all
+    private void parseWatchpointCommand(String[] parts) {
+        if (parts[1].equals("add")) {
+            char address = (char) (Integer.parseInt(parts[3], 16) & 0xFFFF);
+            Byte value = parts.length > 4 ? (byte) (Integer.parseInt(parts[4], 16) & 0xFF) : null;
+            debugger.addWatchpoint(address, parts[2].contains("r"), parts[2].contains("w"), value);
+        } else if (parts[1].equals("rm")) {
+            if (parts[2].equals("all")) {
+                debugger.removeAllWatchpoints();
+            } else {
+                debugger.removeWatchpoint((char) (Integer.parseInt(parts[2], 16) & 0xFFFF));
+            }
+        }
+    }
+
     private void parseBreakCommand(String[] parts) {
         if (parts[1].equals("add")) {
             char address = (char) (Integer.parseInt(parts[2], 16) & 0xFFFF);
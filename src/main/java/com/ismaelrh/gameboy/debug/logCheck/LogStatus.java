@@ -8,19 +8,19 @@ public class LogStatus {
 
     private final String[] headers = {" ", "A", "F", "BC", "DE", "HL", "SP", "PC", "Cycles", "@HL"};
 
-    private int cycle;
+    private long cycle;
     private Registers registers;
 
-    public LogStatus(int cycle, Registers registers) {
+    public LogStatus(long cycle, Registers registers) {
         this.cycle = cycle;
         this.registers = registers;
     }
 
-    public int getCycle() {
+    public long getCycle() {
         return cycle;
     }
 
-    public void setCycle(int cycle) {
+    public void setCycle(long cycle) {
         this.cycle = cycle;
     }
 
@@ -32,11 +32,11 @@ public class LogStatus {
         this.registers = registers;
     }
 
-    public boolean isOk(int cycle, Registers registers) {
+    public boolean isOk(long cycle, Registers registers) {
         return this.registers.equals(registers);
     }
 
-    public void printDiff(int otherCycles, Registers otherRegisters, Memory memory) {
+    public void printDiff(long otherCycles, Registers otherRegisters, Memory memory) {
         //1st, expected
         //2nd, got
         String[][] data = {
@@ -58,7 +58,7 @@ public class BinJgbLogStatusProvider implements LogStatusProvider {
             setHL(r, m.group(5));
             setSP(r, m.group(6));
             setPC(r, m.group(7));
-            int cycles = getCyclesCount(m.group(8));
+            long cycles = getCyclesCount(m.group(8));
             return new LogStatus(cycles, r);
         } else {
             return null;
@@ -105,8 +105,8 @@ public class BinJgbLogStatusProvider implements LogStatusProvider {
         r.setPC((char) (Integer.parseInt(text, 16) & 0xFFFF));
     }
 
-    private int getCyclesCount(String text) {
-        return Integer.parseInt(text);
+    private long getCyclesCount(String text) {
+        return Long.parseLong(text);
     }
 
 
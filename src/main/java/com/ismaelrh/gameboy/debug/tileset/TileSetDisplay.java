@@ -17,6 +17,7 @@ public class TileSetDisplay implements FrameFinishedListener {
     private final static int LCD_HEIGHT = 128;
     private final FrameDisplayPanel panel;
     private final char startAddress;
+    private final int[] lineColors = new int[LCD_WIDTH];
 
     public TileSetDisplay(char startAddress) {
         this.panel = new FrameDisplayPanel(LCD_WIDTH, LCD_HEIGHT, 1);
@@ -45,10 +46,9 @@ public class TileSetDisplay implements FrameFinishedListener {
                 int tileStartOffset = totalTileNumber * 16;
                 char tileAddress = (char) (startAddress + tileStartOffset);
                 int[] pixels = TileUtils.getRowOfTileColors(memory, gpu.getBgPalette(), tileAddress, tileRow);
-                for (int pixel : pixels) {
-                    panel.pushPixel(pixel);
-                }
+                System.arraycopy(pixels, 0, lineColors, tileX * 8, 8);
             }
+            panel.pushLine(line, lineColors);
         }
 
         panel.onFrameFinished();
@@ -0,0 +1,120 @@
+package com.ismaelrh.gameboy.debug.trace;
+
+import com.ismaelrh.gameboy.cpu.Registers;
+import com.ismaelrh.gameboy.cpu.memory.MemoryAccessListener;
+import com.ismaelrh.gameboy.cpu.scheduler.Scheduler;
+
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Keeps the last memory accesses in a fixed-size ring buffer, off-heap so it does not add to GC work:
+ * cycle, PC, address, value and whether it was a write. Nothing is allocated per access.
+ * PC is the one when accessing: the opcode address when fetching, the next instruction while executing.
+ * Accesses can be limited to an address range.
+ */
+public class MemoryTracer implements MemoryAccessListener {
+
+    //cycle (8), PC (2), address (2), value (1), write (1), padding (2)
+    private static final int ENTRY_BYTES = 16;
+
+    private final Scheduler scheduler;
+    private final Registers registers;
+    private final int capacity;
+    private final ByteBuffer buffer;
+
+    //Position of the next entry, and entries ever recorded
+    private int next;
+    private long recorded;
+
+    private char filterStart = 0x0000;
+    private char filterEnd = 0xFFFF;
+
+    public MemoryTracer(Scheduler scheduler, Registers registers, int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive, is " + capacity);
+        }
+        this.scheduler = scheduler;
+        this.registers = registers;
+        this.capacity = capacity;
+        this.buffer = ByteBuffer.allocateDirect(capacity * ENTRY_BYTES).order(ByteOrder.nativeOrder());
+    }
+
+    @Override
+    public void onAccess(char address, byte value, boolean write) {
+        if (address < filterStart || address > filterEnd) {
+            return;
+        }
+        int position = next * ENTRY_BYTES;
+        buffer.putLong(position, scheduler.getClock());
+        buffer.putChar(position + 8, registers.getPC());
+        buffer.putChar(position + 10, address);
+        buffer.put(position + 12, value);
+        buffer.put(position + 13, (byte) (write ? 1 : 0));
+        next = next + 1 == capacity ? 0 : next + 1;
+        recorded++;
+    }
+
+    /**
+     * Only accesses to the given range (both included) are recorded from now on.
+     */
+    public void setFilter(char start, char end) {
+        this.filterStart = start;
+        this.filterEnd = end;
+    }
+
+    public void clear() {
+        next = 0;
+        recorded = 0;
+    }
+
+    //Entries available, at most the capacity
+    public int size() {
+        return (int) Math.min(recorded, capacity);
+    }
+
+    public long getRecorded() {
+        return recorded;
+    }
+
+    //Entries are indexed from the oldest (0) to the newest (size() - 1)
+
+    public long getCycle(int index) {
+        return buffer.getLong(getPosition(index));
+    }
+
+    public char getPC(int index) {
+        return buffer.getChar(getPosition(index) + 8);
+    }
+
+    public char getAddress(int index) {
+        return buffer.getChar(getPosition(index) + 10);
+    }
+
+    public byte getValue(int index) {
+        return buffer.get(getPosition(index) + 12);
+    }
+
+    public boolean isWrite(int index) {
+        return buffer.get(getPosition(index) + 13) != 0;
+    }
+
+    private int getPosition(int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException("Entry " + index + " of " + size());
+        }
+        int oldest = recorded > capacity ? next : 0;
+        return ((oldest + index) % capacity) * ENTRY_BYTES;
+    }
+
+    /**
+     * Prints every entry, from the oldest, as "cycle PC R|W address=value".
+     */
+    public void dump(PrintStream out) {
+        for (int i = 0; i < size(); i++) {
+            out.println(String.format("%d %04X %s %04X=%02X", getCycle(i), (int) getPC(i), isWrite(i) ? "W" : "R",
+                    (int) getAddress(i), getValue(i)));
+        }
+    }
+}
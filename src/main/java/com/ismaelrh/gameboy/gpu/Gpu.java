@@ -2,13 +2,16 @@ package com.ismaelrh.gameboy.gpu;
 
 import com.ismaelrh.gameboy.cpu.memory.MMIODevice;
 import com.ismaelrh.gameboy.cpu.memory.Memory;
+import com.ismaelrh.gameboy.cpu.scheduler.Scheduler;
+import com.ismaelrh.gameboy.gpu.lcd.FrameHasher;
+import com.ismaelrh.gameboy.gpu.lcd.IndexedFrame;
 import com.ismaelrh.gameboy.gpu.lcd.Lcd;
 import com.ismaelrh.gameboy.gpu.render.BackgroundRenderer;
 import com.ismaelrh.gameboy.gpu.render.SpriteRenderer;
 import com.ismaelrh.gameboy.gpu.render.WindowRenderer;
-import com.ismaelrh.gameboy.gpu.sprites.SpriteRenderInfo;
 import com.ismaelrh.gameboy.gpu.sprites.SpritesInfo;
-import com.ismaelrh.gameboy.gpu.tiles.TileUtils;
+import com.ismaelrh.gameboy.gpu.tiles.TileCache;
+import com.ismaelrh.gameboy.gpu.tiles.TileMapPlanes;
 
 public class Gpu extends MMIODevice {
 
@@ -16,6 +19,12 @@ public class Gpu extends MMIODevice {
     private boolean windowOn = true;
     private boolean spritesOn = true;
 
+    //Frame skip: one of every renderInterval frames is drawn, and none starting before renderFromClock
+    private int renderInterval = 1;
+    private long renderFromClock = 0;
+    private long frameCount = 0;
+    private boolean renderingFrame = true;
+
     //Addresses
     public static final char OAM_START_ADDRESS = 0xFE00;
     public static final char OAM_END_ADDRESS = 0xFE9F;
@@ -34,7 +43,11 @@ public class Gpu extends MMIODevice {
 
 
     private final Memory memory;
+    private final Scheduler scheduler;
+    private final int modeEvent;
     private final SpritesInfo spritesInfo;
+    private final TileCache tileCache;
+    private final TileMapPlanes tileMapPlanes;
     private final Lcd lcd;
     private final GpuRegisters gpuRegisters;
     private final GpuRegistersMapping gpuRegistersMapping;
@@ -44,22 +57,47 @@ public class Gpu extends MMIODevice {
     private final WindowRenderer windowRenderer;
     private final SpriteRenderer spriteRenderer;
 
-    public Gpu(Memory memory, Lcd lcd) {
+    //Line being drawn, reused for every one
+    private final int[] backgroundLine = new int[160];
+    private final int[] windowLine = new int[160];
+    private final int[] spriteIndexes = new int[160];
+    private final byte[] spritePalettes = new byte[160];
+    private final byte[] spriteBgPriorities = new byte[160];
+    private final int[] mergedLine = new int[160];
+
+    //Shades of the frame being drawn
+    private final IndexedFrame frame = new IndexedFrame();
+    private FrameHasher frameHasher;
+
+    //Master clock value currentClock corresponds to
+    private long lastClock;
+
+    public Gpu(Memory memory, Lcd lcd, Scheduler scheduler) {
         super((char) 0xFF40, (char) 0xFF79);
         this.memory = memory;
+        this.scheduler = scheduler;
         this.gpuRegisters = new GpuRegisters();
         this.lcd = lcd;
         this.spritesInfo = new SpritesInfo();
         this.memory.addInterceptor(this.spritesInfo);
-        this.backgroundRenderer = new BackgroundRenderer(this.memory, this.gpuRegisters);
-        this.windowRenderer = new WindowRenderer(this.memory, this.gpuRegisters);
-        this.spriteRenderer = new SpriteRenderer(this.memory, this.gpuRegisters, this.spritesInfo);
+        this.tileCache = new TileCache();
+        this.memory.addInterceptor(this.tileCache);
+        this.tileMapPlanes = new TileMapPlanes(this.tileCache);
+        this.memory.addInterceptor(this.tileMapPlanes);
+        this.backgroundRenderer = new BackgroundRenderer(this.gpuRegisters, this.tileMapPlanes);
+        this.windowRenderer = new WindowRenderer(this.gpuRegisters, this.tileMapPlanes);
+        this.spriteRenderer = new SpriteRenderer(this.memory, this.gpuRegisters, this.spritesInfo, this.tileCache);
         this.gpuRegistersMapping = new GpuRegistersMapping(this, gpuRegisters);
+        this.modeEvent = scheduler.register(this::onModeEvent);
+        this.lastClock = scheduler.getClock();
+        scheduleModeChange();
     }
 
     @Override
     public void onWrite(char address, byte data) {
+        sync();
         this.gpuRegistersMapping.onWrite(address, data);
+        scheduleModeChange();
     }
 
     @Override
@@ -67,17 +105,52 @@ public class Gpu extends MMIODevice {
         return this.gpuRegistersMapping.onRead(address);
     }
 
+    private void onModeEvent(long deadline) {
+        sync();
+        changeMode();
+        scheduleModeChange();
+    }
+
+    //Catches up currentClock with the master clock. Modes only change in changeMode()
+    private void sync() {
+        long now = scheduler.getClock();
+        if (gpuRegisters.lcdEnabled) {  //On LCD disabled, time does not pass
+            gpuRegisters.currentClock += (int) (now - lastClock);
+        }
+        lastClock = now;
+    }
+
+    private void scheduleModeChange() {
+        if (!gpuRegisters.lcdEnabled) {
+            scheduler.cancel(modeEvent);
+            return;
+        }
+        scheduler.schedule(modeEvent, lastClock + getModeCycles(gpuRegisters.mode) - gpuRegisters.currentClock);
+    }
+
+    private int getModeCycles(int mode) {
+        switch (mode) {
+            case OAM_MODE:
+                return OAM_CYCLES;
+            case VRAM_MODE:
+                return VRAM_CYCLES;
+            case HBLANK_MODE:
+                return HBLANK_CYCLES;
+            default:
+                return VBLANK_CYCLES;
+        }
+    }
+
     /**
      * Mode 2: 80 cycles, 0AM access
      * Mode 3: 172 cycles, VRAM access
      * Mode 0: 204 cycles, HBlank
      * Mode 1: Vblank mode,  When 143 lines, enter into vblank mode for 10 lines
      */
-    public void tick(int cycles) {
+    private void changeMode() {
         if (!gpuRegisters.lcdEnabled) {  //On LCD enabled, this does nothing
             return;
         }
-        gpuRegisters.currentClock += cycles;
         switch (gpuRegisters.mode) {
             case OAM_MODE:
                 oamMode();
@@ -132,6 +205,7 @@ public class Gpu extends MMIODevice {
             setLine(gpuRegisters.line + 1);
             if (gpuRegisters.line == 153) {    //10 lines
                 setLine(0);
+                startFrame();
                 setPpuMode(OAM_MODE);
             }
         }
@@ -156,12 +230,18 @@ public class Gpu extends MMIODevice {
         //Change in STAT register (last two bits)
         byte byteMode = (byte) ((byte) gpuRegisters.mode & 0xFF);
         gpuRegisters.lcd_stat = (byte) ((gpuRegisters.lcd_stat & 0xFC) | byteMode);
+        memory.updateVideoMapping();
 
         checkForStatIRQ();
 
         if (gpuRegisters.mode == VBLANK_MODE) {
             gpuRegisters.windowY = 0x00; //Reset every VBLANK
-            lcd.frameFinished();
+            if (renderingFrame) {
+                if (frameHasher != null) {
+                    frameHasher.frameFinished();
+                }
+                lcd.frameFinished();
+            }
             memory.fireVBlankInterruption();
         }
     }
@@ -181,9 +261,45 @@ public class Gpu extends MMIODevice {
         if (!gpuRegisters.lcdEnabled) {
             lcd.enableLcd();
             gpuRegisters.lcdEnabled = true;
+            startFrame();
         }
     }
 
+    /**
+     * Only one of every given number of frames is drawn, and none starting before the given clock.
+     * The rest are emulated just the same (modes, LY, STAT and the window line counter), but nothing is drawn
+     * nor sent to the Lcd.
+     */
+    public void setFrameSkip(int renderInterval, long renderFromClock) {
+        if (renderInterval < 1) {
+            throw new IllegalArgumentException("Render interval must be at least 1, got " + renderInterval);
+        }
+        this.renderInterval = renderInterval;
+        this.renderFromClock = renderFromClock;
+        this.frameCount = 0;
+        this.renderingFrame = isFrameRendered(scheduler.getClock());
+    }
+
+    //The frame starts when the mode changed, that may be before the master clock if catching up
+    private void startFrame() {
+        frameCount++;
+        renderingFrame = isFrameRendered(lastClock - gpuRegisters.currentClock);
+        if (frameHasher != null) {
+            frameHasher.startFrame();
+        }
+    }
+
+    /**
+     * Every frame drawn is hashed with the given hasher, null for none. Frames skipped are not hashed.
+     */
+    public void setFrameHasher(FrameHasher frameHasher) {
+        this.frameHasher = frameHasher;
+    }
+
+    private boolean isFrameRendered(long startClock) {
+        return frameCount % renderInterval == 0 && startClock >= renderFromClock;
+    }
+
     /**
      * Done when:
      * starting up LCD
@@ -212,19 +328,24 @@ public class Gpu extends MMIODevice {
 
 
     private void doScanline() {
-        int[] backgroundIndexes = backgroundRenderer.getBackgroundIndexes(gpuRegisters.line, backgroundOn);
-        int[] windowIndexes = windowRenderer.getWindowIndexes(gpuRegisters.line, windowOn);
-        SpriteRenderInfo[] spritesRenderInfo = spriteRenderer.getSpriteRenderInfo(gpuRegisters.line, spritesOn);
+        if (!renderingFrame) {
+            windowRenderer.skipWindowLine(gpuRegisters.line, windowOn);
+            return;
+        }
+        backgroundRenderer.getBackgroundIndexes(gpuRegisters.line, backgroundOn, backgroundLine);
+        windowRenderer.getWindowIndexes(gpuRegisters.line, windowOn, windowLine);
+        spriteRenderer.getSpriteIndexes(gpuRegisters.line, spritesOn, spriteIndexes, spritePalettes, spriteBgPriorities);
 
-        int[] lineToDraw = mergeLines(backgroundIndexes, windowIndexes, spritesRenderInfo);
+        mergeLines();
 
         //Push data to screen!
-        for (int lineColor : lineToDraw) {
-            lcd.pushPixel(lineColor);
+        frame.setLine(gpuRegisters.line, mergedLine, gpuRegisters.bg_palette_reg,
+                gpuRegisters.sprite_palette_0_reg, gpuRegisters.sprite_palette_1_reg);
+        lcd.pushLine(gpuRegisters.line, frame);
+        if (frameHasher != null) {
+            frameHasher.hashLine(gpuRegisters.line, frame);
         }
 
-        lcd.lineFinished();
-
     }
 
 
@@ -234,22 +355,19 @@ public class Gpu extends MMIODevice {
      * 2) If the BG-to-OBJ-Priority bit is 1 and the color number of the Background Pixel is anything other than 0, the Background Pixel is pushed to the LCD.
      * 3) If none of the above conditions apply, the Sprite Pixel is pushed to the LCD.
      */
-    private int[] mergeLines(int[] bgIndexes, int[] windowIndexes, SpriteRenderInfo[] spriteInfo) {
-
-        int[] mergedLine = new int[bgIndexes.length];
+    private void mergeLines() {
 
         for (int x = 0; x < mergedLine.length; x++) {
 
-            int bgIndex = windowIndexes[x] == -1 ? bgIndexes[x] : windowIndexes[x];
-            int bgColor = TileUtils.bgApplyPaletteToIndex(bgIndex, gpuRegisters.bgPalette);
-            mergedLine[x] = bgColor;
+            //No background is drawn as white
+            int bgIndex = windowLine[x] == -1 ? backgroundLine[x] : windowLine[x];
+            int bgShade = bgIndex == -1 ? 0 : getShade(gpuRegisters.bg_palette_reg, bgIndex);
+            mergedLine[x] = bgShade;
 
             if (gpuRegisters.spritesEnabled) {
 
-                int spriteIdx = spriteInfo[x].getIndex();
-                int[] spritePalette = gpuRegisters.spritePalettes[spriteInfo[x].getPaletteIdx()];
-                int spriteColor = TileUtils.spriteApplyPaletteToIndex(spriteIdx, spritePalette);
-                byte spriteBgPriority = spriteInfo[x].getBgPriority();
+                int spriteIdx = spriteIndexes[x];
+                byte spriteBgPriority = spriteBgPriorities[x];
 
                 if (spriteIdx == 0) {    //If index 0, continue
                     continue;
@@ -257,12 +375,17 @@ public class Gpu extends MMIODevice {
 
                 //Priority 0 = Sprite on top of BG
                 //Priority 1 = Only visible if background is color 0, or background is disabled
-                if (spriteBgPriority == 0 || !gpuRegisters.bgWindowEnabled || bgColor == Lcd.COLOR_0_WHITE) {
-                    mergedLine[x] = spriteColor;
+                if (spriteBgPriority == 0 || !gpuRegisters.bgWindowEnabled || bgShade == 0) {
+                    byte spritePalette = spritePalettes[x] == 0 ? gpuRegisters.sprite_palette_0_reg : gpuRegisters.sprite_palette_1_reg;
+                    mergedLine[x] = getShade(spritePalette, spriteIdx);
                 }
             }
         }
-        return mergedLine;
+    }
+
+    //Shade (0..3) a palette register gives to a color index
+    private static int getShade(byte palette, int colorIndex) {
+        return (palette >> (colorIndex << 1)) & 0x03;
     }
 
 
@@ -28,11 +28,8 @@ public class GpuRegisters {
     //Sprites
     public boolean spritesEnabled = false;
     public int spritesSizeMode = 0;
-    public final int[] spritePalette0 = new int[4];
     public byte sprite_palette_0_reg = (byte) 0x00;
-    public final int[] spritePalette1 = new int[4];
     public byte sprite_palette_1_reg = (byte) 0x00;
-    public final int[][] spritePalettes = new int[][]{spritePalette0, spritePalette1};
 
 
     // LCD
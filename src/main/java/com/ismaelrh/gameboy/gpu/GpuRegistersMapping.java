@@ -86,11 +86,9 @@ public class GpuRegistersMapping{
                 break;
             case LCD_SPRITE_PALETTE_0_ADDRESS:
                 gpuRegisters.sprite_palette_0_reg = data;
-                updateSpritesPalettes();
                 break;
             case LCD_SPRITE_PALETTE_1_ADDRESS:
                 gpuRegisters.sprite_palette_1_reg = data;
-                updateSpritesPalettes();
                 break;
             case LCD_SCROLL_Y_ADDRESS:
                 gpuRegisters.scrollY = data;
@@ -122,22 +120,6 @@ public class GpuRegistersMapping{
 
     }
 
-    private void updateSpritesPalettes() {
-
-        //0 is always transparent
-        gpuRegisters.spritePalette0[0] = Lcd.COLOR_0_TRANSPARENT;
-        gpuRegisters.spritePalette1[0] = Lcd.COLOR_0_TRANSPARENT;
-
-        for (int i = 1; i < 4; i++) {
-            int value = ((gpuRegisters.sprite_palette_0_reg & (3 << 2 * i)) >> 2 * i) & 0xFF;
-            gpuRegisters.spritePalette0[i] = Lcd.SPRITE_COLORS[value];
-        }
-        for (int i = 1; i < 4; i++) {
-            int value = ((gpuRegisters.sprite_palette_1_reg & (3 << 2 * i)) >> 2 * i) & 0xFF;
-            gpuRegisters.spritePalette1[i] = Lcd.SPRITE_COLORS[value];
-        }
-    }
-
     private void checkLcdEnabled() {
         if ((gpuRegisters.lcd_control & 0x80) != 0) {
             gpu.enableLcd();
@@ -0,0 +1,9 @@
+package com.ismaelrh.gameboy.gpu.lcd;
+
+public interface FrameHashListener {
+
+    /**
+     * A frame was drawn. Frames are numbered from 0, counting only the hashed ones.
+     */
+    void onFrameHash(int frame, long hash);
+}
@@ -0,0 +1,137 @@
+package com.ismaelrh.gameboy.gpu.lcd;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+/**
+ * Keeps a 64-bit hash of every frame drawn, updated as each line is pushed, so whole runs can be compared
+ * frame by frame. Nothing is allocated per line or frame, but when the stream of hashes has to grow.
+ * <p>
+ * The packed shades of each line are read as 8-byte lanes and mixed as XXH64 does with its last lanes, and the
+ * result goes through the XXH64 avalanche. It is not compatible with XXH64 itself, and not cryptographic.
+ */
+public class FrameHasher {
+
+    private static final long PRIME_1 = 0x9E3779B185EBCA87L;
+    private static final long PRIME_2 = 0xC2B2AE3D27D4EB4FL;
+    private static final long PRIME_3 = 0x165667B19E3779F9L;
+    private static final long PRIME_4 = 0x85EBCA77C2B2AE63L;
+    private static final long PRIME_5 = 0x27D4EB2F165667C5L;
+
+    private static final VarHandle LANES = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+
+    //Hash of the lines of the frame being drawn. Until a frame starts, lines are not hashed: the hasher may have been
+    //given to the Gpu in the middle of one
+    private long state = PRIME_5;
+    private int lines;
+    private boolean started;
+
+    private long[] hashes = new long[64];
+    private int frames;
+
+    private FrameHashListener listener;
+
+    /**
+     * A new frame starts, dropping the lines of one that was not finished, e.g. when the LCD was turned off.
+     */
+    public void startFrame() {
+        state = PRIME_5;
+        lines = 0;
+        started = true;
+    }
+
+    /**
+     * Line y of the frame was drawn. Lines are hashed in the order they come.
+     */
+    public void hashLine(int y, IndexedFrame frame) {
+        if (!started) {
+            return;
+        }
+        state = hashLine(state, frame.getPixels(), y * IndexedFrame.LINE_BYTES);
+        lines++;
+    }
+
+    /**
+     * The frame was finished: its hash is added to the stream, and the next line starts a new one.
+     * Ignored if the frame was not started, as only its last lines were hashed.
+     */
+    public void frameFinished() {
+        if (!started) {
+            return;
+        }
+        long hash = avalanche(state + (long) lines * IndexedFrame.LINE_BYTES);
+        startFrame();
+
+        if (frames == hashes.length) {
+            hashes = Arrays.copyOf(hashes, frames * 2);
+        }
+        hashes[frames] = hash;
+        frames++;
+
+        if (listener != null) {
+            listener.onFrameHash(frames - 1, hash);
+        }
+    }
+
+    /**
+     * Hash of a whole frame, the same the hasher gives when its lines are pushed from 0 to 143.
+     */
+    public static long hash(IndexedFrame frame) {
+        long state = PRIME_5;
+        for (int y = 0; y < Lcd.HEIGHT; y++) {
+            state = hashLine(state, frame.getPixels(), y * IndexedFrame.LINE_BYTES);
+        }
+        return avalanche(state + IndexedFrame.SIZE);
+    }
+
+    private static long hashLine(long state, byte[] pixels, int offset) {
+        for (int i = 0; i < IndexedFrame.LINE_BYTES; i += 8) {
+            long lane = (long) LANES.get(pixels, offset + i);
+            state ^= Long.rotateLeft(lane * PRIME_2, 31) * PRIME_1;
+            state = Long.rotateLeft(state, 27) * PRIME_1 + PRIME_4;
+        }
+        return state;
+    }
+
+    private static long avalanche(long hash) {
+        hash ^= hash >>> 33;
+        hash *= PRIME_2;
+        hash ^= hash >>> 29;
+        hash *= PRIME_3;
+        hash ^= hash >>> 32;
+        return hash;
+    }
+
+    public void setListener(FrameHashListener listener) {
+        this.listener = listener;
+    }
+
+    public int getFrames() {
+        return frames;
+    }
+
+    public long getHash(int frame) {
+        if (frame < 0 || frame >= frames) {
+            throw new IndexOutOfBoundsException("Frame " + frame + " of " + frames);
+        }
+        return hashes[frame];
+    }
+
+    /**
+     * A copy of the hashes of every frame, from the first one.
+     */
+    public long[] getHashes() {
+        return Arrays.copyOf(hashes, frames);
+    }
+
+    /**
+     * Drops every hash, and the frame being drawn: hashing starts again from the next one.
+     */
+    public void clear() {
+        startFrame();
+        started = false;
+        frames = 0;
+    }
+}
@@ -0,0 +1,84 @@
+package com.ismaelrh.gameboy.gpu.lcd;
+
+import static com.ismaelrh.gameboy.gpu.lcd.Lcd.HEIGHT;
+import static com.ismaelrh.gameboy.gpu.lcd.Lcd.WIDTH;
+
+/**
+ * A frame as the Game Boy shows it: a shade (0 white .. 3 black) per pixel, packed 4 pixels per byte, leftmost
+ * pixel in the highest bits. The palette registers (BGP, OBP0, OBP1) each line was drawn with are kept too.
+ * <p>
+ * Shades are turned into colors only when displayed, with {@link #getLineColors}.
+ */
+public class IndexedFrame {
+
+    public static final int LINE_BYTES = WIDTH / 4;
+    public static final int SIZE = LINE_BYTES * HEIGHT;
+
+    private static final int PALETTES = 3;
+
+    private final byte[] pixels = new byte[SIZE];
+    private final byte[] palettes = new byte[HEIGHT * PALETTES];
+
+    /**
+     * Stores line y from 160 shades (0..3), with the palette registers it was drawn with.
+     */
+    public void setLine(int y, int[] shades, byte bgPalette, byte spritePalette0, byte spritePalette1) {
+        int offset = y * LINE_BYTES;
+        for (int x = 0; x < WIDTH; x += 4) {
+            pixels[offset++] = (byte) (shades[x] << 6 | shades[x + 1] << 4 | shades[x + 2] << 2 | shades[x + 3]);
+        }
+        int paletteOffset = y * PALETTES;
+        palettes[paletteOffset] = bgPalette;
+        palettes[paletteOffset + 1] = spritePalette0;
+        palettes[paletteOffset + 2] = spritePalette1;
+    }
+
+    public int getShade(int x, int y) {
+        return (pixels[y * LINE_BYTES + (x >> 2)] >> (6 - ((x & 3) << 1))) & 0x03;
+    }
+
+    /**
+     * Writes the 160 colors of line y in out, from the given offset, with colors[shade] for every pixel.
+     */
+    public void getLineColors(int y, int[] colors, int[] out, int offset) {
+        int lineOffset = y * LINE_BYTES;
+        for (int i = 0; i < LINE_BYTES; i++) {
+            int packed = pixels[lineOffset + i];
+            out[offset++] = colors[(packed >> 6) & 0x03];
+            out[offset++] = colors[(packed >> 4) & 0x03];
+            out[offset++] = colors[(packed >> 2) & 0x03];
+            out[offset++] = colors[packed & 0x03];
+        }
+    }
+
+    /**
+     * Copies line y, with its palettes, to the same line of the given frame.
+     */
+    public void copyLine(int y, IndexedFrame to) {
+        System.arraycopy(pixels, y * LINE_BYTES, to.pixels, y * LINE_BYTES, LINE_BYTES);
+        System.arraycopy(palettes, y * PALETTES, to.palettes, y * PALETTES, PALETTES);
+    }
+
+    public void copyTo(IndexedFrame to) {
+        System.arraycopy(pixels, 0, to.pixels, 0, SIZE);
+        System.arraycopy(palettes, 0, to.palettes, 0, palettes.length);
+    }
+
+    public byte getBgPalette(int y) {
+        return palettes[y * PALETTES];
+    }
+
+    /**
+     * @param palette 0 for OBP0, 1 for OBP1
+     */
+    public byte getSpritePalette(int y, int palette) {
+        return palettes[y * PALETTES + 1 + palette];
+    }
+
+    /**
+     * The packed pixels, LINE_BYTES per line. Changes as lines are drawn.
+     */
+    public byte[] getPixels() {
+        return pixels;
+    }
+}
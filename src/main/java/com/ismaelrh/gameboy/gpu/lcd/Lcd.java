@@ -3,6 +3,9 @@ package com.ismaelrh.gameboy.gpu.lcd;
 
 public abstract class Lcd {
 
+    public final static int WIDTH = 160;
+    public final static int HEIGHT = 144;
+
     public final static int COLOR_0_WHITE = rgbToInt(255, 255, 255, 255);
     public final static int COLOR_1_LIGHT_GRAY = rgbToInt(192, 192, 192, 255);
     public final static int COLOR_2_DARK_GRAY = rgbToInt(96, 96, 96, 255);
@@ -13,13 +16,15 @@ public abstract class Lcd {
     public final static int[] BG_COLORS = new int[]{COLOR_0_WHITE, COLOR_1_LIGHT_GRAY, COLOR_2_DARK_GRAY, COLOR_3_BLACK};
     public final static int[] SPRITE_COLORS = new int[]{COLOR_0_TRANSPARENT, COLOR_1_LIGHT_GRAY, COLOR_2_DARK_GRAY, COLOR_3_BLACK};
 
-    public abstract void pushPixel(int color); //0,1,2,3
+    /**
+     * Line y (0..143) of the frame was drawn. The frame keeps shades, not colors, and is reused for the next lines,
+     * so the line has to be copied or turned into colors here, e.g. with frame.getLineColors(y, BG_COLORS, ...).
+     */
+    public abstract void pushLine(int y, IndexedFrame frame);
 
     //Flush to actual screen
     public abstract void frameFinished();
 
-    public abstract void lineFinished();
-
     public abstract void disableLcd();
 
     public abstract void enableLcd();
@@ -52,6 +57,4 @@ public abstract class Lcd {
         Opacity = (Opacity << 24) & 0xFF000000;
         return Opacity | Red | Green | Blue; //0xFF000000 for 100% Alpha. Bitwise OR everything together.
     }
-
-    public abstract int getPixel();
 }
@@ -0,0 +1,59 @@
+package com.ismaelrh.gameboy.gpu.lcd;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Three frames shared by one thread drawing them and another one displaying them, without locks.
+ * The drawing thread owns the back buffer and publishes it when the frame is finished, getting another one.
+ * The displaying thread takes the last frame published, if there is a new one, as its front buffer.
+ * Neither of them ever waits, and frames the display is not fast enough for are just skipped.
+ */
+public class TripleBuffer {
+
+    //Set in the middle buffer index when it was published after the front buffer was taken
+    private static final int FRESH = 0x04;
+    private static final int INDEX = 0x03;
+
+    private final int[][] buffers;
+
+    //Only used by the drawing thread
+    private int back = 0;
+
+    //Only used by the displaying thread
+    private int front = 1;
+
+    //Last published, or the one that was the front buffer
+    private final AtomicInteger middle = new AtomicInteger(2);
+
+    public TripleBuffer(int size) {
+        this.buffers = new int[3][size];
+    }
+
+    public int[] getBackBuffer() {
+        return buffers[back];
+    }
+
+    /**
+     * Drawing thread: makes the back buffer the one to display next. The new back buffer keeps an older frame.
+     */
+    public void publish() {
+        back = middle.getAndSet(back | FRESH) & INDEX;
+    }
+
+    /**
+     * Displaying thread: takes the last published frame as front buffer.
+     *
+     * @return false if nothing was published since the last time, so the front buffer did not change
+     */
+    public boolean acquire() {
+        if ((middle.get() & FRESH) == 0) {
+            return false;
+        }
+        front = middle.getAndSet(front) & INDEX;
+        return true;
+    }
+
+    public int[] getFrontBuffer() {
+        return buffers[front];
+    }
+}
@@ -1,6 +1,7 @@
 package com.ismaelrh.gameboy.gpu.lcd.swing;
 
 import com.ismaelrh.gameboy.gpu.lcd.Lcd;
+import com.ismaelrh.gameboy.gpu.lcd.TripleBuffer;
 
 import java.awt.*;
 import java.awt.image.BufferedImage;
@@ -9,6 +10,7 @@ import java.nio.ByteOrder;
 import java.security.MessageDigest;
 import java.util.Arrays;
 import java.util.Base64;
+import java.util.concurrent.locks.LockSupport;
 
 import static com.ismaelrh.gameboy.gpu.lcd.Lcd.getColorCode;
 
@@ -19,33 +21,31 @@ public class FrameDisplayPanel extends DisplayPanel  {
     private final int SCALE;
 
     private final BufferedImage img;
-    private final int[] rgb;
+    private final TripleBuffer buffers;
+
+    //Last frame finished. Not drawn again until the next one is finished
     private int[] frozenRgb;
-    private int pixel = 0;
+    private volatile Thread displayThread;
     private boolean enabled = true;
-    private boolean doRefresh = false;
 
     public FrameDisplayPanel(int width, int height, int scale) {
         super();
         this.LCD_WIDTH = width;
         this.LCD_HEIGHT = height;
         this.SCALE = scale;
-        rgb = new int[LCD_WIDTH * LCD_HEIGHT];
+        buffers = new TripleBuffer(LCD_WIDTH * LCD_HEIGHT);
         frozenRgb = new int[LCD_WIDTH * LCD_HEIGHT];
         img = new BufferedImage(LCD_WIDTH, LCD_HEIGHT, BufferedImage.TYPE_INT_ARGB);
 
         //Initialize to white
-        Arrays.fill(rgb, Lcd.BG_COLORS[0]);
+        Arrays.fill(buffers.getBackBuffer(), Lcd.BG_COLORS[0]);
     }
 
     @Override
-    public void pushPixel(int color) {
-        synchronized (this) {
-            rgb[pixel] = color;
-            pixel++;
-            pixel = pixel % rgb.length;
+    public void pushLine(int y, int[] pixels) {
+        if (y < LCD_HEIGHT) {
+            System.arraycopy(pixels, 0, buffers.getBackBuffer(), y * LCD_WIDTH, LCD_WIDTH);
         }
-
     }
 
     @Override
@@ -58,15 +58,12 @@ public class FrameDisplayPanel extends DisplayPanel  {
         enabled = false;
     }
 
+    //The frame is handed to the display thread, that is woken up if waiting
     @Override
     public void onFrameFinished() {
-        synchronized (this) {
-            doRefresh = true;
-            pixel = 0;
-            frozenRgb = Arrays.copyOf(rgb, rgb.length);
-            notifyAll();
-        }
-
+        frozenRgb = buffers.getBackBuffer();
+        buffers.publish();
+        LockSupport.unpark(displayThread);
     }
 
     @Override
@@ -84,34 +81,25 @@ public class FrameDisplayPanel extends DisplayPanel  {
     }
 
     private void flushFrame() {
-        img.setRGB(0, 0, LCD_WIDTH, LCD_HEIGHT, frozenRgb, 0, LCD_WIDTH);
+        img.setRGB(0, 0, LCD_WIDTH, LCD_HEIGHT, buffers.getFrontBuffer(), 0, LCD_WIDTH);
         validate();
         repaint();
     }
 
     @Override
     public void run() {
-        while (true) {
-            //Wait until refresh, or any action, is asked for
-            synchronized (this) {
-                try {
-                    wait();
-                } catch (InterruptedException e) {
-                    break;
-                }
-            }
-
-            //If refresh, then flush the frame
-            if (doRefresh) {
+        displayThread = Thread.currentThread();
+        while (!Thread.interrupted()) {
+            //Wait until a new frame is finished
+            if (buffers.acquire()) {
                 flushFrame();
-                synchronized (this) {
-                    doRefresh = false;
-                }
+            } else {
+                LockSupport.park(this);
             }
-
         }
     }
 
+    //Of the last frame finished. To be called from the thread drawing the frames
     public String getHash() throws Exception {
         ByteBuffer buffer = ByteBuffer.allocate(4 * frozenRgb.length);
         buffer.order(ByteOrder.BIG_ENDIAN);
@@ -121,9 +109,4 @@ public class FrameDisplayPanel extends DisplayPanel  {
         byte[] hash = MessageDigest.getInstance("MD5").digest(buffer.array());
         return Base64.getEncoder().encodeToString(hash);
     }
-
-    @Override
-    public int getPixel() {
-        return pixel;
-    }
 }
\ No newline at end of file
@@ -20,7 +20,6 @@ public class LineDisplayPanel extends DisplayPanel  {
     private final int SCALE;
     private final BufferedImage img;
     private final int[] rgb;
-    private int pixel = 0;
 
     private boolean enabled = true;
     private boolean doRefresh = false;
@@ -38,13 +37,10 @@ public class LineDisplayPanel extends DisplayPanel  {
     }
 
     @Override
-    public void pushPixel(int color) {
-        synchronized (this) {
-            rgb[pixel] = color;
-            pixel++;
-            pixel = pixel % rgb.length;
+    public void pushLine(int y, int[] pixels) {
+        if (y < LCD_HEIGHT) {
+            System.arraycopy(pixels, 0, rgb, y * LCD_WIDTH, LCD_WIDTH);
         }
-
     }
 
 
@@ -61,13 +57,6 @@ public class LineDisplayPanel extends DisplayPanel  {
     @Override
     public void onFrameFinished() {
         Arrays.fill(rgb, Lcd.BG_COLORS[0]);
-        pixel = 0;
-    }
-
-
-    @Override
-    public void onLineFinished() {
-        //doRefresh = true;
     }
 
     @Override
@@ -126,9 +115,4 @@ public class LineDisplayPanel extends DisplayPanel  {
         byte[] hash = MessageDigest.getInstance("MD5").digest(buffer.array());
         return Base64.getEncoder().encodeToString(hash);
     }
-
-    @Override
-    public int getPixel() {
-        return pixel;
-    }
 }
\ No newline at end of file
@@ -1,5 +1,6 @@
 package com.ismaelrh.gameboy.gpu.lcd.swing;
 
+import com.ismaelrh.gameboy.gpu.lcd.IndexedFrame;
 import com.ismaelrh.gameboy.gpu.lcd.Lcd;
 
 import javax.swing.*;
@@ -13,10 +14,7 @@ public class SwingLcd extends Lcd {
     private final static int LCD_WIDTH = 160;
     private final static int LCD_HEIGHT = 144;
     private final DisplayPanel panel;
-
-    public int getPixel() {
-        return panel.getPixel();
-    }
+    private final int[] lineColors = new int[LCD_WIDTH];
 
     public SwingLcd(int scale) {
         this.panel = new FrameDisplayPanel(LCD_WIDTH, LCD_HEIGHT, scale);
@@ -25,8 +23,9 @@ public class SwingLcd extends Lcd {
     }
 
     @Override
-    public void pushPixel(int rgbColor) {
-        this.panel.pushPixel(rgbColor);
+    public void pushLine(int y, IndexedFrame frame) {
+        frame.getLineColors(y, BG_COLORS, lineColors, 0);
+        this.panel.pushLine(y, lineColors);
     }
 
     @Override
@@ -34,11 +33,6 @@ public class SwingLcd extends Lcd {
         this.panel.onFrameFinished();
     }
 
-    @Override
-    public void lineFinished() {
-        this.panel.onLineFinished();
-    }
-
     @Override
     public void disableLcd() {
         this.panel.disableLcd();
@@ -1,78 +1,35 @@
 package com.ismaelrh.gameboy.gpu.render;
 
-import com.ismaelrh.gameboy.cpu.memory.Memory;
 import com.ismaelrh.gameboy.gpu.GpuRegisters;
-import com.ismaelrh.gameboy.gpu.tiles.TileUtils;
+import com.ismaelrh.gameboy.gpu.tiles.TileMapPlanes;
 
 import java.util.Arrays;
 
-import static com.ismaelrh.gameboy.gpu.tiles.TileUtils.getTileAddress;
-
 public class BackgroundRenderer {
 
     private final GpuRegisters gpuRegisters;
-    private final Memory memory;
+    private final TileMapPlanes tileMapPlanes;
 
-    public BackgroundRenderer(Memory memory, GpuRegisters gpuRegisters) {
+    public BackgroundRenderer(GpuRegisters gpuRegisters, TileMapPlanes tileMapPlanes) {
         this.gpuRegisters = gpuRegisters;
-        this.memory = memory;
-    }
-
-    public int[] getBackgroundIndexes(int drawingLine, boolean backgroundOn) {
-        //Need to get the tile row and the pixel row we are going to draw,
-        //according to scrollY and drawingLine
-        int fullMapY = drawingLine + (gpuRegisters.scrollY & 0xFF);  //Line of the whole view to paint
-        int verticalTilePos = fullMapY / 8; //Tile to draw
-        int tileRow = fullMapY - verticalTilePos * 8;   //#row inside the tile (0..7)
-
-        if (verticalTilePos >= 32) {
-            verticalTilePos -= 32; //Wrap
-        }
-
-        //Need to read the line (# of tile, row of the tile, x scroll)
-        return readBackgroundLine(verticalTilePos, tileRow, gpuRegisters.scrollX, backgroundOn);
+        this.tileMapPlanes = tileMapPlanes;
     }
 
-    private int[] readBackgroundLine(int verticalTilePos, int tileRow, int scrollX, boolean backgroundOn) {
-
-        //Need to read 160 pixels (5 tiles, but can be in the middle)
-        int[] line = new int[160];
-
+    //Stores the color indexes of the line in the given array, -1 if there is no background
+    public void getBackgroundIndexes(int drawingLine, boolean backgroundOn, int[] line) {
         if (!gpuRegisters.bgWindowEnabled || !backgroundOn) {
             Arrays.fill(line, -1);
-            return line;
+            return;
         }
 
-        int horizontalTilePos = (scrollX & 0xFF) / 8;   //Number of tile (in row, horizontally)
-        int xOffsetInsideFirstTile = (scrollX & 0xFF) - horizontalTilePos * 8;    //X offset inside tile
-        int readPixels = 0;
+        //Row of the whole map to paint, and where the screen starts in it. Both wrap.
+        int mapY = (drawingLine + (gpuRegisters.scrollY & 0xFF)) & 0xFF;
+        int mapX = gpuRegisters.scrollX & 0xFF;
+        byte[] plane = tileMapPlanes.getPlane(gpuRegisters.bgTileMap, gpuRegisters.tileAddressingMode, mapY, mapX, line.length);
 
-
-        while (readPixels < 160) {
-
-            char tileAddress = getTileAddress(memory,gpuRegisters,verticalTilePos, horizontalTilePos, false);
-            int[] data = TileUtils.getRowOfTileIndexes(memory, tileAddress, tileRow, false, false);
-
-            int startIdx = 0;
-            int length = 8;
-
-            //Cut the beginning of the screen
-            if (readPixels == 0) {
-                startIdx = xOffsetInsideFirstTile;
-                length = 8 - xOffsetInsideFirstTile;
-            }
-
-            //Cut the end of the screen
-            if (readPixels + 8 > 160) {
-                length = 160 - readPixels;
-            }
-
-            System.arraycopy(data, startIdx, line, readPixels, length);
-            readPixels += length;
-            horizontalTilePos = (horizontalTilePos + 1) % 32;   //Wrap horizontal tile
+        int rowStart = mapY * TileMapPlanes.SIZE;
+        for (int x = 0; x < line.length; x++) {
+            line[x] = plane[rowStart + ((mapX + x) & 0xFF)];
         }
-        return line;
     }
-
-
 }
@@ -2,12 +2,10 @@ package com.ismaelrh.gameboy.gpu.render;
 
 import com.ismaelrh.gameboy.cpu.memory.Memory;
 import com.ismaelrh.gameboy.gpu.GpuRegisters;
-import com.ismaelrh.gameboy.gpu.tiles.TileUtils;
 import com.ismaelrh.gameboy.gpu.sprites.Sprite;
-import com.ismaelrh.gameboy.gpu.sprites.SpriteRenderInfo;
 import com.ismaelrh.gameboy.gpu.sprites.SpritesInfo;
+import com.ismaelrh.gameboy.gpu.tiles.TileCache;
 
-import java.util.ArrayList;
 import java.util.Arrays;
 
 public class SpriteRenderer {
@@ -15,39 +13,31 @@ public class SpriteRenderer {
     private final GpuRegisters gpuRegisters;
     private final Memory memory;
     private final SpritesInfo spritesInfo;
+    private final TileCache tileCache;
 
-    public SpriteRenderer(Memory memory, GpuRegisters gpuRegisters, SpritesInfo spritesInfo) {
+    public SpriteRenderer(Memory memory, GpuRegisters gpuRegisters, SpritesInfo spritesInfo, TileCache tileCache) {
         this.gpuRegisters = gpuRegisters;
         this.memory = memory;
         this.spritesInfo = spritesInfo;
+        this.tileCache = tileCache;
     }
 
-    public SpriteRenderInfo[] getSpriteRenderInfo(int line, boolean spritesOn) {
-
-        SpriteRenderInfo[] spritesRenderInfo = new SpriteRenderInfo[160];
-
-        int[] spritesIndexes = new int[160];
-        byte[] bgPriority = new byte[160];
-        byte[] spritePalletIdxs = new byte[160];
-
-
-        Sprite[] spritesToDraw = spritesInfo.getSpritesToDrawOnLine(line, gpuRegisters.spritesSizeMode);
+    /**
+     * Stores, for every pixel of the line, the color index (0 if none), palette and BG priority of the sprite on top.
+     */
+    public void getSpriteIndexes(int line, boolean spritesOn, int[] spritesIndexes, byte[] spritePalletIdxs, byte[] bgPriority) {
 
+        Arrays.fill(spritesIndexes, 0);
+        Arrays.fill(spritePalletIdxs, (byte) 0);
+        Arrays.fill(bgPriority, (byte) 0);
 
         if (!spritesOn) {
-            spritesToDraw  = new Sprite[0];
+            return;
         }
         //We first print the lowest priority ones so they are then overriden.
-        //so, higher posX has lower priority. higher sprite number has lower priority.
-        Arrays.sort(spritesToDraw, (o1, o2) -> {
-            if (o1.getPosX() != o2.getPosX()) {
-                return o2.getPosX() - o1.getPosX();
-            }
-            return o2.getSpriteNumber() - o1.getSpriteNumber();
-        });
-
-
-        for (Sprite sprite : spritesToDraw) {
+        int count = spritesInfo.getSpritesToDrawOnLine(line, gpuRegisters.spritesSizeMode);
+        for (int i = count - 1; i >= 0; i--) {
+            Sprite sprite = spritesInfo.getSpriteToDraw(line, i);
 
             int spriteRow = line - sprite.getPosY();
             byte tileNumber = sprite.getTileNumber();
@@ -56,44 +46,34 @@ public class SpriteRenderer {
                 tileNumber = (byte) (tileNumber & 0xFE);
             }
 
-            int[] spriteIndexes = readSpriteLine(tileNumber, spriteRow, sprite.hFlip(), sprite.vFlip());
-
             int spriteStartX = sprite.getPosX() >= 0 ? 0 : -sprite.getPosX();
             int spriteLength = getSpriteLength(sprite);
             if (spriteLength <= 0) {
                 continue;
             }
-            byte[] spritePriority = new byte[8];
-            byte[] spritePalette = new byte[8];
-
-            Arrays.fill(spritePriority, sprite.getPriority());
-            Arrays.fill(spritePalette, sprite.getPalette());
+            int rowOffset = getSpriteRowOffset(tileNumber, spriteRow, sprite.vFlip());
             int drawStartX = Math.max(sprite.getPosX(), 0);
 
             copyRespectingTransparency(
-                    spriteIndexes, spritePalette, spritePriority,
+                    tileCache.getPixels(sprite.hFlip()), rowOffset + spriteStartX,
+                    sprite.getPalette(), sprite.getPriority(),
                     spritesIndexes, spritePalletIdxs, bgPriority,
-                    spriteStartX, drawStartX, spriteLength);
+                    drawStartX, spriteLength);
         }
 
-        for (int i = 0; i < spritesRenderInfo.length; i++) {
-            spritesRenderInfo[i] = new SpriteRenderInfo(spritesIndexes[i], bgPriority[i], spritePalletIdxs[i]);
-        }
-
-        return spritesRenderInfo;
     }
 
-    private void copyRespectingTransparency(int[] srcIndexes, byte[] srcPalette, byte[] srcPriority,
+    private void copyRespectingTransparency(byte[] srcIndexes, int srcPos, byte palette, byte priority,
                                             int[] dstIndexes, byte[] dstPalette, byte[] dstPriority,
-                                            int srcPos, int dstPos, int length) {
+                                            int dstPos, int length) {
         int position = 0;
         while (position < length) {
             int newIndex = srcIndexes[srcPos + position];
 
             if (newIndex != 0) {   //Copy new data
-                dstIndexes[dstPos + position] = srcIndexes[srcPos + position];
-                dstPalette[dstPos + position] = srcPalette[srcPos + position];
-                dstPriority[dstPos + position] = srcPriority[srcPos + position];
+                dstIndexes[dstPos + position] = newIndex;
+                dstPalette[dstPos + position] = palette;
+                dstPriority[dstPos + position] = priority;
             }
 
             position++;
@@ -111,11 +91,13 @@ public class SpriteRenderer {
         }
     }
 
-    private int[] readSpriteLine(byte tileNumber, int spriteRow, boolean hFlip, boolean vFlip) {
-        //Need to read 8 pixels
-        char tileAddress = (char) (0x8000 + 16 * (tileNumber & 0xFF));
+    //Offset of the given row in the tile cache. In 8x16 mode, rows 8..15 are in the next tile.
+    private int getSpriteRowOffset(byte tileNumber, int spriteRow, boolean vFlip) {
         int spritesHeight = gpuRegisters.spritesSizeMode == 0x00 ? 8 : 16;
-        return TileUtils.getRowOfTileIndexes(memory, tileAddress, spriteRow, hFlip, vFlip, spritesHeight);
+        if (vFlip) {
+            spriteRow = (spritesHeight - 1) - spriteRow;
+        }
+        return tileCache.getRowOffset((tileNumber & 0xFF) + spriteRow / 8, spriteRow % 8);
     }
 
 
@@ -1,71 +1,76 @@
 package com.ismaelrh.gameboy.gpu.render;
 
-import com.ismaelrh.gameboy.cpu.memory.Memory;
 import com.ismaelrh.gameboy.gpu.GpuRegisters;
-import com.ismaelrh.gameboy.gpu.tiles.TileUtils;
+import com.ismaelrh.gameboy.gpu.tiles.TileMapPlanes;
 
 import java.util.Arrays;
 
-import static com.ismaelrh.gameboy.gpu.tiles.TileUtils.getTileAddress;
-
 public class WindowRenderer {
 
     private final GpuRegisters gpuRegisters;
-    private final Memory memory;
+    private final TileMapPlanes tileMapPlanes;
 
-    public WindowRenderer(Memory memory, GpuRegisters gpuRegisters) {
+    public WindowRenderer(GpuRegisters gpuRegisters, TileMapPlanes tileMapPlanes) {
         this.gpuRegisters = gpuRegisters;
-        this.memory = memory;
+        this.tileMapPlanes = tileMapPlanes;
     }
 
-    public int[] getWindowIndexes(int drawingLine, boolean windowOn) {
+    //Stores the color indexes of the line in the given array, -1 where there is no window
+    public void getWindowIndexes(int drawingLine, boolean windowOn, int[] line) {
 
         boolean windowReached = drawingLine - (gpuRegisters.wY & 0xFF) >= 0;
         int tileMapRow = (gpuRegisters.windowY & 0xFF); //Row of tilemap to draw.
-        int verticalTilePos = tileMapRow / 8; //Tile to draw. Never will be >= 32.
-        int tileRow = tileMapRow - verticalTilePos * 8;   //#row inside the tile (0..7)
 
         //if WY > 144 or WX > 166 or Y < 0, we do not draw
-        if (!windowOn || Byte.compareUnsigned(gpuRegisters.wY, (byte) 144) > 0 || Byte.compareUnsigned(gpuRegisters.wX, (byte) 166) > 0 || !windowReached) {
-            int[] whiteLine = new int[160];
-            Arrays.fill(whiteLine, -1);
-            return whiteLine;
+        if (!isWindowOnLine(windowOn, windowReached)) {
+            Arrays.fill(line, -1);
+            return;
         }
 
-        return readWindowLine(verticalTilePos, tileRow, gpuRegisters.wX);
+        readWindowLine(tileMapRow, gpuRegisters.wX, line);
     }
 
-    private int[] readWindowLine(int verticalTilePos, int tileRow, int windowX) {
+    /**
+     * For lines not drawn: only counts the line in the window line counter, if getWindowIndexes() would.
+     */
+    public void skipWindowLine(int drawingLine, boolean windowOn) {
+        boolean windowReached = drawingLine - (gpuRegisters.wY & 0xFF) >= 0;
+        if (isWindowOnLine(windowOn, windowReached) && gpuRegisters.bgWindowEnabled && gpuRegisters.windowEnabled
+                && Math.max(gpuRegisters.wX - 7, 0) < 160) {
+            gpuRegisters.windowY += 1;
+        }
+    }
+
+    private boolean isWindowOnLine(boolean windowOn, boolean windowReached) {
+        return windowOn && Byte.compareUnsigned(gpuRegisters.wY, (byte) 144) <= 0
+                && Byte.compareUnsigned(gpuRegisters.wX, (byte) 166) <= 0 && windowReached;
+    }
+
+    private void readWindowLine(int tileMapRow, int windowX, int[] line) {
 
         int windowRealX = windowX - 7;
 
-        int[] line = new int[160];
         Arrays.fill(line, -1);
 
         if (!gpuRegisters.bgWindowEnabled || !gpuRegisters.windowEnabled) {
-            return line;    //All empty
+            return;    //All empty
         }
 
 
-        int currentScreenPixel = Math.max(windowRealX, 0); //if < 0, we start drawing at 0 in screen.
-        int currentTileLinePixel = 0;
-
-        //In this scanline, there is window to draw, so we increase.
-        if (currentScreenPixel < 160) {
-            gpuRegisters.windowY += 1;
+        int screenStart = Math.max(windowRealX, 0); //if < 0, we start drawing at 0 in screen.
+        if (screenStart >= 160) {
+            return;
         }
 
-        while (currentScreenPixel < 160) {
-            int remainingPixels = 160 - currentScreenPixel;
-            int dataLength = Math.min(remainingPixels, 8);
-            int horizontalTilePos = currentTileLinePixel / 8;
-            char tileAddress = getTileAddress(memory, gpuRegisters, verticalTilePos, horizontalTilePos, true);
-            int[] data = TileUtils.getRowOfTileIndexes(memory, tileAddress, tileRow, false, false);
-            System.arraycopy(data, 0, line, currentScreenPixel, dataLength);
-            currentScreenPixel += dataLength;
-            currentTileLinePixel += dataLength;
+        //In this scanline, there is window to draw, so we increase.
+        gpuRegisters.windowY += 1;
+
+        //The window is drawn from its left border, so it never wraps
+        int length = 160 - screenStart;
+        byte[] plane = tileMapPlanes.getPlane(gpuRegisters.windowTileMap, gpuRegisters.tileAddressingMode, tileMapRow, 0, length);
+        int rowStart = tileMapRow * TileMapPlanes.SIZE;
+        for (int x = 0; x < length; x++) {
+            line[screenStart + x] = plane[rowStart + x];
         }
-
-        return line;
     }
 }
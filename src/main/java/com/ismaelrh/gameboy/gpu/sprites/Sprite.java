@@ -22,11 +22,11 @@ public class Sprite {
         this.spriteNumber = spriteNumber;
     }
 
-    protected void refresh(byte[] data) { //It receives 4 bytes
-        posY = Byte.toUnsignedInt(data[0]);
-        posX = Byte.toUnsignedInt(data[1]);
-        tileNumber = data[2];
-        refreshAttributes(data[3]);
+    protected void refresh(byte[] data, int offset) { //It receives 4 bytes from offset
+        posY = Byte.toUnsignedInt(data[offset]);
+        posX = Byte.toUnsignedInt(data[offset + 1]);
+        tileNumber = data[offset + 2];
+        refreshAttributes(data[offset + 3]);
     }
 
     private void refreshAttributes(byte attributes) {
@@ -2,14 +2,33 @@ package com.ismaelrh.gameboy.gpu.sprites;
 
 import com.ismaelrh.gameboy.cpu.memory.MemoryInterceptor;
 
+import java.util.Arrays;
+
 import static com.ismaelrh.gameboy.gpu.Gpu.OAM_END_ADDRESS;
 import static com.ismaelrh.gameboy.gpu.Gpu.OAM_START_ADDRESS;
 
 public class SpritesInfo extends MemoryInterceptor {
 
+    public static final int MAX_SPRITES_PER_LINE = 10;
+    private static final int LINES = 144;
+
     private Sprite[] sprites = new Sprite[40];
 
+    //Sprites (bit by number) written since they were last refreshed. Writes are intercepted before knowing
+    //whether they land (OAM may be locked by the PPU or by DMA), so sprites are read back from OAM when drawing
+    private long outdatedSprites;
+    private final byte[] spriteBytes = new byte[4];
+
+    //Sprite numbers of every line, highest priority first: MAX_SPRITES_PER_LINE slots per line.
+    //Rebuilt when drawing, only if OAM or the sprite size changed since last time
+    private final byte[] lineSprites = new byte[LINES * MAX_SPRITES_PER_LINE];
+    private final int[] lineSpriteCounts = new int[LINES];
+    private boolean indexOutdated = true;
+    private int indexedSizeMode;
+    private long indexBuilds;
+
     public SpritesInfo() {
+        super(OAM_START_ADDRESS, OAM_END_ADDRESS, false, true);
         for (int i = 0; i < sprites.length; i++) {
             sprites[i] = new Sprite(i);
         }
@@ -17,55 +36,105 @@ public class SpritesInfo extends MemoryInterceptor {
 
     @Override
     public byte onWrite(char address, byte data) {
-        if (address >= OAM_START_ADDRESS && address <= OAM_END_ADDRESS) {
-            //Must now which sprite number I'm writing to (4 bytes per sprite)
-            int spriteNumber = (address - OAM_START_ADDRESS) / 4;
-            int bytePosition = (address - OAM_START_ADDRESS) - spriteNumber * 4;
-            char spriteStartAddress = (char) ((OAM_START_ADDRESS + 4 * spriteNumber) & 0xFFFF);
-
-            byte[] spriteData = memory.readRange(spriteStartAddress, 4);
-            spriteData[bytePosition] = data;
-            refreshSprite(spriteNumber, spriteData);
-        }
+        //Must now which sprite number I'm writing to (4 bytes per sprite)
+        int spriteNumber = (address - OAM_START_ADDRESS) / 4;
+        outdatedSprites |= 1L << spriteNumber;
+        indexOutdated = true;
         return super.onWrite(address, data);
     }
 
+    //OAM DMA: bytes have already been written, every sprite fully written is refreshed once from them.
+    //Sprites only partly written are read back from OAM, as their other bytes are not in data
+    @Override
+    public void onBulkWrite(char address, byte[] data, int offset, int length) {
+        int start = address - OAM_START_ADDRESS;
+        int end = start + length;
+        for (int spriteNumber = start / 4; spriteNumber <= (end - 1) / 4; spriteNumber++) {
+            int spriteStart = spriteNumber * 4;
+            if (spriteStart >= start && spriteStart + 4 <= end) {
+                outdatedSprites &= ~(1L << spriteNumber);
+                refreshSprite(spriteNumber, data, offset + spriteStart - start);
+            } else {
+                outdatedSprites |= 1L << spriteNumber;
+            }
+        }
+        indexOutdated = true;
+    }
+
     //DOC: https://gbdev.gg8.se/wiki/articles/Video_Display
-    //Can return nulls
-    public Sprite[] getSpritesToDrawOnLine(int screenLY, int spriteSizeMode) {
-        Sprite[] result = new Sprite[10];
-        int added = 0;
-        for (int i = 0; i < sprites.length; i++) {
-            if (spriteIsConsideredForLine(screenLY, i, spriteSizeMode)) {
-                result[added] = sprites[i];
-                added++;
+    /**
+     * Number of sprites to draw on the given line (0..143), at most 10: the first ones in OAM covering it.
+     * They are got with getSpriteToDraw().
+     */
+    public int getSpritesToDrawOnLine(int screenLY, int spriteSizeMode) {
+        if (outdatedSprites != 0) {
+            refreshOutdatedSprites();
+        }
+        if (indexOutdated || spriteSizeMode != indexedSizeMode) {
+            buildIndex(spriteSizeMode);
+        }
+        return screenLY >= 0 && screenLY < LINES ? lineSpriteCounts[screenLY] : 0;
+    }
+
+    /**
+     * The i-th sprite to draw on the line, by priority: the lower X, or else the lower OAM number, the higher.
+     */
+    public Sprite getSpriteToDraw(int screenLY, int i) {
+        return sprites[lineSprites[screenLY * MAX_SPRITES_PER_LINE + i]];
+    }
+
+    //Reads the sprites written one byte at a time back from OAM, as it is now
+    private void refreshOutdatedSprites() {
+        while (outdatedSprites != 0) {
+            int spriteNumber = Long.numberOfTrailingZeros(outdatedSprites);
+            outdatedSprites &= ~(1L << spriteNumber);
+            char spriteAddress = (char) (OAM_START_ADDRESS + spriteNumber * 4);
+            for (int i = 0; i < 4; i++) {
+                spriteBytes[i] = memory.read((char) (spriteAddress + i), true);
             }
-            if (added >= 10) {
-                return result;
+            refreshSprite(spriteNumber, spriteBytes, 0);
+        }
+    }
+
+    //Adds every sprite, in OAM order, to the lines it covers, until they are full
+    private void buildIndex(int spriteSizeMode) {
+        int spriteHeightPixels = spriteSizeMode == 0 ? 8 : 16;
+        Arrays.fill(lineSpriteCounts, 0);
+        for (Sprite sprite : sprites) {
+            int firstLine = Math.max(sprite.getPosY(), 0);
+            int lastLine = Math.min(sprite.getPosY() + spriteHeightPixels, LINES) - 1;
+            for (int line = firstLine; line <= lastLine; line++) {
+                if (lineSpriteCounts[line] < MAX_SPRITES_PER_LINE) {
+                    insertByPriority(line, sprite);
+                }
             }
         }
-        Sprite[] notNullResult = new Sprite[added];
-        System.arraycopy(result, 0, notNullResult, 0, added);
-        return notNullResult;
+        indexedSizeMode = spriteSizeMode;
+        indexOutdated = false;
+        indexBuilds++;
     }
 
-    private boolean spriteIsConsideredForLine(int screenLY, int spritePos, int spriteSizeMode) {
-        if(screenLY==40 && spritePos==4){
-            int a = 3;
+    //Sprites are added in OAM order, so the new one goes after the ones with its same X
+    private void insertByPriority(int line, Sprite sprite) {
+        int start = line * MAX_SPRITES_PER_LINE;
+        int position = start + lineSpriteCounts[line];
+        while (position > start && sprites[lineSprites[position - 1]].getPosX() > sprite.getPosX()) {
+            lineSprites[position] = lineSprites[position - 1];
+            position--;
         }
-        int spriteHeightPixels = spriteSizeMode == 0 ? 8 : 16;
-        Sprite sprite = sprites[spritePos];
-        return
-                screenLY >= sprite.getPosY() &&
-                        screenLY < sprite.getPosY() + spriteHeightPixels;
+        lineSprites[position] = (byte) sprite.getSpriteNumber();
+        lineSpriteCounts[line]++;
+    }
 
+    public long getIndexBuilds() {
+        return indexBuilds;
     }
 
     //Refresh internal structure of data, and also the line.
     //Do not create a new sprite!
-    public void refreshSprite(int spriteNumber, byte[] data) {
+    public void refreshSprite(int spriteNumber, byte[] data, int offset) {
         Sprite currentSprite = sprites[spriteNumber];
-        currentSprite.refresh(data);
+        currentSprite.refresh(data, offset);
     }
 
 
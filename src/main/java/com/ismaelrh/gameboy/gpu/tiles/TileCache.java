@@ -0,0 +1,90 @@
+package com.ismaelrh.gameboy.gpu.tiles;
+
+import com.ismaelrh.gameboy.cpu.memory.MemoryInterceptor;
+
+import java.util.Arrays;
+
+/**
+ * The 384 tiles of VRAM (0x8000-0x97FF) decoded to color indexes (0..3), one byte per pixel, 8 per row.
+ * Rows are also kept horizontally flipped, for sprites.
+ * <p>
+ * Writing to a row only marks it: it is decoded again from VRAM when it is next drawn. So writes lost because
+ * VRAM is locked, or data changed by other interceptors, never get to the cache.
+ */
+public class TileCache extends MemoryInterceptor {
+
+    public static final int TILES = 384;
+    public static final char START_ADDRESS = 0x8000;
+    public static final char END_ADDRESS = 0x97FF;
+
+    private static final int ROWS = TILES * 8;
+
+    private final byte[] pixels = new byte[ROWS * 8];
+    private final byte[] flippedPixels = new byte[ROWS * 8];
+
+    //Rows written since they were decoded
+    private final boolean[] dirty = new boolean[ROWS];
+
+    private long decodedRows;
+
+    public TileCache() {
+        super(START_ADDRESS, END_ADDRESS, false, true);
+        Arrays.fill(dirty, true);
+    }
+
+    @Override
+    public byte onWrite(char address, byte data) {
+        dirty[(address - START_ADDRESS) >> 1] = true;
+        return data;
+    }
+
+    @Override
+    public void onBulkWrite(char address, byte[] data, int offset, int length) {
+        int first = (address - START_ADDRESS) >> 1;
+        int last = (address + length - 1 - START_ADDRESS) >> 1;
+        Arrays.fill(dirty, first, last + 1, true);
+    }
+
+    /**
+     * Offset, in getPixels(), of the 8 pixels of the given row (0..7) of the given tile (0..383).
+     * The row is decoded if it was written since last time.
+     */
+    public int getRowOffset(int tile, int row) {
+        int rowIndex = tile * 8 + row;
+        if (dirty[rowIndex]) {
+            decodeRow(rowIndex);
+        }
+        return rowIndex * 8;
+    }
+
+    /**
+     * Pixels of every row, left to right, or right to left if flipped.
+     */
+    public byte[] getPixels(boolean hFlip) {
+        return hFlip ? flippedPixels : pixels;
+    }
+
+    //Tile of the given address (a multiple of 16) of the tile data
+    public static int getTileNumber(char tileAddress) {
+        return (tileAddress - START_ADDRESS) >> 4;
+    }
+
+    private void decodeRow(int rowIndex) {
+        char address = (char) (START_ADDRESS + rowIndex * 2);
+        int lowByte = memory.read(address, true);
+        int highByte = memory.read((char) (address + 1), true);
+        int offset = rowIndex * 8;
+        for (int i = 0; i < 8; i++) {
+            int bit = 7 - i;
+            byte colorIndex = (byte) (((lowByte >> bit) & 0x01) | (((highByte >> bit) & 0x01) << 1));
+            pixels[offset + i] = colorIndex;
+            flippedPixels[offset + 7 - i] = colorIndex;
+        }
+        dirty[rowIndex] = false;
+        decodedRows++;
+    }
+
+    public long getDecodedRows() {
+        return decodedRows;
+    }
+}
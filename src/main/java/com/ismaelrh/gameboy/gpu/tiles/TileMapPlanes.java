@@ -0,0 +1,107 @@
+package com.ismaelrh.gameboy.gpu.tiles;
+
+import com.ismaelrh.gameboy.cpu.memory.MemoryInterceptor;
+
+import java.util.Arrays;
+
+import static com.ismaelrh.gameboy.gpu.Gpu.TILEMAP_START_ADDRESSES;
+
+/**
+ * The two tile maps (0x9800 and 0x9C00) as 256x256 planes of color indexes (0..3), one byte per pixel,
+ * for the tile addressing mode they were last asked for.
+ * <p>
+ * Every 8x8 cell is built from the tile cache when it is first needed, and again only after its tile map byte or
+ * the data of its tile is written. Changing the addressing mode rebuilds everything.
+ */
+public class TileMapPlanes extends MemoryInterceptor {
+
+    public static final int SIZE = 256;
+    private static final int CELLS = 32 * 32;
+
+    private final TileCache tileCache;
+    private final byte[][] planes = new byte[2][SIZE * SIZE];
+
+    //Cells built, and the tile (0..383) each one was built from
+    private final boolean[][] validCells = new boolean[2][CELLS];
+    private final int[][] cellTiles = new int[2][CELLS];
+    private int addressingMode = -1;
+
+    //Tiles whose data was written since cells using them were last invalidated
+    private final boolean[] writtenTiles = new boolean[TileCache.TILES];
+    private boolean tilesWritten;
+
+    private long builtCells;
+
+    public TileMapPlanes(TileCache tileCache) {
+        super(TileCache.START_ADDRESS, (char) 0x9FFF, false, true);
+        this.tileCache = tileCache;
+    }
+
+    @Override
+    public byte onWrite(char address, byte data) {
+        if (address <= TileCache.END_ADDRESS) {
+            writtenTiles[TileCache.getTileNumber(address)] = true;
+            tilesWritten = true;
+        } else {
+            int tileMap = address >= TILEMAP_START_ADDRESSES[1] ? 1 : 0;
+            validCells[tileMap][address - TILEMAP_START_ADDRESSES[tileMap]] = false;
+        }
+        return data;
+    }
+
+    /**
+     * The plane of the given tile map, with the cells covering the given part of a row built.
+     * X wraps around, so the pixel at x is at y * SIZE + (x & 0xFF).
+     *
+     * @param tileMap            0 for 0x9800, 1 for 0x9C00
+     * @param tileAddressingMode 0 for signed tile numbers from 0x9000, 1 for unsigned ones from 0x8000
+     */
+    public byte[] getPlane(int tileMap, int tileAddressingMode, int y, int x, int length) {
+        if (tileAddressingMode != addressingMode) {
+            Arrays.fill(validCells[0], false);
+            Arrays.fill(validCells[1], false);
+            addressingMode = tileAddressingMode;
+        }
+        if (tilesWritten) {
+            invalidateWrittenTiles();
+        }
+        int cellRow = (y >> 3) * 32;
+        for (int cellX = x >> 3; cellX <= (x + length - 1) >> 3; cellX++) {
+            int cell = cellRow + (cellX & 0x1F);
+            if (!validCells[tileMap][cell]) {
+                buildCell(tileMap, cell);
+            }
+        }
+        return planes[tileMap];
+    }
+
+    private void invalidateWrittenTiles() {
+        for (int tileMap = 0; tileMap < 2; tileMap++) {
+            for (int cell = 0; cell < CELLS; cell++) {
+                if (writtenTiles[cellTiles[tileMap][cell]]) {
+                    validCells[tileMap][cell] = false;
+                }
+            }
+        }
+        Arrays.fill(writtenTiles, false);
+        tilesWritten = false;
+    }
+
+    private void buildCell(int tileMap, int cell) {
+        byte tileNumber = memory.read((char) (TILEMAP_START_ADDRESSES[tileMap] + cell), true);
+        int tile = addressingMode == 1 ? tileNumber & 0xFF : 256 + tileNumber;
+        byte[] pixels = tileCache.getPixels(false);
+        byte[] plane = planes[tileMap];
+        int planeOffset = (cell >> 5) * 8 * SIZE + (cell & 0x1F) * 8;
+        for (int row = 0; row < 8; row++) {
+            System.arraycopy(pixels, tileCache.getRowOffset(tile, row), plane, planeOffset + row * SIZE, 8);
+        }
+        cellTiles[tileMap][cell] = tile;
+        validCells[tileMap][cell] = true;
+        builtCells++;
+    }
+
+    public long getBuiltCells() {
+        return builtCells;
+    }
+}
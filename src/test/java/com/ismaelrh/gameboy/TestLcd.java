@@ -1,43 +1,26 @@
 package com.ismaelrh.gameboy;
 
+import com.ismaelrh.gameboy.gpu.lcd.IndexedFrame;
 import com.ismaelrh.gameboy.gpu.lcd.Lcd;
 
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.security.MessageDigest;
-import java.util.Arrays;
 import java.util.Base64;
 
 public class TestLcd extends Lcd {
 
-    private final int[] pixels = new int[160 * 144];
-    private int[] frozenPixels = new int[160 * 144];
-
-    private int nextPixel = 0;
+    private final IndexedFrame frame = new IndexedFrame();
 
     private boolean enabled = true;
 
-    public TestLcd() {
-        frameFinished();
-    }
-
     @Override
-    public void pushPixel(int color) {
-        if (nextPixel < 160 * 144) {
-            pixels[nextPixel] = color;
-            nextPixel++;
-        }
+    public void pushLine(int y, IndexedFrame frame) {
+        frame.copyLine(y, this.frame);
     }
 
     @Override
     public void frameFinished() {
-        nextPixel = 0;
-        frozenPixels = Arrays.copyOf(pixels, pixels.length);
-    }
-
-    @Override
-    public void lineFinished() {
-
     }
 
     @Override
@@ -60,19 +43,15 @@ public class TestLcd extends Lcd {
      */
     @Override
     public String getHash() throws Exception {
-        ByteBuffer buffer = ByteBuffer.allocate(4 * pixels.length);
+        ByteBuffer buffer = ByteBuffer.allocate(4 * WIDTH * HEIGHT);
         buffer.order(ByteOrder.BIG_ENDIAN);
-        for (int pixel : pixels) {
-            buffer.putInt(getColorCode(pixel));
+        for (int y = 0; y < HEIGHT; y++) {
+            for (int x = 0; x < WIDTH; x++) {
+                buffer.putInt(frame.getShade(x, y));
+            }
         }
         byte[] hash = MessageDigest.getInstance("MD5").digest(buffer.array());
         return Base64.getEncoder().encodeToString(hash);
     }
 
-    @Override
-    public int getPixel() {
-        return 0;
-    }
-
-
 }
@@ -1,6 +1,9 @@
 package com.ismaelrh.gameboy;
 
 import com.ismaelrh.gameboy.cpu.Registers;
+import com.ismaelrh.gameboy.cpu.instruction.Instruction;
+import com.ismaelrh.gameboy.cpu.instructions.InstFactory;
+import com.ismaelrh.gameboy.cpu.memory.Memory;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
@@ -32,6 +35,11 @@ public class TestUtils {
         return res;
     }
 
+    //Runs the instruction as bound by the dispatch table for its opcode, returning the cycles it took
+    public static short execute(InstFactory factory, Instruction inst, Memory memory, Registers registers) throws Exception {
+        return (short) factory.create(inst.getOpcode()).apply(inst, memory, registers);
+    }
+
     public static void assertFlags(Registers registers, boolean z, boolean n, boolean h, boolean c) {
         assertEquals("Flag z. Expected="+z + ",Got=" + registers.checkFlagZ(),z,registers.checkFlagZ());
         assertEquals("Flag n. Expected="+n + ",Got=" + registers.checkFlagN(),n,registers.checkFlagN());
@@ -0,0 +1,51 @@
+package com.ismaelrh.gameboy.cpu;
+
+import com.ismaelrh.gameboy.cpu.memory.Memory;
+import com.ismaelrh.gameboy.cpu.scheduler.Scheduler;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class ControlUnitTest {
+
+    private Memory memory;
+    private Registers registers;
+    private Scheduler scheduler;
+    private ControlUnit controlUnit;
+
+    @Before
+    public void setUp() {
+        memory = new Memory();
+        registers = new Registers();
+        scheduler = new Scheduler();
+        controlUnit = new ControlUnit(registers, memory, scheduler);
+        registers.setHalt(true);
+    }
+
+    @Test
+    public void haltJumpsToTheStepOfTheNextEvent() throws Exception {
+        int event = scheduler.register(deadline -> memory.fireVBlankInterruption());
+        scheduler.schedule(event, 102);
+        scheduler.advance(20);
+
+        //Steps of 4 cycles, the one that reaches 102 ends on 104
+        assertEquals(84, controlUnit.runInstruction());
+    }
+
+    @Test
+    public void haltWithoutEventsIsOneStep() throws Exception {
+        assertEquals(4, controlUnit.runInstruction());
+    }
+
+    @Test
+    public void haltAboutToWakeUpIsOneStep() throws Exception {
+        int event = scheduler.register(deadline -> {
+        });
+        scheduler.schedule(event, 1000);
+        memory.getInterruptController().setInterruptEnable((byte) 0x01);
+        memory.fireVBlankInterruption();
+
+        assertEquals(4, controlUnit.runInstruction());
+    }
+}
@@ -0,0 +1,150 @@
+package com.ismaelrh.gameboy.cpu;
+
+import com.ismaelrh.gameboy.cpu.memory.Memory;
+import com.ismaelrh.gameboy.cpu.scheduler.Scheduler;
+import com.ismaelrh.gameboy.debug.debugger.Debugger;
+import com.ismaelrh.gameboy.debug.debugger.DebuggerController;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Every loop is run fused and interpreted (a debugger disables fusion), and both have to end the same way.
+ */
+public class FusedLoopsTest {
+
+    private static final int CODE = 0xC000;
+    private static final int END = 0xC010;
+
+    @Test
+    public void memcpy() throws Exception {
+        //ldi A,(HL); ld (DE),A; inc DE; dec BC; ld A,B; or C; jr nz
+        Machine fused = new Machine(true, 0x2A, 0x12, 0x13, 0x0B, 0x78, 0xB1, 0x20, 0xF8);
+        Machine interpreted = new Machine(false, 0x2A, 0x12, 0x13, 0x0B, 0x78, 0xB1, 0x20, 0xF8);
+        for (Machine machine : new Machine[]{fused, interpreted}) {
+            for (int i = 0; i < 0x300; i++) {
+                machine.memory.write((char) (0xC100 + i), (byte) (i * 7));
+            }
+            machine.registers.setHL((char) 0xC100);
+            machine.registers.setDE((char) 0xC800);
+            machine.registers.setBC((char) 0x300);
+        }
+        assertSameResult(fused, interpreted, 0xC800, 0x300);
+        assertTrue(fused.controlUnit.getFusedLoops().getFusedIterations() > 0);
+    }
+
+    @Test
+    public void fillCountingB() throws Exception {
+        //ldi (HL),A; dec B; jr nz
+        Machine fused = new Machine(true, 0x22, 0x05, 0x20, 0xFC);
+        Machine interpreted = new Machine(false, 0x22, 0x05, 0x20, 0xFC);
+        for (Machine machine : new Machine[]{fused, interpreted}) {
+            machine.registers.setHL((char) 0xC400);
+            machine.registers.setA((byte) 0x5A);
+            machine.registers.setB((byte) 0x00);    //256
+        }
+        assertSameResult(fused, interpreted, 0xC400, 0x100);
+        assertTrue(fused.controlUnit.getFusedLoops().getFusedIterations() > 0);
+    }
+
+    @Test
+    public void fillReloadingA() throws Exception {
+        //ldi (HL),A; dec BC; ld A,B; or C; ld A,E; jr nz
+        Machine fused = new Machine(true, 0x22, 0x0B, 0x78, 0xB1, 0x7B, 0x20, 0xF9);
+        Machine interpreted = new Machine(false, 0x22, 0x0B, 0x78, 0xB1, 0x7B, 0x20, 0xF9);
+        for (Machine machine : new Machine[]{fused, interpreted}) {
+            machine.registers.setHL((char) 0xC400);
+            machine.registers.setA((byte) 0x11);
+            machine.registers.setE((byte) 0x11);
+            machine.registers.setBC((char) 0x1000);
+        }
+        assertSameResult(fused, interpreted, 0xC400, 0x1000);
+        assertTrue(fused.controlUnit.getFusedLoops().getFusedIterations() > 0);
+    }
+
+    @Test
+    public void overwritingTheLoopIsInterpreted() {
+        //ld A,D; ldi (HL),A; dec BC; ld A,B; or C; jr nz, that would fill the loop itself
+        Machine machine = new Machine(true, 0x7A, 0x22, 0x0B, 0x78, 0xB1, 0x20, 0xF9);
+        machine.registers.setHL((char) (CODE + 3));
+        machine.registers.setBC((char) 0x20);
+        FusedLoops fusedLoops = machine.controlUnit.getFusedLoops();
+
+        fusedLoops.onJumpTaken((char) (CODE + 5), (char) CODE);
+        assertTrue(fusedLoops.isArmed());
+        assertEquals(0, fusedLoops.tryRun(machine.registers));
+    }
+
+    @Test
+    public void lockedVramIsInterpreted() {
+        //VRAM mode, with LCD enabled
+        Machine machine = new Machine(true, 0x22, 0x05, 0x20, 0xFC);
+        machine.memory.write((char) 0xFF40, (byte) 0x80);
+        machine.memory.write((char) 0xFF41, (byte) 0x03);
+        machine.registers.setHL((char) 0x8000);
+        machine.registers.setB((byte) 0x10);
+        FusedLoops fusedLoops = machine.controlUnit.getFusedLoops();
+
+        fusedLoops.onJumpTaken((char) (CODE + 2), (char) CODE);
+        assertEquals(0, fusedLoops.tryRun(machine.registers));
+
+        machine.memory.write((char) 0xFF41, (byte) 0x00);
+        fusedLoops.onJumpTaken((char) (CODE + 2), (char) CODE);
+        assertEquals(15 * 24, fusedLoops.tryRun(machine.registers));
+    }
+
+    private void assertSameResult(Machine fused, Machine interpreted, int address, int length) throws Exception {
+        fused.run();
+        interpreted.run();
+        assertEquals(interpreted.scheduler.getClock(), fused.scheduler.getClock());
+        assertEquals(interpreted.registers.getAF(), fused.registers.getAF());
+        assertEquals(interpreted.registers.getBC(), fused.registers.getBC());
+        assertEquals(interpreted.registers.getDE(), fused.registers.getDE());
+        assertEquals(interpreted.registers.getHL(), fused.registers.getHL());
+        for (int i = 0; i < length; i++) {
+            char at = (char) (address + i);
+            assertEquals(interpreted.memory.read(at), fused.memory.read(at));
+        }
+    }
+
+    private static class Machine {
+        private final Memory memory = new Memory();
+        private final Registers registers = new Registers();
+        private final Scheduler scheduler = new Scheduler();
+        private final ControlUnit controlUnit = new ControlUnit(registers, memory, scheduler);
+
+        Machine(boolean fused, int... code) {
+            for (int i = 0; i < code.length; i++) {
+                memory.write((char) (CODE + i), (byte) code[i]);
+            }
+            memory.write((char) (CODE + code.length), (byte) 0xC3);  //jp END
+            memory.write((char) (CODE + code.length + 1), (byte) (END & 0xFF));
+            memory.write((char) (CODE + code.length + 2), (byte) (END >> 8));
+            registers.setPC((char) CODE);
+
+            //Some events, so fused loops are split
+            int event = scheduler.register(deadline -> scheduler.schedule(0, deadline + 1000));
+            scheduler.schedule(event, 777);
+            if (!fused) {
+                controlUnit.setDebuggerController(new DebuggerController() {
+                    public void init(Memory memory, Registers registers, Debugger debugger, ExecutionInfo info) {
+                    }
+
+                    public void onChange() {
+                    }
+
+                    public void onStop() {
+                    }
+                });
+            }
+        }
+
+        void run() throws Exception {
+            while (registers.getPC() != END) {
+                int cycles = controlUnit.runInstruction();
+                controlUnit.checkInterruptions();
+                scheduler.advance(cycles);
+            }
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.ismaelrh.gameboy.cpu;
+
+import com.ismaelrh.gameboy.cpu.memory.Memory;
+import com.ismaelrh.gameboy.cpu.scheduler.Scheduler;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class IdleLoopDetectorTest {
+
+    private Memory memory;
+    private Registers registers;
+    private Scheduler scheduler;
+    private IdleLoopDetector detector;
+
+    @Before
+    public void setUp() throws Exception {
+        memory = new Memory();
+        registers = new Registers();
+        scheduler = new Scheduler();
+        detector = new IdleLoopDetector(memory, scheduler);
+        scheduler.schedule(scheduler.register(deadline -> {
+        }), 1000);
+
+        //ldh A,(FF44); cp $90; jr nz,-6
+        write(0xC000, 0xF0, 0x44, 0xFE, 0x90, 0x20, 0xFA);
+        registers.setPC((char) 0xC000);
+        registers.setA((byte) 0x00);
+        registers.setF((byte) 0x50);    //Flags of cp $90 with LY=0
+    }
+
+    @Test
+    public void skipsIterationsUntilNextEvent() {
+        detector.onJumpTaken((char) 0xC004, (char) 0xC000);
+        assertTrue(detector.isArmed());
+
+        //32 cycles per iteration, the last one has to end before cycle 1000
+        assertEquals(31 * 32, detector.trySkip(registers));
+        assertFalse(detector.isArmed());
+        assertEquals(31 * 32, detector.getSkippedCycles());
+        assertEquals(31, detector.getSkippedIterations());
+    }
+
+    @Test
+    public void doesNotSkipIfRegistersWouldChange() {
+        registers.setA((byte) 0x10);
+        detector.onJumpTaken((char) 0xC004, (char) 0xC000);
+        assertEquals(0, detector.trySkip(registers));
+
+        registers.setA((byte) 0x00);
+        registers.setF((byte) 0x00);
+        detector.onJumpTaken((char) 0xC004, (char) 0xC000);
+        assertEquals(0, detector.trySkip(registers));
+    }
+
+    @Test
+    public void doesNotSkipOtherCode() {
+        write(0xC002, 0x3C, 0x00);  //inc A; nop
+        detector.onJumpTaken((char) 0xC004, (char) 0xC000);
+        assertFalse(detector.isArmed());
+    }
+
+    @Test
+    public void doesNotPollTimer() {
+        write(0xC001, 0x05);    //TIMA
+        detector.onJumpTaken((char) 0xC004, (char) 0xC000);
+        assertFalse(detector.isArmed());
+    }
+
+    @Test
+    public void skipsJumpsToThemselves() {
+        write(0xC010, 0x18, 0xFE);
+        registers.setPC((char) 0xC010);
+        detector.onJumpTaken((char) 0xC010, (char) 0xC010);
+        assertEquals(83 * 12, detector.trySkip(registers));
+    }
+
+    @Test
+    public void detectionIsNotSeenAsAccesses() {
+        int[] accesses = {0};
+        memory.setAccessListener((address, value, write) -> accesses[0]++);
+        detector.onJumpTaken((char) 0xC004, (char) 0xC000);
+        detector.trySkip(registers);
+        assertEquals(0, accesses[0]);
+    }
+
+    private void write(int address, int... bytes) {
+        for (int i = 0; i < bytes.length; i++) {
+            memory.write((char) (address + i), (byte) bytes[i]);
+        }
+    }
+}
@@ -5,6 +5,7 @@ import org.junit.Test;
 import static com.ismaelrh.gameboy.TestUtils.assertEquals16;
 import static com.ismaelrh.gameboy.TestUtils.assertEquals8;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 public class RegistersTest {
 
@@ -112,5 +113,75 @@ public class RegistersTest {
 		assertEquals16(0x1234, registers.getHL());
 	}
 
+	@Test
+	public void pendingFlagsAreEvaluatedOnRead() {
+		registers.setAF((char) 0x0000);
+		registers.setFlagsAdd((byte) 0x0F, (byte) 0xF1, 0);
+		assertEquals8(0xB0, registers.getF());	//Z0HC
+		assertEquals16(0x00B0, registers.getAF());
+
+		registers.setFlagsSub((byte) 0x10, (byte) 0x01, 1);
+		assertEquals8(0x60, registers.getF());	//-NH-
+	}
+
+	@Test
+	public void pendingFlagsSurviveWritesToA() {
+		registers.setAF((char) 0x0000);
+		registers.setFlagsSub((byte) 0x05, (byte) 0x05, 0);
+		registers.setA((byte) 0x12);
+		assertEquals16(0x12C0, registers.getAF());
+	}
+
+	@Test
+	public void writingFDiscardsPendingFlags() {
+		registers.setFlagsAdd((byte) 0xFF, (byte) 0x01, 0);
+		registers.setF((byte) 0x40);
+		assertEquals8(0x40, registers.getF());
+	}
+
+	@Test
+	public void incrementAndDecrementKeepCarry() {
+		registers.setF((byte) 0x00);
+		registers.setFlagsSub((byte) 0x00, (byte) 0x01, 0);	//Sets C
+		registers.setFlagsInc((byte) 0xFF);
+		assertEquals8(0xB0, registers.getF());	//Z0HC
+
+		registers.setF((byte) 0x00);
+		registers.setFlagsDec((byte) 0x01);
+		assertEquals8(0xC0, registers.getF());	//ZN--
+	}
+
+	@Test
+	public void add16KeepsZero() {
+		registers.setF((byte) 0xC0);
+		registers.setFlagsAdd16((char) 0x0FFF, (char) 0xF001);
+		assertEquals8(0xB0, registers.getF());	//Z0HC
+	}
+
+	@Test
+	public void keptFlagsComeFromPendingOperationsWithoutEvaluatingThem() {
+		registers.setF((byte) 0x00);
+		registers.setFlagsAdd((byte) 0xFF, (byte) 0x01, 0);	//Z0HC
+		registers.setFlagsDec((byte) 0x02);
+		registers.setFlagsDec((byte) 0x01);
+		assertTrue(registers.hasPendingFlags());
+		assertTrue(registers.checkFlagZ());
+		assertTrue(registers.checkFlagC());
+		assertTrue(registers.hasPendingFlags());
+		assertEquals8(0xD0, registers.getF());	//ZN-C
+
+		registers.setFlagsSub((byte) 0x01, (byte) 0x01, 0);	//Z1--
+		registers.setFlagsAdd16((char) 0x0001, (char) 0x0001);
+		assertTrue(registers.hasPendingFlags());
+		assertEquals8(0x80, registers.getF());	//Z---
+	}
+
+	@Test
+	public void pendingFlagsAreComparedInEquals() {
+		Registers other = new Registers();
+		other.setF((byte) 0x80);
+		registers.setFlagsAdd((byte) 0x00, (byte) 0x00, 0);
+		assertEquals(other, registers);
+	}
 
 }
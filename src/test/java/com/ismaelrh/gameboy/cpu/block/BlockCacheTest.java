@@ -0,0 +1,142 @@
+package com.ismaelrh.gameboy.cpu.block;
+
+import com.ismaelrh.gameboy.cpu.cartridge.FakeCartridge;
+import com.ismaelrh.gameboy.cpu.memory.Memory;
+import com.ismaelrh.gameboy.cpu.memory.OamDma;
+import com.ismaelrh.gameboy.cpu.scheduler.Scheduler;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class BlockCacheTest {
+
+    private Memory memory;
+    private FakeCartridge cartridge;
+    private BlockCache cache;
+
+    @Before
+    public void setUp() throws Exception {
+        memory = new Memory();
+        cartridge = new FakeCartridge();
+        memory.insertCartridge(cartridge);
+        cache = new BlockCache(memory);
+    }
+
+    @Test
+    public void blockEndsAtJump() throws Exception {
+        writeRom(0x0100, 0x3E, 0x01, 0x3C, 0xC3, 0x50, 0x01, 0x3C); //ld a,1; inc a; jp 0150; inc a
+        BasicBlock block = cache.getBlock((char) 0x0100);
+        assertEquals(3, block.getInstructions().length);
+        assertEquals(6, block.getSizeBytes());
+        assertEquals("jp nn", block.getInstructions()[2].getDescription().getMnemonic());
+        assertEquals((char) 0x0150, block.getInstructions()[2].getImmediate16b());
+    }
+
+    @Test
+    public void blockIsTranslatedOnce() throws Exception {
+        writeRom(0x0200, 0x00, 0xC9); //nop; ret
+        BasicBlock block = cache.getBlock((char) 0x0200);
+        assertSame(block, cache.getBlock((char) 0x0200));
+        assertEquals(1, cache.getTranslatedBlocks());
+    }
+
+    @Test
+    public void blockIsLimitedInSize() throws Exception {
+        BasicBlock block = cache.getBlock((char) 0x1000);    //All nop
+        assertEquals(BlockCache.MAX_BLOCK_BYTES, block.getSizeBytes());
+    }
+
+    @Test
+    public void blockDoesNotCrossRomBanks() throws Exception {
+        BasicBlock block = cache.getBlock((char) 0x3FF0);    //All nop
+        assertEquals(0x10, block.getSizeBytes());
+    }
+
+    @Test
+    public void writingRamBlockInvalidatesIt() throws Exception {
+        writeRam(0xC000, 0x3C, 0x18, 0xFE); //inc a; jr -2
+        BasicBlock block = cache.getBlock((char) 0xC000);
+        assertEquals(2, block.getInstructions().length);
+
+        cache.enter();
+        memory.write((char) 0xC002, (byte) 0xFD);
+        assertFalse(block.isValid());
+        assertTrue(cache.isAborted());
+
+        BasicBlock newBlock = cache.getBlock((char) 0xC000);
+        assertNotSame(block, newBlock);
+        assertEquals((byte) 0xFD, newBlock.getInstructions()[1].getImmediate8b());
+    }
+
+    @Test
+    public void writingEchoRamInvalidatesBlock() throws Exception {
+        writeRam(0xFF80, 0x3C, 0xC9);   //HRAM: inc a; ret
+        writeRam(0xC100, 0x3C, 0xC9);   //WRAM: inc a; ret
+        BasicBlock hramBlock = cache.getBlock((char) 0xFF80);
+        BasicBlock wramBlock = cache.getBlock((char) 0xC100);
+
+        memory.write((char) 0xE101, (byte) 0x00);
+        assertFalse(wramBlock.isValid());
+        assertTrue(hramBlock.isValid());
+    }
+
+    @Test
+    public void writingOtherRamDoesNotInvalidate() throws Exception {
+        writeRam(0xC000, 0x3C, 0xC9);   //inc a; ret
+        BasicBlock block = cache.getBlock((char) 0xC000);
+        cache.enter();
+        memory.write((char) 0xC002, (byte) 0x12);
+        assertTrue(block.isValid());
+        assertFalse(cache.isAborted());
+    }
+
+    @Test
+    public void writingCartridgeAbortsBlock() throws Exception {
+        writeRom(0x0200, 0x00, 0xC9); //nop; ret
+        BasicBlock block = cache.getBlock((char) 0x0200);
+        cache.enter();
+        memory.write((char) 0x2000, (byte) 0x02);
+        assertTrue(cache.isAborted());
+        assertTrue(block.isValid());
+    }
+
+    @Test
+    public void otherRegionsAreNotCached() throws Exception {
+        assertNull(cache.getBlock((char) 0x8000));
+        assertNull(cache.getBlock((char) 0xA000));
+        assertNull(cache.getBlock((char) 0xFE00));
+    }
+
+    @Test
+    public void nothingIsTranslatedDuringOamDma() throws Exception {
+        Scheduler scheduler = new Scheduler();
+        memory.setOamDma(new OamDma(memory, scheduler));
+        writeRam(0xC000, 0x3E, 0x42, 0xC9);  //ld a,42; ret
+        writeRom(0x0200, 0x00, 0xC9); //nop; ret
+        for (int i = 0; i < OamDma.LENGTH; i++) {
+            writeRam(0xC100 + i, 0x18);     //The CPU would fetch jr instead
+        }
+
+        memory.write((char) 0xFF46, (byte) 0xC1);
+        assertNull(cache.getBlock((char) 0xC000));
+        assertNull(cache.getBlock((char) 0x0200));
+        assertEquals(0, cache.getTranslatedBlocks());
+
+        scheduler.advance(OamDma.LENGTH * 4);
+        assertEquals("ld r,n", cache.getBlock((char) 0xC000).getInstructions()[0].getDescription().getMnemonic());
+        assertEquals(2, cache.getBlock((char) 0x0200).getInstructions().length);
+    }
+
+    private void writeRom(int address, int... data) {
+        for (int i = 0; i < data.length; i++) {
+            cartridge.write((char) (address + i), (byte) data[i]);
+        }
+    }
+
+    private void writeRam(int address, int... data) {
+        for (int i = 0; i < data.length; i++) {
+            memory.write((char) (address + i), (byte) data[i]);
+        }
+    }
+}
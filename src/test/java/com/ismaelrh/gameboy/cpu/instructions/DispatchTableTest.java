@@ -0,0 +1,80 @@
+package com.ismaelrh.gameboy.cpu.instructions;
+
+import com.ismaelrh.gameboy.cpu.Registers;
+import com.ismaelrh.gameboy.cpu.instruction.Instruction;
+import com.ismaelrh.gameboy.cpu.memory.Memory;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class DispatchTableTest {
+
+    private final DispatchTable table = DispatchTable.getInstance();
+
+    @Test
+    public void resolvesNormalOpcodes() {
+        assertHandler(0x41, "ld r,r", false, 1);
+        assertHandler(0x06, "ld r,n", false, 2);
+        assertHandler(0xFA, "ld A,(nn)", false, 3);
+        assertHandler(0x76, "halt", false, 1);
+    }
+
+    @Test
+    public void resolvesCbOpcodes() {
+        assertHandler(DispatchTable.CB_OFFSET + 0x7C, "bit n,r", true, 2);
+        assertHandler(DispatchTable.CB_OFFSET + 0x46, "bit n,(HL)", true, 2);
+        assertHandler(DispatchTable.CB_OFFSET + 0x37, "swap r", true, 2);
+    }
+
+    @Test
+    public void nonExistingOpcodesAreNull() {
+        assertNull(table.get(0xD3));
+        assertNull(table.get(0xCB));
+        assertNull(table.get(0xFD));
+    }
+
+    @Test
+    public void handlersRunWithTheirOperands() throws Exception {
+        Registers registers = new Registers();
+        Memory memory = new Memory();
+        registers.setC((byte) 0x12);
+        registers.setH((byte) 0x80);
+
+        //ld B,C
+        assertEquals(4, run(0x41, registers, memory));
+        assertEquals((byte) 0x12, registers.getB());
+        assertEquals((byte) 0x12, registers.getC());
+
+        //bit 7,H, then res 7,H
+        assertEquals(8, run(DispatchTable.CB_OFFSET + 0x7C, registers, memory));
+        assertFalse(registers.checkFlagZ());
+        assertEquals(8, run(DispatchTable.CB_OFFSET + 0xBC, registers, memory));
+        assertEquals((byte) 0x00, registers.getH());
+
+        //jr NZ is not taken after dec B reaches 0
+        registers.setB((byte) 0x01);
+        registers.setPC((char) 0x0100);
+        run(0x05, registers, memory);
+        assertEquals(8, run(0x20, registers, memory));
+        assertEquals((char) 0x0100, registers.getPC());
+    }
+
+    @Test
+    public void isShared() {
+        assertSame(table, DispatchTable.getInstance());
+    }
+
+    private int run(int index, Registers registers, Memory memory) throws Exception {
+        OpcodeHandler handler = table.get(index);
+        return handler.execute(new Instruction(handler.getOpcode(), (byte) 0x10), memory, registers);
+    }
+
+    private void assertHandler(int index, String mnemonic, boolean cb, int instBytes) {
+        OpcodeHandler handler = table.get(index);
+        assertNotNull(handler);
+        assertEquals(mnemonic, handler.getDescription().getMnemonic());
+        assertEquals(cb, handler.isCb());
+        assertEquals((byte) (index & 0xFF), handler.getOpcode());
+        assertEquals(instBytes, handler.getInstBytes());
+    }
+}
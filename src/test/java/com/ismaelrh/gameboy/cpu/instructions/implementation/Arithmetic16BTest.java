@@ -24,104 +24,104 @@ public class Arithmetic16BTest {
     }
 
     @Test
-    public void inc_rr_BC() {
+    public void inc_rr_BC() throws Exception {
         registers.setBC((char) 0xCAFE);
         Instruction instruction = new InstructionBuilder()
                 .withOpcode(getOpcodeDoubleRegister(0x0, BC, NONE))
                 .build();
 
-        short cycles = Arithmetic16b.inc_rr(instruction,memory,registers);
+        short cycles = execute(Arithmetic16b::inc_rr, instruction,memory,registers);
         assertEquals(8, cycles);
         assertEquals16((char) 0xCAFF, registers.getBC());
     }
 
     @Test
-    public void inc_rr_DE() {
+    public void inc_rr_DE() throws Exception {
         registers.setDE((char) 0xCAFE);
         Instruction instruction = new InstructionBuilder()
                 .withOpcode(getOpcodeDoubleRegister(0x0, DE, NONE))
                 .build();
 
-        short cycles = Arithmetic16b.inc_rr(instruction,memory,registers);
+        short cycles = execute(Arithmetic16b::inc_rr, instruction,memory,registers);
         assertEquals(8, cycles);
         assertEquals16((char) 0xCAFF, registers.getDE());
     }
 
     @Test
-    public void inc_rr_HL() {
+    public void inc_rr_HL() throws Exception {
         registers.setHL((char) 0xCAFE);
         Instruction instruction = new InstructionBuilder()
                 .withOpcode(getOpcodeDoubleRegister(0x0, HL, NONE))
                 .build();
 
-        short cycles = Arithmetic16b.inc_rr(instruction,memory,registers);
+        short cycles = execute(Arithmetic16b::inc_rr, instruction,memory,registers);
         assertEquals(8, cycles);
         assertEquals16((char) 0xCAFF, registers.getHL());
     }
 
     @Test
-    public void inc_rr_SP() {
+    public void inc_rr_SP() throws Exception {
         registers.setSP((char) 0xCAFE);
         Instruction instruction = new InstructionBuilder()
                 .withOpcode(getOpcodeDoubleRegister(0x0, AF_SP, NONE))
                 .build();
 
-        short cycles = Arithmetic16b.inc_rr(instruction,memory,registers);
+        short cycles = execute(Arithmetic16b::inc_rr, instruction,memory,registers);
         assertEquals(8, cycles);
         assertEquals16((char) 0xCAFF, registers.getSP());
     }
 
     @Test
-    public void dec_rr_BC() {
+    public void dec_rr_BC() throws Exception {
         registers.setBC((char) 0xCAFE);
         Instruction instruction = new InstructionBuilder()
                 .withOpcode(getOpcodeDoubleRegister(0x0, BC, NONE))
                 .build();
 
-        short cycles = Arithmetic16b.dec_rr(instruction,memory,registers);
+        short cycles = execute(Arithmetic16b::dec_rr, instruction,memory,registers);
         assertEquals(8, cycles);
         assertEquals16((char) 0xCAFD, registers.getBC());
     }
 
     @Test
-    public void dec_rr_DE() {
+    public void dec_rr_DE() throws Exception {
         registers.setDE((char) 0xCAFE);
         Instruction instruction = new InstructionBuilder()
                 .withOpcode(getOpcodeDoubleRegister(0x0, DE, NONE))
                 .build();
 
-        short cycles = Arithmetic16b.dec_rr(instruction,memory,registers);
+        short cycles = execute(Arithmetic16b::dec_rr, instruction,memory,registers);
         assertEquals(8, cycles);
         assertEquals16((char) 0xCAFD, registers.getDE());
     }
 
     @Test
-    public void dec_rr_HL() {
+    public void dec_rr_HL() throws Exception {
         registers.setHL((char) 0xCAFE);
         Instruction instruction = new InstructionBuilder()
                 .withOpcode(getOpcodeDoubleRegister(0x0, HL, NONE))
                 .build();
 
-        short cycles = Arithmetic16b.dec_rr(instruction,memory,registers);
+        short cycles = execute(Arithmetic16b::dec_rr, instruction,memory,registers);
         assertEquals(8, cycles);
         assertEquals16((char) 0xCAFD, registers.getHL());
     }
 
     @Test
-    public void dec_rr_SP() {
+    public void dec_rr_SP() throws Exception {
         registers.setSP((char) 0xCAFE);
 
         Instruction instruction = new InstructionBuilder()
                 .withOpcode(getOpcodeDoubleRegister(0x0, AF_SP, NONE))
                 .build();
 
-        short cycles = Arithmetic16b.dec_rr(instruction,memory,registers);
+        short cycles = execute(Arithmetic16b::dec_rr, instruction,memory,registers);
         assertEquals(8, cycles);
         assertEquals16((char) 0xCAFD, registers.getSP());
     }
 
     @Test
-    public void addHL_rr() {
+    public void addHL_rr() throws Exception {
         registers.setAllFlags();
         registers.setHL((char) 0x8A23);
         registers.setBC((char) 0x0605);
@@ -130,7 +130,7 @@ public class Arithmetic16BTest {
                 .withOpcode(getOpcodeDoubleRegister(0x0, BC, NONE))
                 .build();
 
-        short cycles = Arithmetic16b.addHL_rr(instruction,memory,registers);
+        short cycles = execute(Arithmetic16b::addHL_rr, instruction,memory,registers);
         assertEquals(8, cycles);
         assertEquals16(0x9028, registers.getHL());
         assertFlags(registers, true, false, true, false);
@@ -138,7 +138,7 @@ public class Arithmetic16BTest {
 
     @Test
     //Derived from blargg debugging. Must also clear H and C.
-    public void addHL_rr_0000_0001() {
+    public void addHL_rr_0000_0001() throws Exception {
         registers.setAllFlags();
         registers.setHL((char) 0x0000);
         registers.setSP((char) 0x0001);
@@ -147,28 +147,28 @@ public class Arithmetic16BTest {
                 .withOpcode(getOpcodeDoubleRegister(0x0, AF_SP, NONE))
                 .build();
 
-        short cycles = Arithmetic16b.addHL_rr(instruction,memory,registers);
+        short cycles = execute(Arithmetic16b::addHL_rr, instruction,memory,registers);
         assertEquals(8, cycles);
         assertEquals16(0x0001, registers.getHL());
         assertFlags(registers, true, false, false, false);
     }
 
     @Test
-    public void addHL_rr_2() {
+    public void addHL_rr_2() throws Exception {
         registers.setHL((char) 0x8A23);
 
         Instruction instruction = new InstructionBuilder()
                 .withOpcode(getOpcodeDoubleRegister(0x0, HL, NONE))
                 .build();
 
-        short cycles = Arithmetic16b.addHL_rr(instruction,memory,registers);
+        short cycles = execute(Arithmetic16b::addHL_rr, instruction,memory,registers);
         assertEquals(8, cycles);
         assertEquals16(0x1446, registers.getHL());
         assertFlags(registers, false, false, true, true);
     }
 
     @Test
-    public void addHL_rr_keeps_z_flag() {
+    public void addHL_rr_keeps_z_flag() throws Exception {
         registers.setHL((char) 0x8A23);
         registers.setBC((char) 0x0605);
 
@@ -178,7 +178,7 @@ public class Arithmetic16BTest {
                 .withOpcode(getOpcodeDoubleRegister(0x0, BC, NONE))
                 .build();
 
-        short cycles = Arithmetic16b.addHL_rr(instruction,memory,registers);
+        short cycles = execute(Arithmetic16b::addHL_rr, instruction,memory,registers);
         assertEquals(8, cycles);
         assertEquals16(0x9028, registers.getHL());
         assertFlags(registers, true, false, true, false);
@@ -9,6 +9,7 @@ import org.junit.Test;
 
 import static com.ismaelrh.gameboy.TestUtils.assertEquals8;
 import static com.ismaelrh.gameboy.TestUtils.assertFlags;
+import static com.ismaelrh.gameboy.TestUtils.execute;
 import static com.ismaelrh.gameboy.cpu.Registers.E;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
@@ -26,7 +27,7 @@ public class Arithmetic8BTest {
     }
 
     @Test
-    public void cp_r_no_borrow() {
+    public void cp_r_no_borrow() throws Exception {
         registers.setA((byte) 0xBA);
         registers.setE((byte) 0x01);
 
@@ -35,7 +36,7 @@ public class Arithmetic8BTest {
                 .withSecondOperand(E)
                 .build();
 
-        short cycles = Arithmetic8b.cp_r(inst, memory, registers);
+        short cycles = execute(Arithmetic8b::sub_r, inst, memory, registers);
 
         assertEquals8(0xBA, registers.getA());    //Result is not modified
         assertFlags(registers, false, true, false, false);
@@ -43,7 +44,7 @@ public class Arithmetic8BTest {
     }
 
     @Test
-    public void cp_r_zero() {
+    public void cp_r_zero() throws Exception {
         registers.setA((byte) 0xBA);
         registers.setE((byte) 0xBA);
 
@@ -52,7 +53,7 @@ public class Arithmetic8BTest {
                 .withSecondOperand(E)
                 .build();
 
-        short cycles = Arithmetic8b.cp_r(inst, memory, registers);
+        short cycles = execute(Arithmetic8b::sub_r, inst, memory, registers);
 
         assertEquals8(0xBA, registers.getA());
         assertFlags(registers, true, true, false, false);
@@ -60,7 +61,7 @@ public class Arithmetic8BTest {
     }
 
     @Test
-    public void cp_r_borrow() {
+    public void cp_r_borrow() throws Exception {
         registers.setA((byte) 0x3E);     //62
         registers.setE((byte) 0X40);     //64
 
@@ -69,7 +70,7 @@ public class Arithmetic8BTest {
                 .withSecondOperand(E)
                 .build();
 
-        short cycles = Arithmetic8b.cp_r(inst, memory, registers);
+        short cycles = execute(Arithmetic8b::sub_r, inst, memory, registers);
 
         assertEquals8(0x3E, registers.getA());
         assertFlags(registers, false, true, false, true);
@@ -77,7 +78,7 @@ public class Arithmetic8BTest {
     }
 
     @Test
-    public void cp_r_half_borrow() {
+    public void cp_r_half_borrow() throws Exception {
         registers.setA((byte) 0x3E);     //0
         registers.setE((byte) 0X0F);     //255
 
@@ -86,7 +87,7 @@ public class Arithmetic8BTest {
                 .withSecondOperand(E)
                 .build();
 
-        short cycles = Arithmetic8b.sub_r(inst, memory, registers);
+        short cycles = execute(Arithmetic8b::sub_r, inst, memory, registers);
 
         assertEquals8(0x3E, registers.getA());
         assertFlags(registers, false, true, true, false);
@@ -95,7 +96,7 @@ public class Arithmetic8BTest {
 
 
     @Test
-    public void subA_r_no_borrow() {
+    public void subA_r_no_borrow() throws Exception {
         registers.setA((byte) 0xBA);
         registers.setE((byte) 0x01);
 
@@ -103,7 +104,7 @@ public class Arithmetic8BTest {
                 .withSecondOperand(E)
                 .build();
 
-        short cycles = Arithmetic8b.sub_r(inst, memory, registers);
+        short cycles = execute(Arithmetic8b::sub_r, inst, memory, registers);
 
         assertEquals8(0xB9, registers.getA());    //Result is 8
         assertFlags(registers, false, true, false, false);
@@ -112,7 +113,7 @@ public class Arithmetic8BTest {
 
 
     @Test
-    public void subA_r_zero() {
+    public void subA_r_zero() throws Exception {
         registers.setA((byte) 0xBA);
         registers.setE((byte) 0xBA);
 
@@ -120,7 +121,7 @@ public class Arithmetic8BTest {
                 .withSecondOperand(E)
                 .build();
 
-        short cycles = Arithmetic8b.sub_r(inst, memory, registers);
+        short cycles = execute(Arithmetic8b::sub_r, inst, memory, registers);
 
         assertEquals8(0x0, registers.getA());
         assertFlags(registers, true, true, false, false);
@@ -128,7 +129,7 @@ public class Arithmetic8BTest {
     }
 
     @Test
-    public void subA_r_borrow() {
+    public void subA_r_borrow() throws Exception {
         registers.setA((byte) 0x3E);     //62
         registers.setE((byte) 0X40);     //64
 
@@ -136,7 +137,7 @@ public class Arithmetic8BTest {
                 .withSecondOperand(E)
                 .build();
 
-        short cycles = Arithmetic8b.sub_r(inst, memory, registers);
+        short cycles = execute(Arithmetic8b::sub_r, inst, memory, registers);
 
         assertEquals8(0xFE, registers.getA());
         assertFlags(registers, false, true, false, true);
@@ -144,7 +145,7 @@ public class Arithmetic8BTest {
     }
 
     @Test
-    public void subA_r_borrow_2() {
+    public void subA_r_borrow_2() throws Exception {
         registers.setA((byte) 0x01);     //1
         registers.setE((byte) 0XFF);     //255
 
@@ -152,7 +153,7 @@ public class Arithmetic8BTest {
                 .withSecondOperand(E)
                 .build();
 
-        short cycles = Arithmetic8b.sub_r(inst, memory, registers);
+        short cycles = execute(Arithmetic8b::sub_r, inst, memory, registers);
 
         assertEquals8(0x02, registers.getA());
         assertFlags(registers, false, true, true, true);
@@ -160,7 +161,7 @@ public class Arithmetic8BTest {
     }
 
     @Test
-    public void subA_r_borrow_3() {
+    public void subA_r_borrow_3() throws Exception {
         registers.setA((byte) 0x00);     //0
         registers.setE((byte) 0XFF);     //255
 
@@ -168,7 +169,7 @@ public class Arithmetic8BTest {
                 .withSecondOperand(E)
                 .build();
 
-        short cycles = Arithmetic8b.sub_r(inst, memory, registers);
+        short cycles = execute(Arithmetic8b::sub_r, inst, memory, registers);
 
         assertEquals8(0x01, registers.getA());
         assertFlags(registers, false, true, true, true);
@@ -176,7 +177,7 @@ public class Arithmetic8BTest {
     }
 
     @Test
-    public void subA_r_half_borrow() {
+    public void subA_r_half_borrow() throws Exception {
         registers.setA((byte) 0x3E);     //0
         registers.setE((byte) 0X0F);     //255
 
@@ -184,7 +185,7 @@ public class Arithmetic8BTest {
                 .withSecondOperand(E)
                 .build();
 
-        short cycles = Arithmetic8b.sub_r(inst, memory, registers);
+        short cycles = execute(Arithmetic8b::sub_r, inst, memory, registers);
 
         assertEquals8(0x2F, registers.getA());
         assertFlags(registers, false, true, true, false);
@@ -192,7 +193,7 @@ public class Arithmetic8BTest {
     }
 
     @Test
-    public void subA_n_no_borrow() {
+    public void subA_n_no_borrow() throws Exception {
         registers.setA((byte) 0xBA);
 
         Instruction inst = new InstructionBuilder()
@@ -200,7 +201,7 @@ public class Arithmetic8BTest {
                 .withImmediate8b((byte) 0x01)
                 .build();
 
-        short cycles = Arithmetic8b.sub_n(inst, memory, registers);
+        short cycles = execute(Arithmetic8b::sub_n, inst, memory, registers);
 
         assertEquals8(0xB9, registers.getA());    //Result is 8
         assertFlags(registers, false, true, false, false);
@@ -208,7 +209,7 @@ public class Arithmetic8BTest {
     }
 
     @Test
-    public void subA_n_zero() {
+    public void subA_n_zero() throws Exception {
         registers.setA((byte) 0xBA);
 
         Instruction inst = new InstructionBuilder()
@@ -216,7 +217,7 @@ public class Arithmetic8BTest {
                 .withImmediate8b((byte) 0xBA)
                 .build();
 
-        short cycles = Arithmetic8b.sub_n(inst, memory, registers);
+        short cycles = execute(Arithmetic8b::sub_n, inst, memory, registers);
 
         assertEquals8(0x0, registers.getA());    //Result is 8
         assertFlags(registers, true, true, false, false);
@@ -224,7 +225,7 @@ public class Arithmetic8BTest {
     }
 
     @Test
-    public void subA_n_borrow() {
+    public void subA_n_borrow() throws Exception {
         registers.setA((byte) 0x3E);
 
         Instruction inst = new InstructionBuilder()
@@ -232,7 +233,7 @@ public class Arithmetic8BTest {
                 .withImmediate8b((byte) 0x40)
                 .build();
 
-        short cycles = Arithmetic8b.sub_n(inst, memory, registers);
+        short cycles = execute(Arithmetic8b::sub_n, inst, memory, registers);
 
         assertEquals8(0xFE, registers.getA());    //Result is 8
         assertFlags(registers, false, true, false, true);
@@ -240,14 +241,14 @@ public class Arithmetic8BTest {
     }
 
     @Test
-    public void subA_n_half_borrow() {
+    public void subA_n_half_borrow() throws Exception {
         registers.setA((byte) 0x3E);
 
         Instruction inst = new InstructionBuilder()
                 .withImmediate8b((byte) 0x0F)
                 .build();
 
-        short cycles = Arithmetic8b.sub_n(inst, memory, registers);
+        short cycles = execute(Arithmetic8b::sub_n, inst, memory, registers);
 
         assertEquals8(0x2f, registers.getA());    //Result is 8
         assertFlags(registers, false, true, true, false);
@@ -255,7 +256,7 @@ public class Arithmetic8BTest {
     }
 
     @Test
-    public void subA_HL_no_borrow() {
+    public void subA_HL_no_borrow() throws Exception {
         registers.setA((byte) 0xBA);
         memory.write((char) 0xC001, (byte) 0x01);
         registers.setHL((char) 0xC001);
@@ -263,7 +264,7 @@ public class Arithmetic8BTest {
         Instruction inst = new InstructionBuilder()
                 .build();
 
-        short cycles = Arithmetic8b.sub_HL(inst, memory, registers);
+        short cycles = execute(Arithmetic8b::sub_HL, inst, memory, registers);
 
         assertEquals8(0xB9, registers.getA());    //Result is 8
         assertFlags(registers, false, true, false, false);
@@ -271,7 +272,7 @@ public class Arithmetic8BTest {
     }
 
     @Test
-    public void subA_HL_zero() {
+    public void subA_HL_zero() throws Exception {
         registers.setA((byte) 0xBA);
         memory.write((char) 0xC001, (byte) 0xBA);
         registers.setHL((char) 0xC001);
@@ -279,7 +280,7 @@ public class Arithmetic8BTest {
         Instruction inst = new InstructionBuilder()
                 .build();
 
-        short cycles = Arithmetic8b.sub_HL(inst, memory, registers);
+        short cycles = execute(Arithmetic8b::sub_HL, inst, memory, registers);
 
         assertEquals8(0x00, registers.getA());    //Result is 8
         assertFlags(registers, true, true, false, false);
@@ -287,7 +288,7 @@ public class Arithmetic8BTest {
     }
 
     @Test
-    public void subA_HL_borrow() {
+    public void subA_HL_borrow() throws Exception {
         registers.setA((byte) 0x3E);
         memory.write((char) 0xC001, (byte) 0x40);
         registers.setHL((char) 0xC001);
@@ -295,7 +296,7 @@ public class Arithmetic8BTest {
         Instruction inst = new InstructionBuilder()
                 .build();
 
-        short cycles = Arithmetic8b.sub_HL(inst, memory, registers);
+        short cycles = execute(Arithmetic8b::sub_HL, inst, memory, registers);
 
         assertEquals8(0xFE, registers.getA());    //Result is 8
         assertFlags(registers, false, true, false, true);
@@ -303,7 +304,7 @@ public class Arithmetic8BTest {
     }
 
     @Test
-    public void subA_HL_half_borrow() {
+    public void subA_HL_half_borrow() throws Exception {
         registers.setA((byte) 0x3E);
         memory.write((char) 0xC001, (byte) 0x0F);
         registers.setHL((char) 0xC001);
@@ -311,7 +312,7 @@ public class Arithmetic8BTest {
         Instruction inst = new InstructionBuilder()
                 .build();
 
-        short cycles = Arithmetic8b.sub_HL(inst, memory, registers);
+        short cycles = execute(Arithmetic8b::sub_HL, inst, memory, registers);
 
         assertEquals8(0x2F, registers.getA());    //Result is 8
         assertFlags(registers, false, true, true, false);
@@ -319,7 +320,7 @@ public class Arithmetic8BTest {
     }
 
     @Test
-    public void subcA_r_no_borrow() {
+    public void subcA_r_no_borrow() throws Exception {
         registers.setA((byte) 0xBA);
         registers.setE((byte) 0x01);
         registers.setFlagC();
@@ -329,7 +330,7 @@ public class Arithmetic8BTest {
                 .withSecondOperand(E)
                 .build();
 
-        short cycles = Arithmetic8b.sub_r(inst, memory, registers);
+        short cycles = execute(Arithmetic8b::sub_r, inst, memory, registers);
 
         assertEquals8(0xB8, registers.getA());    //Result is 8
         assertFlags(registers, false, true, false, false);
@@ -337,7 +338,7 @@ public class Arithmetic8BTest {
     }
 
     @Test
-    public void subAc_r_zero() {
+    public void subAc_r_zero() throws Exception {
         registers.setA((byte) 0xBA);
         registers.setE((byte) 0xB9);
         registers.setFlagC();
@@ -347,7 +348,7 @@ public class Arithmetic8BTest {
                 .withSecondOperand(E)
                 .build();
 
-        short cycles = Arithmetic8b.sub_r(inst, memory, registers);
+        short cycles = execute(Arithmetic8b::sub_r, inst, memory, registers);
 
         assertEquals8(0x0, registers.getA());
         assertFlags(registers, true, true, false, false);
@@ -355,7 +356,7 @@ public class Arithmetic8BTest {
     }
 
     @Test
-    public void subAc_r_borrow() {
+    public void subAc_r_borrow() throws Exception {
         registers.setA((byte) 0x3E);     //62
         registers.setE((byte) 0X3F);     //63
         registers.setFlagC();
@@ -365,7 +366,7 @@ public class Arithmetic8BTest {
                 .withSecondOperand(E)
                 .build();
 
-        short cycles = Arithmetic8b.sub_r(inst, memory, registers);
+        short cycles = execute(Arithmetic8b::sub_r, inst, memory, registers);
 
         assertEquals8(0xFE, registers.getA());
         assertFlags(registers, false, true, true, true);
@@ -373,7 +374,7 @@ public class Arithmetic8BTest {
     }
 
     @Test
-    public void subAc_r_borrow_2() {
+    public void subAc_r_borrow_2() throws Exception {
         registers.setA((byte) 0x01);     //1
         registers.setE((byte) 0XFE);     //255
         registers.setFlagC();
@@ -383,7 +384,7 @@ public class Arithmetic8BTest {
                 .withSecondOperand(E)
                 .build();
 
-        short cycles = Arithmetic8b.sub_r(inst, memory, registers);
+        short cycles = execute(Arithmetic8b::sub_r, inst, memory, registers);
 
         assertEquals8(0x02, registers.getA());
         assertFlags(registers, false, true, true, true);
@@ -391,7 +392,7 @@ public class Arithmetic8BTest {
     }
 
     @Test
-    public void subAc_r_borrow_3() {
+    public void subAc_r_borrow_3() throws Exception {
         registers.setA((byte) 0x00);     //0
         registers.setE((byte) 0XFE);     //255
         registers.setFlagC();
@@ -401,7 +402,7 @@ public class Arithmetic8BTest {
                 .withSecondOperand(E)
                 .build();
 
-        short cycles = Arithmetic8b.sub_r(inst, memory, registers);
+        short cycles = execute(Arithmetic8b::sub_r, inst, memory, registers);
 
         assertEquals8(0x01, registers.getA());
         assertFlags(registers, false, true, true, true);
@@ -409,7 +410,7 @@ public class Arithmetic8BTest {
     }
 
     @Test
-    public void subAc_r_half_borrow() {
+    public void subAc_r_half_borrow() throws Exception {
         registers.setA((byte) 0x3E);     //0
         registers.setE((byte) 0X0E);     //255
         registers.setFlagC();
@@ -419,7 +420,7 @@ public class Arithmetic8BTest {
                 .withSecondOperand(E)
                 .build();
 
-        short cycles = Arithmetic8b.sub_r(inst, memory, registers);
+        short cycles = execute(Arithmetic8b::sub_r, inst, memory, registers);
 
         assertEquals8(0x2F, registers.getA());
         assertFlags(registers, false, true, true, false);
@@ -427,7 +428,7 @@ public class Arithmetic8BTest {
     }
 
     @Test
-    public void addA_r_no_overflow() {
+    public void addA_r_no_overflow() throws Exception {
         registers.setA((byte) 0x5);
         registers.setE((byte) 0x3);
 
@@ -435,7 +436,7 @@ public class Arithmetic8BTest {
                 .withSecondOperand(E)
                 .build();
 
-        short cycles = Arithmetic8b.addA_r(inst, memory, registers);
+        short cycles = execute(Arithmetic8b::addA_r, inst, memory, registers);
 
         assertFalse(registers.checkFlagZ());
         assertFalse(registers.checkFlagN());
@@ -445,7 +446,7 @@ public class Arithmetic8BTest {
     }
 
     @Test
-    public void addA_r_overflow() {
+    public void addA_r_overflow() throws Exception {
         registers.setA((byte) 255);
         registers.setE((byte) 2);
 
@@ -453,14 +454,14 @@ public class Arithmetic8BTest {
                 .withSecondOperand(E)
                 .build();
 
-        short cycles = Arithmetic8b.addA_r(inst, memory, registers);
+        short cycles = execute(Arithmetic8b::addA_r, inst, memory, registers);
         assertEquals8(0x1, registers.getA());    //1
         assertFlags(registers, false, false, true, true);  //C-flag activated
         assertEquals(4, cycles);
     }
 
     @Test
-    public void addA_r_big_overflow() {
+    public void addA_r_big_overflow() throws Exception {
         registers.setA((byte) 0x1);     //1
         registers.setE((byte) 0xFF);    //255
 
@@ -468,14 +469,14 @@ public class Arithmetic8BTest {
                 .withSecondOperand(E)
                 .build();
 
-        short cycles = Arithmetic8b.addA_r(inst, memory, registers);
+        short cycles = execute(Arithmetic8b::addA_r, inst, memory, registers);
         assertEquals8(0x0, registers.getA());    //1
         assertFlags(registers, true, false, true, true);  //C-flag activated
         assertEquals(4, cycles);
     }
 
     @Test
-    public void addA_r_big_overflow_2() {
+    public void addA_r_big_overflow_2() throws Exception {
         registers.setA((byte) 0xFF);     //255
         registers.setE((byte) 0xFF);    //255
 
@@ -483,14 +484,14 @@ public class Arithmetic8BTest {
                 .withSecondOperand(E)
                 .build();
 
-        short cycles = Arithmetic8b.addA_r(inst, memory, registers);
+        short cycles = execute(Arithmetic8b::addA_r, inst, memory, registers);
         assertEquals8(0xFE, registers.getA());    //1
         assertFlags(registers, false, false, true, true);  //C-flag activated
         assertEquals(4, cycles);
     }
 
     @Test
-    public void addA_r_half_overflow() {
+    public void addA_r_half_overflow() throws Exception {
         registers.setA((byte) 0xF);
         registers.setE((byte) 0x1);
 
@@ -498,14 +499,14 @@ public class Arithmetic8BTest {
                 .withSecondOperand(E)
                 .build();
 
-        short cycles = Arithmetic8b.addA_r(inst, memory, registers);
+        short cycles = execute(Arithmetic8b::addA_r, inst, memory, registers);
         assertEquals8(0x10, registers.getA());    //1
         assertFlags(registers, false, false, true, false);  //H-flag activated
         assertEquals(4, cycles);
     }
 
     @Test
-    public void addA_r_overflow_result_zero() {
+    public void addA_r_overflow_result_zero() throws Exception {
         registers.setA((byte) 255);
         registers.setE((byte) 1);
 
@@ -513,14 +514,14 @@ public class Arithmetic8BTest {
                 .withSecondOperand(E)
                 .build();
 
-        short cycles = Arithmetic8b.addA_r(inst, memory, registers);
+        short cycles = execute(Arithmetic8b::addA_r, inst, memory, registers);
         assertEquals8(0x0, registers.getA());    //1
         assertFlags(registers, true, false, true, true);  //C-flag activated
         assertEquals(4, cycles);
     }
 
     @Test
-    public void addA_n_no_overflow() {
+    public void addA_n_no_overflow() throws Exception {
         registers.setA((byte) 0x5);
 
         Instruction inst = new InstructionBuilder()
@@ -528,7 +529,7 @@ public class Arithmetic8BTest {
                 .withImmediate8b((byte) 0x3)
                 .build();
 
-        short cycles = Arithmetic8b.addA_n(inst, memory, registers);
+        short cycles = execute(Arithmetic8b::addA_n, inst, memory, registers);
 
         assertFalse(registers.checkFlagZ());
         assertFalse(registers.checkFlagN());
@@ -538,7 +539,7 @@ public class Arithmetic8BTest {
     }
 
     @Test
-    public void addA_n_overflow() {
+    public void addA_n_overflow() throws Exception {
         registers.setA((byte) 255);
 
         Instruction inst = new InstructionBuilder()
@@ -546,14 +547,14 @@ public class Arithmetic8BTest {
                 .withImmediate8b((byte) 0x2)
                 .build();
 
-        short cycles = Arithmetic8b.addA_n(inst, memory, registers);
+        short cycles = execute(Arithmetic8b::addA_n, inst, memory, registers);
         assertEquals8(0x1, registers.getA());    //1
         assertFlags(registers, false, false, true, true);  //C-flag activated
         assertEquals(8, cycles);
     }
 
     @Test
-    public void addA_n_half_overflow() {
+    public void addA_n_half_overflow() throws Exception {
         registers.setA((byte) 0xF);
 
         Instruction inst = new InstructionBuilder()
@@ -561,14 +562,14 @@ public class Arithmetic8BTest {
                 .withImmediate8b((byte) 0x1)
                 .build();
 
-        short cycles = Arithmetic8b.addA_n(inst, memory, registers);
+        short cycles = execute(Arithmetic8b::addA_n, inst, memory, registers);
         assertEquals8(0x10, registers.getA());    //1
         assertFlags(registers, false, false, true, false);  //H-flag activated
         assertEquals(8, cycles);
     }
 
     @Test
-    public void addA_n_overflow_result_zero() {
+    public void addA_n_overflow_result_zero() throws Exception {
         registers.setA((byte) 255);
 
         Instruction inst = new InstructionBuilder()
@@ -576,14 +577,14 @@ public class Arithmetic8BTest {
                 .withImmediate8b((byte) 0x1)
                 .build();
 
-        short cycles = Arithmetic8b.addA_n(inst, memory, registers);
+        short cycles = execute(Arithmetic8b::addA_n, inst, memory, registers);
         assertEquals8(0x0, registers.getA());    //1
         assertFlags(registers, true, false, true, true);  //C-flag activated
         assertEquals(8, cycles);
     }
 
     @Test
-    public void addA_HL() {
+    public void addA_HL() throws Exception {
         registers.setA((byte) 0xFF);
         registers.setHL((char) 0xC001);
         memory.write((char) 0xC001, (byte) 0x0A);
@@ -591,7 +592,7 @@ public class Arithmetic8BTest {
         Instruction inst = new InstructionBuilder()
                 .build();
 
-        short cycles = Arithmetic8b.addA_HL(inst, memory, registers);
+        short cycles = execute(Arithmetic8b::addA_HL, inst, memory, registers);
 
         assertEquals8(0x09, registers.getA());    //Result is 0xFF + 0x0A = 0x109 = 0x09 with overflow C and h
         assertFlags(registers, false, false, true, true);
@@ -599,7 +600,7 @@ public class Arithmetic8BTest {
     }
 
     @Test
-    public void addA_HL_blargg() {
+    public void addA_HL_blargg() throws Exception {
         registers.setA((byte) 0x00);
         registers.setHL((char) 0xDEF6);
         memory.write((char) 0xDEF6, (byte) 0x0F);
@@ -607,7 +608,7 @@ public class Arithmetic8BTest {
         Instruction inst = new InstructionBuilder()
                 .build();
 
-        short cycles = Arithmetic8b.addA_HL(inst, memory, registers);
+        short cycles = execute(Arithmetic8b::addA_HL, inst, memory, registers);
 
         assertEquals8(0x0F, registers.getA());
         assertFlags(registers, false, false, false, false);
@@ -615,7 +616,7 @@ public class Arithmetic8BTest {
     }
 
     @Test
-    public void addc_A_r_no_overflow() {
+    public void addc_A_r_no_overflow() throws Exception {
 
         registers.setA((byte) 0x01);
         registers.setE((byte) 0x02);
@@ -626,7 +627,7 @@ public class Arithmetic8BTest {
                 .withSecondOperand(E)
                 .build();
 
-        short cycles = Arithmetic8b.addA_r(inst, memory, registers);
+        short cycles = execute(Arithmetic8b::addA_r, inst, memory, registers);
 
         assertEquals8(0x04, registers.getA());
         assertFlags(registers, false, false, false, false);
@@ -634,7 +635,7 @@ public class Arithmetic8BTest {
     }
 
     @Test
-    public void addc_A_r_overflow() {
+    public void addc_A_r_overflow() throws Exception {
 
         registers.setA((byte) 0xFF);
         registers.setE((byte) 0x1);
@@ -645,7 +646,7 @@ public class Arithmetic8BTest {
                 .withSecondOperand(E)
                 .build();
 
-        short cycles = Arithmetic8b.addA_r(inst, memory, registers);
+        short cycles = execute(Arithmetic8b::addA_r, inst, memory, registers);
 
         assertEquals8(0x01, registers.getA());
         assertFlags(registers, false, false, true, true);
@@ -653,7 +654,7 @@ public class Arithmetic8BTest {
     }
 
     @Test
-    public void addc_A_r_overflow_zero() {
+    public void addc_A_r_overflow_zero() throws Exception {
 
         registers.setA((byte) 0xFE);
         registers.setE((byte) 0x1);
@@ -664,7 +665,7 @@ public class Arithmetic8BTest {
                 .withSecondOperand(E)
                 .build();
 
-        short cycles = Arithmetic8b.addA_r(inst, memory, registers);
+        short cycles = execute(Arithmetic8b::addA_r, inst, memory, registers);
 
         assertEquals8(0x00, registers.getA());
         assertFlags(registers, true, false, true, true);
@@ -672,7 +673,7 @@ public class Arithmetic8BTest {
     }
 
     @Test
-    public void addc_A_r_half_overflow() {
+    public void addc_A_r_half_overflow() throws Exception {
 
         registers.setA((byte) 0xE1);
         registers.setE((byte) 0x1E);
@@ -683,7 +684,7 @@ public class Arithmetic8BTest {
                 .withSecondOperand(E)
                 .build();
 
-        short cycles = Arithmetic8b.addA_r(inst, memory, registers);
+        short cycles = execute(Arithmetic8b::addA_r, inst, memory, registers);
 
         assertEquals8(0x00, registers.getA());
         assertFlags(registers, true, false, true, true);
@@ -692,7 +693,7 @@ public class Arithmetic8BTest {
 
 
     @Test
-    public void addc_A_n_no_overflow() {
+    public void addc_A_n_no_overflow() throws Exception {
 
         registers.setA((byte) 0x01);
         registers.setFlagC(); //Set carry
@@ -702,7 +703,7 @@ public class Arithmetic8BTest {
                 .withImmediate8b((byte) 0x02)
                 .build();
 
-        short cycles = Arithmetic8b.addA_n(inst, memory, registers);
+        short cycles = execute(Arithmetic8b::addA_n, inst, memory, registers);
 
         assertEquals8(0x04, registers.getA());
         assertFlags(registers, false, false, false, false);
@@ -710,7 +711,7 @@ public class Arithmetic8BTest {
     }
 
     @Test
-    public void addc_A_n_overflow() {
+    public void addc_A_n_overflow() throws Exception {
 
         registers.setA((byte) 0xFF);
         registers.setFlagC(); //Set carry
@@ -720,7 +721,7 @@ public class Arithmetic8BTest {
                 .withImmediate8b((byte) 0x1)
                 .build();
 
-        short cycles = Arithmetic8b.addA_n(inst, memory, registers);
+        short cycles = execute(Arithmetic8b::addA_n, inst, memory, registers);
 
         assertEquals8(0x01, registers.getA());
         assertFlags(registers, false, false, true, true);
@@ -728,7 +729,7 @@ public class Arithmetic8BTest {
     }
 
     @Test
-    public void addc_A_n_overflow_zero() {
+    public void addc_A_n_overflow_zero() throws Exception {
 
         registers.setA((byte) 0xFE);
         registers.setFlagC(); //Set carry
@@ -738,7 +739,7 @@ public class Arithmetic8BTest {
                 .withImmediate8b((byte) 0x01)
                 .build();
 
-        short cycles = Arithmetic8b.addA_n(inst, memory, registers);
+        short cycles = execute(Arithmetic8b::addA_n, inst, memory, registers);
 
         assertEquals8(0x00, registers.getA());
         assertFlags(registers, true, false, true, true);
@@ -746,7 +747,7 @@ public class Arithmetic8BTest {
     }
 
     @Test
-    public void addc_A_n_half_overflow() {
+    public void addc_A_n_half_overflow() throws Exception {
 
         registers.setA((byte) 0xE1);
         registers.setFlagC(); //Set carry
@@ -756,7 +757,7 @@ public class Arithmetic8BTest {
                 .withImmediate8b((byte) 0x1E)
                 .build();
 
-        short cycles = Arithmetic8b.addA_n(inst, memory, registers);
+        short cycles = execute(Arithmetic8b::addA_n, inst, memory, registers);
 
         assertEquals((byte) 0x00, registers.getA());
         assertFlags(registers, true, false, true, true);
@@ -764,7 +765,7 @@ public class Arithmetic8BTest {
     }
 
     @Test
-    public void addc_A_n_half_overflogw_blargg() {
+    public void addc_A_n_half_overflogw_blargg() throws Exception {
 
         registers.setFlagC();
 
@@ -776,7 +777,7 @@ public class Arithmetic8BTest {
                 .withImmediate8b((byte) 0x0F)
                 .build();
 
-        short cycles = Arithmetic8b.addA_n(inst, memory, registers);
+        short cycles = execute(Arithmetic8b::addA_n, inst, memory, registers);
 
         assertEquals((byte) 0x1f, registers.getA());
         assertFlags(registers, false, false, true, false);
@@ -784,7 +785,7 @@ public class Arithmetic8BTest {
     }
 
     @Test
-    public void addc_A_HL_no_overflow() {
+    public void addc_A_HL_no_overflow() throws Exception {
 
         registers.setA((byte) 0x01);
         registers.setHL((char) 0xC001);
@@ -796,7 +797,7 @@ public class Arithmetic8BTest {
                 .withFirstOperand((byte) 0x1)    //To indicate that operation is with carry
                 .build();
 
-        short cycles = Arithmetic8b.addA_HL(inst, memory, registers);
+        short cycles = execute(Arithmetic8b::addA_HL, inst, memory, registers);
 
         assertEquals((byte) 0x04, registers.getA());
         assertFlags(registers, false, false, false, false);
@@ -804,7 +805,7 @@ public class Arithmetic8BTest {
     }
 
     @Test
-    public void addc_A_HL_overflow() {
+    public void addc_A_HL_overflow() throws Exception {
 
         registers.setA((byte) 0xFF);
         registers.setHL((char) 0xC001);
@@ -815,7 +816,7 @@ public class Arithmetic8BTest {
                 .withFirstOperand((byte) 0x1)    //To indicate that operation is with carry
                 .build();
 
-        short cycles = Arithmetic8b.addA_HL(inst, memory, registers);
+        short cycles = execute(Arithmetic8b::addA_HL, inst, memory, registers);
 
         assertEquals((byte) 0x01, registers.getA());
         assertFlags(registers, false, false, true, true);
@@ -823,7 +824,7 @@ public class Arithmetic8BTest {
     }
 
     @Test
-    public void addc_HL_n_overflow_zero() {
+    public void addc_HL_n_overflow_zero() throws Exception {
 
         registers.setA((byte) 0xFE);
         registers.setHL((char) 0xC001);
@@ -834,7 +835,7 @@ public class Arithmetic8BTest {
                 .withFirstOperand((byte) 0x01)    //To indicate that operation is with carry
                 .build();
 
-        short cycles = Arithmetic8b.addA_HL(inst, memory, registers);
+        short cycles = execute(Arithmetic8b::addA_HL, inst, memory, registers);
 
         assertEquals((byte) 0x00, registers.getA());
         assertFlags(registers, true, false, true, true);
@@ -842,7 +843,7 @@ public class Arithmetic8BTest {
     }
 
     @Test
-    public void addc_A_HL_half_overflow() {
+    public void addc_A_HL_half_overflow() throws Exception {
 
         registers.setA((byte) 0xE1);
         registers.setHL((char) 0xC001);
@@ -853,7 +854,7 @@ public class Arithmetic8BTest {
                 .withFirstOperand((byte) 0x1)    //To indicate that operation is with carry
                 .build();
 
-        short cycles = Arithmetic8b.addA_HL(inst, memory, registers);
+        short cycles = execute(Arithmetic8b::addA_HL, inst, memory, registers);
 
         assertEquals8(0x00, registers.getA());
         assertFlags(registers, true, false, true, true);
@@ -861,28 +862,28 @@ public class Arithmetic8BTest {
     }
 
     @Test
-    public void and_r_not_zero() {
+    public void and_r_not_zero() throws Exception {
         registers.setA((byte) 0x5A);
         registers.setE((byte) 0x3F);
         Instruction inst = new InstructionBuilder()
                 .withSecondOperand(E)
                 .build();
 
-        short cycles = Arithmetic8b.and_r(inst, memory, registers);
+        short cycles = execute(Arithmetic8b::and_r, inst, memory, registers);
         assertEquals(4, cycles);
         assertEquals8(0x1A, registers.getA());
         assertFlags(registers, false, false, true, false);
     }
 
     @Test
-    public void and_r_zero() {
+    public void and_r_zero() throws Exception {
         registers.setA((byte) 0xF0);
         registers.setE((byte) 0x0F);
         Instruction inst = new InstructionBuilder()
                 .withSecondOperand(E)
                 .build();
 
-        short cycles = Arithmetic8b.and_r(inst, memory, registers);
+        short cycles = execute(Arithmetic8b::and_r, inst, memory, registers);
         assertEquals(4, cycles);
         assertEquals8(0x00, registers.getA());
         assertFlags(registers, true, false, true, false);
@@ -945,7 +946,7 @@ public class Arithmetic8BTest {
     }
 
     @Test
-    public void or_r_not_zero() {
+    public void or_r_not_zero() throws Exception {
         registers.setA((byte) 0xF0);
         registers.setE((byte) 0x0F);
 
@@ -953,14 +954,14 @@ public class Arithmetic8BTest {
                 .withSecondOperand(E)
                 .build();
 
-        short cycles = Arithmetic8b.or_r(inst, memory, registers);
+        short cycles = execute(Arithmetic8b::or_r, inst, memory, registers);
         assertEquals(4, cycles);
         assertEquals8(0xFF, registers.getA());
         assertFlags(registers, false, false, false, false);
     }
 
     @Test
-    public void or_r_zero() {
+    public void or_r_zero() throws Exception {
         registers.setA((byte) 0x00);
         registers.setE((byte) 0x00);
 
@@ -968,7 +969,7 @@ public class Arithmetic8BTest {
                 .withSecondOperand(E)
                 .build();
 
-        short cycles = Arithmetic8b.or_r(inst, memory, registers);
+        short cycles = execute(Arithmetic8b::or_r, inst, memory, registers);
         assertEquals(4, cycles);
         assertEquals8(0x00, registers.getA());
         assertFlags(registers, true, false, false, false);
@@ -1035,7 +1036,7 @@ public class Arithmetic8BTest {
 
 
     @Test
-    public void xor_r_not_zero() {
+    public void xor_r_not_zero() throws Exception {
         registers.setA((byte) 0x3F);
         registers.setE((byte) 0x3E);
 
@@ -1043,14 +1044,14 @@ public class Arithmetic8BTest {
                 .withSecondOperand(E)
                 .build();
 
-        short cycles = Arithmetic8b.xor_r(inst, memory, registers);
+        short cycles = execute(Arithmetic8b::xor_r, inst, memory, registers);
         assertEquals(4, cycles);
         assertEquals8(0x01, registers.getA());
         assertFlags(registers, false, false, false, false);
     }
 
     @Test
-    public void xor_r_zero() {
+    public void xor_r_zero() throws Exception {
         registers.setA((byte) 0x3F);
         registers.setE((byte) 0x3F);
 
@@ -1058,7 +1059,7 @@ public class Arithmetic8BTest {
                 .withSecondOperand(E)
                 .build();
 
-        short cycles = Arithmetic8b.xor_r(inst, memory, registers);
+        short cycles = execute(Arithmetic8b::xor_r, inst, memory, registers);
         assertEquals(4, cycles);
         assertEquals8(0x00, registers.getA());
         assertFlags(registers, true, false, false, false);
@@ -1125,12 +1126,12 @@ public class Arithmetic8BTest {
     }
 
     @Test
-    public void inc_r() {
+    public void inc_r() throws Exception {
         registers.setE((byte) 0x01);
         Instruction inst = new InstructionBuilder()
                 .withFirstOperand(E)
                 .build();
-        short cycles = Arithmetic8b.inc_r(inst, memory, registers);
+        short cycles = execute(Arithmetic8b::inc_r, inst, memory, registers);
         assertEquals(4, cycles);
         assertEquals8(0x02, registers.getE());
         assertFlags(registers, false, false, false, false);
@@ -1138,37 +1139,37 @@ public class Arithmetic8BTest {
 
 
     @Test
-    public void inc_r_overflow() {
+    public void inc_r_overflow() throws Exception {
         registers.setE((byte) 0xFF);
         Instruction inst = new InstructionBuilder()
                 .withFirstOperand(E)
                 .build();
-        short cycles = Arithmetic8b.inc_r(inst, memory, registers);
+        short cycles = execute(Arithmetic8b::inc_r, inst, memory, registers);
         assertEquals(4, cycles);
         assertEquals8(0x00, registers.getE());
         assertFlags(registers, true, false, true, false);
     }
 
     @Test
-    public void inc_r_half_carry() {
+    public void inc_r_half_carry() throws Exception {
         registers.setE((byte) 0x0F);
         Instruction inst = new InstructionBuilder()
                 .withFirstOperand(E)
                 .build();
-        short cycles = Arithmetic8b.inc_r(inst, memory, registers);
+        short cycles = execute(Arithmetic8b::inc_r, inst, memory, registers);
         assertEquals(4, cycles);
         assertEquals8(0x10, registers.getE());
         assertFlags(registers, false, false, true, false);
     }
 
     @Test
-    public void inc_r_keeps_flag_c() {
+    public void inc_r_keeps_flag_c() throws Exception {
         registers.setE((byte) 0x0F);
         registers.setF((byte) 0xFF);
         Instruction inst = new InstructionBuilder()
                 .withFirstOperand(E)
                 .build();
-        short cycles = Arithmetic8b.inc_r(inst, memory, registers);
+        short cycles = execute(Arithmetic8b::inc_r, inst, memory, registers);
         assertEquals(4, cycles);
         assertEquals8(0x10, registers.getE());
         assertFlags(registers, false, false, true, true);
@@ -1253,37 +1254,37 @@ public class Arithmetic8BTest {
     }
 
     @Test
-    public void dec_r() {
+    public void dec_r() throws Exception {
         registers.setE((byte) 0x01);
         Instruction inst = new InstructionBuilder()
                 .withFirstOperand(E)
                 .build();
-        short cycles = Arithmetic8b.dec_r(inst, memory, registers);
+        short cycles = execute(Arithmetic8b::dec_r, inst, memory, registers);
         assertEquals(4, cycles);
         assertEquals8(0x00, registers.getE());
         assertFlags(registers, true, true, false, false);
     }
 
     @Test
-    public void dec_r_borrow() {
+    public void dec_r_borrow() throws Exception {
         registers.setE((byte) 0x00);
         Instruction inst = new InstructionBuilder()
                 .withFirstOperand(E)
                 .build();
-        short cycles = Arithmetic8b.dec_r(inst, memory, registers);
+        short cycles = execute(Arithmetic8b::dec_r, inst, memory, registers);
         assertEquals(4, cycles);
         assertEquals8(0xFF, registers.getE());
         assertFlags(registers, false, true, true, false);
     }
 
     @Test
-    public void dec_r_borrow_keeps_c() {
+    public void dec_r_borrow_keeps_c() throws Exception {
         registers.setE((byte) 0x00);
         registers.setF((byte) 0xFF);
         Instruction inst = new InstructionBuilder()
                 .withFirstOperand(E)
                 .build();
-        short cycles = Arithmetic8b.dec_r(inst, memory, registers);
+        short cycles = execute(Arithmetic8b::dec_r, inst, memory, registers);
         assertEquals(4, cycles);
         assertEquals8(0xFF, registers.getE());
         assertFlags(registers, false, true, true, true);
@@ -108,22 +108,28 @@ public class ControlCommandsTest {
 
     @Test
     public void di() {
-        registers.setIme(true);
+        memory.getInterruptController().setIme(true);
         Instruction inst = new InstructionBuilder()
                 .build();
         short cycles = ControlCommands.di(inst,memory,registers);
         assertEquals(4, cycles);
-        assertFalse(registers.isIme());
+        assertFalse(memory.getInterruptController().isIme());
     }
 
     @Test
     public void ei() {
-        registers.setIme(false);
+        memory.getInterruptController().setIme(false);
         Instruction inst = new InstructionBuilder()
                 .build();
         short cycles = ControlCommands.ei(inst,memory,registers);
         assertEquals(4, cycles);
-        assertTrue(registers.isIme());
+
+        //Enabled after the next instruction
+        assertFalse(memory.getInterruptController().isIme());
+        memory.getInterruptController().onInstructionFinished();
+        assertFalse(memory.getInterruptController().isIme());
+        memory.getInterruptController().onInstructionFinished();
+        assertTrue(memory.getInterruptController().isIme());
     }
 }
 
@@ -46,14 +46,14 @@ public class JumpCommandsTest {
 
     @Test
     //condition 00 => z must be 0
-    public void jp_f_nn_00_not_met() {
+    public void jp_f_nn_00_not_met() throws Exception {
         registers.setPC((char) 0xC001);
         registers.setFlagZ();   //So condition is not met
 
         Instruction inst = new InstructionBuilder().withImmediate16b((char) 0xCAFE).
                 withFirstOperand((byte) 0)
                 .build();
-        short cycles = JumpCommands.jp_f_nn(inst,memory,registers);
+        short cycles = execute(JumpCommands::jp_f_nn, inst,memory,registers);
 
 
         assertEquals(12, cycles);
@@ -62,14 +62,14 @@ public class JumpCommandsTest {
 
     @Test
     //condition 00 => z must be 0
-    public void jp_f_nn_00__met() {
+    public void jp_f_nn_00__met() throws Exception {
         registers.setPC((char) 0xC001);
         registers.clearFlagZ();   //So condition is met
 
         Instruction inst = new InstructionBuilder().withImmediate16b((char) 0xCAFE).
                 withFirstOperand((byte) 0)
                 .build();
-        short cycles = JumpCommands.jp_f_nn(inst,memory,registers);
+        short cycles = execute(JumpCommands::jp_f_nn, inst,memory,registers);
 
 
         assertEquals(16, cycles);
@@ -78,14 +78,14 @@ public class JumpCommandsTest {
 
     @Test
     //condition 01 => z must be 1
-    public void jp_f_nn_01_not_met() {
+    public void jp_f_nn_01_not_met() throws Exception {
         registers.setPC((char) 0xC001);
         registers.clearFlagZ();   //So condition is not met
 
         Instruction inst = new InstructionBuilder().withImmediate16b((char) 0xCAFE).
                 withFirstOperand((byte) 1)
                 .build();
-        short cycles = JumpCommands.jp_f_nn(inst,memory,registers);
+        short cycles = execute(JumpCommands::jp_f_nn, inst,memory,registers);
 
 
         assertEquals(12, cycles);
@@ -94,14 +94,14 @@ public class JumpCommandsTest {
 
     @Test
     //condition 01 => z must be 1
-    public void jp_f_nn_01_met() {
+    public void jp_f_nn_01_met() throws Exception {
         registers.setPC((char) 0xC001);
         registers.setFlagZ();   //So condition is met
 
         Instruction inst = new InstructionBuilder().withImmediate16b((char) 0xCAFE).
                 withFirstOperand((byte) 1)
                 .build();
-        short cycles = JumpCommands.jp_f_nn(inst,memory,registers);
+        short cycles = execute(JumpCommands::jp_f_nn, inst,memory,registers);
 
 
         assertEquals(16, cycles);
@@ -111,14 +111,14 @@ public class JumpCommandsTest {
 
     @Test
     //condition 10 => c must be 0
-    public void jp_f_nn_10_not_met() {
+    public void jp_f_nn_10_not_met() throws Exception {
         registers.setPC((char) 0xC001);
         registers.setFlagC();   //So condition is not met
 
         Instruction inst = new InstructionBuilder().withImmediate16b((char) 0xCAFE).
                 withFirstOperand((byte) 2)
                 .build();
-        short cycles = JumpCommands.jp_f_nn(inst,memory,registers);
+        short cycles = execute(JumpCommands::jp_f_nn, inst,memory,registers);
 
 
         assertEquals(12, cycles);
@@ -127,14 +127,14 @@ public class JumpCommandsTest {
 
     @Test
     //condition 10 => c must be 0
-    public void jp_f_nn_10_met() {
+    public void jp_f_nn_10_met() throws Exception {
         registers.setPC((char) 0xC001);
         registers.clearFlagC();   //So condition is met
 
         Instruction inst = new InstructionBuilder().withImmediate16b((char) 0xCAFE).
                 withFirstOperand((byte) 2)
                 .build();
-        short cycles = JumpCommands.jp_f_nn(inst,memory,registers);
+        short cycles = execute(JumpCommands::jp_f_nn, inst,memory,registers);
 
 
         assertEquals(16, cycles);
@@ -143,14 +143,14 @@ public class JumpCommandsTest {
 
     @Test
     //condition 11 => c must be 1
-    public void jp_f_nn_11_not_met() {
+    public void jp_f_nn_11_not_met() throws Exception {
         registers.setPC((char) 0xC001);
         registers.clearFlagC();   //So condition is not met
 
         Instruction inst = new InstructionBuilder().withImmediate16b((char) 0xCAFE).
                 withFirstOperand((byte) 3)
                 .build();
-        short cycles = JumpCommands.jp_f_nn(inst,memory,registers);
+        short cycles = execute(JumpCommands::jp_f_nn, inst,memory,registers);
 
 
         assertEquals(12, cycles);
@@ -159,14 +159,14 @@ public class JumpCommandsTest {
 
     @Test
     //condition 11 => c must be 1
-    public void jp_f_nn_11_met() {
+    public void jp_f_nn_11_met() throws Exception {
         registers.setPC((char) 0xC001);
         registers.setFlagC();   //So condition is met
 
         Instruction inst = new InstructionBuilder().withImmediate16b((char) 0xCAFE).
                 withFirstOperand((byte) 3)
                 .build();
-        short cycles = JumpCommands.jp_f_nn(inst,memory,registers);
+        short cycles = execute(JumpCommands::jp_f_nn, inst,memory,registers);
 
 
         assertEquals(16, cycles);
@@ -220,10 +220,10 @@ public class JumpCommandsTest {
     @Test
     public void reti() {
         Instruction inst = new InstructionBuilder().build();
-        assertFalse(registers.isIme());
+        assertFalse(memory.getInterruptController().isIme());
         short cycles = JumpCommands.reti(inst,memory,registers);
         assertEquals(16, cycles);
-        assertTrue(registers.isIme());
+        assertTrue(memory.getInterruptController().isIme());
     }
 
     @Test
@@ -241,28 +241,28 @@ public class JumpCommandsTest {
     }
 
     @Test
-    public void rst_n_0() {
+    public void rst_n_0() throws Exception {
         //3 is 0x0018
         Instruction inst = new InstructionBuilder().withFirstOperand((byte) 0).build();
-        short cycles = JumpCommands.rst_n(inst,memory,registers);
+        short cycles = execute(JumpCommands::rst_n, inst,memory,registers);
         assertEquals(16, cycles);
         assertEquals16(0x0000, registers.getPC());
     }
 
     @Test
-    public void rst_n_3() {
+    public void rst_n_3() throws Exception {
         //3 is 0x0018
         Instruction inst = new InstructionBuilder().withFirstOperand((byte) 3).build();
-        short cycles = JumpCommands.rst_n(inst,memory,registers);
+        short cycles = execute(JumpCommands::rst_n, inst,memory,registers);
         assertEquals(16, cycles);
         assertEquals16(0x0018, registers.getPC());
     }
 
     @Test
-    public void rst_n_7() {
+    public void rst_n_7() throws Exception {
         //3 is 0x0018
         Instruction inst = new InstructionBuilder().withFirstOperand((byte) 7).build();
-        short cycles = JumpCommands.rst_n(inst,memory,registers);
+        short cycles = execute(JumpCommands::rst_n, inst,memory,registers);
         assertEquals(16, cycles);
         assertEquals16(0x0038, registers.getPC());
     }
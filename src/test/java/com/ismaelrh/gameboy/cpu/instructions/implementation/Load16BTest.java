@@ -47,17 +47,17 @@ public class Load16BTest {
     }
 
     @Test
-    public void loadRR_NN() {
+    public void loadRR_NN() throws Exception {
         //nn <- 0xBEEF, BC <- 0xBEEF
         Instruction inst1 = new Instruction(getOpcodeDoubleRegister(0x00, BC, NONE), (char) 0xBEEF);
-        short cycles = Load16b.loadRR_NN(inst1, memory, registers);
+        short cycles = execute(Load16b::loadRR_NN, inst1, memory, registers);
         assertEquals16(0xBEEF, registers.getBC());
         assertEquals(12, cycles);
 
         //nn <- 0xDEAD, SP <- 0xDEAD
         Instruction inst2 = new Instruction(getOpcodeDoubleRegister(0x00, AF_SP, NONE), (char) 0xDEAD);
 
-        Load16b.loadRR_NN(inst2, memory, registers);
+        execute(Load16b::loadRR_NN, inst2, memory, registers);
         assertEquals16(0xDEAD, registers.getSP());
     }
 
@@ -71,12 +71,12 @@ public class Load16BTest {
     }
 
     @Test
-    public void push_QQ() {
+    public void push_QQ() throws Exception {
         //SP = 0x0001, AF = 0xBEEF, (0x0000) <- 0xBE, (0xFFFF) <- 0xEF, SP <- 0xFFFF
         registers.setSP((char) 0x0001);
         registers.setAF((char) 0xBEEF);
         Instruction inst = new Instruction(getOpcodeDoubleRegister(0x3, AF_SP, NONE));
-        short cycles = Load16b.push_QQ(inst, memory, registers);
+        short cycles = execute(Load16b::push_QQ, inst, memory, registers);
 
         assertEquals8(0xBE, memory.read((char) 0x0000));
         assertEquals8(0xE0, memory.read((char) 0xFFFF));
@@ -85,13 +85,13 @@ public class Load16BTest {
     }
 
     @Test
-    public void pop_QQ() {
+    public void pop_QQ() throws Exception {
         //SP = 0xFFFF, (0xFFFF) = 0xEF, (0x0000) = 0xBE, AF <- 0xBEEF, SP <- 0x0001
         registers.setSP((char) 0xFFFF);
         memory.write((char) 0xFFFF, (byte) 0xEF);
         memory.write((char) 0x0000, (byte) 0xBE);
         Instruction inst = new Instruction(getOpcodeDoubleRegister(0x3, AF_SP, NONE));
-        short cycles = Load16b.pop_QQ(inst, memory, registers);
+        short cycles = execute(Load16b::pop_QQ, inst, memory, registers);
 
         //Last nibble of F should never be modified
         assertEquals16(0xBEE0, registers.getAF());
@@ -32,12 +32,12 @@ public class Load8BTest {
     }
 
     @Test
-    public void loadRR() {
+    public void loadRR() throws Exception {
         //b <- a, h <- b
         registers.setA((byte) 0x12);
 
-        short cycles = Load8b.loadRR(new Instruction(getOpcode(0x3, B, A)), memory, registers);
-        Load8b.loadRR(new Instruction(getOpcode(0x3, H, B)), memory, registers);
+        short cycles = execute(Load8b::loadRR, new Instruction(getOpcode(0x3, B, A)), memory, registers);
+        execute(Load8b::loadRR, new Instruction(getOpcode(0x3, H, B)), memory, registers);
         assertEquals8(0x12, registers.getB());
         assertEquals8(0x12, registers.getH());
         assertEquals(4, cycles);
@@ -45,37 +45,37 @@ public class Load8BTest {
     }
 
     @Test
-    public void loadRImmediate() {
+    public void loadRImmediate() throws Exception {
         //b <- 0xBE
         //h <- 0xEF
         Instruction inst1 = new Instruction(getOpcode(0x3, B, NONE), (byte) 0xBE);
         Instruction inst2 = new Instruction(getOpcode(0x3, H, NONE), (byte) 0xEF);
-        short cycles = Load8b.loadRImmediate(inst1, memory, registers);
-        Load8b.loadRImmediate(inst2, memory, registers);
+        short cycles = execute(Load8b::loadRImmediate, inst1, memory, registers);
+        execute(Load8b::loadRImmediate, inst2, memory, registers);
         assertEquals8(0xBE, registers.getB());
         assertEquals8(0xEF, registers.getH());
         assertEquals(8, cycles);
     }
 
     @Test
-    public void loadRHL() {
+    public void loadRHL() throws Exception {
         //HL = 0xC003, (HL) = 0x12, b <- 0x12
         memory.write((char) 0xC003, (byte) 0x12);
         registers.setHL((char) 0xC003);
 
         Instruction inst = new Instruction(getOpcode(0x3, B, NONE));
-        short cycles = Load8b.loadRHL(inst, memory, registers);
+        short cycles = execute(Load8b::loadRHL, inst, memory, registers);
         assertEquals8(0x12, registers.getB());
         assertEquals(8, cycles);
     }
 
     @Test
-    public void loadHLR() {
+    public void loadHLR() throws Exception {
         //HL = 0xC003, b = 0x12, (HL) <- 0x12
         registers.setHL((char) 0xC003);
         registers.setB((byte) 0x12);
         Instruction inst = new Instruction(getOpcode(0x3, NONE, B));
-        short cycles = Load8b.loadHLR(inst, memory, registers);
+        short cycles = execute(Load8b::loadHLR, inst, memory, registers);
         assertEquals8(0x12, memory.read((char) 0xC003));
         assertEquals(8, cycles);
     }
@@ -9,6 +9,7 @@ import org.junit.Test;
 
 import static com.ismaelrh.gameboy.TestUtils.assertEquals8;
 import static com.ismaelrh.gameboy.TestUtils.assertFlags;
+import static com.ismaelrh.gameboy.TestUtils.execute;
 import static org.junit.Assert.assertEquals;
 
 public class RotateShiftTest {
@@ -125,6 +126,23 @@ public class RotateShiftTest {
         assertFlags(registers, false, false, false, true);
     }
 
+    @Test
+    public void rla_rra_takeCarryOfPendingFlags() {
+        //0xFF + 0x01 carries, flags are still pending when rotating
+        registers.setFlagsAdd((byte) 0xFF, (byte) 0x01, 0);
+        registers.setA((byte) 0x00);
+
+        Instruction inst = new InstructionBuilder().build();
+        RotateShift.rla(inst, memory, registers);
+        assertEquals8(0x01, registers.getA());
+        assertFlags(registers, false, false, false, false);
+
+        registers.setFlagsAdd((byte) 0xFF, (byte) 0x01, 0);
+        RotateShift.rra(inst, memory, registers);
+        assertEquals8(0x80, registers.getA());
+        assertFlags(registers, false, false, false, true);
+    }
+
     @Test
     public void rra_sets0() {
         registers.setA((byte) 0x82); // 1000 0010 [1] -> 1100 0001 [0]
@@ -161,7 +179,7 @@ public class RotateShiftTest {
     }
 
     @Test
-    public void swap_r() {
+    public void swap_r() throws Exception {
         registers.setB((byte) 0xAF);
 
         //Set flags to check they are set accordingly
@@ -171,7 +189,7 @@ public class RotateShiftTest {
                 .withSecondOperand(Registers.B)
                 .build();
 
-        short cycles = RotateShift.swap_r(inst, memory, registers);
+        short cycles = execute(RotateShift::swap_r, inst, memory, registers);
         assertEquals(8, cycles);
         assertEquals8(0xFA, registers.getB());
         assertFlags(registers, false, false, false, false);
@@ -196,7 +214,7 @@ public class RotateShiftTest {
     }
 
     @Test
-    public void swap_r_2() {
+    public void swap_r_2() throws Exception {
         registers.setB((byte) 0xFF);
 
         //Set flags to check they are set accordingly
@@ -206,7 +224,7 @@ public class RotateShiftTest {
                 .withSecondOperand(Registers.B)
                 .build();
 
-        short cycles = RotateShift.swap_r(inst, memory, registers);
+        short cycles = execute(RotateShift::swap_r, inst, memory, registers);
         assertEquals(8, cycles);
         assertEquals8(0xFF, registers.getB());
         assertFlags(registers, false, false, false, false);
@@ -231,7 +249,7 @@ public class RotateShiftTest {
     }
 
     @Test
-    public void swap_r_zero() {
+    public void swap_r_zero() throws Exception {
         registers.setB((byte) 0x00);
 
         //Set flags to check they are set accordingly
@@ -240,7 +258,7 @@ public class RotateShiftTest {
                 .withSecondOperand(Registers.B)
                 .build();
 
-        short cycles = RotateShift.swap_r(inst, memory, registers);
+        short cycles = execute(RotateShift::swap_r, inst, memory, registers);
         assertEquals(8, cycles);
         assertEquals8(0x00, registers.getB());
         assertFlags(registers, true, false, false, false);
@@ -265,14 +283,14 @@ public class RotateShiftTest {
     }
 
     @Test
-    public void sla_r_carry() {
+    public void sla_r_carry() throws Exception {
         registers.setE((byte) 0x9F);
         registers.setAllFlags();
         Instruction inst = new InstructionBuilder()
                 .withSecondOperand(Registers.E)
                 .build();
 
-        short cycles = RotateShift.sla_r(inst, memory, registers);
+        short cycles = execute(RotateShift::sla_r, inst, memory, registers);
         assertEquals(8, cycles);
         assertEquals8(0x3E, registers.getE());
         assertFlags(registers, false, false, false, true);
@@ -293,14 +311,14 @@ public class RotateShiftTest {
     }
 
     @Test
-    public void sla_r_no_carry() {
+    public void sla_r_no_carry() throws Exception {
         registers.setE((byte) 0x1F);
         registers.setAllFlags();
         Instruction inst = new InstructionBuilder()
                 .withSecondOperand(Registers.E)
                 .build();
 
-        short cycles = RotateShift.sla_r(inst, memory, registers);
+        short cycles = execute(RotateShift::sla_r, inst, memory, registers);
         assertEquals(8, cycles);
         assertEquals8(0x3E, registers.getE());
         assertFlags(registers, false, false, false, false);
@@ -321,14 +339,14 @@ public class RotateShiftTest {
     }
 
     @Test
-    public void sla_r_zero_flag() {
+    public void sla_r_zero_flag() throws Exception {
         registers.setE((byte) 0x80);
         registers.setAllFlags();
         Instruction inst = new InstructionBuilder()
                 .withSecondOperand(Registers.E)
                 .build();
 
-        short cycles = RotateShift.sla_r(inst, memory, registers);
+        short cycles = execute(RotateShift::sla_r, inst, memory, registers);
         assertEquals(8, cycles);
         assertEquals8(0x00, registers.getE());
         assertFlags(registers, true, false, false, true);
@@ -349,13 +367,13 @@ public class RotateShiftTest {
     }
 
     @Test
-    public void sra_r_msb_0_carry_0() {
+    public void sra_r_msb_0_carry_0() throws Exception {
         registers.setE((byte) 0x00);
         registers.setAllFlags();
         Instruction inst = new InstructionBuilder()
                 .withSecondOperand(Registers.E)
                 .build();
-        short cycles = RotateShift.sra_r(inst, memory, registers);
+        short cycles = execute(RotateShift::sra_r, inst, memory, registers);
         assertEquals(8, cycles);
         assertEquals8(0x00, registers.getE());
         assertFlags(registers, true, false, false, false);
@@ -376,13 +394,13 @@ public class RotateShiftTest {
     }
 
     @Test
-    public void sra_r_msb_0_carry_1() {
+    public void sra_r_msb_0_carry_1() throws Exception {
         registers.setE((byte) 0x0F);
         registers.setAllFlags();
         Instruction inst = new InstructionBuilder()
                 .withSecondOperand(Registers.E)
                 .build();
-        short cycles = RotateShift.sra_r(inst, memory, registers);
+        short cycles = execute(RotateShift::sra_r, inst, memory, registers);
         assertEquals(8, cycles);
         assertEquals8(0x07, registers.getE());
         assertFlags(registers, false, false, false, true);
@@ -403,13 +421,13 @@ public class RotateShiftTest {
     }
 
     @Test
-    public void sra_r_msb_1_carry_0() {
+    public void sra_r_msb_1_carry_0() throws Exception {
         registers.setE((byte) 0x80);
         registers.setAllFlags();
         Instruction inst = new InstructionBuilder()
                 .withSecondOperand(Registers.E)
                 .build();
-        short cycles = RotateShift.sra_r(inst, memory, registers);
+        short cycles = execute(RotateShift::sra_r, inst, memory, registers);
         assertEquals(8, cycles);
         assertEquals8(0xC0, registers.getE());
         assertFlags(registers, false, false, false, false);
@@ -430,13 +448,13 @@ public class RotateShiftTest {
     }
 
     @Test
-    public void sra_r_msb_1_carry_1() {
+    public void sra_r_msb_1_carry_1() throws Exception {
         registers.setE((byte) 0x8F);
         registers.setAllFlags();
         Instruction inst = new InstructionBuilder()
                 .withSecondOperand(Registers.E)
                 .build();
-        short cycles = RotateShift.sra_r(inst, memory, registers);
+        short cycles = execute(RotateShift::sra_r, inst, memory, registers);
         assertEquals(8, cycles);
         assertEquals8(0xC7, registers.getE());
         assertFlags(registers, false, false, false, true);
@@ -457,13 +475,13 @@ public class RotateShiftTest {
     }
 
     @Test
-    public void srl_r_msb_0_carry_0() {
+    public void srl_r_msb_0_carry_0() throws Exception {
         registers.setE((byte) 0x00);
         registers.setAllFlags();
         Instruction inst = new InstructionBuilder()
                 .withSecondOperand(Registers.E)
                 .build();
-        short cycles = RotateShift.srl_r(inst, memory, registers);
+        short cycles = execute(RotateShift::srl_r, inst, memory, registers);
         assertEquals(8, cycles);
         assertEquals8(0x00, registers.getE());
         assertFlags(registers, true, false, false, false);
@@ -484,13 +502,13 @@ public class RotateShiftTest {
     }
 
     @Test
-    public void srl_r_msb_0_carry_1() {
+    public void srl_r_msb_0_carry_1() throws Exception {
         registers.setE((byte) 0x0F);
         registers.setAllFlags();
         Instruction inst = new InstructionBuilder()
                 .withSecondOperand(Registers.E)
                 .build();
-        short cycles = RotateShift.srl_r(inst, memory, registers);
+        short cycles = execute(RotateShift::srl_r, inst, memory, registers);
         assertEquals(8, cycles);
         assertEquals8(0x07, registers.getE());
         assertFlags(registers, false, false, false, true);
@@ -511,13 +529,13 @@ public class RotateShiftTest {
     }
 
     @Test
-    public void srl_r_msb_1_carry_0() {
+    public void srl_r_msb_1_carry_0() throws Exception {
         registers.setE((byte) 0x80);
         registers.setAllFlags();
         Instruction inst = new InstructionBuilder()
                 .withSecondOperand(Registers.E)
                 .build();
-        short cycles = RotateShift.srl_r(inst, memory, registers);
+        short cycles = execute(RotateShift::srl_r, inst, memory, registers);
         assertEquals(8, cycles);
         assertEquals8(0x40, registers.getE());
         assertFlags(registers, false, false, false, false);
@@ -538,13 +556,13 @@ public class RotateShiftTest {
     }
 
     @Test
-    public void srl_r_msb_1_carry_1() {
+    public void srl_r_msb_1_carry_1() throws Exception {
         registers.setE((byte) 0x8F);
         registers.setAllFlags();
         Instruction inst = new InstructionBuilder()
                 .withSecondOperand(Registers.E)
                 .build();
-        short cycles = RotateShift.srl_r(inst, memory, registers);
+        short cycles = execute(RotateShift::srl_r, inst, memory, registers);
         assertEquals(8, cycles);
         assertEquals8(0x47, registers.getE());
         assertFlags(registers, false, false, false, true);
@@ -9,6 +9,7 @@ import org.junit.Test;
 
 import static com.ismaelrh.gameboy.TestUtils.assertEquals8;
 import static com.ismaelrh.gameboy.TestUtils.assertFlags;
+import static com.ismaelrh.gameboy.TestUtils.execute;
 import static org.junit.Assert.assertEquals;
 
 public class SingleBitTest {
@@ -25,7 +26,7 @@ public class SingleBitTest {
 
 
     @Test
-    public void bit_n_r_0() {
+    public void bit_n_r_0() throws Exception {
         //3rd bit is 0, so will be set
         registers.setE((byte) 0xAA); //1010 1010
         registers.setAllFlags();
@@ -35,14 +36,14 @@ public class SingleBitTest {
                 .withSecondOperand(Registers.E)
                 .build();
 
-        short cycles = SingleBit.bit_n_r(inst, memory, registers);
+        short cycles = execute(SingleBit::bit_n_r, inst, memory, registers);
         assertEquals(8, cycles);
         assertEquals8(0xAA, registers.getE());
         assertFlags(registers, true, false, true, true);
     }
 
     @Test
-    public void bit_n_hl_0() {
+    public void bit_n_hl_0() throws Exception {
         //3rd bit is 0, so will be set
         registers.setHL((char) 0xC001);
         memory.write((char) 0xC001, (byte) 0xAA);     //1010 1010
@@ -52,14 +53,14 @@ public class SingleBitTest {
                 .withFirstOperand((byte) 2) //3rd lsb
                 .build();
 
-        short cycles = SingleBit.bit_n_HL(inst, memory, registers);
+        short cycles = execute(SingleBit::bit_n_HL, inst, memory, registers);
         assertEquals(12, cycles);
         assertEquals8(0xAA, memory.read((char) 0xC001));  //Register untouched
         assertFlags(registers, true, false, true, true);
     }
 
     @Test
-    public void bit_n_r_1() {
+    public void bit_n_r_1() throws Exception {
         //4rd bit is 1, so will be reset
         registers.setE((byte) 0xAA); //1010 1010
         registers.setAllFlags();
@@ -69,14 +70,14 @@ public class SingleBitTest {
                 .withSecondOperand(Registers.E)
                 .build();
 
-        short cycles = SingleBit.bit_n_r(inst, memory, registers);
+        short cycles = execute(SingleBit::bit_n_r, inst, memory, registers);
         assertEquals(8, cycles);
         assertEquals8(0xAA, registers.getE());
         assertFlags(registers, false, false, true, true);
     }
 
     @Test
-    public void bit_n_hl_1() {
+    public void bit_n_hl_1() throws Exception {
         //3rd bit is 0, so will be set
         registers.setHL((char) 0xC001);
         memory.write((char) 0xC001, (byte) 0xAA);     //1010 1010
@@ -86,14 +87,14 @@ public class SingleBitTest {
                 .withFirstOperand((byte) 3) //4rd lsb
                 .build();
 
-        short cycles = SingleBit.bit_n_HL(inst, memory, registers);
+        short cycles = execute(SingleBit::bit_n_HL, inst, memory, registers);
         assertEquals(12, cycles);
         assertEquals8(0xAA, memory.read((char) 0xC001));  //Register untouched
         assertFlags(registers, false, false, true, true);
     }
 
     @Test
-    public void set_n_r_0() {
+    public void set_n_r_0() throws Exception {
         registers.setE((byte) 0xAA); //1010 1010
         registers.setAllFlags();
 
@@ -102,14 +103,14 @@ public class SingleBitTest {
                 .withSecondOperand(Registers.E)
                 .build();
 
-        short cycles = SingleBit.set_n_r(inst, memory, registers);
+        short cycles = execute(SingleBit::set_n_r, inst, memory, registers);
         assertEquals(8, cycles);
         assertEquals8(0xAE, registers.getE());
         assertFlags(registers, true, true, true, true); //Untouched
     }
 
     @Test
-    public void set_n_HL_0() {
+    public void set_n_HL_0() throws Exception {
         registers.setHL((char) 0xC001);
         memory.write((char) 0xC001, (byte) 0xAA);     //1010 1010
         registers.setAllFlags();
@@ -119,14 +120,14 @@ public class SingleBitTest {
                 .withSecondOperand(Registers.E)
                 .build();
 
-        short cycles = SingleBit.set_n_HL(inst, memory, registers);
+        short cycles = execute(SingleBit::set_n_HL, inst, memory, registers);
         assertEquals(16, cycles);
         assertEquals8(0xAE, memory.read((char) 0xC001));
         assertFlags(registers, true, true, true, true); //Untouched
     }
 
     @Test
-    public void set_n_1() {
+    public void set_n_1() throws Exception {
         registers.setE((byte) 0xAA); //1010 1010
         registers.setAllFlags();
 
@@ -135,7 +136,7 @@ public class SingleBitTest {
                 .withSecondOperand(Registers.E)
                 .build();
 
-        short cycles = SingleBit.set_n_r(inst, memory, registers);
+        short cycles = execute(SingleBit::set_n_r, inst, memory, registers);
         assertEquals(8, cycles);
         assertEquals8(0xAA, registers.getE());
         assertFlags(registers, true, true, true, true); //Untouched
@@ -143,7 +144,7 @@ public class SingleBitTest {
 
 
     @Test
-    public void set_n_HL_1() {
+    public void set_n_HL_1() throws Exception {
         registers.setHL((char) 0xC001);
         memory.write((char) 0xC001, (byte) 0xAA);     //1010 1010
         registers.setAllFlags();
@@ -153,14 +154,14 @@ public class SingleBitTest {
                 .withSecondOperand(Registers.E)
                 .build();
 
-        short cycles = SingleBit.set_n_HL(inst, memory, registers);
+        short cycles = execute(SingleBit::set_n_HL, inst, memory, registers);
         assertEquals(16, cycles);
         assertEquals8(0xAA, memory.read((char) 0xC001));
         assertFlags(registers, true, true, true, true); //Untouched
     }
 
     @Test
-    public void res_n_r_0() {
+    public void res_n_r_0() throws Exception {
         registers.setE((byte) 0xAA); //1010 1010
         registers.setAllFlags();
 
@@ -169,14 +170,14 @@ public class SingleBitTest {
                 .withSecondOperand(Registers.E)
                 .build();
 
-        short cycles = SingleBit.res_n_r(inst, memory, registers);
+        short cycles = execute(SingleBit::res_n_r, inst, memory, registers);
         assertEquals(8, cycles);
         assertEquals8(0xAA, registers.getE());
         assertFlags(registers, true, true, true, true); //Untouched
     }
 
     @Test
-    public void res_n_HL_0() {
+    public void res_n_HL_0() throws Exception {
         registers.setHL((char) 0xC001);
         memory.write((char) 0xC001, (byte) 0xAA);     //1010 1010
         registers.setAllFlags();
@@ -186,14 +187,14 @@ public class SingleBitTest {
                 .withSecondOperand(Registers.E)
                 .build();
 
-        short cycles = SingleBit.res_n_HL(inst, memory, registers);
+        short cycles = execute(SingleBit::res_n_HL, inst, memory, registers);
         assertEquals(16, cycles);
         assertEquals8(0xAA, memory.read((char) 0xC001));
         assertFlags(registers, true, true, true, true); //Untouched
     }
 
     @Test
-    public void res_n_r_1() {
+    public void res_n_r_1() throws Exception {
         registers.setE((byte) 0xAA); //1010 1010
         registers.setAllFlags();
 
@@ -202,7 +203,7 @@ public class SingleBitTest {
                 .withSecondOperand(Registers.E)
                 .build();
 
-        short cycles = SingleBit.res_n_r(inst, memory, registers);
+        short cycles = execute(SingleBit::res_n_r, inst, memory, registers);
         assertEquals(8, cycles);
         assertEquals8(0xA8, registers.getE());
         assertFlags(registers, true, true, true, true); //Untouched
@@ -210,7 +211,7 @@ public class SingleBitTest {
 
 
     @Test
-    public void res_n_HL_1() {
+    public void res_n_HL_1() throws Exception {
         registers.setHL((char) 0xC001);
         memory.write((char) 0xC001, (byte) 0xAA);     //1010 1010
         registers.setAllFlags();
@@ -220,7 +221,7 @@ public class SingleBitTest {
                 .withSecondOperand(Registers.E)
                 .build();
 
-        short cycles = SingleBit.res_n_HL(inst, memory, registers);
+        short cycles = execute(SingleBit::res_n_HL, inst, memory, registers);
         assertEquals(16, cycles);
         assertEquals8(0xA8, memory.read((char) 0xC001));
         assertFlags(registers, true, true, true, true); //Untouched
@@ -0,0 +1,78 @@
+package com.ismaelrh.gameboy.cpu.interrupts;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class InterruptControllerTest {
+
+    private InterruptController controller;
+
+    @Before
+    public void setUp() {
+        controller = new InterruptController();
+    }
+
+    @Test
+    public void nothingToDoUntilEnabledAndRequested() {
+        controller.request(InterruptController.TIMER);
+        assertFalse(controller.needsAttention());
+
+        controller.setInterruptEnable((byte) 0x04);
+        assertTrue(controller.needsAttention());
+        assertTrue(controller.hasPending());
+        assertFalse(controller.isServiceable());
+
+        controller.setIme(true);
+        assertTrue(controller.isServiceable());
+    }
+
+    @Test
+    public void acknowledgesByPriority() {
+        controller.setInterruptEnable((byte) 0x1F);
+        controller.setInterruptFlags((byte) 0x14);  //Timer and joypad
+        controller.setIme(true);
+
+        assertEquals(0x50, controller.acknowledge());
+        assertEquals(0x10, controller.getInterruptFlags());
+        assertFalse(controller.isIme());
+        assertFalse(controller.isServiceable());
+
+        controller.setIme(true);
+        assertEquals(0x60, controller.acknowledge());
+        assertFalse(controller.needsAttention());
+    }
+
+    @Test
+    public void eiIsEffectiveAfterNextInstruction() {
+        controller.setInterruptEnable((byte) 0x01);
+        controller.request(InterruptController.VBLANK);
+        controller.enableImeDelayed();
+
+        //Right after EI
+        controller.onInstructionFinished();
+        assertFalse(controller.isServiceable());
+
+        //After the next one
+        controller.onInstructionFinished();
+        assertTrue(controller.isServiceable());
+    }
+
+    @Test
+    public void diCancelsEi() {
+        controller.enableImeDelayed();
+        controller.setIme(false);
+        assertFalse(controller.needsAttention());
+        controller.onInstructionFinished();
+        controller.onInstructionFinished();
+        assertFalse(controller.isIme());
+    }
+
+    @Test
+    public void ifIsMappedToFF0F() {
+        controller.onWrite((char) 0xFF0F, (byte) 0x03);
+        assertEquals(0x03, controller.onRead((char) 0xFF0F));
+        assertEquals(0x03, controller.getInterruptFlags());
+    }
+}
@@ -1,13 +1,19 @@
 package com.ismaelrh.gameboy.cpu.memory;
 
 import com.ismaelrh.gameboy.cpu.cartridge.Cartridge;
+import com.ismaelrh.gameboy.cpu.cartridge.CartridgeFactory;
 import com.ismaelrh.gameboy.cpu.cartridge.FakeCartridge;
 import com.ismaelrh.gameboy.cpu.memory.Memory;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.io.File;
+import java.nio.file.Files;
+
 import static com.ismaelrh.gameboy.TestUtils.assertEquals8;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 
 public class MemoryTest {
 
@@ -31,6 +37,47 @@ public class MemoryTest {
         assertEquals8(0xBA, memory.read((char) 0x0003));
     }
 
+    @Test
+    public void switchedRomBankIsMapped() throws Exception {
+        memory.insertCartridge(CartridgeFactory.create(generateMBC1Rom(), null));
+        assertEquals8(0x00, memory.read((char) 0x0100));
+        assertEquals8(0x01, memory.read((char) 0x4000));
+
+        memory.write((char) 0x2000, (byte) 0x05);
+        assertEquals8(0x05, memory.read((char) 0x4000));
+        assertEquals8(0x05, memory.read((char) 0x7FFF));
+        assertEquals8(0x00, memory.read((char) 0x3FFF));
+    }
+
+    @Test
+    public void externalRAMIsOnlyMappedWhenEnabled() throws Exception {
+        memory.insertCartridge(CartridgeFactory.create(generateMBC1Rom(), null));
+        memory.write((char) 0xA000, (byte) 0x12);
+        assertEquals8(0xFF, memory.read((char) 0xA000));
+
+        memory.write((char) 0x0000, (byte) 0x0A);
+        memory.write((char) 0xA000, (byte) 0x12);
+        assertEquals8(0x12, memory.read((char) 0xA000));
+
+        memory.write((char) 0x0000, (byte) 0x00);
+        assertEquals8(0xFF, memory.read((char) 0xA000));
+    }
+
+    @Test
+    public void videoRAMIsLockedDuringPixelTransfer() {
+        memory.write((char) 0x8000, (byte) 0x18);
+
+        //LCD on, mode 3
+        memory.write((char) 0xFF40, (byte) 0x80);
+        memory.write((char) 0xFF41, (byte) 0x03);
+        memory.write((char) 0x8000, (byte) 0x19);
+        assertEquals8(0xFF, memory.read((char) 0x8000));
+        assertEquals8(0x18, memory.read((char) 0x8000, true));
+
+        memory.write((char) 0xFF41, (byte) 0x00);
+        assertEquals8(0x18, memory.read((char) 0x8000));
+    }
+
     @Test
     public void accessVideoRAM() {
         assertDataIsStoredAndReadCorrectly((char) 0x8000, memory.getVideoRAM(), (byte) 0x18, 0);
@@ -73,6 +120,63 @@ public class MemoryTest {
         assertDataIsStoredAndReadCorrectly((char) 0xFFFE, memory.getHighRAM(), (byte) 0x20, 126);
     }
 
+    @Test
+    public void ioRegistersAreDispatchedToTheirDevice() {
+        RegisterDevice device = new RegisterDevice(0xFF10, 0xFF11);
+        memory.addMMIODevice(device);
+
+        memory.write((char) 0xFF11, (byte) 0x42);
+        assertEquals(0x42, device.value);
+        assertEquals(0x42, memory.read((char) 0xFF10));
+
+        //Unmapped ones are plain RAM
+        memory.write((char) 0xFF12, (byte) 0x24);
+        assertEquals(0x24, memory.getIoRAM()[0x12]);
+        assertEquals(0x24, memory.read((char) 0xFF12));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void overlappingDevicesAreRejected() {
+        memory.addMMIODevice(new RegisterDevice(0xFF10, 0xFF14));
+        memory.addMMIODevice(new RegisterDevice(0xFF14, 0xFF20));
+    }
+
+    @Test
+    public void romIsOnlyCopiedInBulkOutsideTheBootrom() throws Exception {
+        memory.insertCartridge(CartridgeFactory.create(generateMBC1Rom(), null));
+        File bootrom = File.createTempFile("bootrom", ".bin");
+        bootrom.deleteOnExit();
+        Files.write(bootrom.toPath(), new byte[256]);
+        memory.setBootrom(bootrom.getAbsolutePath());
+
+        assertFalse(memory.copy((char) 0x00FF, (char) 0xC000, 2));
+        assertTrue(memory.copy((char) 0x0100, (char) 0xC000, 2));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void devicesOutsideIoAreRejected() {
+        memory.addMMIODevice(new RegisterDevice(0xFF70, 0xFF80));
+    }
+
+    @Test
+    public void interceptorsOnlySeeTheirRangeAndDirection() {
+        CountingInterceptor interceptor = new CountingInterceptor(0xC0F0, 0xC10F);
+        memory.addInterceptor(interceptor);
+
+        memory.write((char) 0xC0EF, (byte) 0x01);
+        memory.write((char) 0xC110, (byte) 0x01);
+        memory.read((char) 0xC0F0);
+        assertEquals(0, interceptor.writes);
+
+        memory.write((char) 0xC0F0, (byte) 0x01);
+        memory.write((char) 0xC10F, (byte) 0x01);
+        assertEquals(2, interceptor.writes);
+
+        //Bulk writes too, through onBulkWrite()
+        memory.fill((char) 0xC000, 0x200, (byte) 0x02);
+        assertEquals(2 + 0x20, interceptor.writes);
+    }
+
     @Test
     public void accessInterruptEnable() {
         assertEquals(ZERO, memory.read((char) 0xFFFF));
@@ -114,6 +218,52 @@ public class MemoryTest {
 
     }
 
+    private static class CountingInterceptor extends MemoryInterceptor {
+
+        private int writes;
+
+        CountingInterceptor(int startAddress, int endAddress) {
+            super((char) startAddress, (char) endAddress, false, true);
+        }
+
+        @Override
+        public byte onWrite(char address, byte data) {
+            writes++;
+            return data;
+        }
+    }
+
+    private static class RegisterDevice extends MMIODevice {
+
+        private byte value;
+
+        RegisterDevice(int startAddress, int endAddress) {
+            super((char) startAddress, (char) endAddress);
+        }
+
+        @Override
+        public void onWrite(char address, byte data) {
+            value = data;
+        }
+
+        @Override
+        public byte onRead(char address) {
+            return value;
+        }
+    }
+
+    //1MB MBC1 ROM, every bank filled with its number
+    private byte[] generateMBC1Rom() {
+        byte[] rom = new byte[1024 * 1024];
+        for (int i = 0; i < rom.length; i++) {
+            rom[i] = (byte) (i / 0x4000);
+        }
+        rom[0x147] = 0x03;  //MBC1+RAM+BATTERY
+        rom[0x148] = 0x05;  //64 banks
+        rom[0x149] = 0x02;  //8KB RAM
+        return rom;
+    }
+
     private void assertDataIsStoredAndReadCorrectly(char absoluteAddress, byte[] internalStructure, byte valueToWrite, int relativeIndex) {
         assertEquals(ZERO, memory.read(absoluteAddress));
         memory.write(absoluteAddress, valueToWrite);
@@ -0,0 +1,105 @@
+package com.ismaelrh.gameboy.cpu.memory;
+
+import com.ismaelrh.gameboy.cpu.scheduler.Scheduler;
+import org.junit.Before;
+import org.junit.Test;
+
+import static com.ismaelrh.gameboy.TestUtils.assertEquals8;
+import static org.junit.Assert.*;
+
+public class OamDmaTest {
+
+    private Memory memory;
+    private Scheduler scheduler;
+    private OamDma oamDma;
+    private BulkCounter counter;
+
+    @Before
+    public void setUp() {
+        memory = new Memory();
+        scheduler = new Scheduler();
+        oamDma = new OamDma(memory, scheduler);
+        memory.setOamDma(oamDma);
+        counter = new BulkCounter();
+        memory.addInterceptor(counter);
+
+        //Sprite bytes 1, 2, 3... at C100
+        for (int i = 0; i < OamDma.LENGTH; i++) {
+            memory.write((char) (0xC100 + i), (byte) (i + 1));
+        }
+    }
+
+    @Test
+    public void transferTakes160MCycles() throws Exception {
+        memory.write((char) 0xFF46, (byte) 0xC1);
+        assertTrue(oamDma.isActive());
+
+        scheduler.advance(636);
+        assertTrue(oamDma.isActive());
+        assertEquals(0, counter.calls);
+
+        scheduler.advance(4);
+        assertFalse(oamDma.isActive());
+        for (int i = 0; i < OamDma.LENGTH; i++) {
+            assertEquals8(i + 1, memory.read((char) (0xFE00 + i)));
+        }
+
+        //Copied at once, sprites are refreshed once
+        assertEquals(1, counter.calls);
+        assertEquals(OamDma.LENGTH, counter.bytes);
+    }
+
+    @Test
+    public void busesAreBlockedDuringTransfer() throws Exception {
+        memory.write((char) 0xFF80, (byte) 0x12);
+        memory.write((char) 0x8000, (byte) 0x34);
+        memory.write((char) 0xFF46, (byte) 0xC1);
+        scheduler.advance(8);
+
+        //External bus returns the byte being transferred, and writes are lost
+        assertEquals8(0x03, memory.read((char) 0xC000));
+        memory.write((char) 0xC000, (byte) 0x56);
+        assertEquals8(0xFF, memory.read((char) 0xFE00));
+
+        //HRAM and the video bus are free
+        assertEquals8(0x12, memory.read((char) 0xFF80));
+        assertEquals8(0x34, memory.read((char) 0x8000));
+
+        scheduler.advance(640);
+        assertEquals8(0x00, memory.read((char) 0xC000));
+    }
+
+    @Test
+    public void privilegedReadsSeePartialTransfer() throws Exception {
+        memory.write((char) 0xFF46, (byte) 0xC1);
+        scheduler.advance(40);
+
+        assertEquals8(10, memory.read((char) 0xFE09, true));
+        assertEquals8(0x00, memory.read((char) 0xFE0A, true));
+        assertEquals(10, counter.bytes);
+    }
+
+    @Test
+    public void withoutEngineTransferIsInstant() {
+        Memory instant = new Memory();
+        instant.write((char) 0xC100, (byte) 0x42);
+        instant.write((char) 0xFF46, (byte) 0xC1);
+        assertEquals8(0x42, instant.read((char) 0xFE00));
+    }
+
+    private static class BulkCounter extends MemoryInterceptor {
+
+        private int calls;
+        private int bytes;
+
+        BulkCounter() {
+            super((char) 0xFE00, (char) 0xFE9F, false, true);
+        }
+
+        @Override
+        public void onBulkWrite(char address, byte[] data, int offset, int length) {
+            calls++;
+            bytes += length;
+        }
+    }
+}
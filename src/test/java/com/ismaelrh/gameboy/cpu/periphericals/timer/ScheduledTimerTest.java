@@ -0,0 +1,67 @@
+package com.ismaelrh.gameboy.cpu.periphericals.timer;
+
+import com.ismaelrh.gameboy.cpu.memory.Memory;
+import com.ismaelrh.gameboy.cpu.scheduler.Scheduler;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class ScheduledTimerTest {
+
+    private Memory memory;
+    private Scheduler scheduler;
+    private Timer timer;
+
+    @Before
+    public void setUp() {
+        memory = new Memory();
+        scheduler = new Scheduler();
+        timer = new Timer(memory, scheduler);
+    }
+
+    @Test
+    public void interruptionIsFiredOnTheRightCycle() throws Exception {
+        timer.onWrite((char) 0xFF06, (byte) 0x10);  //TMA
+        timer.onWrite((char) 0xFF05, (byte) 0xF0);  //TIMA, 16 increments to overflow
+        timer.onWrite((char) 0xFF07, (byte) 0x05);  //Enabled, every 16 cycles
+
+        //Overflow on cycle 256, interruption 3 cycles later
+        assertEquals(259, scheduler.getNextDeadline());
+        scheduler.advance(258);
+        assertEquals(0, memory.getInterruptController().getInterruptFlags() & 0x04);
+        scheduler.advance(1);
+        assertEquals(0x04, memory.getInterruptController().getInterruptFlags() & 0x04);
+        scheduler.advance(10);
+        assertEquals(0x10, timer.onRead((char) 0xFF05));
+    }
+
+    @Test
+    public void bigJumpsAreTheSameAsSmallSteps() throws Exception {
+        Memory otherMemory = new Memory();
+        Scheduler otherScheduler = new Scheduler();
+        Timer other = new Timer(otherMemory, otherScheduler);
+        for (Timer t : new Timer[]{timer, other}) {
+            t.onWrite((char) 0xFF06, (byte) 0xC0);
+            t.onWrite((char) 0xFF07, (byte) 0x04);  //Enabled, every 1024 cycles
+        }
+
+        scheduler.advance(123457);
+        for (int i = 0; i < 123457; i++) {
+            otherScheduler.advance(1);
+            other.onRead((char) 0xFF05);
+        }
+
+        assertEquals(other.onRead((char) 0xFF04), timer.onRead((char) 0xFF04));
+        assertEquals(other.onRead((char) 0xFF05), timer.onRead((char) 0xFF05));
+        assertEquals(otherMemory.getInterruptController().getInterruptFlags(), memory.getInterruptController().getInterruptFlags());
+    }
+
+    @Test
+    public void stoppedTimerOnlyMovesDiv() throws Exception {
+        scheduler.advance(0x1234 << 8);
+        assertEquals(0x34, timer.onRead((char) 0xFF04));
+        assertEquals(0, timer.onRead((char) 0xFF05));
+        assertEquals(Scheduler.NEVER, scheduler.getNextDeadline());
+    }
+}
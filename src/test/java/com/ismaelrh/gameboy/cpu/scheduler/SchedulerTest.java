@@ -0,0 +1,97 @@
+package com.ismaelrh.gameboy.cpu.scheduler;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class SchedulerTest {
+
+    private Scheduler scheduler;
+    private List<String> fired;
+
+    @Before
+    public void setUp() {
+        scheduler = new Scheduler();
+        fired = new ArrayList<>();
+    }
+
+    @Test
+    public void eventsRunInDeadlineOrder() throws Exception {
+        int a = register("a");
+        int b = register("b");
+        int c = register("c");
+        scheduler.schedule(a, 30);
+        scheduler.schedule(b, 10);
+        scheduler.schedule(c, 20);
+
+        scheduler.advance(25);
+        assertEquals(List.of("b@10", "c@20"), fired);
+        assertEquals(30, scheduler.getNextDeadline());
+
+        scheduler.advance(5);
+        assertEquals(List.of("b@10", "c@20", "a@30"), fired);
+        assertEquals(Scheduler.NEVER, scheduler.getNextDeadline());
+        assertEquals(30, scheduler.getClock());
+    }
+
+    @Test
+    public void tiesRunInRegistrationOrder() throws Exception {
+        int a = register("a");
+        int b = register("b");
+        scheduler.schedule(b, 8);
+        scheduler.schedule(a, 8);
+
+        scheduler.advance(8);
+        assertEquals(List.of("a@8", "b@8"), fired);
+    }
+
+    @Test
+    public void reschedulingReplacesDeadline() throws Exception {
+        int a = register("a");
+        int b = register("b");
+        scheduler.schedule(a, 10);
+        scheduler.schedule(b, 20);
+        scheduler.schedule(a, 30);
+
+        assertEquals(30, scheduler.getDeadline(a));
+        scheduler.advance(40);
+        assertEquals(List.of("b@20", "a@30"), fired);
+    }
+
+    @Test
+    public void cancelledEventsDoNotRun() throws Exception {
+        int a = register("a");
+        int b = register("b");
+        scheduler.schedule(a, 10);
+        scheduler.schedule(b, 20);
+        scheduler.cancel(a);
+        scheduler.schedule(b, Scheduler.NEVER);
+
+        assertFalse(scheduler.isScheduled(a));
+        assertFalse(scheduler.isScheduled(b));
+        scheduler.advance(100);
+        assertTrue(fired.isEmpty());
+    }
+
+    @Test
+    public void handlersCanRescheduleThemselves() throws Exception {
+        int[] event = new int[1];
+        event[0] = scheduler.register(deadline -> {
+            fired.add("p@" + deadline);
+            scheduler.schedule(event[0], deadline + 4);
+        });
+        scheduler.schedule(event[0], 4);
+
+        scheduler.advance(13);
+        assertEquals(List.of("p@4", "p@8", "p@12"), fired);
+        assertEquals(16, scheduler.getDeadline(event[0]));
+    }
+
+    private int register(String name) {
+        return scheduler.register(deadline -> fired.add(name + "@" + deadline));
+    }
+}
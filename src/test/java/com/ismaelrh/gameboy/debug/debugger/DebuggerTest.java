@@ -0,0 +1,198 @@
+package com.ismaelrh.gameboy.debug.debugger;
+
+import com.ismaelrh.gameboy.cpu.ExecutionInfo;
+import com.ismaelrh.gameboy.cpu.Registers;
+import com.ismaelrh.gameboy.cpu.instruction.Instruction;
+import com.ismaelrh.gameboy.cpu.instructions.DispatchTable;
+import com.ismaelrh.gameboy.cpu.memory.Memory;
+import com.ismaelrh.gameboy.cpu.scheduler.Scheduler;
+import com.ismaelrh.gameboy.gpu.tiles.TileCache;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class DebuggerTest {
+
+    private Memory memory;
+    private Registers registers;
+    private Scheduler scheduler;
+    private ExecutionInfo executionInfo;
+    private Debugger debugger;
+    private StopCounter controller;
+
+    @Before
+    public void setUp() {
+        memory = new Memory();
+        registers = new Registers();
+        scheduler = new Scheduler();
+        executionInfo = new ExecutionInfo(scheduler);
+        debugger = new Debugger(memory, registers, executionInfo);
+        controller = new StopCounter();
+        debugger.setController(controller);
+    }
+
+    @Test
+    public void inactiveWithoutAnythingToCheck() {
+        Debugger idle = new Debugger(memory, registers, executionInfo);
+        assertFalse(idle.isActive());
+
+        idle.addBreakpoint((char) 0x0150);
+        assertTrue(idle.isActive());
+        idle.disableBreakpoints();
+        assertFalse(idle.isActive());
+        idle.enableBreakpoints();
+        idle.removeBreakpoint((char) 0x0150);
+        assertFalse(idle.isActive());
+
+        idle.addCyclesBreakpoint(100);
+        assertTrue(idle.isActive());
+        idle.removeCycleBreakpoint(100);
+        assertFalse(idle.isActive());
+    }
+
+    @Test
+    public void pcBreakpoint() throws Exception {
+        setInstruction(0xC000, 0x00);
+        debugger.addBreakpoint((char) 0xC001);
+        assertFalse(debugUntilStopped());
+
+        registers.setPC((char) 0xC001);
+        assertTrue(debugUntilStopped());
+    }
+
+    @Test
+    public void cycleBreakpointStopsOnFirstInstructionReachingIt() throws Exception {
+        setInstruction(0xC000, 0x00);
+        debugger.addCyclesBreakpoint(10);
+        debugger.addCyclesBreakpoint(20);
+        scheduler.advance(8);
+        assertFalse(debugUntilStopped());
+
+        scheduler.advance(4);
+        assertTrue(debugUntilStopped());
+        assertFalse(debugUntilStopped());
+
+        scheduler.advance(12);
+        assertTrue(debugUntilStopped());
+    }
+
+    @Test
+    public void instructionBreakpointByPrefix() throws Exception {
+        debugger.addInstructionBreakpoint("3e 05");
+        debugger.addInstructionBreakpoint("cb 7c");
+
+        setInstruction(0xC000, 0x3E, 0x04);
+        assertFalse(debugUntilStopped());
+        setInstruction(0xC000, 0x3E, 0x05);
+        assertTrue(debugUntilStopped());
+        setInstruction(0xC000, 0xCB, 0x7C);
+        assertTrue(debugUntilStopped());
+
+        debugger.removeInstructionBreakpoint("3e 05");
+        setInstruction(0xC000, 0x3E, 0x05);
+        assertFalse(debugUntilStopped());
+    }
+
+    @Test
+    public void writeWatchpointStopsBeforeNextInstruction() throws Exception {
+        debugger.addWatchpoint((char) 0xC000, false, true, null);
+        memory.read((char) 0xC000);
+        assertFalse(debugUntilStopped());
+
+        memory.write((char) 0xC000, (byte) 0x01);
+        assertTrue(debugUntilStopped());
+    }
+
+    @Test
+    public void valueConditionalWatchpoint() throws Exception {
+        debugger.addWatchpoint((char) 0xFF80, true, true, (byte) 0x42);
+        memory.write((char) 0xFF80, (byte) 0x41);
+        assertFalse(debugUntilStopped());
+
+        memory.write((char) 0xFF80, (byte) 0x42);
+        assertTrue(debugUntilStopped());
+
+        //And reads of it
+        memory.read((char) 0xFF80);
+        assertTrue(debugUntilStopped());
+    }
+
+    @Test
+    public void privilegedReadsDoNotStop() throws Exception {
+        debugger.addWatchpoint((char) 0x8000, true, false, null);
+        debugger.addWatchpoint((char) 0xFE00, true, false, null);
+
+        //Tile and sprite fetches of the PPU
+        TileCache tileCache = new TileCache();
+        memory.addInterceptor(tileCache);
+        tileCache.getRowOffset(0, 0);
+        memory.read((char) 0xFE00, true);
+        assertFalse(debugUntilStopped());
+
+        memory.read((char) 0x8000);
+        assertTrue(debugUntilStopped());
+    }
+
+    @Test
+    public void removedWatchpointsDoNotStop() throws Exception {
+        debugger.addWatchpoint((char) 0xC000, true, true, null);
+        debugger.removeWatchpoint((char) 0xC000);
+        memory.write((char) 0xC000, (byte) 0x01);
+        assertFalse(debugUntilStopped());
+
+        //Bulk operations are possible again
+        assertTrue(memory.fill((char) 0xC000, 16, (byte) 0x00));
+    }
+
+    //Decodes the given bytes as the current instruction, at PC
+    private void setInstruction(int address, int... bytes) throws Exception {
+        for (int i = 0; i < bytes.length; i++) {
+            memory.write((char) (address + i), (byte) bytes[i]);
+        }
+        registers.setPC((char) address);
+        Instruction instruction = new Instruction((byte) 0);
+        DispatchTable.getInstance().decode(memory, (char) address, instruction);
+        executionInfo.setCurrentInstruction(instruction);
+    }
+
+    //Runs the per-instruction check, continuing if it stops. Returns whether it stopped.
+    private boolean debugUntilStopped() throws Exception {
+        controller.stopped = new CountDownLatch(1);
+        Thread thread = new Thread(() -> {
+            try {
+                debugger.debug();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        thread.start();
+        boolean stopped = controller.stopped.await(200, TimeUnit.MILLISECONDS);
+        while (thread.isAlive()) {
+            debugger.continueExecution();
+            thread.join(10);
+        }
+        return stopped;
+    }
+
+    private static class StopCounter implements DebuggerController {
+
+        private volatile CountDownLatch stopped;
+
+        @Override
+        public void init(Memory memory, Registers registers, Debugger debugger, ExecutionInfo info) {
+        }
+
+        @Override
+        public void onChange() {
+        }
+
+        @Override
+        public void onStop() {
+            stopped.countDown();
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.ismaelrh.gameboy.debug.trace;
+
+import com.ismaelrh.gameboy.cpu.Registers;
+import com.ismaelrh.gameboy.cpu.memory.Memory;
+import com.ismaelrh.gameboy.cpu.scheduler.Scheduler;
+import com.ismaelrh.gameboy.gpu.tiles.TileCache;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+
+import static com.ismaelrh.gameboy.TestUtils.assertEquals8;
+import static org.junit.Assert.*;
+
+public class MemoryTracerTest {
+
+    private Memory memory;
+    private Scheduler scheduler;
+    private Registers registers;
+    private MemoryTracer tracer;
+
+    @Before
+    public void setUp() {
+        memory = new Memory();
+        scheduler = new Scheduler();
+        registers = new Registers();
+        tracer = new MemoryTracer(scheduler, registers, 4);
+        memory.setAccessListener(tracer);
+    }
+
+    @Test
+    public void recordsAccesses() throws Exception {
+        registers.setPC((char) 0x0150);
+        scheduler.advance(12);
+        memory.write((char) 0xC000, (byte) 0x42);
+        memory.read((char) 0xC000);
+
+        assertEquals(2, tracer.size());
+        assertEquals(12, tracer.getCycle(0));
+        assertEquals(0x0150, tracer.getPC(0));
+        assertEquals(0xC000, tracer.getAddress(0));
+        assertEquals8(0x42, tracer.getValue(0));
+        assertTrue(tracer.isWrite(0));
+        assertFalse(tracer.isWrite(1));
+    }
+
+    @Test
+    public void keepsTheLastEntries() {
+        for (int i = 0; i < 6; i++) {
+            memory.write((char) (0xC000 + i), (byte) i);
+        }
+        assertEquals(4, tracer.size());
+        assertEquals(6, tracer.getRecorded());
+        assertEquals(0xC002, tracer.getAddress(0));
+        assertEquals(0xC005, tracer.getAddress(3));
+    }
+
+    @Test
+    public void filtersByRange() {
+        tracer.setFilter((char) 0xFF80, (char) 0xFFFE);
+        memory.write((char) 0xC000, (byte) 0x01);
+        memory.write((char) 0xFF80, (byte) 0x02);
+        assertEquals(1, tracer.size());
+        assertEquals(0xFF80, tracer.getAddress(0));
+    }
+
+    @Test
+    public void ignoresPpuFetches() {
+        TileCache tileCache = new TileCache();
+        memory.addInterceptor(tileCache);
+        tileCache.getRowOffset(0, 0);   //Decodes 0x8000-0x8001
+        assertEquals(1, tileCache.getDecodedRows());
+        memory.read((char) 0xFE00, true);
+        assertEquals(0, tracer.size());
+    }
+
+    @Test
+    public void bulkOperationsAreNotDoneWhileTracing() {
+        assertFalse(memory.fill((char) 0xC000, 16, (byte) 0x00));
+        memory.setAccessListener(null);
+        assertTrue(memory.fill((char) 0xC000, 16, (byte) 0x00));
+    }
+
+    @Test
+    public void dumpsFromTheOldest() {
+        memory.write((char) 0xC001, (byte) 0xAB);
+        memory.read((char) 0xC001);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        tracer.dump(new PrintStream(out));
+        String[] lines = out.toString().split("\\R");
+        assertEquals("0 0000 W C001=AB", lines[0]);
+        assertEquals("0 0000 R C001=AB", lines[1]);
+    }
+}
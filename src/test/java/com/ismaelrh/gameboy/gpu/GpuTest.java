@@ -0,0 +1,224 @@
+package com.ismaelrh.gameboy.gpu;
+
+import com.ismaelrh.gameboy.cpu.memory.Memory;
+import com.ismaelrh.gameboy.cpu.scheduler.Scheduler;
+import com.ismaelrh.gameboy.gpu.lcd.FrameHasher;
+import com.ismaelrh.gameboy.gpu.lcd.IndexedFrame;
+import com.ismaelrh.gameboy.gpu.lcd.Lcd;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class GpuTest {
+
+    private static final int FRAME_CYCLES = 70224;
+
+    private Memory memory;
+    private Scheduler scheduler;
+    private CountingLcd lcd;
+    private Gpu gpu;
+
+    @Before
+    public void setUp() {
+        memory = new Memory();
+        scheduler = new Scheduler();
+        lcd = new CountingLcd();
+        gpu = createGpu(memory, scheduler, lcd);
+    }
+
+    private static Gpu createGpu(Memory memory, Scheduler scheduler, Lcd lcd) {
+        Gpu gpu = new Gpu(memory, lcd, scheduler);
+        memory.addMMIODevice(gpu);
+
+        //Tiles with every color, and ten sprites on the same lines, some flipped and partially out of screen
+        for (int i = 0; i < 0x1000; i++) {
+            memory.write((char) (0x8000 + i), (byte) (i * 7));
+        }
+        for (int sprite = 0; sprite < 10; sprite++) {
+            char address = (char) (0xFE00 + sprite * 4);
+            memory.write(address, (byte) (16 + sprite * 4));
+            memory.write((char) (address + 1), (byte) (sprite * 17));
+            memory.write((char) (address + 2), (byte) sprite);
+            memory.write((char) (address + 3), (byte) (sprite << 4));
+        }
+        //Palettes with every color
+        memory.write((char) 0xFF47, (byte) 0xE4);
+        memory.write((char) 0xFF48, (byte) 0xE4);
+        memory.write((char) 0xFF49, (byte) 0x1B);
+        //Window at the middle of the screen, everything on with 8x16 sprites
+        memory.write((char) 0xFF4A, (byte) 72);
+        memory.write((char) 0xFF4B, (byte) 87);
+        memory.write((char) 0xFF40, (byte) 0xF7);
+        return gpu;
+    }
+
+    @Test
+    public void linesKeepTheirPalettes() throws Exception {
+        advanceFrames(1);
+        while ((memory.read((char) 0xFF44) & 0xFF) != 100) {
+            scheduler.advance(456);
+        }
+        memory.write((char) 0xFF47, (byte) 0x1B);
+        advanceFrames(1);
+
+        assertTrue(lcd.lines >= 2 * 144);
+        assertEquals((byte) 0xE4, lcd.lastFrame.getBgPalette(99));
+        assertEquals((byte) 0x1B, lcd.lastFrame.getBgPalette(101));
+        assertEquals((byte) 0xE4, lcd.lastFrame.getSpritePalette(101, 0));
+        assertEquals((byte) 0x1B, lcd.lastFrame.getSpritePalette(101, 1));
+    }
+
+    @Test
+    public void drawnFramesAreHashed() throws Exception {
+        FrameHasher hasher = new FrameHasher();
+        gpu.setFrameHasher(hasher);
+        gpu.setFrameSkip(2, 0);
+        advanceFrames(6);
+
+        //But the one already started when the hasher was set
+        assertTrue(lcd.frames >= 3);
+        assertEquals(lcd.frames - 1, hasher.getFrames());
+        assertEquals(FrameHasher.hash(lcd.lastFrame), hasher.getHash(hasher.getFrames() - 1));
+    }
+
+    @Test
+    public void hashingStartsOnTheNextFrame() throws Exception {
+        advanceFrames(1);
+        scheduler.advance(FRAME_CYCLES / 2);
+        FrameHasher hasher = new FrameHasher();
+        gpu.setFrameHasher(hasher);
+
+        //The one being drawn, then the next one
+        long frames = lcd.frames;
+        while (lcd.frames < frames + 2) {
+            scheduler.advance(456);
+        }
+        assertEquals(1, hasher.getFrames());
+        assertEquals(FrameHasher.hash(lcd.lastFrame), hasher.getHash(0));
+    }
+
+    @Test
+    public void drawingLinesDoesNotAllocate() throws Exception {
+        com.sun.management.ThreadMXBean threads = getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+
+        advanceFrames(10);  //Warm up
+
+        long before = threads.getThreadAllocatedBytes(threadId);
+        advanceFrames(10);
+        long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+
+        //Some bytes may come from the measure itself
+        assertEquals("Bytes allocated", 0, allocated, 1024);
+    }
+
+    @Test
+    public void skippedFramesKeepTiming() throws Exception {
+        Memory skippingMemory = new Memory();
+        Scheduler skippingScheduler = new Scheduler();
+        CountingLcd skippingLcd = new CountingLcd();
+        createGpu(skippingMemory, skippingScheduler, skippingLcd).setFrameSkip(2, 0);
+
+        //Line by line, until the skipping one draws its third frame
+        while (skippingLcd.frames < 3) {
+            scheduler.advance(456);
+            skippingScheduler.advance(456);
+            for (char register : new char[]{0xFF0F, 0xFF41, 0xFF44}) {
+                assertEquals(memory.read(register), skippingMemory.read(register));
+            }
+        }
+        assertEquals(5, lcd.frames);
+        assertEquals(2 * 144, lcd.lines - skippingLcd.lines);
+        assertArrayEquals(lcd.lastFrame.getPixels(), skippingLcd.lastFrame.getPixels());
+    }
+
+    @Test
+    public void skippedLinesCountForTheWindow() throws Exception {
+        Memory skippingMemory = new Memory();
+        Scheduler skippingScheduler = new Scheduler();
+        CountingLcd skippingLcd = new CountingLcd();
+        Gpu skippingGpu = createGpu(skippingMemory, skippingScheduler, skippingLcd);
+        skippingGpu.setFrameSkip(1, Long.MAX_VALUE);
+        advanceFrames(1);
+        skippingScheduler.advance(FRAME_CYCLES);
+
+        //Drawing starts in the middle of the window
+        while ((memory.read((char) 0xFF44) & 0xFF) != 100) {
+            scheduler.advance(456);
+            skippingScheduler.advance(456);
+        }
+        skippingGpu.setFrameSkip(1, 0);
+        while (skippingLcd.frames == 0) {
+            scheduler.advance(456);
+            skippingScheduler.advance(456);
+        }
+        int from = 101 * IndexedFrame.LINE_BYTES;
+        assertArrayEquals(Arrays.copyOfRange(lcd.lastFrame.getPixels(), from, IndexedFrame.SIZE),
+                Arrays.copyOfRange(skippingLcd.lastFrame.getPixels(), from, IndexedFrame.SIZE));
+    }
+
+    @Test
+    public void framesBeforeTheGivenClockAreSkipped() throws Exception {
+        gpu.setFrameSkip(1, 3 * FRAME_CYCLES);
+        advanceFrames(3);
+        assertEquals(0, lcd.lines);
+        assertEquals(0, lcd.frames);
+
+        advanceFrames(2);
+        assertTrue(lcd.lines >= 144);
+    }
+
+    private void advanceFrames(int frames) throws Exception {
+        for (int i = 0; i < frames; i++) {
+            scheduler.advance(FRAME_CYCLES);
+        }
+    }
+
+    private static com.sun.management.ThreadMXBean getThreadMXBean() {
+        Object threads = ManagementFactory.getThreadMXBean();
+        Assume.assumeTrue(threads instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean result = (com.sun.management.ThreadMXBean) threads;
+        Assume.assumeTrue(result.isThreadAllocatedMemorySupported() && result.isThreadAllocatedMemoryEnabled());
+        return result;
+    }
+
+    private static class CountingLcd extends Lcd {
+
+        private long lines;
+        private long frames;
+        private final IndexedFrame frame = new IndexedFrame();
+        private final IndexedFrame lastFrame = new IndexedFrame();
+
+        @Override
+        public void pushLine(int y, IndexedFrame gpuFrame) {
+            lines++;
+            gpuFrame.copyLine(y, frame);
+        }
+
+        @Override
+        public void frameFinished() {
+            frames++;
+            frame.copyTo(lastFrame);
+        }
+
+        @Override
+        public void disableLcd() {
+        }
+
+        @Override
+        public void enableLcd() {
+        }
+
+        @Override
+        public String getHash() {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.ismaelrh.gameboy.gpu.lcd;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class FrameHasherTest {
+
+    private final FrameHasher hasher = new FrameHasher();
+    private final IndexedFrame frame = new IndexedFrame();
+    private final int[] shades = new int[Lcd.WIDTH];
+
+    @Test
+    public void linesHashTheSameAsTheWholeFrame() {
+        shades[7] = 3;
+        frame.setLine(100, shades, (byte) 0, (byte) 0, (byte) 0);
+
+        assertEquals(FrameHasher.hash(frame), drawFrame());
+        assertEquals(FrameHasher.hash(frame), drawFrame());
+    }
+
+    @Test
+    public void everyPixelCounts() {
+        long empty = FrameHasher.hash(frame);
+        for (int y : new int[]{0, 71, 143}) {
+            for (int x : new int[]{0, 1, 80, 159}) {
+                IndexedFrame changed = new IndexedFrame();
+                int[] line = new int[Lcd.WIDTH];
+                line[x] = 1;
+                changed.setLine(y, line, (byte) 0, (byte) 0, (byte) 0);
+                assertNotEquals("Pixel " + x + "," + y, empty, FrameHasher.hash(changed));
+            }
+        }
+    }
+
+    @Test
+    public void unfinishedFramesAreDropped() {
+        hasher.startFrame();
+        hasher.hashLine(0, frame);
+        hasher.hashLine(1, frame);
+
+        assertEquals(FrameHasher.hash(frame), drawFrame());
+        assertEquals(1, hasher.getFrames());
+    }
+
+    @Test
+    public void framesNotStartedAreIgnored() {
+        hasher.hashLine(143, frame);
+        hasher.frameFinished();
+        assertEquals(0, hasher.getFrames());
+
+        assertEquals(FrameHasher.hash(frame), drawFrame());
+        assertEquals(1, hasher.getFrames());
+    }
+
+    @Test
+    public void hashesAreStreamed() {
+        List<Long> heard = new ArrayList<>();
+        hasher.setListener((frameNumber, hash) -> {
+            assertEquals(heard.size(), frameNumber);
+            heard.add(hash);
+        });
+        for (int i = 0; i < 100; i++) {
+            shades[0] = i % 4;
+            frame.setLine(0, shades, (byte) 0, (byte) 0, (byte) 0);
+            drawFrame();
+        }
+
+        long[] hashes = hasher.getHashes();
+        assertEquals(100, hashes.length);
+        assertEquals(100, heard.size());
+        for (int i = 0; i < hashes.length; i++) {
+            assertEquals(heard.get(i).longValue(), hashes[i]);
+            assertEquals(hashes[i], hasher.getHash(i));
+            assertEquals(hashes[i % 4], hashes[i]);
+        }
+        assertNotEquals(hashes[0], hashes[1]);
+
+        hasher.clear();
+        assertEquals(0, hasher.getHashes().length);
+    }
+
+    private long drawFrame() {
+        hasher.startFrame();
+        for (int y = 0; y < Lcd.HEIGHT; y++) {
+            hasher.hashLine(y, frame);
+        }
+        hasher.frameFinished();
+        return hasher.getHash(hasher.getFrames() - 1);
+    }
+}
@@ -0,0 +1,59 @@
+package com.ismaelrh.gameboy.gpu.lcd;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class IndexedFrameTest {
+
+    private final IndexedFrame frame = new IndexedFrame();
+
+    @Test
+    public void shadesArePackedFourPerByte() {
+        assertEquals(5760, IndexedFrame.SIZE);
+
+        frame.setLine(143, shades(), (byte) 0xE4, (byte) 0xD2, (byte) 0x1B);
+        for (int x = 0; x < Lcd.WIDTH; x++) {
+            assertEquals(x % 3, frame.getShade(x, 143));
+            assertEquals(0, frame.getShade(x, 142));
+        }
+        //0 1 2 0
+        assertEquals((byte) 0x18, frame.getPixels()[143 * IndexedFrame.LINE_BYTES]);
+        assertEquals((byte) 0xE4, frame.getBgPalette(143));
+        assertEquals((byte) 0xD2, frame.getSpritePalette(143, 0));
+        assertEquals((byte) 0x1B, frame.getSpritePalette(143, 1));
+    }
+
+    @Test
+    public void colorsAreAppliedToShades() {
+        frame.setLine(1, shades(), (byte) 0, (byte) 0, (byte) 0);
+
+        int[] colors = new int[Lcd.WIDTH + 1];
+        frame.getLineColors(1, Lcd.BG_COLORS, colors, 1);
+        for (int x = 0; x < Lcd.WIDTH; x++) {
+            assertEquals(Lcd.BG_COLORS[x % 3], colors[x + 1]);
+        }
+    }
+
+    @Test
+    public void linesAreCopiedWithTheirPalettes() {
+        frame.setLine(5, shades(), (byte) 1, (byte) 2, (byte) 3);
+        frame.setLine(6, shades(), (byte) 4, (byte) 5, (byte) 6);
+        IndexedFrame copy = new IndexedFrame();
+
+        frame.copyLine(5, copy);
+        assertEquals(2, copy.getShade(2, 5));
+        assertEquals(0, copy.getShade(2, 6));
+        assertEquals(1, copy.getBgPalette(5));
+        assertEquals(3, copy.getSpritePalette(5, 1));
+        assertEquals(0, copy.getBgPalette(6));
+    }
+
+    private static int[] shades() {
+        int[] shades = new int[Lcd.WIDTH];
+        for (int x = 0; x < shades.length; x++) {
+            shades[x] = x % 3;
+        }
+        return shades;
+    }
+}
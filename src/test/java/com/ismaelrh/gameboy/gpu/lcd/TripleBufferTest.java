@@ -0,0 +1,46 @@
+package com.ismaelrh.gameboy.gpu.lcd;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class TripleBufferTest {
+
+    private final TripleBuffer buffers = new TripleBuffer(1);
+
+    @Test
+    public void nothingIsAcquiredUntilPublished() {
+        assertFalse(buffers.acquire());
+
+        buffers.getBackBuffer()[0] = 1;
+        buffers.publish();
+        assertTrue(buffers.acquire());
+        assertEquals(1, buffers.getFrontBuffer()[0]);
+        assertFalse(buffers.acquire());
+    }
+
+    @Test
+    public void lastPublishedIsAcquired() {
+        for (int frame = 1; frame <= 5; frame++) {
+            buffers.getBackBuffer()[0] = frame;
+            buffers.publish();
+        }
+        assertTrue(buffers.acquire());
+        assertEquals(5, buffers.getFrontBuffer()[0]);
+    }
+
+    @Test
+    public void drawingNeverTouchesTheFrontBuffer() {
+        buffers.getBackBuffer()[0] = 1;
+        buffers.publish();
+        buffers.acquire();
+        int[] front = buffers.getFrontBuffer();
+
+        for (int frame = 2; frame <= 5; frame++) {
+            assertNotSame(front, buffers.getBackBuffer());
+            buffers.getBackBuffer()[0] = frame;
+            buffers.publish();
+        }
+        assertEquals(1, front[0]);
+    }
+}
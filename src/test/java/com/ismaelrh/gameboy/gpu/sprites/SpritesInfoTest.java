@@ -0,0 +1,123 @@
+package com.ismaelrh.gameboy.gpu.sprites;
+
+import com.ismaelrh.gameboy.cpu.memory.Memory;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class SpritesInfoTest {
+
+    private Memory memory;
+    private SpritesInfo spritesInfo;
+
+    @Before
+    public void setUp() {
+        memory = new Memory();
+        spritesInfo = new SpritesInfo();
+        memory.addInterceptor(spritesInfo);
+    }
+
+    @Test
+    public void firstTenSpritesInOamAreSortedByX() {
+        //12 sprites on line 0, X decreasing, then two more with the X of sprite 5
+        for (int sprite = 0; sprite < 12; sprite++) {
+            setSprite(sprite, 16, 100 - sprite);
+        }
+        setSprite(1, 16, 95);
+        setSprite(3, 16, 95);
+
+        assertEquals(10, spritesInfo.getSpritesToDrawOnLine(0, 0));
+        int[] expected = {9, 8, 7, 6, 1, 3, 5, 4, 2, 0};
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals("Position " + i, expected[i], spritesInfo.getSpriteToDraw(0, i).getSpriteNumber());
+        }
+        assertEquals(0, spritesInfo.getSpritesToDrawOnLine(8, 0));
+    }
+
+    @Test
+    public void spritesPartiallyOutOfScreenAreOnTheirVisibleLines() {
+        setSprite(0, 10, 8);
+        setSprite(1, 155, 8);
+
+        assertEquals(1, spritesInfo.getSpritesToDrawOnLine(0, 0));
+        assertEquals(1, spritesInfo.getSpritesToDrawOnLine(1, 0));
+        assertEquals(0, spritesInfo.getSpritesToDrawOnLine(2, 0));
+        assertEquals(1, spritesInfo.getSpritesToDrawOnLine(143, 0));
+    }
+
+    @Test
+    public void indexIsOnlyRebuiltOnChanges() {
+        setSprite(0, 16, 8);
+        assertEquals(1, spritesInfo.getSpritesToDrawOnLine(0, 0));
+        assertEquals(0, spritesInfo.getSpritesToDrawOnLine(8, 0));
+        long builds = spritesInfo.getIndexBuilds();
+
+        //Same OAM and size
+        spritesInfo.getSpritesToDrawOnLine(1, 0);
+        assertEquals(builds, spritesInfo.getIndexBuilds());
+
+        //8x16
+        assertEquals(1, spritesInfo.getSpritesToDrawOnLine(8, 1));
+        assertEquals(builds + 1, spritesInfo.getIndexBuilds());
+
+        //OAM DMA
+        memory.write((char) 0xC000, (byte) 0x00);
+        memory.write((char) 0xFF46, (byte) 0xC0);
+        assertEquals(0, spritesInfo.getSpritesToDrawOnLine(0, 1));
+        assertEquals(builds + 2, spritesInfo.getIndexBuilds());
+    }
+
+    @Test
+    public void writesToLockedOamAreIgnored() {
+        setSprite(0, 16, 8);
+        assertEquals(1, spritesInfo.getSpritesToDrawOnLine(0, 0));
+
+        //LCD on, mode 2: OAM cannot be written
+        memory.write((char) 0xFF41, (byte) 0x02);
+        memory.write((char) 0xFF40, (byte) 0x80);
+        memory.write((char) 0xFE00, (byte) 100);
+        memory.write((char) 0xFE01, (byte) 50);
+
+        //Unlocked again, another byte of the same sprite is written
+        memory.write((char) 0xFF41, (byte) 0x00);
+        memory.write((char) 0xFE02, (byte) 0x01);
+        assertEquals(1, spritesInfo.getSpritesToDrawOnLine(0, 0));
+        assertEquals(0, spritesInfo.getSpritesToDrawOnLine(84, 0));
+        assertEquals(0, spritesInfo.getSpriteToDraw(0, 0).getPosX());
+    }
+
+    @Test
+    public void unalignedBulkWritesReadPartlyWrittenSpritesFromOam() {
+        setSprite(0, 16, 8);
+        setSprite(1, 16, 20);
+        setSprite(2, 16, 30);
+        assertEquals(3, spritesInfo.getSpritesToDrawOnLine(0, 0));
+
+        //X of sprite 0 to Y of sprite 2
+        assertTrue(memory.fill((char) 0xFE01, 8, (byte) 60));
+        assertSpritesAfterFill();
+
+        //Told again with only the bytes written
+        byte[] written = new byte[8];
+        Arrays.fill(written, (byte) 60);
+        spritesInfo.onBulkWrite((char) 0xFE01, written, 0, written.length);
+        assertSpritesAfterFill();
+    }
+
+    private void assertSpritesAfterFill() {
+        assertEquals(1, spritesInfo.getSpritesToDrawOnLine(0, 0));
+        assertEquals(52, spritesInfo.getSpriteToDraw(0, 0).getPosX());
+        assertEquals(2, spritesInfo.getSpritesToDrawOnLine(44, 0));
+        assertEquals(2, spritesInfo.getSpriteToDraw(44, 0).getSpriteNumber());
+        assertEquals(52, spritesInfo.getSpriteToDraw(44, 1).getPosX());
+    }
+
+    private void setSprite(int sprite, int y, int x) {
+        memory.write((char) (0xFE00 + sprite * 4), (byte) y);
+        memory.write((char) (0xFE00 + sprite * 4 + 1), (byte) x);
+    }
+}
@@ -0,0 +1,77 @@
+package com.ismaelrh.gameboy.gpu.tiles;
+
+import com.ismaelrh.gameboy.cpu.memory.Memory;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class TileCacheTest {
+
+    private Memory memory;
+    private TileCache tileCache;
+
+    @Before
+    public void setUp() {
+        memory = new Memory();
+        tileCache = new TileCache();
+        memory.addInterceptor(tileCache);
+    }
+
+    @Test
+    public void rowsAreDecodedAndFlipped() {
+        //Row 1 of tile 2: low 0b11000001, high 0b10000011 -> 3 1 0 0 0 0 2 3
+        memory.write((char) 0x8022, (byte) 0xC1);
+        memory.write((char) 0x8023, (byte) 0x83);
+
+        assertRow(tileCache.getPixels(false), tileCache.getRowOffset(2, 1), 3, 1, 0, 0, 0, 0, 2, 3);
+        assertRow(tileCache.getPixels(true), tileCache.getRowOffset(2, 1), 3, 2, 0, 0, 0, 0, 1, 3);
+    }
+
+    @Test
+    public void onlyTouchedRowsAreDecodedAgain() {
+        for (int tile = 0; tile < TileCache.TILES; tile++) {
+            for (int row = 0; row < 8; row++) {
+                tileCache.getRowOffset(tile, row);
+            }
+        }
+        long decoded = tileCache.getDecodedRows();
+
+        memory.write((char) 0x97FF, (byte) 0xFF);
+        tileCache.getRowOffset(383, 7);
+        tileCache.getRowOffset(383, 6);
+        assertEquals(decoded + 1, tileCache.getDecodedRows());
+        assertRow(tileCache.getPixels(false), tileCache.getRowOffset(383, 7), 2, 2, 2, 2, 2, 2, 2, 2);
+    }
+
+    @Test
+    public void bulkWritesAreSeen() {
+        tileCache.getRowOffset(0, 0);
+        tileCache.getRowOffset(1, 0);
+
+        assertEquals(true, memory.fill((char) 0x8000, 0x20, (byte) 0xFF));
+        assertRow(tileCache.getPixels(false), tileCache.getRowOffset(0, 0), 3, 3, 3, 3, 3, 3, 3, 3);
+        assertRow(tileCache.getPixels(false), tileCache.getRowOffset(1, 0), 3, 3, 3, 3, 3, 3, 3, 3);
+
+        memory.clear();
+        assertRow(tileCache.getPixels(false), tileCache.getRowOffset(0, 0), 0, 0, 0, 0, 0, 0, 0, 0);
+    }
+
+    @Test
+    public void writesLostOnLockedVideoRAMAreNotCached() {
+        memory.write((char) 0x8000, (byte) 0x80);
+        tileCache.getRowOffset(0, 0);
+
+        //LCD on, mode 3
+        memory.write((char) 0xFF40, (byte) 0x80);
+        memory.write((char) 0xFF41, (byte) 0x03);
+        memory.write((char) 0x8000, (byte) 0xFF);
+        assertRow(tileCache.getPixels(false), tileCache.getRowOffset(0, 0), 1, 0, 0, 0, 0, 0, 0, 0);
+    }
+
+    private void assertRow(byte[] pixels, int offset, int... expected) {
+        for (int i = 0; i < 8; i++) {
+            assertEquals("Pixel " + i, expected[i], pixels[offset + i]);
+        }
+    }
+}
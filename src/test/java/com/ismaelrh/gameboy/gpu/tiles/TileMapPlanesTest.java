@@ -0,0 +1,92 @@
+package com.ismaelrh.gameboy.gpu.tiles;
+
+import com.ismaelrh.gameboy.cpu.memory.Memory;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class TileMapPlanesTest {
+
+    private Memory memory;
+    private TileMapPlanes planes;
+
+    @Before
+    public void setUp() {
+        memory = new Memory();
+        TileCache tileCache = new TileCache();
+        planes = new TileMapPlanes(tileCache);
+        memory.addInterceptor(tileCache);
+        memory.addInterceptor(planes);
+
+        //Every row of tile 1 is 1 1 1 1 1 1 1 1, of tile 2 is 2 2 2 2 2 2 2 2
+        for (int row = 0; row < 8; row++) {
+            memory.write((char) (0x8010 + row * 2), (byte) 0xFF);
+            memory.write((char) (0x8021 + row * 2), (byte) 0xFF);
+        }
+    }
+
+    @Test
+    public void onlyTheCellsOfTheRequestedPartAreBuilt() {
+        //From x = 252 to 264, wrapping: cells 31, 0 and 1 of the row
+        planes.getPlane(0, 1, 9, 252, 13);
+        assertEquals(3, planes.getBuiltCells());
+
+        planes.getPlane(0, 1, 15, 250, 10);
+        assertEquals(3, planes.getBuiltCells());
+
+        //Other map
+        planes.getPlane(1, 1, 15, 250, 10);
+        assertEquals(5, planes.getBuiltCells());
+    }
+
+    @Test
+    public void tileMapWritesRebuildTheirCell() {
+        memory.write((char) 0x9C21, (byte) 1);
+        byte[] plane = planes.getPlane(1, 1, 8, 0, 160);
+        assertEquals(1, plane[8 * 256 + 8]);
+        assertEquals(0, plane[8 * 256 + 16]);
+        long built = planes.getBuiltCells();
+
+        //Same value in the other map does nothing here
+        memory.write((char) 0x9822, (byte) 2);
+        planes.getPlane(1, 1, 8, 0, 160);
+        assertEquals(built, planes.getBuiltCells());
+
+        memory.write((char) 0x9C22, (byte) 2);
+        plane = planes.getPlane(1, 1, 15, 0, 160);
+        assertEquals(built + 1, planes.getBuiltCells());
+        assertEquals(2, plane[15 * 256 + 23]);
+    }
+
+    @Test
+    public void tileDataWritesRebuildTheCellsUsingTheTile() {
+        memory.write((char) 0x9800, (byte) 1);
+        memory.write((char) 0x9801, (byte) 2);
+        planes.getPlane(0, 1, 0, 0, 256);
+        long built = planes.getBuiltCells();
+
+        //Second pixel of the first row of tile 1 becomes 3
+        memory.write((char) 0x8011, (byte) 0x40);
+        byte[] plane = planes.getPlane(0, 1, 0, 0, 256);
+        assertEquals(built + 1, planes.getBuiltCells());
+        assertEquals(1, plane[0]);
+        assertEquals(3, plane[1]);
+        assertEquals(2, plane[8]);
+    }
+
+    @Test
+    public void changingTheAddressingModeRebuildsEverything() {
+        memory.write((char) 0x9800, (byte) 1);
+        assertEquals(1, planes.getPlane(0, 1, 0, 0, 8)[0]);
+
+        //Signed mode: tile 1 is at 0x9010, with its first row all 3
+        memory.write((char) 0x9010, (byte) 0xFF);
+        memory.write((char) 0x9011, (byte) 0xFF);
+        assertEquals(3, planes.getPlane(0, 0, 0, 0, 8)[0]);
+        assertEquals(2, planes.getBuiltCells());
+
+        assertEquals(1, planes.getPlane(0, 1, 0, 0, 8)[0]);
+        assertEquals(3, planes.getBuiltCells());
+    }
+}
@@ -0,0 +1,63 @@
+package com.ismaelrh.gameboy.integration;
+
+import com.ismaelrh.gameboy.ExecutionMode;
+import com.ismaelrh.gameboy.GameBoy;
+import com.ismaelrh.gameboy.debug.trace.MemoryTracer;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+
+import static com.ismaelrh.gameboy.ExecutionMode.BLOCK_CACHE;
+import static com.ismaelrh.gameboy.ExecutionMode.INTERPRETER;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Same ROMs and hashes as when interpreting, executed with cached basic blocks.
+ */
+public class BlockCacheTests extends IntegrationTest {
+
+    @Test
+    public void doInstrTiming() throws Exception {
+        checkLcdHash("gb-test-roms/instr_timing.gb", 5_000_000, "PIgWdLeQFJcH2mnHuOHaaQ==", BLOCK_CACHE);
+    }
+
+    @Test
+    public void doDmgAcid2() throws Exception {
+        checkLcdHash("acid/dmg-acid2.gb", 1_000_000, "ZpbGoU5sCHw8glIx9aDhGA==", BLOCK_CACHE);
+    }
+
+    @Test
+    public void doTim00() throws Exception {
+        checkLcdHash("mooneye/acceptance/timer/tim00.gb", 10_000_000, "igHALfPAMYIkBXMbgZ3f1Q==", BLOCK_CACHE);
+    }
+
+    @Test
+    public void doMbc1Multicart() throws Exception {
+        checkLcdHash("mooneye/emulator-only/mbc1/multicart_rom_8Mb.gb", 20_000_000, "P0EF23MszeO3vwUIaaXjpg==", BLOCK_CACHE);
+    }
+
+    @Test
+    public void doMbc1Rom1Mb() throws Exception {
+        checkLcdHash("mooneye/emulator-only/mbc1/rom_1Mb.gb", 20_000_000, "P0EF23MszeO3vwUIaaXjpg==", BLOCK_CACHE);
+    }
+
+    @Test
+    public void memoryTraceIsTheSame() throws Exception {
+        String interpreted = traceRom("gb-test-roms/instr_timing.gb", INTERPRETER);
+        assertEquals(interpreted, traceRom("gb-test-roms/instr_timing.gb", BLOCK_CACHE));
+    }
+
+    //Every access of the first cycles
+    private String traceRom(String romPath, ExecutionMode mode) throws Exception {
+        GameBoy gameBoy = loadRom(romPath);
+        MemoryTracer tracer = gameBoy.startMemoryTrace(1 << 20);
+        runRom(gameBoy, 1_000_000, mode, false);
+        assertTrue(tracer.getRecorded() < 1 << 20);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        tracer.dump(new PrintStream(out));
+        return out.toString();
+    }
+
+}
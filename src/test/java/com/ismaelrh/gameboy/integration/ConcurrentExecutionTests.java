@@ -0,0 +1,46 @@
+package com.ismaelrh.gameboy.integration;
+
+import com.ismaelrh.gameboy.GameBoy;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Several GameBoy instances running at the same time in the same JVM must not interfere with each other.
+ */
+public class ConcurrentExecutionTests extends IntegrationTest {
+
+    private static final int INSTANCES = 8;
+
+    private static final String[][] ROMS = {
+            {"acid/dmg-acid2.gb", "1000000", "ZpbGoU5sCHw8glIx9aDhGA=="},
+            {"gb-test-roms/instr_timing.gb", "5000000", "PIgWdLeQFJcH2mnHuOHaaQ=="},
+            {"mooneye/acceptance/timer/tim01.gb", "10000000", "ZOnSCd1uHRoxaYs0b0K4Jw=="},
+            {"mooneye/emulator-only/mbc1/rom_1Mb.gb", "20000000", "P0EF23MszeO3vwUIaaXjpg=="}
+    };
+
+    @Test
+    public void runInstancesConcurrently() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(INSTANCES);
+        try {
+            List<Future<GameBoy>> results = new ArrayList<>();
+            for (int i = 0; i < INSTANCES; i++) {
+                String[] rom = ROMS[i % ROMS.length];
+                results.add(executor.submit(() -> executeRom(rom[0], Long.parseLong(rom[1]))));
+            }
+            for (int i = 0; i < INSTANCES; i++) {
+                String[] rom = ROMS[i % ROMS.length];
+                assertEquals("Instance " + i + " running " + rom[0], rom[2], results.get(i).get().getLcd().getHash());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+}
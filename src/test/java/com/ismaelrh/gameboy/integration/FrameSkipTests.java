@@ -0,0 +1,32 @@
+package com.ismaelrh.gameboy.integration;
+
+import org.junit.Test;
+
+import static com.ismaelrh.gameboy.ExecutionMode.INTERPRETER;
+
+/**
+ * Same ROMs and hashes as when every frame is drawn, only drawing the last ones.
+ */
+public class FrameSkipTests extends IntegrationTest {
+
+    @Test
+    public void doInstrTiming() throws Exception {
+        checkLcdHash("gb-test-roms/instr_timing.gb", 5_000_000, "PIgWdLeQFJcH2mnHuOHaaQ==", INTERPRETER, true);
+    }
+
+    @Test
+    public void doDmgAcid2() throws Exception {
+        checkLcdHash("acid/dmg-acid2.gb", 1_000_000, "ZpbGoU5sCHw8glIx9aDhGA==", INTERPRETER, true);
+    }
+
+    @Test
+    public void doTim00() throws Exception {
+        checkLcdHash("mooneye/acceptance/timer/tim00.gb", 10_000_000, "igHALfPAMYIkBXMbgZ3f1Q==", INTERPRETER, true);
+    }
+
+    @Test
+    public void doMbc1Multicart() throws Exception {
+        checkLcdHash("mooneye/emulator-only/mbc1/multicart_rom_8Mb.gb", 20_000_000, "P0EF23MszeO3vwUIaaXjpg==", INTERPRETER, true);
+    }
+
+}
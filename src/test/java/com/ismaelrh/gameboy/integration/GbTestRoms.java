@@ -1,5 +1,6 @@
 package com.ismaelrh.gameboy.integration;
 
+import com.ismaelrh.gameboy.ExecutionMode;
 import org.junit.Test;
 
 public class GbTestRoms extends IntegrationTest{
@@ -9,6 +10,11 @@ public class GbTestRoms extends IntegrationTest{
         checkLcdHash("gb-test-roms/cpu_instrs.gb",250_000_000,"WHWjaqV8znTxoTmzwvwYww==");
     }
 
+    @Test
+    public void doCpuInstrsWithBlockCache() throws Exception {
+        checkLcdHash("gb-test-roms/cpu_instrs.gb",250_000_000,"WHWjaqV8znTxoTmzwvwYww==", ExecutionMode.BLOCK_CACHE);
+    }
+
     @Test
     public void doInstrTiming() throws Exception {
         checkLcdHash("gb-test-roms/instr_timing.gb",5_000_000,"PIgWdLeQFJcH2mnHuOHaaQ==");
@@ -0,0 +1,40 @@
+package com.ismaelrh.gameboy.integration;
+
+import com.ismaelrh.gameboy.GameBoy;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Same results as the other tests, while reporting how many cycles were spent in skipped idle loops per ROM.
+ */
+public class IdleLoopTests extends IntegrationTest {
+
+    private static final Logger log = LogManager.getLogger(IdleLoopTests.class);
+
+    @Test
+    public void instrTiming() throws Exception {
+        check("gb-test-roms/instr_timing.gb", 5_000_000, "PIgWdLeQFJcH2mnHuOHaaQ==");
+    }
+
+    @Test
+    public void tim00() throws Exception {
+        check("mooneye/acceptance/timer/tim00.gb", 10_000_000, "igHALfPAMYIkBXMbgZ3f1Q==");
+    }
+
+    @Test
+    public void mbc1Rom1Mb() throws Exception {
+        check("mooneye/emulator-only/mbc1/rom_1Mb.gb", 10_000_000, "P0EF23MszeO3vwUIaaXjpg==");
+    }
+
+    private void check(String romPath, long cycles, String expectedHash) throws Exception {
+        GameBoy gameBoy = executeRom(romPath, cycles);
+        long skipped = gameBoy.getControlUnit().getIdleLoopDetector().getSkippedCycles();
+        log.info(romPath + ": " + skipped + " of " + gameBoy.getTotalCycles() + " cycles skipped in idle loops");
+        assertEquals(expectedHash, gameBoy.getLcd().getHash());
+        assertTrue(skipped > 0);
+    }
+}
@@ -1,5 +1,6 @@
 package com.ismaelrh.gameboy.integration;
 
+import com.ismaelrh.gameboy.ExecutionMode;
 import com.ismaelrh.gameboy.GameBoy;
 import com.ismaelrh.gameboy.GameBoyOptions;
 import com.ismaelrh.gameboy.TestLcd;
@@ -11,14 +12,42 @@ import static org.junit.Assert.assertEquals;
 public class IntegrationTest {
 
     protected GameBoy executeRom(String romPath, long cycles) throws Exception {
+        return executeRom(romPath, cycles, ExecutionMode.INTERPRETER);
+    }
+
+    protected GameBoy executeRom(String romPath, long cycles, ExecutionMode mode) throws Exception {
+        return executeRom(romPath, cycles, mode, false);
+    }
+
+    protected GameBoy executeRom(String romPath, long cycles, ExecutionMode mode, boolean renderLastFrameOnly) throws Exception {
+        GameBoy gameBoy = loadRom(romPath);
+        runRom(gameBoy, cycles, mode, renderLastFrameOnly);
+        return gameBoy;
+    }
+
+    protected GameBoy loadRom(String romPath) throws Exception {
         GameBoy gameBoy = new GameBoy(new TestLcd());
         gameBoy.loadCartridge(new File("src/test/resources", romPath).getAbsolutePath());
-        gameBoy.run(new GameBoyOptions(cycles,-1));
         return gameBoy;
     }
 
+    protected void runRom(GameBoy gameBoy, long cycles, ExecutionMode mode, boolean renderLastFrameOnly) throws Exception {
+        GameBoyOptions options = new GameBoyOptions(cycles,-1);
+        options.setExecutionMode(mode);
+        options.setRenderLastFrameOnly(renderLastFrameOnly);
+        gameBoy.run(options);
+    }
+
     protected void checkLcdHash(String romPath, long cycles, String expectedHash) throws Exception{
-        GameBoy result = executeRom(romPath,cycles);
+        checkLcdHash(romPath, cycles, expectedHash, ExecutionMode.INTERPRETER);
+    }
+
+    protected void checkLcdHash(String romPath, long cycles, String expectedHash, ExecutionMode mode) throws Exception{
+        checkLcdHash(romPath, cycles, expectedHash, mode, false);
+    }
+
+    protected void checkLcdHash(String romPath, long cycles, String expectedHash, ExecutionMode mode, boolean renderLastFrameOnly) throws Exception{
+        GameBoy result = executeRom(romPath,cycles,mode,renderLastFrameOnly);
         assertEquals(expectedHash,result.getLcd().getHash());
     }
 }